@@ -13,6 +13,7 @@
 #include "pcsx2/Patch.h"
 #include "PerformanceMetrics.h"
 #include "GameList.h"
+#include "CDVD/IsoFileFormats.h"
 #include "GS/GSPerfMon.h"
 #include "GSDumpReplayer.h"
 #include "ImGui/ImGuiManager.h"
@@ -475,6 +476,12 @@ Java_kr_co_iefriends_pcsx2_NativeApp_getFPS(JNIEnv *env, jclass clazz) {
     return (jfloat)PerformanceMetrics::GetFPS();
 }
 
+extern "C"
+JNIEXPORT jfloat JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_getSpeed(JNIEnv *env, jclass clazz) {
+    return (jfloat)PerformanceMetrics::GetSpeed();
+}
+
 extern "C"
 JNIEXPORT jstring JNICALL
 Java_kr_co_iefriends_pcsx2_NativeApp_getPauseGameTitle(JNIEnv *env, jclass clazz) {
@@ -836,19 +843,9 @@ Java_kr_co_iefriends_pcsx2_NativeApp_setNativeLibraryDir(JNIEnv *env, jclass cla
     }
 }
 
-extern "C"
-JNIEXPORT void JNICALL
-Java_kr_co_iefriends_pcsx2_NativeApp_setSetting(JNIEnv* env, jclass, jstring j_section, jstring j_key, jstring j_type, jstring j_value)
+static void SetSettingValue(INISettingsInterface& si, const std::string& section, const std::string& key,
+                            const std::string& type, const std::string& value)
 {
-    const std::string section = GetJavaString(env, j_section);
-    const std::string key = GetJavaString(env, j_key);
-    const std::string type = GetJavaString(env, j_type);
-    const std::string value = GetJavaString(env, j_value);
-
-    if (!s_settings_interface)
-        return; 
-    INISettingsInterface& si = *s_settings_interface;
-
     if (type == "bool")
     {
         const bool b = (value == "1" || value == "true" || value == "TRUE" || value == "True");
@@ -874,67 +871,153 @@ Java_kr_co_iefriends_pcsx2_NativeApp_setSetting(JNIEnv* env, jclass, jstring j_s
     {
         si.SetStringValue(section.c_str(), key.c_str(), value.c_str());
     }
-
-    // Apply live where it makes sense
-    VMManager::ApplySettings();
-    if (MTGS::IsOpen()) {
-        MTGS::ApplySettings();
-    }
-    si.Save();
 }
 
-extern "C"
-JNIEXPORT jstring JNICALL
-Java_kr_co_iefriends_pcsx2_NativeApp_getSetting(JNIEnv* env, jclass, jstring j_section, jstring j_key, jstring j_type)
+static std::string GetSettingValue(const std::string& section, const std::string& key, const std::string& type)
 {
-    const std::string section = GetJavaString(env, j_section);
-    const std::string key = GetJavaString(env, j_key);
-    const std::string type = GetJavaString(env, j_type);
-
     if (type == "bool")
     {
         bool v = false;
         if (s_settings_interface)
             s_settings_interface->GetBoolValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(v ? "true" : "false");
+        return v ? "true" : "false";
     }
     else if (type == "int")
     {
         s32 v = 0;
         if (s_settings_interface)
             s_settings_interface->GetIntValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(StringUtil::StdStringFromFormat("%d", v).c_str());
+        return StringUtil::StdStringFromFormat("%d", v);
     }
     else if (type == "uint")
     {
         u32 v = 0;
         if (s_settings_interface)
             s_settings_interface->GetUIntValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(StringUtil::StdStringFromFormat("%u", v).c_str());
+        return StringUtil::StdStringFromFormat("%u", v);
     }
     else if (type == "float")
     {
         float v = 0.0f;
         if (s_settings_interface)
             s_settings_interface->GetFloatValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(StringUtil::StdStringFromFormat("%g", v).c_str());
+        return StringUtil::StdStringFromFormat("%g", v);
     }
     else if (type == "double")
     {
         double v = 0.0;
         if (s_settings_interface)
             s_settings_interface->GetDoubleValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(StringUtil::StdStringFromFormat("%g", v).c_str());
+        return StringUtil::StdStringFromFormat("%g", v);
     }
-    else 
+    else
     {
         std::string v;
         if (s_settings_interface)
             s_settings_interface->GetStringValue(section.c_str(), key.c_str(), &v);
-        return env->NewStringUTF(v.c_str());
+        return v;
     }
 }
 
+static std::string GetJavaArrayString(JNIEnv* env, jobjectArray array, jsize index)
+{
+    jstring element = static_cast<jstring>(env->GetObjectArrayElement(array, index));
+    std::string value = GetJavaString(env, element);
+    if (element)
+        env->DeleteLocalRef(element);
+    return value;
+}
+
+// Apply live where it makes sense, then write the INI once
+static void ApplyAndSaveSettings(INISettingsInterface& si)
+{
+    VMManager::ApplySettings();
+    if (MTGS::IsOpen()) {
+        MTGS::ApplySettings();
+    }
+    si.Save();
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_setSetting(JNIEnv* env, jclass, jstring j_section, jstring j_key, jstring j_type, jstring j_value)
+{
+    const std::string section = GetJavaString(env, j_section);
+    const std::string key = GetJavaString(env, j_key);
+    const std::string type = GetJavaString(env, j_type);
+    const std::string value = GetJavaString(env, j_value);
+
+    if (!s_settings_interface)
+        return; 
+    INISettingsInterface& si = *s_settings_interface;
+
+    SetSettingValue(si, section, key, type, value);
+    ApplyAndSaveSettings(si);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_setSettings(JNIEnv* env, jclass, jobjectArray j_sections, jobjectArray j_keys,
+                                                 jobjectArray j_types, jobjectArray j_values)
+{
+    if (!s_settings_interface || !j_sections || !j_keys || !j_types || !j_values)
+        return;
+    INISettingsInterface& si = *s_settings_interface;
+
+    const jsize count = env->GetArrayLength(j_sections);
+    if (count <= 0 || env->GetArrayLength(j_keys) != count || env->GetArrayLength(j_types) != count ||
+        env->GetArrayLength(j_values) != count)
+        return;
+
+    for (jsize i = 0; i < count; i++)
+    {
+        SetSettingValue(si, GetJavaArrayString(env, j_sections, i), GetJavaArrayString(env, j_keys, i),
+                        GetJavaArrayString(env, j_types, i), GetJavaArrayString(env, j_values, i));
+    }
+
+    ApplyAndSaveSettings(si);
+}
+
+extern "C"
+JNIEXPORT jstring JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_getSetting(JNIEnv* env, jclass, jstring j_section, jstring j_key, jstring j_type)
+{
+    const std::string section = GetJavaString(env, j_section);
+    const std::string key = GetJavaString(env, j_key);
+    const std::string type = GetJavaString(env, j_type);
+
+    return env->NewStringUTF(GetSettingValue(section, key, type).c_str());
+}
+
+extern "C"
+JNIEXPORT jobjectArray JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_getSettings(JNIEnv* env, jclass, jobjectArray j_sections, jobjectArray j_keys,
+                                                 jobjectArray j_types)
+{
+    if (!j_sections || !j_keys || !j_types)
+        return nullptr;
+    const jsize count = env->GetArrayLength(j_sections);
+    if (env->GetArrayLength(j_keys) != count || env->GetArrayLength(j_types) != count)
+        return nullptr;
+
+    jclass string_class = env->FindClass("java/lang/String");
+    jobjectArray result = env->NewObjectArray(count, string_class, nullptr);
+    env->DeleteLocalRef(string_class);
+    if (!result)
+        return nullptr;
+
+    for (jsize i = 0; i < count; i++)
+    {
+        const std::string value = GetSettingValue(GetJavaArrayString(env, j_sections, i),
+                                                  GetJavaArrayString(env, j_keys, i),
+                                                  GetJavaArrayString(env, j_types, i));
+        jstring element = env->NewStringUTF(value.c_str());
+        env->SetObjectArrayElement(result, i, element);
+        env->DeleteLocalRef(element);
+    }
+    return result;
+}
+
 extern "C"
 JNIEXPORT void JNICALL
 Java_kr_co_iefriends_pcsx2_NativeApp_onNativeSurfaceCreated(JNIEnv *env, jclass clazz) {
@@ -1350,6 +1433,58 @@ Java_kr_co_iefriends_pcsx2_NativeApp_getImageSlot(JNIEnv *env, jclass clazz, jin
     return retArr;
 }
 
+// Standalone disc image access for the game browser. Each handle owns its own InputIsoFile, so it
+// never touches the CDVD state of a running VM and works for every format the core can boot.
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_openDiscImage(JNIEnv *env, jclass clazz, jstring p_szpath) {
+    std::string path = GetJavaString(env, p_szpath);
+    if (path.empty())
+        return 0;
+
+    auto iso = std::make_unique<InputIsoFile>();
+    Error error;
+    if (!iso->Open(std::move(path), &error))
+        return 0;
+
+    return reinterpret_cast<jlong>(iso.release());
+}
+
+extern "C"
+JNIEXPORT jbyteArray JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_readDiscSectors(JNIEnv *env, jclass clazz, jlong p_handle,
+                                                     jint p_lsn, jint p_count) {
+    auto* iso = reinterpret_cast<InputIsoFile*>(p_handle);
+    if (!iso || p_lsn < 0 || p_count <= 0)
+        return nullptr;
+
+    const u32 first = static_cast<u32>(p_lsn);
+    const u32 count = std::min<u32>(static_cast<u32>(p_count), 256);
+    std::vector<u8> data(static_cast<size_t>(count) * 2048);
+    u32 read = 0;
+    for (; read < count && first + read < iso->GetBlockCount(); read++)
+    {
+        iso->BeginRead2(first + read);
+        if (iso->FinishRead3(data.data() + static_cast<size_t>(read) * 2048, CDVD_MODE_2048) < 0)
+            break;
+    }
+    if (read == 0)
+        return nullptr;
+
+    auto length = static_cast<jsize>(read * 2048);
+    jbyteArray retArr = env->NewByteArray(length);
+    if (retArr != nullptr) {
+        env->SetByteArrayRegion(retArr, 0, length, reinterpret_cast<const jbyte *>(data.data()));
+    }
+    return retArr;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_kr_co_iefriends_pcsx2_NativeApp_closeDiscImage(JNIEnv *env, jclass clazz, jlong p_handle) {
+    delete reinterpret_cast<InputIsoFile*>(p_handle);
+}
+
 extern "C"
 JNIEXPORT void JNICALL
 Java_kr_co_iefriends_pcsx2_utils_RetroAchievementsBridge_nativeRequestState(JNIEnv* env, jclass)
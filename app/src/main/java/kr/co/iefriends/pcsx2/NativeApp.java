@@ -11,6 +11,7 @@ import java.lang.ref.WeakReference;
 
 import kr.co.iefriends.pcsx2.activities.MainActivity;
 import kr.co.iefriends.pcsx2.utils.DataDirectoryManager;
+import kr.co.iefriends.pcsx2.utils.SettingsCache;
 
 public class NativeApp {
 	static {
@@ -78,7 +79,10 @@ public class NativeApp {
 		if (hasNoNativeBinary || TextUtils.isEmpty(path)) {
 			return;
 		}
+		// Queued writes belong to the old INI; cached values describe it too
+		SettingsCache.flush();
 		reloadDataRoot(path);
+		SettingsCache.invalidate();
 	}
 
 	public static native void initialize(String path, int apiVer);
@@ -87,6 +91,8 @@ public class NativeApp {
 	public static native String getGameSerial();
 	public static native boolean hasWidescreenPatch();
 	public static native float getFPS();
+	// Emulation speed in percent of full speed
+	public static native float getSpeed();
 
 	public static native String getPauseGameTitle();
 	public static native String getPauseGameSerial();
@@ -110,6 +116,9 @@ public class NativeApp {
 
 	public static native void setSetting(String section, String key, String type, String value);
 	public static native String getSetting(String section, String key, String type);
+	// Batched forms: the arrays are parallel, and setSettings applies and saves once for the whole batch
+	public static native void setSettings(String[] sections, String[] keys, String[] types, String[] values);
+	public static native String[] getSettings(String[] sections, String[] keys, String[] types);
 
 	public static native void onNativeSurfaceCreated();
 	public static native void onNativeSurfaceChanged(Surface surface, int w, int h);
@@ -126,6 +135,11 @@ public class NativeApp {
 	public static native String getGamePathSlot(int slot);
 	public static native byte[] getImageSlot(int slot);
 
+	// Read-only access to a disc image outside the VM; sectors are returned as 2048-byte user data
+	public static native long openDiscImage(String path);
+	public static native byte[] readDiscSectors(long handle, int lsn, int count);
+	public static native void closeDiscImage(long handle);
+
 	public static int openContentUri(String uriString) {
 		Context _context = getContext();
 		if(_context != null) {
@@ -19,7 +19,6 @@ import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
-import android.os.ParcelFileDescriptor;
 import android.os.SystemClock;
 import android.provider.OpenableColumns;
 import android.provider.Settings;
@@ -95,7 +94,6 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -104,13 +102,8 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.lang.ref.WeakReference;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
 import java.text.Collator;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -121,7 +114,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -149,15 +142,31 @@ import kr.co.iefriends.pcsx2.input.view.DPadView;
 import kr.co.iefriends.pcsx2.input.view.JoystickView;
 import kr.co.iefriends.pcsx2.input.view.PSButtonView;
 import kr.co.iefriends.pcsx2.input.view.PSShoulderButtonView;
+import kr.co.iefriends.pcsx2.utils.AutoTuneManager;
+import kr.co.iefriends.pcsx2.utils.AutoTuner;
+import kr.co.iefriends.pcsx2.utils.CoverBitmapLoader;
+import kr.co.iefriends.pcsx2.utils.CoverDirectoryIndex;
+import kr.co.iefriends.pcsx2.utils.CoverDiskCache;
+import kr.co.iefriends.pcsx2.utils.CoverFetcher;
+import kr.co.iefriends.pcsx2.utils.CoverResolutionStore;
+import kr.co.iefriends.pcsx2.utils.CoverUrlTemplate;
 import kr.co.iefriends.pcsx2.utils.DataDirectoryManager;
 import kr.co.iefriends.pcsx2.utils.DebugLog;
 import kr.co.iefriends.pcsx2.utils.DeviceProfiles;
 import kr.co.iefriends.pcsx2.utils.DiscordBridge;
+import kr.co.iefriends.pcsx2.utils.GameLibraryIndex;
 import kr.co.iefriends.pcsx2.utils.GameSpecificSettingsManager;
+import kr.co.iefriends.pcsx2.utils.HashPipeline;
+import kr.co.iefriends.pcsx2.utils.ImageFile;
+import kr.co.iefriends.pcsx2.utils.LibrarySearchIndex;
 import kr.co.iefriends.pcsx2.utils.LogcatRecorder;
+import kr.co.iefriends.pcsx2.utils.NativeSettings;
+import kr.co.iefriends.pcsx2.utils.RedumpHashCache;
+import kr.co.iefriends.pcsx2.utils.RedumpIndex;
 import kr.co.iefriends.pcsx2.utils.RetroAchievementsBridge;
 import kr.co.iefriends.pcsx2.utils.SDLControllerManager;
 import kr.co.iefriends.pcsx2.utils.SDLSurface;
+import kr.co.iefriends.pcsx2.utils.SettingsCache;
 import kr.co.iefriends.pcsx2.utils.NetworkAdapterCollector;
 
 public class MainActivity extends AppCompatActivity {
@@ -188,7 +197,8 @@ public class MainActivity extends AppCompatActivity {
     private boolean isFastForwardEnabled = false;
     private final CompoundButton.OnCheckedChangeListener drawerWidescreenListener =
             (buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore", "EnableWideScreenPatches", "bool", isChecked ? "true" : "false");
+                    SettingsCache.setBool(NativeSettings.WIDESCREEN_PATCHES, isChecked);
+    private final List<Runnable> settingUnwatchers = new ArrayList<>();
 
     private static final int RUMBLE_DURATION_MS = 160;
     private static volatile int sLastControllerDeviceId = -1;
@@ -209,6 +219,8 @@ public class MainActivity extends AppCompatActivity {
     private boolean listMode = false;
     private Uri gamesFolderUri;
     private final Object coverPrefetchLock = new Object();
+    @Nullable
+    private GameScanner.ScanSession currentGameScan;
     private boolean coverPrefetchRunning;
     private boolean storagePromptShown = false;
     private String pendingChdCachePath;
@@ -233,10 +245,17 @@ public class MainActivity extends AppCompatActivity {
     private float faceButtonsBaseScale = 1.0f;
 
     @Nullable
-    private PerGameOverrideSnapshot lastPerGameOverrideSnapshot = null;
+    private Map<NativeSettings.Key, String> lastPerGameOverrideSnapshot = null;
     @Nullable
     private String lastPerGameOverrideKey = null;
     private boolean perGameOverridesActive = false;
+    // Auto-tune: the session sampling the game's current trial, if it is being tuned
+    private static final long AUTO_TUNE_SAMPLE_INTERVAL_MS = 1000L;
+    @Nullable
+    private AutoTuner.Session autoTuneSession = null;
+    @Nullable
+    private String autoTuneGameKey = null;
+    private final Runnable autoTuneSampler = this::sampleAutoTuneSession;
 
     // Auto-hide state
     private enum InputSource { TOUCH, CONTROLLER }
@@ -732,8 +751,8 @@ public class MainActivity extends AppCompatActivity {
                 }
                 setCoversUrlTemplate(value);
                 try { Toast.makeText(this, R.string.cover_template_saved_toast, Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
-                if (gamesFolderUri != null) {
-                    scanGamesFolder(gamesFolderUri);
+                if (gamesAdapter != null) {
+                    gamesAdapter.notifyAllChanged(GamesAdapter.PAYLOAD_COVER);
                 }
                 dialog.dismiss();
                 if (!TextUtils.isEmpty(value) && !TextUtils.equals(previous, value)) {
@@ -752,7 +771,7 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         LinkedHashSet<Uri> roots = collectGameRootUris();
-        GamesAdapter.clearLocalCoverCache();
+        GamesAdapter.reloadCoverDirectory();
         File cacheDir = getCoversCacheDir();
         if (cacheDir == null) {
             try { Toast.makeText(this, R.string.cover_prefetch_none, Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
@@ -805,19 +824,28 @@ public class MainActivity extends AppCompatActivity {
         if (cacheDir == null) {
             return 0;
         }
-        List<GameEntry> entries = GameScanner.scanFolder(this, root);
+        List<GameEntry> entries = GameScanner.loadIndexed(this, root);
+        if (entries.isEmpty()) {
+            entries = GameScanner.scanFolder(this, root);
+        }
         if (entries == null || entries.isEmpty()) {
             return 0;
         }
         resolveMetadataForEntries(entries);
-        int downloaded = 0;
-        Set<String> attempted = new HashSet<>();
+        java.util.concurrent.atomic.AtomicInteger downloaded = new java.util.concurrent.atomic.AtomicInteger();
+        java.util.concurrent.CountDownLatch remaining = new java.util.concurrent.CountDownLatch(entries.size());
         for (GameEntry entry : entries) {
-            if (ensureCoverCachedForEntry(cacheDir, entry, template, attempted)) {
-                downloaded++;
-            }
+            ensureCoverCachedForEntry(cacheDir, entry, template, stored -> {
+                if (stored != null) downloaded.incrementAndGet();
+                remaining.countDown();
+            });
+        }
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return downloaded;
+        return downloaded.get();
     }
 
     private void resolveMetadataForEntries(List<GameEntry> entries) {
@@ -825,17 +853,19 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         android.content.ContentResolver cr = getContentResolver();
+        List<java.util.concurrent.Future<?>> pending = new ArrayList<>();
         for (GameEntry ge : entries) {
-            if (ge == null || ge.uri == null) {
+            final Uri uri = ge != null ? ge.uri() : null;
+            if (uri == null) {
                 continue;
             }
-            try {
-                boolean needsSerial = TextUtils.isEmpty(ge.serial);
-                boolean needsTitle = TextUtils.isEmpty(ge.gameTitle);
-                if (!needsSerial && !needsTitle) {
-                    continue;
-                }
-                RedumpDB.Result rd = RedumpDB.lookupByFile(cr, ge.uri);
+            final boolean needsSerial = TextUtils.isEmpty(ge.serial);
+            final boolean needsTitle = TextUtils.isEmpty(ge.gameTitle);
+            if (!needsSerial && !needsTitle) {
+                continue;
+            }
+            pending.add(HashPipeline.submit(uri, () -> {
+                RedumpDB.Result rd = RedumpDB.lookupByFile(cr, uri, ge.size, ge.lastModified);
                 if (rd != null) {
                     if (needsSerial && !TextUtils.isEmpty(rd.serial)) {
                         ge.serial = rd.serial;
@@ -844,6 +874,20 @@ public class MainActivity extends AppCompatActivity {
                         ge.gameTitle = rd.name;
                     }
                 }
+                return null;
+            }));
+        }
+        awaitAll(pending);
+    }
+
+    private static void awaitAll(List<java.util.concurrent.Future<?>> futures) {
+        for (java.util.concurrent.Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (java.util.concurrent.Future<?> f : futures) f.cancel(true);
+                return;
             } catch (Throwable ignored) {}
         }
     }
@@ -852,250 +896,52 @@ public class MainActivity extends AppCompatActivity {
         if (entry == null || TextUtils.isEmpty(template)) {
             return Collections.emptyList();
         }
-        String fileBase = entry.fileTitleNoExt();
-        String hyphenized = hyphenizeAlphaDigits(fileBase);
-        List<String> variants = makeTitleVariants(fileBase);
-        java.util.LinkedHashSet<String> urls = new java.util.LinkedHashSet<>();
-        if (template.contains("${filetitle}")) {
-            for (String v : variants) {
-                urls.add(template.replace("${filetitle}", safeUrlPart(v))
-                        .replace("${serial}", "")
-                        .replace("${title}", ""));
-            }
-        }
-        if (template.contains("${serial}")) {
-            if (!TextUtils.isEmpty(entry.serial)) {
-                urls.add(template.replace("${serial}", safeUrlPart(entry.serial))
-                        .replace("${filetitle}", "")
-                        .replace("${title}", ""));
-            }
-            if (!TextUtils.isEmpty(hyphenized) && !hyphenized.equals(fileBase)) {
-                urls.add(template.replace("${serial}", safeUrlPart(hyphenized))
-                        .replace("${filetitle}", "")
-                        .replace("${title}", ""));
-            }
-            for (String v : variants) {
-                urls.add(template.replace("${serial}", safeUrlPart(v))
-                        .replace("${filetitle}", "")
-                        .replace("${title}", ""));
-            }
-        }
-        if (template.contains("${title}")) {
-            String resolvedTitle = !TextUtils.isEmpty(entry.gameTitle) ? entry.gameTitle : fileBase;
-            java.util.LinkedHashSet<String> titleVariants = new java.util.LinkedHashSet<>(makeTitleVariants(resolvedTitle));
-            if (!TextUtils.isEmpty(entry.gameTitle) && !TextUtils.isEmpty(fileBase) && !entry.gameTitle.equals(fileBase)) {
-                titleVariants.addAll(makeTitleVariants(fileBase));
-            }
-            for (String v : titleVariants) {
-                urls.add(template.replace("${title}", safeUrlPart(v))
-                        .replace("${serial}", "")
-                        .replace("${filetitle}", ""));
-            }
-        }
-        return new ArrayList<>(urls);
-    }
-
-    private static String safeUrlPart(String s) {
-        if (s == null) {
-            return "";
-        }
-        try {
-            return URLEncoder.encode(s, "UTF-8");
-        } catch (Exception e) {
-            return s;
-        }
-    }
-
-    private static String hyphenizeAlphaDigits(String s) {
-        if (s == null) {
-            return "";
-        }
-        try {
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile("^([A-Za-z]+)[-_]?([0-9]{3,})$").matcher(s);
-            if (m.find()) {
-                return (m.group(1).toUpperCase(Locale.US) + "-" + m.group(2));
-            }
-        } catch (Exception ignored) {}
-        return s;
-    }
-
-    private static List<String> makeTitleVariants(String base) {
-        java.util.LinkedHashSet<String> set = new java.util.LinkedHashSet<>();
-        if (base == null) base = "";
-        String b0 = base.trim();
-        if (!b0.isEmpty()) set.add(b0);
-        String b1 = b0.replace('_', ' ').trim(); if (!b1.isEmpty()) set.add(b1);
-        String b2 = b1.replace(":", " - ").replaceAll("\\s+", " ").trim(); if (!b2.isEmpty()) set.add(b2);
-        try {
-            String b3 = b1.replaceAll("(?i)(?<=\\w) \\–|\\u2014| - (?=\\w)", ": ");
-            b3 = b3.replace(" - ", ": ");
-            b3 = b3.replaceAll("\\s+", " ").trim();
-            if (!b3.isEmpty()) set.add(b3);
-        } catch (Throwable ignored) {}
-        return new ArrayList<>(set);
-    }
-
-    private static String sanitizeCoverFileComponent(String input) {
-        if (TextUtils.isEmpty(input)) {
-            return "";
-        }
-        String normalized = input.trim();
-        normalized = normalized.replaceAll("[\\\\/:*?\"<>|]", " ");
-        normalized = normalized.replaceAll("[^A-Za-z0-9._-]", "_");
-        normalized = normalized.replaceAll("_+", "_");
-        normalized = normalized.replaceAll("^_+|_+$", "");
-        return normalized;
+        return CoverUrlTemplate.get(template).candidates(entry.fileTitleNoExt(), entry.serial, entry.gameTitle);
     }
 
     private static String computeCoverBaseName(GameEntry entry) {
-        String candidate = entry != null ? entry.serial : null;
-        if (TextUtils.isEmpty(candidate) && entry != null) {
-            candidate = entry.gameTitle;
-        }
-        if (TextUtils.isEmpty(candidate) && entry != null) {
-            candidate = entry.fileTitleNoExt();
-        }
-        String sanitized = sanitizeCoverFileComponent(candidate);
-        if (TextUtils.isEmpty(sanitized) && entry != null) {
-            String fallback = entry.title != null ? entry.title : "cover";
-            sanitized = sanitizeCoverFileComponent("cover_" + Integer.toHexString(fallback.hashCode()));
-        }
-        if (TextUtils.isEmpty(sanitized)) {
-            sanitized = "cover";
-        }
-        return sanitized;
+        return entry != null ? entry.coverBaseName() : "cover";
     }
 
     private static File findExistingCoverFile(File dir, String baseName) {
         if (dir == null || TextUtils.isEmpty(baseName)) {
             return null;
         }
-        String prefix = baseName.toLowerCase(Locale.US);
-        File[] files = dir.listFiles();
-        if (files == null) {
-            return null;
-        }
-        for (File child : files) {
-            if (child == null || !child.isFile()) continue;
-            String name = child.getName();
-            if (name == null) continue;
-            String lower = name.toLowerCase(Locale.US);
-            if (lower.equals(prefix) || lower.startsWith(prefix + ".")) {
-                return child;
-            }
-        }
-        return null;
-    }
-
-    private static String guessImageExtension(String url, String contentType) {
-        if (contentType != null) {
-            String type = contentType.toLowerCase(Locale.US);
-            if (type.contains("png")) return ".png";
-            if (type.contains("webp")) return ".webp";
-            if (type.contains("gif")) return ".gif";
-            if (type.contains("jpeg") || type.contains("jpg")) return ".jpg";
-        }
-        if (url != null) {
-            String path = url;
-            int query = path.indexOf('?');
-            if (query >= 0) {
-                path = path.substring(0, query);
-            }
-            int dot = path.lastIndexOf('.');
-            if (dot >= 0 && dot > path.lastIndexOf('/')) {
-                String ext = path.substring(dot).toLowerCase(Locale.US);
-                if (ext.matches("\\.(jpg|jpeg|png|webp|gif)")) {
-                    return ext.equals(".jpeg") ? ".jpg" : ext;
-                }
-            }
-        }
-        return ".jpg";
-    }
-
-    private boolean downloadCoverToDirectory(File coversDir, String url, String baseName) {
-        HttpURLConnection connection = null;
-        InputStream in = null;
-        OutputStream out = null;
-        try {
-            connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setConnectTimeout(4000);
-            connection.setReadTimeout(6000);
-            connection.setInstanceFollowRedirects(true);
-            connection.setRequestMethod("GET");
-            int code = connection.getResponseCode();
-            if (code != HttpURLConnection.HTTP_OK) {
-                return false;
-            }
-            String extension = guessImageExtension(url, connection.getContentType());
-            String fileName = baseName + extension;
-            File existing = findExistingCoverFile(coversDir, baseName);
-            if (existing != null && existing.length() > 0) {
-                return false;
-            }
-            if (existing != null) {
-                if (!existing.delete()) {
-                    return false;
-                }
-            }
-            File file = new File(coversDir, fileName);
-            File parent = file.getParentFile();
-            if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                return false;
-            }
-            out = new FileOutputStream(file);
-            in = connection.getInputStream();
-            byte[] buffer = new byte[8192];
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                out.write(buffer, 0, read);
-            }
-            out.flush();
-            return true;
-        } catch (Exception ignored) {
-            return false;
-        } finally {
-            if (in != null) {
-                try { in.close(); } catch (IOException ignored) {}
-            }
-            if (out != null) {
-                try { out.close(); } catch (IOException ignored) {}
-            }
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
+        return CoverDirectoryIndex.forDirectory(dir).find(baseName);
     }
 
-    private boolean ensureCoverCachedForEntry(File coversDir, GameEntry entry, String template, Set<String> attemptedUrls) {
+    /** Queues a background cover download for {@code entry}; {@code done} gets the file only when one was newly stored. */
+    private void ensureCoverCachedForEntry(File coversDir, GameEntry entry, String template, CoverFetcher.Listener done) {
         List<String> urls = buildCoverCandidateUrls(entry, template);
-        if (urls.isEmpty()) {
-            return false;
-        }
         String baseName = computeCoverBaseName(entry);
-        if (TextUtils.isEmpty(baseName)) {
-            return false;
+        if (urls.isEmpty() || TextUtils.isEmpty(baseName)) {
+            done.onFetched(null);
+            return;
         }
         File existing = findExistingCoverFile(coversDir, baseName);
-        if (existing != null && existing.length() > 0) {
-            return false;
-        }
-        for (String url : urls) {
-            if (TextUtils.isEmpty(url) || url.contains("${")) {
-                continue;
+        boolean present = existing != null && existing.length() > 0;
+        final long presentStamp = present ? existing.lastModified() : 0L;
+        if (present) {
+            // Only covers past their TTL are revalidated, with a conditional request
+            CoverResolutionStore.Hit hit = CoverResolutionStore.getHit(this, baseName);
+            if (hit == null || !hit.isStale(System.currentTimeMillis())) {
+                done.onFetched(null);
+                return;
             }
-            if (attemptedUrls != null && !attemptedUrls.add(url)) {
-                continue;
+        }
+        CoverFetcher.request(this, coversDir, baseName, urls, CoverFetcher.PRIORITY_PREFETCH, stored -> {
+            if (present && stored != null && stored.equals(existing) && stored.lastModified() == presentStamp) {
+                done.onFetched(null);
+                return;
             }
-            if (downloadCoverToDirectory(coversDir, url, baseName)) {
-                File stored = MainActivity.findExistingCoverFile(coversDir, baseName);
-                if (stored != null && stored.isFile()) {
-                    GamesAdapter.registerCachedCover(entry, stored);
-                }
-                try { DebugLog.d("Covers", "Cached cover for " + baseName + " from " + url); } catch (Throwable ignored) {}
-                return true;
+            if (stored != null) {
+                GamesAdapter.registerCachedCover(entry, stored);
+                runOnUiThread(() -> {
+                    if (gamesAdapter != null) gamesAdapter.notifyEntryChanged(entry, GamesAdapter.PAYLOAD_COVER);
+                });
             }
-        }
-        return false;
+            done.onFetched(stored);
+        });
     }
 
     private LinkedHashSet<Uri> collectGameRootUris() {
@@ -1150,8 +996,7 @@ public class MainActivity extends AppCompatActivity {
     // region Manual cover selection
     private static String gameKeyFromEntry(GameEntry e) {
         if (e == null) return "";
-        String key = (e.uri != null ? e.uri.toString() : ("file://" + e.title));
-        return key;
+        return e.gameKey();
     }
 
     private String pendingManualCoverGameKey;
@@ -1170,7 +1015,7 @@ public class MainActivity extends AppCompatActivity {
                         pendingManualCoverGameKey = null;
                         if (pendingKey != null) {
                             setManualCoverUri(pendingKey, img.toString());
-                            if (gamesFolderUri != null) scanGamesFolder(gamesFolderUri);
+                            if (gamesAdapter != null) gamesAdapter.notifyGameKeyChanged(pendingKey, GamesAdapter.PAYLOAD_COVER);
                         }
                     }
                 }
@@ -1278,7 +1123,7 @@ public class MainActivity extends AppCompatActivity {
             remove.setOnClickListener(v -> {
                 dlg.dismiss();
                 removeManualCoverUri(key);
-                if (gamesFolderUri != null) scanGamesFolder(gamesFolderUri);
+                if (gamesAdapter != null) gamesAdapter.notifyGameKeyChanged(key, GamesAdapter.PAYLOAD_COVER);
             });
         }
 
@@ -1316,51 +1161,78 @@ public class MainActivity extends AppCompatActivity {
         MaterialSwitch switchAsyncTextures = dialogView.findViewById(R.id.per_game_switch_async_textures);
         MaterialSwitch switchPrecache = dialogView.findViewById(R.id.per_game_switch_precache_textures);
         MaterialSwitch switchShowFps = dialogView.findViewById(R.id.per_game_switch_show_fps);
-
-        boolean globalCheats = readBoolSetting("EmuCore", "EnableCheats", false);
-        boolean globalWidescreen = readBoolSetting("EmuCore", "EnableWideScreenPatches", false);
-        boolean globalNoInterlacing = readBoolSetting("EmuCore", "EnableNoInterlacingPatches", false);
-        boolean globalLoadTextures = readBoolSetting("EmuCore/GS", "LoadTextureReplacements", false);
-        boolean globalAsyncTextures = readBoolSetting("EmuCore/GS", "LoadTextureReplacementsAsync", false);
-        boolean globalPrecache = readBoolSetting("EmuCore/GS", "PrecacheTextureReplacements", false);
-        boolean globalShowFps = readBoolSetting("EmuCore/GS", "OsdShowFPS", false);
-        int globalRenderer = getCurrentRendererValue();
-        String globalAspect = getCurrentAspectRatioValue();
+        MaterialSwitch switchMipmap = dialogView.findViewById(R.id.per_game_switch_mipmap);
+        MaterialSwitch switchAutoTune = dialogView.findViewById(R.id.per_game_switch_auto_tune);
+        TextView autoTuneStatus = dialogView.findViewById(R.id.per_game_auto_tune_status);
 
         GameSpecificSettingsManager.GameSettings existing = GameSpecificSettingsManager.getSettings(this, gameKey);
-
         boolean initialEnabled = existing != null;
-        boolean initialCheats = existing != null && existing.enableCheats != null ? existing.enableCheats : globalCheats;
-        boolean initialWidescreen = existing != null && existing.widescreen != null ? existing.widescreen : globalWidescreen;
-        boolean initialNoInterlacing = existing != null && existing.noInterlacing != null ? existing.noInterlacing : globalNoInterlacing;
-        boolean initialLoadTextures = existing != null && existing.loadTextures != null ? existing.loadTextures : globalLoadTextures;
-        boolean initialAsyncTextures = existing != null && existing.asyncTextures != null ? existing.asyncTextures : globalAsyncTextures;
-        boolean initialPrecache = existing != null && existing.precacheTextures != null ? existing.precacheTextures : globalPrecache;
-        boolean initialShowFps = existing != null && existing.showFps != null ? existing.showFps : globalShowFps;
-        int initialRenderer = existing != null && existing.renderer != null ? existing.renderer : globalRenderer;
-        String initialAspect = existing != null && !TextUtils.isEmpty(existing.aspectRatio) ? existing.aspectRatio : globalAspect;
-
-        switchEnabled.setChecked(initialEnabled);
-        switchCheats.setChecked(initialCheats);
-        switchWidescreen.setChecked(initialWidescreen);
-        switchNoInterlacing.setChecked(initialNoInterlacing);
-        switchLoadTextures.setChecked(initialLoadTextures);
-        switchAsyncTextures.setChecked(initialAsyncTextures);
-        switchPrecache.setChecked(initialPrecache);
-        switchShowFps.setChecked(initialShowFps);
 
-        rendererSpinner.setSelection(rendererSpinnerPositionForValue(initialRenderer), false);
+        LinkedHashMap<MaterialSwitch, NativeSettings.Key> switches = new LinkedHashMap<>();
+        switches.put(switchCheats, NativeSettings.ENABLE_CHEATS);
+        switches.put(switchWidescreen, NativeSettings.WIDESCREEN_PATCHES);
+        switches.put(switchNoInterlacing, NativeSettings.NO_INTERLACING_PATCHES);
+        switches.put(switchLoadTextures, NativeSettings.LOAD_TEXTURE_REPLACEMENTS);
+        switches.put(switchAsyncTextures, NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC);
+        switches.put(switchPrecache, NativeSettings.PRECACHE_TEXTURE_REPLACEMENTS);
+        switches.put(switchShowFps, NativeSettings.OSD_SHOW_FPS);
+        switches.put(switchMipmap, NativeSettings.HW_MIPMAP);
 
         String[] aspectOptions = getResources().getStringArray(R.array.aspect_ratios);
-        int aspectIndex = 0;
-        for (int i = 0; i < aspectOptions.length; i++) {
-            if (TextUtils.equals(aspectOptions[i], initialAspect)) {
-                aspectIndex = i;
-                break;
-            }
-        }
-        aspectSpinner.setSelection(aspectIndex, false);
+        List<PerGameChoice> choices = new ArrayList<>();
+        choices.add(new PerGameChoice(rendererSpinner, NativeSettings.RENDERER,
+                value -> rendererSpinnerPositionForValue(parseIntOr(value, -1)),
+                position -> Integer.toString(rendererValueForSpinnerPosition(position))));
+        choices.add(new PerGameChoice(aspectSpinner, NativeSettings.ASPECT_RATIO,
+                value -> {
+                    for (int i = 0; i < aspectOptions.length; i++) {
+                        if (aspectOptions[i].equalsIgnoreCase(value)) return i;
+                    }
+                    // Unset reads as the default, which is the second entry
+                    return aspectOptions.length > 1 ? 1 : 0;
+                },
+                position -> aspectOptions[position]));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_upscale), NativeSettings.UPSCALE_MULTIPLIER,
+                value -> Math.round(parseFloatOr(value, 1f)) - 1,
+                position -> Integer.toString(position + 1)));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_cpu_core), NativeSettings.CPU_CORE_TYPE,
+                value -> parseIntOr(value, 0),
+                position -> Integer.toString(position)));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_ee_cycle_rate), NativeSettings.EE_CYCLE_RATE,
+                value -> parseIntOr(value, 0) + 3,
+                position -> Integer.toString(position - 3)));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_ee_cycle_skip), NativeSettings.EE_CYCLE_SKIP,
+                value -> parseIntOr(value, 0),
+                position -> Integer.toString(position)));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_texture_preloading), NativeSettings.TEXTURE_PRELOADING,
+                value -> parseIntOr(value, 0),
+                position -> Integer.toString(position)));
+        choices.add(new PerGameChoice(dialogView.findViewById(R.id.per_game_spinner_hw_download_mode), NativeSettings.HW_DOWNLOAD_MODE,
+                value -> parseIntOr(value, 0),
+                position -> Integer.toString(position)));
+
+        // Everything the dialog shows comes from the global settings in one batch
+        List<NativeSettings.Key> shownKeys = new ArrayList<>(switches.values());
+        for (PerGameChoice choice : choices) shownKeys.add(choice.key);
+        SettingsCache.preload(shownKeys.toArray(new NativeSettings.Key[0]));
+
+        for (Map.Entry<MaterialSwitch, NativeSettings.Key> e : switches.entrySet()) {
+            NativeSettings.Key key = e.getValue();
+            Boolean override = existing != null ? existing.getBool(key) : null;
+            e.getKey().setChecked(override != null ? override : isTrue(globalSettingValue(key)));
+        }
+        for (PerGameChoice choice : choices) {
+            String override = existing != null ? existing.get(choice.key) : null;
+            choice.spinner.setSelection(choice.positionOf(override != null ? override : globalSettingValue(choice.key)), false);
+        }
+
+        int autoTuneTrials = AutoTuneManager.trialsRun(this, gameKey);
+        switchAutoTune.setChecked(autoTuneTrials >= 0);
+        autoTuneStatus.setText(autoTuneTrials >= 0
+                ? getString(R.string.per_game_settings_auto_tune_progress, autoTuneTrials, AutoTuner.DEFAULT_MAX_TRIALS)
+                : getString(R.string.per_game_settings_auto_tune_summary, AutoTuner.DEFAULT_MAX_TRIALS));
 
+        switchEnabled.setChecked(initialEnabled);
         setGroupEnabled(settingsGroup, initialEnabled);
 
         switchEnabled.setOnCheckedChangeListener((button, isChecked) -> setGroupEnabled(settingsGroup, isChecked));
@@ -1379,6 +1251,7 @@ public class MainActivity extends AppCompatActivity {
             }
             saveButton.setOnClickListener(v -> {
                 if (!switchEnabled.isChecked()) {
+                    AutoTuneManager.cancel(this, gameKey);
                     GameSpecificSettingsManager.removeSettings(this, gameKey);
                     try { Toast.makeText(this, R.string.per_game_settings_cleared_toast, Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
                     dialog.dismiss();
@@ -1386,33 +1259,22 @@ public class MainActivity extends AppCompatActivity {
                 }
 
                 GameSpecificSettingsManager.GameSettings toSave = new GameSpecificSettingsManager.GameSettings();
-
-                boolean cheatsValue = switchCheats.isChecked();
-                if (cheatsValue != globalCheats) toSave.enableCheats = cheatsValue;
-
-                boolean widescreenValue = switchWidescreen.isChecked();
-                if (widescreenValue != globalWidescreen) toSave.widescreen = widescreenValue;
-
-                boolean noInterlacingValue = switchNoInterlacing.isChecked();
-                if (noInterlacingValue != globalNoInterlacing) toSave.noInterlacing = noInterlacingValue;
-
-                boolean loadTexturesValue = switchLoadTextures.isChecked();
-                if (loadTexturesValue != globalLoadTextures) toSave.loadTextures = loadTexturesValue;
-
-                boolean asyncTexturesValue = switchAsyncTextures.isChecked();
-                if (asyncTexturesValue != globalAsyncTextures) toSave.asyncTextures = asyncTexturesValue;
-
-                boolean precacheValue = switchPrecache.isChecked();
-                if (precacheValue != globalPrecache) toSave.precacheTextures = precacheValue;
-
-                boolean showFpsValue = switchShowFps.isChecked();
-                if (showFpsValue != globalShowFps) toSave.showFps = showFpsValue;
-
-                int rendererValue = rendererValueForSpinnerPosition(rendererSpinner.getSelectedItemPosition());
-                if (rendererValue != globalRenderer) toSave.renderer = rendererValue;
-
-                String aspectValue = aspectOptions[aspectSpinner.getSelectedItemPosition()];
-                if (!TextUtils.equals(aspectValue, globalAspect)) toSave.aspectRatio = aspectValue;
+                // Keep overrides of keys this dialog doesn't show
+                if (existing != null) {
+                    for (Map.Entry<NativeSettings.Key, String> e : existing.overrides().entrySet()) {
+                        if (!shownKeys.contains(e.getKey())) toSave.put(e.getKey(), e.getValue());
+                    }
+                }
+                for (Map.Entry<MaterialSwitch, NativeSettings.Key> e : switches.entrySet()) {
+                    boolean value = e.getKey().isChecked();
+                    if (value != isTrue(globalSettingValue(e.getValue()))) toSave.putBool(e.getValue(), value);
+                }
+                for (PerGameChoice choice : choices) {
+                    int position = choice.spinner.getSelectedItemPosition();
+                    if (position != choice.positionOf(globalSettingValue(choice.key))) {
+                        toSave.put(choice.key, choice.valueAt(position));
+                    }
+                }
 
                 if (toSave.hasOverrides()) {
                     GameSpecificSettingsManager.saveSettings(this, gameKey, toSave);
@@ -1421,6 +1283,17 @@ public class MainActivity extends AppCompatActivity {
                     GameSpecificSettingsManager.removeSettings(this, gameKey);
                     try { Toast.makeText(this, R.string.per_game_settings_cleared_toast, Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
                 }
+                if (switchAutoTune.isChecked()) {
+                    // The search starts from what the game would run with as saved
+                    Map<NativeSettings.Key, String> baseline = new HashMap<>();
+                    for (AutoTuner.Dimension dimension : AutoTuner.DEFAULT_DIMENSIONS) {
+                        String value = toSave.get(dimension.key);
+                        baseline.put(dimension.key, value != null ? value : globalSettingValue(dimension.key));
+                    }
+                    AutoTuneManager.start(this, gameKey, baseline);
+                } else {
+                    AutoTuneManager.cancel(this, gameKey);
+                }
                 dialog.dismiss();
             });
         });
@@ -1428,6 +1301,53 @@ public class MainActivity extends AppCompatActivity {
         dialog.show();
     }
 
+    /** A spinner in the per-game dialog bound to one native setting. */
+    private static final class PerGameChoice {
+        final Spinner spinner;
+        final NativeSettings.Key key;
+        private final java.util.function.ToIntFunction<String> toPosition;
+        private final java.util.function.IntFunction<String> toValue;
+
+        PerGameChoice(Spinner spinner, NativeSettings.Key key,
+                      java.util.function.ToIntFunction<String> toPosition,
+                      java.util.function.IntFunction<String> toValue) {
+            this.spinner = spinner;
+            this.key = key;
+            this.toPosition = toPosition;
+            this.toValue = toValue;
+        }
+
+        int positionOf(@Nullable String value) {
+            int count = spinner.getCount();
+            int position = toPosition.applyAsInt(value != null ? value : "");
+            return position >= 0 && position < count ? position : 0;
+        }
+
+        String valueAt(int position) {
+            return toValue.apply(Math.max(0, Math.min(spinner.getCount() - 1, position)));
+        }
+    }
+
+    private static boolean isTrue(@Nullable String value) {
+        return "1".equals(value) || "true".equalsIgnoreCase(value);
+    }
+
+    private static int parseIntOr(@Nullable String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static float parseFloatOr(@Nullable String value, float fallback) {
+        try {
+            return value != null ? Float.parseFloat(value.trim()) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
     private void setGroupEnabled(@Nullable ViewGroup group, boolean enabled) {
         if (group == null) {
             return;
@@ -1469,29 +1389,6 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private int getCurrentRendererValue() {
-        int initialValue = -1;
-        try {
-            String renderer = NativeApp.getSetting("EmuCore/GS", "Renderer", "int");
-            if (!TextUtils.isEmpty(renderer)) {
-                initialValue = Integer.parseInt(renderer);
-            }
-        } catch (Exception ignored) {}
-        return initialValue;
-    }
-
-    private String getCurrentAspectRatioValue() {
-        String[] aspectOptions = getResources().getStringArray(R.array.aspect_ratios);
-        String defaultValue = aspectOptions.length > 1 ? aspectOptions[1] : aspectOptions[0];
-        try {
-            String aspect = NativeApp.getSetting("EmuCore/GS", "AspectRatio", "string");
-            if (!TextUtils.isEmpty(aspect)) {
-                return aspect;
-            }
-        } catch (Exception ignored) {}
-        return defaultValue;
-    }
-
     private void applyPerGameSettingsForEntry(@Nullable GameEntry entry) {
         if (entry == null) {
             return;
@@ -1504,56 +1401,39 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void applyPerGameSettingsForKey(@Nullable String gameKey) {
+        endAutoTuneSession();
         restorePerGameOverrides();
         if (TextUtils.isEmpty(gameKey)) {
             return;
         }
+        // A game being tuned boots with this session's trial on top of its profile
+        Map<NativeSettings.Key, String> trial = AutoTuneManager.beginTrial(this, gameKey);
         GameSpecificSettingsManager.GameSettings settings = GameSpecificSettingsManager.getSettings(this, gameKey);
+        if (trial != null) {
+            if (settings == null) settings = new GameSpecificSettingsManager.GameSettings();
+            for (Map.Entry<NativeSettings.Key, String> e : trial.entrySet()) {
+                settings.put(e.getKey(), e.getValue());
+            }
+            startAutoTuneSession(gameKey);
+        }
         if (settings == null || !settings.hasOverrides()) {
             return;
         }
 
-        PerGameOverrideSnapshot snapshot = captureCurrentPerGameSnapshot();
-        boolean applied = false;
-
-        if (settings.enableCheats != null) {
-            setNativeSetting("EmuCore", "EnableCheats", "bool", boolToString(settings.enableCheats));
-            applied = true;
-        }
-        if (settings.widescreen != null) {
-            setNativeSetting("EmuCore", "EnableWideScreenPatches", "bool", boolToString(settings.widescreen));
-            applied = true;
-        }
-        if (settings.noInterlacing != null) {
-            setNativeSetting("EmuCore", "EnableNoInterlacingPatches", "bool", boolToString(settings.noInterlacing));
-            applied = true;
-        }
-        if (settings.loadTextures != null) {
-            setNativeSetting("EmuCore/GS", "LoadTextureReplacements", "bool", boolToString(settings.loadTextures));
-            applied = true;
-        }
-        if (settings.asyncTextures != null) {
-            setNativeSetting("EmuCore/GS", "LoadTextureReplacementsAsync", "bool", boolToString(settings.asyncTextures));
-            applied = true;
-        }
-        if (settings.precacheTextures != null) {
-            setNativeSetting("EmuCore/GS", "PrecacheTextureReplacements", "bool", boolToString(settings.precacheTextures));
-            applied = true;
-        }
-        if (settings.showFps != null) {
-            setNativeSetting("EmuCore/GS", "OsdShowFPS", "bool", boolToString(settings.showFps));
-            applied = true;
-        }
-        if (settings.renderer != null) {
-            setNativeSetting("EmuCore/GS", "Renderer", "int", Integer.toString(settings.renderer));
-            applied = true;
+        // Remember the global values of exactly the keys this game overrides, then apply them in one batch
+        Map<NativeSettings.Key, String> overrides = settings.overrides();
+        NativeSettings.Key[] keys = overrides.keySet().toArray(new NativeSettings.Key[0]);
+        String[] current = NativeSettings.get(keys);
+        if (current == null) {
+            return;
         }
-        if (!TextUtils.isEmpty(settings.aspectRatio)) {
-            setNativeSetting("EmuCore/GS", "AspectRatio", "string", settings.aspectRatio);
-            applied = true;
+        LinkedHashMap<NativeSettings.Key, String> snapshot = new LinkedHashMap<>();
+        NativeSettings.Transaction transaction = NativeSettings.beginTransaction();
+        for (int i = 0; i < keys.length; i++) {
+            snapshot.put(keys[i], current[i]);
+            transaction.put(keys[i], overrides.get(keys[i]));
         }
-
-        if (applied) {
+        if (transaction.commit()) {
             perGameOverridesActive = true;
             lastPerGameOverrideSnapshot = snapshot;
             lastPerGameOverrideKey = gameKey;
@@ -1566,7 +1446,7 @@ public class MainActivity extends AppCompatActivity {
             lastPerGameOverrideKey = null;
             return;
         }
-        PerGameOverrideSnapshot snapshot = lastPerGameOverrideSnapshot;
+        Map<NativeSettings.Key, String> snapshot = lastPerGameOverrideSnapshot;
         perGameOverridesActive = false;
         lastPerGameOverrideSnapshot = null;
         lastPerGameOverrideKey = null;
@@ -1574,119 +1454,64 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        setNativeSetting("EmuCore", "EnableCheats", "bool", snapshot.enableCheats);
-        setNativeSetting("EmuCore", "EnableWideScreenPatches", "bool", snapshot.widescreen);
-        setNativeSetting("EmuCore", "EnableNoInterlacingPatches", "bool", snapshot.noInterlacing);
-        setNativeSetting("EmuCore/GS", "LoadTextureReplacements", "bool", snapshot.loadTextures);
-        setNativeSetting("EmuCore/GS", "LoadTextureReplacementsAsync", "bool", snapshot.asyncTextures);
-        setNativeSetting("EmuCore/GS", "PrecacheTextureReplacements", "bool", snapshot.precacheTextures);
-        setNativeSetting("EmuCore/GS", "OsdShowFPS", "bool", snapshot.showFps);
-        setNativeSetting("EmuCore/GS", "Renderer", "int", snapshot.renderer);
-        setNativeSetting("EmuCore/GS", "AspectRatio", "string", snapshot.aspectRatio);
-    }
-
-    private PerGameOverrideSnapshot captureCurrentPerGameSnapshot() {
-        String cheats = safeGetSetting("EmuCore", "EnableCheats", "bool");
-        if (cheats == null) {
-            cheats = boolToString(readBoolSetting("EmuCore", "EnableCheats", false));
-        }
-
-        String widescreen = safeGetSetting("EmuCore", "EnableWideScreenPatches", "bool");
-        if (widescreen == null) {
-            widescreen = boolToString(readBoolSetting("EmuCore", "EnableWideScreenPatches", false));
-        }
-
-        String noInterlacing = safeGetSetting("EmuCore", "EnableNoInterlacingPatches", "bool");
-        if (noInterlacing == null) {
-            noInterlacing = boolToString(readBoolSetting("EmuCore", "EnableNoInterlacingPatches", false));
-        }
-
-        String loadTextures = safeGetSetting("EmuCore/GS", "LoadTextureReplacements", "bool");
-        if (loadTextures == null) {
-            loadTextures = boolToString(readBoolSetting("EmuCore/GS", "LoadTextureReplacements", false));
-        }
-
-        String asyncTextures = safeGetSetting("EmuCore/GS", "LoadTextureReplacementsAsync", "bool");
-        if (asyncTextures == null) {
-            asyncTextures = boolToString(readBoolSetting("EmuCore/GS", "LoadTextureReplacementsAsync", false));
-        }
-
-        String precache = safeGetSetting("EmuCore/GS", "PrecacheTextureReplacements", "bool");
-        if (precache == null) {
-            precache = boolToString(readBoolSetting("EmuCore/GS", "PrecacheTextureReplacements", false));
+        NativeSettings.Transaction transaction = NativeSettings.beginTransaction();
+        for (Map.Entry<NativeSettings.Key, String> e : snapshot.entrySet()) {
+            transaction.put(e.getKey(), e.getValue());
         }
+        transaction.commit();
+    }
 
-        String showFps = safeGetSetting("EmuCore/GS", "OsdShowFPS", "bool");
-        if (showFps == null) {
-            showFps = boolToString(readBoolSetting("EmuCore/GS", "OsdShowFPS", false));
-        }
+    private void startAutoTuneSession(String gameKey) {
+        autoTuneGameKey = gameKey;
+        autoTuneSession = new AutoTuner.Session();
+        getWindow().getDecorView().removeCallbacks(autoTuneSampler);
+        getWindow().getDecorView().postDelayed(autoTuneSampler, AUTO_TUNE_SAMPLE_INTERVAL_MS);
+    }
 
-        String renderer = safeGetSetting("EmuCore/GS", "Renderer", "int");
-        if (renderer == null) {
-            renderer = Integer.toString(getCurrentRendererValue());
+    private void sampleAutoTuneSession() {
+        AutoTuner.Session session = autoTuneSession;
+        if (session == null) {
+            return;
         }
-
-        String aspect = safeGetSetting("EmuCore/GS", "AspectRatio", "string");
-        if (aspect == null) {
-            aspect = getCurrentAspectRatioValue();
+        if (!isThread() || isHomeVisible()) {
+            // Back at the library after playing: the session is over
+            if (!session.isEmpty()) {
+                endAutoTuneSession();
+                return;
+            }
+        } else if (!isVmPaused && !isFastForwardEnabled) {
+            try { session.add(NativeApp.getSpeed(), NativeApp.getFPS()); } catch (Throwable ignored) {}
         }
-
-        return new PerGameOverrideSnapshot(cheats, widescreen, noInterlacing, loadTextures, asyncTextures, precache, showFps, renderer, aspect);
-    }
-
-    @Nullable
-    private static String safeGetSetting(String section, String key, String type) {
-        try {
-            return NativeApp.getSetting(section, key, type);
-        } catch (Exception ignored) {
-            return null;
+        if (session.isComplete()) {
+            endAutoTuneSession();
+            return;
         }
+        getWindow().getDecorView().postDelayed(autoTuneSampler, AUTO_TUNE_SAMPLE_INTERVAL_MS);
     }
 
-    private static void setNativeSetting(String section, String key, String type, @Nullable String value) {
-        if (value == null) {
+    /** Reports the running auto-tune session, however far it got. */
+    private void endAutoTuneSession() {
+        AutoTuner.Session session = autoTuneSession;
+        String gameKey = autoTuneGameKey;
+        autoTuneSession = null;
+        autoTuneGameKey = null;
+        getWindow().getDecorView().removeCallbacks(autoTuneSampler);
+        if (session == null || gameKey == null) {
             return;
         }
-        try {
-            NativeApp.setSetting(section, key, type, value);
-        } catch (Exception ignored) {
+        if (AutoTuneManager.endTrial(this, gameKey, session) != null) {
+            try { Toast.makeText(this, R.string.per_game_auto_tune_finished_toast, Toast.LENGTH_LONG).show(); } catch (Throwable ignored) {}
         }
     }
 
-    private static String boolToString(boolean value) {
-        return value ? "true" : "false";
-    }
-
-    private static final class PerGameOverrideSnapshot {
-        @Nullable final String enableCheats;
-        @Nullable final String widescreen;
-        @Nullable final String noInterlacing;
-        @Nullable final String loadTextures;
-        @Nullable final String asyncTextures;
-        @Nullable final String precacheTextures;
-        @Nullable final String showFps;
-        @Nullable final String renderer;
-        @Nullable final String aspectRatio;
-
-        PerGameOverrideSnapshot(@Nullable String enableCheats,
-                                @Nullable String widescreen,
-                                @Nullable String noInterlacing,
-                                @Nullable String loadTextures,
-                                @Nullable String asyncTextures,
-                                @Nullable String precacheTextures,
-                                @Nullable String showFps,
-                                @Nullable String renderer,
-                                @Nullable String aspectRatio) {
-            this.enableCheats = enableCheats;
-            this.widescreen = widescreen;
-            this.noInterlacing = noInterlacing;
-            this.loadTextures = loadTextures;
-            this.asyncTextures = asyncTextures;
-            this.precacheTextures = precacheTextures;
-            this.showFps = showFps;
-            this.renderer = renderer;
-            this.aspectRatio = aspectRatio;
+    /** The value {@code key} has outside per-game overrides, even while a game's overrides are applied. */
+    @Nullable
+    private String globalSettingValue(NativeSettings.Key key) {
+        Map<NativeSettings.Key, String> snapshot = perGameOverridesActive ? lastPerGameOverrideSnapshot : null;
+        if (snapshot != null && snapshot.containsKey(key)) {
+            return snapshot.get(key);
         }
+        return SettingsCache.get(key);
     }
 
     // endregion Manual cover selection
@@ -1859,7 +1684,7 @@ public class MainActivity extends AppCompatActivity {
         for (int i = 0; i < biosList.size(); i++) names[i] = biosList.get(i).getName();
         int checked = -1;
         try {
-            String cur = NativeApp.getSetting("Filenames", "BIOS", "string");
+            String cur = SettingsCache.get(NativeSettings.BIOS);
             if (cur != null && !cur.isEmpty()) {
                 for (int i = 0; i < biosList.size(); i++) {
                     if (new File(cur).getAbsolutePath().equals(biosList.get(i).getAbsolutePath())) {
@@ -1875,7 +1700,7 @@ public class MainActivity extends AppCompatActivity {
                 .setSingleChoiceItems(names, checked, (d, which) -> {
                     try {
                         String path = biosList.get(which).getAbsolutePath();
-                        NativeApp.setSetting("Filenames", "BIOS", "string", path);
+                        SettingsCache.set(NativeSettings.BIOS, path);
                         Toast.makeText(this, "Current BIOS: " + biosList.get(which).getName(), Toast.LENGTH_SHORT).show();
                     } catch (Throwable ignored) {}
                 })
@@ -2360,13 +2185,7 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        int initialValue = -1;
-        try {
-            String renderer = NativeApp.getSetting("EmuCore/GS", "Renderer", "int");
-            if (renderer != null && !renderer.isEmpty()) {
-                initialValue = Integer.parseInt(renderer);
-            }
-        } catch (Exception ignored) {}
+        int initialValue = SettingsCache.getInt(NativeSettings.RENDERER, -1);
 
         int initialButton = rendererButtonForValue(initialValue);
         rendererGroup.check(initialButton);
@@ -2375,7 +2194,17 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
             int value = rendererValueForButton(checkedId);
+            if (value == SettingsCache.getInt(NativeSettings.RENDERER, -1)) {
+                return;
+            }
             NativeApp.renderGpu(value);
+            SettingsCache.noteNativeValue(NativeSettings.RENDERER, Integer.toString(value));
+        });
+        watchSetting(NativeSettings.RENDERER, (key, value) -> {
+            int button = rendererButtonForValue(SettingsCache.getInt(key, -1));
+            if (rendererGroup.getCheckedButtonId() != button) {
+                rendererGroup.check(button);
+            }
         });
     }
 
@@ -2388,7 +2217,7 @@ public class MainActivity extends AppCompatActivity {
 			final String[] aspectChoices = getResources().getStringArray(R.array.aspect_ratios);
 			int current = 0;
 			try {
-				String aspect = NativeApp.getSetting("EmuCore/GS", "AspectRatio", "string");
+				String aspect = SettingsCache.get(NativeSettings.ASPECT_RATIO);
 				if (aspect != null && !aspect.isEmpty()) {
 					for (int i = 0; i < aspectChoices.length; i++) {
 						if (aspect.equalsIgnoreCase(aspectChoices[i])) {
@@ -2406,7 +2235,7 @@ public class MainActivity extends AppCompatActivity {
 					if (position < 0 || position >= aspectChoices.length)
 						return;
 					String value = aspectChoices[position];
-					NativeApp.setSetting("EmuCore/GS", "AspectRatio", "string", value);
+					SettingsCache.set(NativeSettings.ASPECT_RATIO, value);
 					NativeApp.setAspectRatio(position);
 				}
 
@@ -2423,7 +2252,7 @@ public class MainActivity extends AppCompatActivity {
             scaleSpinner.setAdapter(scaleAdapter);
             int current = 0;
             try {
-                String value = NativeApp.getSetting("EmuCore/GS", "upscale_multiplier", "float");
+                String value = SettingsCache.get(NativeSettings.UPSCALE_MULTIPLIER);
                 if (value != null && !value.isEmpty()) {
                     float parsed = Float.parseFloat(value);
                     current = Math.max(1, Math.min(scaleAdapter.getCount(), Math.round(parsed))) - 1;
@@ -2434,7 +2263,7 @@ public class MainActivity extends AppCompatActivity {
             scaleSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override
                 public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "upscale_multiplier", "float", String.valueOf(position + 1));
+                    SettingsCache.set(NativeSettings.UPSCALE_MULTIPLIER, String.valueOf(position + 1));
                 }
 
                 @Override
@@ -2450,7 +2279,7 @@ public class MainActivity extends AppCompatActivity {
             blendSpinner.setAdapter(blendAdapter);
             int current = 0;
             try {
-                String value = NativeApp.getSetting("EmuCore/GS", "accurate_blending_unit", "int");
+                String value = SettingsCache.get(NativeSettings.ACCURATE_BLENDING);
                 if (value != null && !value.isEmpty()) {
                     current = Integer.parseInt(value);
                 }
@@ -2460,7 +2289,7 @@ public class MainActivity extends AppCompatActivity {
             blendSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override
                 public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "accurate_blending_unit", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.ACCURATE_BLENDING, position);
                 }
 
                 @Override
@@ -2605,10 +2434,14 @@ public class MainActivity extends AppCompatActivity {
     private void setupDrawerSwitches() {
         MaterialSwitch swEnableCheats = findViewById(R.id.drawer_sw_enable_cheats);
         if (swEnableCheats != null) {
-            swEnableCheats.setChecked(readBoolSetting("EmuCore", "EnableCheats", false));
+            swEnableCheats.setChecked(SettingsCache.getBool(NativeSettings.ENABLE_CHEATS, false));
             swEnableCheats.setOnCheckedChangeListener((buttonView, isChecked) ->
             {
+                    if (isChecked == SettingsCache.getBool(NativeSettings.ENABLE_CHEATS, false)) {
+                        return;
+                    }
                     NativeApp.setEnableCheats(isChecked);
+                    SettingsCache.noteNativeValue(NativeSettings.ENABLE_CHEATS, Boolean.toString(isChecked));
                     try {
                         DebugLog.d("Cheats", "EnableCheats=" + isChecked);
                     } catch (Throwable ignored) {}
@@ -2620,16 +2453,16 @@ public class MainActivity extends AppCompatActivity {
 
         MaterialSwitch swNoInterlacing = findViewById(R.id.drawer_sw_no_interlacing);
         if (swNoInterlacing != null) {
-            swNoInterlacing.setChecked(readBoolSetting("EmuCore", "EnableNoInterlacingPatches", false));
+            swNoInterlacing.setChecked(SettingsCache.getBool(NativeSettings.NO_INTERLACING_PATCHES, false));
             swNoInterlacing.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore", "EnableNoInterlacingPatches", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.NO_INTERLACING_PATCHES, isChecked));
         }
 
         MaterialSwitch swLoadTextures = findViewById(R.id.drawer_sw_load_textures);
         if (swLoadTextures != null) {
-            swLoadTextures.setChecked(readBoolSetting("EmuCore/GS", "LoadTextureReplacements", false));
+            swLoadTextures.setChecked(SettingsCache.getBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS, false));
             swLoadTextures.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                NativeApp.setSetting("EmuCore/GS", "LoadTextureReplacements", "bool", isChecked ? "true" : "false");
+                SettingsCache.setBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS, isChecked);
                 try {
                     DebugLog.d("Textures", "LoadTextureReplacements=" + isChecked);
                 } catch (Throwable ignored) {}
@@ -2638,9 +2471,9 @@ public class MainActivity extends AppCompatActivity {
 
         MaterialSwitch swAsyncTextures = findViewById(R.id.drawer_sw_async_textures);
         if (swAsyncTextures != null) {
-            swAsyncTextures.setChecked(readBoolSetting("EmuCore/GS", "LoadTextureReplacementsAsync", false));
+            swAsyncTextures.setChecked(SettingsCache.getBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC, false));
             swAsyncTextures.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                NativeApp.setSetting("EmuCore/GS", "LoadTextureReplacementsAsync", "bool", isChecked ? "true" : "false");
+                SettingsCache.setBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC, isChecked);
                 try {
                     DebugLog.d("Textures", "LoadTextureReplacementsAsync=" + isChecked);
                 } catch (Throwable ignored) {}
@@ -2649,9 +2482,9 @@ public class MainActivity extends AppCompatActivity {
 
         MaterialSwitch swPrecacheTextures = findViewById(R.id.drawer_sw_precache_textures);
         if (swPrecacheTextures != null) {
-            swPrecacheTextures.setChecked(readBoolSetting("EmuCore/GS", "PrecacheTextureReplacements", false));
+            swPrecacheTextures.setChecked(SettingsCache.getBool(NativeSettings.PRECACHE_TEXTURE_REPLACEMENTS, false));
             swPrecacheTextures.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                NativeApp.setSetting("EmuCore/GS", "PrecacheTextureReplacements", "bool", isChecked ? "true" : "false");
+                SettingsCache.setBool(NativeSettings.PRECACHE_TEXTURE_REPLACEMENTS, isChecked);
                 try {
                     DebugLog.d("Textures", "PrecacheTextureReplacements=" + isChecked);
                 } catch (Throwable ignored) {}
@@ -2660,10 +2493,37 @@ public class MainActivity extends AppCompatActivity {
 
         MaterialSwitch swDevHud = findViewById(R.id.drawer_sw_dev_hud);
         if (swDevHud != null) {
-            swDevHud.setChecked(readBoolSetting("EmuCore/GS", "OsdShowFPS", false));
+            swDevHud.setChecked(SettingsCache.getBool(NativeSettings.OSD_SHOW_FPS, false));
             swDevHud.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "OsdShowFPS", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.OSD_SHOW_FPS, isChecked));
         }
+
+        // Per-game overrides and the settings screen change these while the drawer exists
+        syncSwitchWithSetting(swEnableCheats, NativeSettings.ENABLE_CHEATS);
+        syncSwitchWithSetting(drawerWidescreenSwitch, NativeSettings.WIDESCREEN_PATCHES);
+        syncSwitchWithSetting(swNoInterlacing, NativeSettings.NO_INTERLACING_PATCHES);
+        syncSwitchWithSetting(swLoadTextures, NativeSettings.LOAD_TEXTURE_REPLACEMENTS);
+        syncSwitchWithSetting(swAsyncTextures, NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC);
+        syncSwitchWithSetting(swPrecacheTextures, NativeSettings.PRECACHE_TEXTURE_REPLACEMENTS);
+        syncSwitchWithSetting(swDevHud, NativeSettings.OSD_SHOW_FPS);
+    }
+
+    private void syncSwitchWithSetting(@Nullable CompoundButton toggle, NativeSettings.Key key) {
+        if (toggle == null) {
+            return;
+        }
+        // The toggle's own listener writes the same value back, which the cache ignores
+        watchSetting(key, (changedKey, value) -> {
+            boolean checked = SettingsCache.getBool(changedKey, false);
+            if (toggle.isChecked() != checked) {
+                toggle.setChecked(checked);
+            }
+        });
+    }
+
+    private void watchSetting(NativeSettings.Key key, SettingsCache.Listener listener) {
+        SettingsCache.addListener(key, listener);
+        settingUnwatchers.add(() -> SettingsCache.removeListener(key, listener));
     }
 
     private void updateWidescreenToggleVisibility() {
@@ -2682,22 +2542,10 @@ public class MainActivity extends AppCompatActivity {
         drawerWidescreenSwitch.setVisibility(View.VISIBLE);
         drawerWidescreenSwitch.setText(R.string.drawer_apply_widescreen_patch);
         drawerWidescreenSwitch.setOnCheckedChangeListener(null);
-        drawerWidescreenSwitch.setChecked(readBoolSetting("EmuCore", "EnableWideScreenPatches", false));
+        drawerWidescreenSwitch.setChecked(SettingsCache.getBool(NativeSettings.WIDESCREEN_PATCHES, false));
         drawerWidescreenSwitch.setOnCheckedChangeListener(drawerWidescreenListener);
     }
 
-    private boolean readBoolSetting(String section, String key, boolean defaultValue) {
-        try {
-            String value = NativeApp.getSetting(section, key, "bool");
-            if (value == null || value.isEmpty()) {
-                return defaultValue;
-            }
-            return "1".equals(value) || "true".equalsIgnoreCase(value);
-        } catch (Exception ignored) {
-            return defaultValue;
-        }
-    }
-
     private @IdRes int rendererButtonForValue(int value) {
         switch (value) {
             case 12:
@@ -2724,6 +2572,7 @@ public class MainActivity extends AppCompatActivity {
             rendererGroup.check(rendererButtonForValue(rendererValue));
         } else {
             NativeApp.renderGpu(rendererValue);
+            SettingsCache.noteNativeValue(NativeSettings.RENDERER, Integer.toString(rendererValue));
         }
     }
 
@@ -3225,6 +3074,7 @@ public class MainActivity extends AppCompatActivity {
                 if (finalSuccess) {
                     try {
                         NativeApp.setEnableCheats(true);
+                        SettingsCache.noteNativeValue(NativeSettings.ENABLE_CHEATS, "true");
                     } catch (Throwable ignored) {}
                 } else {
                     showDrawerImportFailureDialog(R.string.drawer_error_import_cheats_title, finalError);
@@ -3302,10 +3152,10 @@ public class MainActivity extends AppCompatActivity {
                                 : getString(R.string.drawer_toast_textures_import_failed),
                         Toast.LENGTH_SHORT).show();
                 if (finalSuccess) {
-                    try {
-                        NativeApp.setSetting("EmuCore/GS", "LoadTextureReplacements", "bool", "true");
-                        NativeApp.setSetting("EmuCore/GS", "LoadTextureReplacementsAsync", "bool", "true");
-                    } catch (Throwable ignored) {}
+                    NativeSettings.beginTransaction()
+                            .putBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS, true)
+                            .putBool(NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC, true)
+                            .commit();
                 } else {
                     showDrawerImportFailureDialog(R.string.drawer_error_import_textures_title, finalError);
                 }
@@ -3410,7 +3260,7 @@ public class MainActivity extends AppCompatActivity {
         if (swFps instanceof android.widget.Switch) {
             ((android.widget.Switch) swFps).setChecked(false);
             ((android.widget.Switch) swFps).setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "OsdShowFPS", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.OSD_SHOW_FPS, isChecked));
         }
         View swRes = view.findViewById(R.id.switch_osd_res);
         if (swRes != null) swRes.setVisibility(View.GONE);
@@ -3421,7 +3271,7 @@ public class MainActivity extends AppCompatActivity {
         if (swHw instanceof android.widget.Switch) {
             ((android.widget.Switch) swHw).setChecked(true);
             ((android.widget.Switch) swHw).setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "HardwareReadbacks", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.HARDWARE_READBACKS, isChecked));
         }
 
         View btnImportMc = view.findViewById(R.id.btn_import_memcard);
@@ -3549,6 +3399,16 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         RetroAchievementsBridge.setListener(null);
+        // The process may be killed while in the background; don't leave edits queued
+        GameSpecificSettingsManager.flush(this);
+        if (autoTuneSession != null) {
+            if (autoTuneSession.isConclusive()) {
+                endAutoTuneSession();
+            } else {
+                getWindow().getDecorView().removeCallbacks(autoTuneSampler);
+                AutoTuneManager.suspend(this, autoTuneGameKey);
+            }
+        }
         NativeApp.pause();
         isVmPaused = true;
         updatePauseButtonIcon();
@@ -3577,11 +3437,21 @@ public class MainActivity extends AppCompatActivity {
         loadHideTimeoutFromPrefs();
         refreshOnScreenUiStyleIfNeeded();
         refreshOnScreenUiScaleIfNeeded();
+        if (autoTuneSession != null) {
+            AutoTuneManager.resume(this, autoTuneGameKey);
+            getWindow().getDecorView().removeCallbacks(autoTuneSampler);
+            getWindow().getDecorView().postDelayed(autoTuneSampler, AUTO_TUNE_SAMPLE_INTERVAL_MS);
+        }
     }
 
 	@Override
 	protected void onDestroy() {
+		endAutoTuneSession();
 		stopEmuThread();
+		for (Runnable unwatch : settingUnwatchers) {
+			unwatch.run();
+		}
+		settingUnwatchers.clear();
 		LogcatRecorder.shutdown();
 		super.onDestroy();
 		////
@@ -3607,12 +3477,7 @@ public class MainActivity extends AppCompatActivity {
         restoreGpuDriver();
         
         LogcatRecorder.initialize(getApplicationContext());
-        boolean recordLogs = false;
-        try {
-            String current = NativeApp.getSetting("Logging", "RecordAndroidLog", "bool");
-            recordLogs = "true".equalsIgnoreCase(current);
-        } catch (Exception ignored) {}
-        LogcatRecorder.setEnabled(recordLogs);
+        LogcatRecorder.setEnabled(SettingsCache.getBool(NativeSettings.RECORD_ANDROID_LOG, false));
 
 		// Set up JNI
 		SDLControllerManager.nativeSetupJNI();
@@ -3845,6 +3710,8 @@ public class MainActivity extends AppCompatActivity {
                     }
                 } catch (Throwable ignored) {}
             });
+            // Queued settings writes must reach the INI before the VM reads it
+            SettingsCache.flush();
             NativeApp.runVMThread(m_szGamefile);
         });
         mEmulationThread.start();
@@ -3866,6 +3733,8 @@ public class MainActivity extends AppCompatActivity {
         } else if (forceShutdown) {
             NativeApp.shutdown();
         }
+        // The in-game menu writes settings natively
+        SettingsCache.invalidate();
         try { NativeApp.resetKeyStatus(); } catch (Throwable ignored) {}
         setFastForwardEnabled(false);
         isVmPaused = false;
@@ -3947,19 +3816,22 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private byte[] readFirstBytes(Uri uri, int count) {
-        try {
-            InputStream in = getContentResolver().openInputStream(uri);
+        try (ImageFile image = ImageFile.open(getContentResolver(), uri)) {
+            if (image != null) {
+                return image.readBytes(0, count);
+            }
+        } catch (Exception ignored) {}
+        // Some providers can only stream; read the header the sequential way
+        try (InputStream in = getContentResolver().openInputStream(uri)) {
             if (in == null) return null;
             byte[] buf = new byte[count];
-            int read = in.read(buf);
-            in.close();
-            if (read <= 0) return null;
-            if (read < count) {
-                byte[] cut = new byte[read];
-                System.arraycopy(buf, 0, cut, 0, read);
-                return cut;
-            }
-            return buf;
+            int total = 0;
+            int read;
+            while (total < count && (read = in.read(buf, total, count - total)) > 0) {
+                total += read;
+            }
+            if (total <= 0) return null;
+            return total < count ? Arrays.copyOf(buf, total) : buf;
         } catch (Exception ignored) { return null; }
     }
 
@@ -4661,11 +4533,11 @@ public class MainActivity extends AppCompatActivity {
     private void refreshVibrationPreference() {
         boolean enabled = true;
         try {
-            String vibration = NativeApp.getSetting("Pad1", "Vibration", "bool");
+            String vibration = SettingsCache.get(NativeSettings.PAD1_VIBRATION);
             if (vibration != null && !vibration.isEmpty()) {
                 enabled = !"false".equalsIgnoreCase(vibration);
             } else {
-                NativeApp.setSetting("Pad1", "Vibration", "bool", "true");
+                SettingsCache.setBool(NativeSettings.PAD1_VIBRATION, true);
                 enabled = true;
             }
         } catch (Exception ignored) {}
@@ -4774,7 +4646,40 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void scanGamesFolder(Uri folder) {
-    List<GameEntry> entries = GameScanner.scanFolder(this, folder);
+        if (currentGameScan != null) {
+            currentGameScan.cancel();
+        }
+        final GameScanner.ScanSession session = new GameScanner.ScanSession();
+        currentGameScan = session;
+        List<GameEntry> indexed = GameScanner.loadIndexed(this, folder);
+        final boolean streaming = indexed.isEmpty();
+        if (streaming) {
+            gamesAdapter.update(new ArrayList<>());
+        } else {
+            showGameEntries(folder, indexed, null);
+            focusFirstGame();
+        }
+        new Thread(() -> {
+            GameScanner.ScanListener listener = null;
+            if (streaming) {
+                listener = batch -> runOnUiThread(() -> {
+                    if (session != currentGameScan) return;
+                    gamesAdapter.append(batch);
+                    if (rvGames != null && rvGames.getVisibility() != View.VISIBLE) updateGamesEmptyState(false);
+                });
+            }
+            List<GameEntry> entries = GameScanner.scanFolder(this, folder, session, listener);
+            runOnUiThread(() -> {
+                if (session != currentGameScan) return;
+                showGameEntries(folder, entries, session);
+                try { Toast.makeText(this, "Found " + entries.size() + " game(s)", Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
+                if (streaming) focusFirstGame();
+            });
+        }, "GameScan").start();
+    }
+
+    // session is null while showing the persisted index; metadata is only resolved after a completed walk.
+    private void showGameEntries(Uri folder, List<GameEntry> entries, @Nullable GameScanner.ScanSession session) {
         try {
             java.util.Collections.sort(entries, (a, b) -> {
                 String ta = a != null ? (a.title != null ? a.title : "") : "";
@@ -4791,34 +4696,59 @@ public class MainActivity extends AppCompatActivity {
             try {
                 if (ge != null && (ge.serial == null || ge.serial.isEmpty())) {
                     String name = ge.title != null ? ge.title.toLowerCase() : "";
-                    if (name.endsWith(".iso") || name.endsWith(".img") || name.endsWith(".bin"))
+                    if (name.endsWith(".iso") || name.endsWith(".img") || name.endsWith(".bin")
+                            || name.endsWith(".cso") || name.endsWith(".zso"))
                         toResolve.add(ge);
                 }
             } catch (Throwable ignored) {}
         }
-        if (!toResolve.isEmpty()) {
+        if (session != null && !toResolve.isEmpty()) {
+            final String indexKey = folder.toString();
             new Thread(() -> {
                 android.content.ContentResolver cr = getContentResolver();
-                int n = 0;
+                final java.util.concurrent.atomic.AtomicInteger resolved = new java.util.concurrent.atomic.AtomicInteger();
+                List<java.util.concurrent.Future<?>> pending = new ArrayList<>();
                 for (GameEntry ge : toResolve) {
-                    try {
-                        RedumpDB.Result rd = RedumpDB.lookupByFile(cr, ge.uri);
+                    final Uri uri = ge.uri();
+                    if (uri == null) continue;
+                    // Jobs are queued per storage device so each card is read by a single sequential stream
+                    pending.add(HashPipeline.submit(uri, () -> {
+                        if (session.isCancelled()) return null;
+                        RedumpDB.Result rd = RedumpDB.lookupByFile(cr, uri, ge.size, ge.lastModified);
                         if (rd != null && rd.serial != null && !rd.serial.isEmpty()) {
                             ge.serial = rd.serial;
                             ge.gameTitle = rd.name;
-                            n++;
-                            if (n % 2 == 1) {
-                                runOnUiThread(() -> gamesAdapter.notifyDataSetChanged());
-                            }
+                            GameLibraryIndex.updateResolved(this, indexKey, ge.documentId, rd.serial, rd.name);
+                            resolved.incrementAndGet();
+                            runOnUiThread(() -> gamesAdapter.notifyEntryChanged(ge, GamesAdapter.PAYLOAD_SERIAL));
                         }
-                    } catch (Throwable ignored) {}
+                        return null;
+                    }));
+                }
+                awaitAll(pending);
+                if (resolved.get() > 0) {
+                    GameLibraryIndex.save(this);
                 }
-                if (n > 0) runOnUiThread(() -> gamesAdapter.notifyDataSetChanged());
             }, "RedumpResolve").start();
         }
         if (etSearch != null && etSearch.getText() != null && etSearch.length() > 0) {
             gamesAdapter.setFilter(etSearch.getText().toString());
         }
+        updateGamesEmptyState(entries.isEmpty());
+    }
+
+    private void updateGamesEmptyState(boolean empty) {
+        if (tvEmpty != null) {
+            tvEmpty.setText(empty ? "No games detected in this folder" : "");
+            tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+        }
+        if (emptyContainer != null) emptyContainer.setVisibility(empty ? View.VISIBLE : View.GONE);
+        if (rvGames != null) rvGames.setVisibility(empty ? View.GONE : View.VISIBLE);
+        if (!empty) showHome(true);
+
+    }
+
+    private void focusFirstGame() {
         if (rvGames != null && gamesAdapter.getItemCount() > 0) {
             rvGames.post(() -> {
                 rvGames.requestFocus(); 
@@ -4830,16 +4760,6 @@ public class MainActivity extends AppCompatActivity {
                 }, 100); 
             });
         }
-        boolean empty = entries.isEmpty();
-    try { Toast.makeText(this, "Found " + entries.size() + " game(s)", Toast.LENGTH_SHORT).show(); } catch (Throwable ignored) {}
-        if (tvEmpty != null) {
-            tvEmpty.setText(empty ? "No games detected in this folder" : "");
-            tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
-        }
-        if (emptyContainer != null) emptyContainer.setVisibility(empty ? View.VISIBLE : View.GONE);
-        if (rvGames != null) rvGames.setVisibility(empty ? View.GONE : View.VISIBLE);
-        if (!empty) showHome(true);
-
     }
 
     private static int sortGroup(String title) {
@@ -5040,7 +4960,7 @@ public class MainActivity extends AppCompatActivity {
     // endregion Background image picker
 
     private void onGameSelected(GameEntry entry) {
-        launchGameWithPreflight(entry.uri);
+        launchGameWithPreflight(entry.uri());
     }
 
     // Cheap but effective: if emulator isn't running yet, boot BIOS first, then load the game like the File button flow.
@@ -5098,27 +5018,159 @@ public class MainActivity extends AppCompatActivity {
     }
 
     static class GameEntry {
-        final String title;      
-        final Uri uri;
-        String serial;           
-        String gameTitle;        
-        GameEntry(String t, Uri u) { title = t; uri = u; }
+        final String title;
+        // Shared by every entry of a games folder; the document Uri itself is only built on demand
+        @Nullable private final Uri treeUri;
+        @Nullable final String documentId;
+        // Identifies the document across rescans and filtering; used for RecyclerView ids and diffing.
+        // Hashed from the tree and document id so the ~150 character document Uri string isn't kept
+        // per entry (about 1.5 MB for 10,000 entries)
+        final long stableId;
+        String serial;
+        String gameTitle;
+        long size = -1L;
+        long lastModified;
+        private String fileTitleNoExt;
+        // Document Uri string behind gameKey()/coverKey(), built on first use: only entries that get
+        // bound, prefetched or opened pay for it
+        private String documentKey;
+        // Cover base name and the serial/title it was derived from, recomputed only when those change
+        private String coverBaseName;
+        private String coverBaseSerial;
+        private String coverBaseTitle;
+        GameEntry(String t, @Nullable Uri tree, @Nullable String docId) {
+            title = t;
+            treeUri = tree;
+            documentId = docId;
+            stableId = hasDocument()
+                    ? stableIdOf(stableIdOf(0xcbf29ce484222325L, tree.toString()) ^ '/', docId)
+                    : stableIdOf(0xcbf29ce484222325L, t);
+        }
+        // 64-bit FNV-1a; 32-bit String.hashCode() collides too readily across large libraries
+        static long stableIdOf(long h, String key) {
+            if (key == null) return h;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return h;
+        }
+        boolean hasDocument() { return treeUri != null && documentId != null; }
+        @Nullable Uri uri() {
+            return hasDocument() ? android.provider.DocumentsContract.buildDocumentUriUsingTree(treeUri, documentId) : null;
+        }
+        private String documentKey() {
+            String cached = documentKey;
+            if (cached == null) {
+                cached = uri().toString();
+                documentKey = cached;
+            }
+            return cached;
+        }
+        String gameKey() { return hasDocument() ? documentKey() : "file://" + title; }
+        String coverKey() {
+            if (hasDocument()) return documentKey();
+            if (!TextUtils.isEmpty(title)) return title;
+            return fileTitleNoExt();
+        }
         String fileTitleNoExt() {
-            int i = title.lastIndexOf('.');
-            return (i > 0) ? title.substring(0, i) : title;
+            String cached = fileTitleNoExt;
+            if (cached == null) {
+                int i = title.lastIndexOf('.');
+                cached = (i > 0) ? title.substring(0, i) : title;
+                fileTitleNoExt = cached;
+            }
+            return cached;
+        }
+        synchronized String coverBaseName() {
+            String s = serial;
+            String g = gameTitle;
+            String cached = coverBaseName;
+            if (cached != null && s == coverBaseSerial && g == coverBaseTitle) return cached;
+            String candidate = s;
+            if (TextUtils.isEmpty(candidate)) candidate = g;
+            if (TextUtils.isEmpty(candidate)) candidate = fileTitleNoExt();
+            String sanitized = CoverUrlTemplate.sanitizeFileComponent(candidate);
+            if (TextUtils.isEmpty(sanitized)) {
+                String fallback = title != null ? title : "cover";
+                sanitized = CoverUrlTemplate.sanitizeFileComponent("cover_" + Integer.toHexString(fallback.hashCode()));
+            }
+            if (TextUtils.isEmpty(sanitized)) {
+                sanitized = "cover";
+            }
+            coverBaseSerial = s;
+            coverBaseTitle = g;
+            coverBaseName = sanitized;
+            return sanitized;
         }
     }
 
     static class GameScanner {
     static final String[] EXTS = new String[]{".iso", ".img", ".bin", ".cso", ".zso", ".chd", ".gz"};
-    static List<GameEntry> scanFolder(Context ctx, Uri treeUri) {
+        private static final String[] CHILD_PROJECTION = new String[]{
+                android.provider.DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+                android.provider.DocumentsContract.Document.COLUMN_DISPLAY_NAME,
+                android.provider.DocumentsContract.Document.COLUMN_MIME_TYPE,
+                android.provider.DocumentsContract.Document.COLUMN_SIZE,
+                android.provider.DocumentsContract.Document.COLUMN_LAST_MODIFIED
+        };
+
+        // Entries from the persisted library index only; never touches the documents provider.
+        static List<GameEntry> loadIndexed(Context ctx, Uri treeUri) {
             List<GameEntry> out = new ArrayList<>();
+            if (ctx == null || treeUri == null) return out;
+            try {
+                GameLibraryIndex.RootIndex index = GameLibraryIndex.getRoot(ctx, treeUri.toString());
+                if (index == null) return out;
+                for (GameLibraryIndex.FileRecord record : index.allFiles()) {
+                    out.add(entryFromRecord(treeUri, record));
+                }
+            } catch (Exception ignored) {}
+            return out;
+        }
+
+        // Siblings are listed concurrently; each listing is a binder round trip to the documents provider.
+        static final int SCAN_PARALLELISM = 4;
+        private static final java.util.concurrent.ForkJoinPool sScanPool = new java.util.concurrent.ForkJoinPool(SCAN_PARALLELISM);
+
+        interface ScanListener { void onEntriesFound(List<GameEntry> batch); }
+
+        /** Children of a directory as {@link #CHILD_PROJECTION} rows; the documents provider outside of benchmarks. */
+        interface ChildLister { @Nullable android.database.Cursor listChildren(String parentDocId); }
+
+        static final class ScanSession {
+            private final AtomicBoolean cancelled = new AtomicBoolean(false);
+            void cancel() { cancelled.set(true); }
+            boolean isCancelled() { return cancelled.get(); }
+        }
+
+        static List<GameEntry> scanFolder(Context ctx, Uri treeUri) {
+            return scanFolder(ctx, treeUri, null, null);
+        }
+
+        // Walks the tree, reusing index records for unchanged directories/files, and persists the result.
+        // The listener receives each directory's entries from a worker thread as soon as they are known.
+        static List<GameEntry> scanFolder(Context ctx, Uri treeUri, @Nullable ScanSession session, @Nullable ScanListener listener) {
+            List<GameEntry> out = Collections.synchronizedList(new ArrayList<>());
             android.content.ContentResolver cr = ctx.getContentResolver();
             try {
                 String rootId = android.provider.DocumentsContract.getTreeDocumentId(treeUri);
-                scanChildren(cr, treeUri, rootId, out, 0, 3);
+                String indexKey = treeUri.toString();
+                GameLibraryIndex.RootIndex previous = GameLibraryIndex.getRoot(ctx, indexKey);
+                GameLibraryIndex.RootIndex next = new GameLibraryIndex.RootIndex(rootId);
+                long rootModified = queryLastModified(cr, android.provider.DocumentsContract.buildDocumentUriUsingTree(treeUri, rootId));
+                ChildLister lister = parentDocId -> cr.query(
+                        android.provider.DocumentsContract.buildChildDocumentsUriUsingTree(treeUri, parentDocId),
+                        CHILD_PROJECTION, null, null, null);
+                ScanState state = new ScanState(cr, lister, treeUri, previous, next, out, session, listener, 3);
+                walk(sScanPool, state, rootId, rootModified);
+                if (session != null && session.isCancelled()) {
+                    return new ArrayList<>(out);
+                }
+                GameLibraryIndex.putRoot(ctx, indexKey, next);
+                GameLibraryIndex.save(ctx);
             } catch (Exception ignored) {}
-            return out;
+            return new ArrayList<>(out);
         }
 
         static List<String> debugList(Context ctx, Uri treeUri) {
@@ -5131,22 +5183,100 @@ public class MainActivity extends AppCompatActivity {
             return out;
         }
 
-        private static void scanChildren(android.content.ContentResolver cr, Uri treeUri, String parentDocId,
-                                         List<GameEntry> out, int depth, int maxDepth) {
-            if (depth > maxDepth) return;
-            Uri children = android.provider.DocumentsContract.buildChildDocumentsUriUsingTree(treeUri, parentDocId);
-            try (android.database.Cursor c = cr.query(children, new String[]{
-                    android.provider.DocumentsContract.Document.COLUMN_DOCUMENT_ID,
-                    android.provider.DocumentsContract.Document.COLUMN_DISPLAY_NAME,
-                    android.provider.DocumentsContract.Document.COLUMN_MIME_TYPE
-            }, null, null, null)) {
-                if (c == null) return;
+        /** Walks the tree below {@code rootId} on {@code pool}, filling {@code state}. */
+        static void walk(java.util.concurrent.ForkJoinPool pool, ScanState state, String rootId, long rootModified) {
+            pool.invoke(new DirectoryScanTask(state, rootId, rootModified, 0));
+        }
+
+        static final class ScanState {
+            // Null off-device; serials then only come from file names
+            @Nullable final android.content.ContentResolver cr;
+            final ChildLister lister;
+            @Nullable final Uri treeUri;
+            @Nullable final GameLibraryIndex.RootIndex previous;
+            final GameLibraryIndex.RootIndex next;
+            final List<GameEntry> out;
+            @Nullable final ScanSession session;
+            @Nullable final ScanListener listener;
+            final int maxDepth;
+
+            ScanState(@Nullable android.content.ContentResolver cr, ChildLister lister, @Nullable Uri treeUri,
+                      @Nullable GameLibraryIndex.RootIndex previous, GameLibraryIndex.RootIndex next, List<GameEntry> out,
+                      @Nullable ScanSession session, @Nullable ScanListener listener, int maxDepth) {
+                this.cr = cr;
+                this.lister = lister;
+                this.treeUri = treeUri;
+                this.previous = previous;
+                this.next = next;
+                this.out = out;
+                this.session = session;
+                this.listener = listener;
+                this.maxDepth = maxDepth;
+            }
+
+            boolean isCancelled() { return session != null && session.isCancelled(); }
+
+            void publish(List<GameEntry> batch) {
+                if (batch.isEmpty() || isCancelled()) return;
+                out.addAll(batch);
+                if (listener != null) {
+                    try { listener.onEntriesFound(batch); } catch (Throwable ignored) {}
+                }
+            }
+        }
+
+        private static final class DirectoryScanTask extends java.util.concurrent.RecursiveAction {
+            private final ScanState state;
+            private final String docId;
+            private final long modified;
+            private final int depth;
+
+            DirectoryScanTask(ScanState state, String docId, long modified, int depth) {
+                this.state = state;
+                this.docId = docId;
+                this.modified = modified;
+                this.depth = depth;
+            }
+
+            @Override protected void compute() {
+                if (depth > state.maxDepth || state.isCancelled()) return;
+                List<DirectoryScanTask> subdirs = scanDirectory(state, docId, modified, depth);
+                if (!subdirs.isEmpty() && !state.isCancelled()) invokeAll(subdirs);
+            }
+        }
+
+        private static List<DirectoryScanTask> scanDirectory(ScanState state, String parentDocId, long parentModified, int depth) {
+            Uri treeUri = state.treeUri;
+            GameLibraryIndex.DirRecord cached = state.previous != null ? state.previous.getDir(parentDocId) : null;
+            if (cached != null && cached.childDirs.isEmpty() && cached.isUnchanged(parentModified)) {
+                // Leaf directory with the same stamp as last time: nothing to query.
+                state.next.putDir(cached);
+                List<GameEntry> batch = new ArrayList<>(cached.files.size());
+                for (GameLibraryIndex.FileRecord record : cached.files) {
+                    batch.add(entryFromRecord(treeUri, record));
+                }
+                state.publish(batch);
+                return Collections.emptyList();
+            }
+            Map<String, GameLibraryIndex.FileRecord> cachedFiles = new HashMap<>();
+            if (cached != null) {
+                for (GameLibraryIndex.FileRecord record : cached.files) cachedFiles.put(record.documentId, record);
+            }
+            GameLibraryIndex.DirRecord dir = new GameLibraryIndex.DirRecord(parentDocId, parentModified);
+            List<DirectoryScanTask> subdirs = new ArrayList<>();
+            List<GameEntry> batch = new ArrayList<>();
+            try (android.database.Cursor c = state.lister.listChildren(parentDocId)) {
+                if (c == null) return Collections.emptyList();
                 while (c.moveToNext()) {
+                    if (state.isCancelled()) return Collections.emptyList();
                     String docId = c.getString(0);
                     String name = c.getString(1);
                     String mime = c.getString(2);
+                    long size = c.isNull(3) ? -1L : c.getLong(3);
+                    long modified = c.isNull(4) ? 0L : c.getLong(4);
                     if (mime != null && mime.equals(android.provider.DocumentsContract.Document.MIME_TYPE_DIR)) {
-                        scanChildren(cr, treeUri, docId, out, depth + 1, maxDepth);
+                        dir.childDirs.add(docId);
+                        subdirs.add(new DirectoryScanTask(state, docId, modified, depth + 1));
                         continue;
                     }
                     if (name == null) name = "Unknown";
@@ -5160,31 +5290,72 @@ public class MainActivity extends AppCompatActivity {
                     }
                     boolean match = matchExt || matchMime;
                     if (!match) continue;
-                    Uri doc = android.provider.DocumentsContract.buildDocumentUriUsingTree(treeUri, docId);
-                    GameEntry e = new GameEntry(name, doc);
-                    String ft = e.fileTitleNoExt();
-                    String s = parseSerialFromString(ft);
-                    if (s != null) e.serial = s;
-                    String lowerName = name != null ? name.toLowerCase() : "";
-                    if (e.serial == null && (lowerName.endsWith(".iso") || lowerName.endsWith(".img") || lowerName.endsWith(".cso") || lowerName.endsWith(".zso"))) {
-                        try {
-                            String isoSerial = tryExtractIsoSerial(cr, doc);
-                            if (isoSerial != null) e.serial = isoSerial;
-                        } catch (Throwable t) {
-                            try { DebugLog.d("ISO", "Serial parse failed: " + t.getMessage()); } catch (Throwable ignored) {}
-                        }
+                    GameLibraryIndex.FileRecord record = cachedFiles.get(docId);
+                    if (record == null || !record.isUnchanged(size, modified) || !name.equals(record.displayName)) {
+                        record = new GameLibraryIndex.FileRecord(docId, name, size, modified, formatOf(lower));
+                        record.serial = detectSerial(state.cr, treeUri, docId, name);
                     }
-                    if (e.serial == null && lowerName.endsWith(".bin")) {
-                        try {
-                            String quick = tryExtractBinSerialQuick(cr, doc);
-                            if (quick != null) e.serial = quick;
-                        } catch (Throwable t) {
-                            try { DebugLog.d("BIN", "Quick serial scan failed: " + t.getMessage()); } catch (Throwable ignored) {}
-                        }
-                    }
-                    out.add(e);
+                    dir.files.add(record);
+                    batch.add(entryFromRecord(treeUri, record));
+                }
+            } catch (Exception ignored) {
+                return Collections.emptyList();
+            }
+            state.next.putDir(dir);
+            state.publish(batch);
+            return subdirs;
+        }
+
+        private static String detectSerial(@Nullable android.content.ContentResolver cr, @Nullable Uri treeUri, String docId, String name) {
+            String serial = parseSerialFromString(stripExt(name));
+            if (serial != null || cr == null || treeUri == null) return serial;
+            Uri doc = android.provider.DocumentsContract.buildDocumentUriUsingTree(treeUri, docId);
+            String lowerName = name.toLowerCase();
+            SectorSource source = openSectorSource(cr, doc, lowerName);
+            if (source != null) {
+                try {
+                    String isoSerial = tryExtractIsoSerial(source);
+                    if (isoSerial != null) return isoSerial;
+                } catch (Throwable t) {
+                    try { DebugLog.d("ISO", "Serial parse failed: " + t.getMessage()); } catch (Throwable ignored) {}
+                } finally {
+                    try { source.close(); } catch (Exception ignored) {}
+                }
+            }
+            if (lowerName.endsWith(".bin")) {
+                try {
+                    String quick = tryExtractBinSerialQuick(cr, doc);
+                    if (quick != null) return quick;
+                } catch (Throwable t) {
+                    try { DebugLog.d("BIN", "Quick serial scan failed: " + t.getMessage()); } catch (Throwable ignored) {}
+                }
+            }
+            return null;
+        }
+
+        private static GameEntry entryFromRecord(@Nullable Uri treeUri, GameLibraryIndex.FileRecord record) {
+            GameEntry e = new GameEntry(record.displayName, treeUri, record.documentId);
+            e.size = record.size;
+            e.lastModified = record.lastModified;
+            e.serial = record.serial;
+            e.gameTitle = record.title;
+            return e;
+        }
+
+        private static String formatOf(String lowerName) {
+            int dot = lowerName.lastIndexOf('.');
+            return dot >= 0 ? lowerName.substring(dot + 1) : "";
+        }
+
+        private static long queryLastModified(android.content.ContentResolver cr, Uri documentUri) {
+            try (android.database.Cursor c = cr.query(documentUri, new String[]{
+                    android.provider.DocumentsContract.Document.COLUMN_LAST_MODIFIED
+            }, null, null, null)) {
+                if (c != null && c.moveToFirst() && !c.isNull(0)) {
+                    return c.getLong(0);
                 }
             } catch (Exception ignored) {}
+            return 0L;
         }
 
         private static void debugChildren(android.content.ContentResolver cr, Uri treeUri, String parentDocId,
@@ -5227,32 +5398,42 @@ public class MainActivity extends AppCompatActivity {
             return (i > 0) ? name.substring(0, i) : name;
         }
 
+        private static final java.util.regex.Pattern SERIAL_PATTERN = java.util.regex.Pattern.compile(
+                "(S[CL](?:ES|US|PS|CS)?[-_]?[0-9]{3,5}(?:\\.[0-9]{2})?)",
+                java.util.regex.Pattern.CASE_INSENSITIVE);
+        private static final java.util.regex.Pattern LEADING_LETTERS = java.util.regex.Pattern.compile("^([A-Z]+)([0-9])");
+        private static final java.util.regex.Pattern BOOT_PATTERN = java.util.regex.Pattern.compile(
+                "BOOT\\d*\\s*=\\s*[^\\\\\\r\\n]*\\\\([A-Z0-9_\\.]+)",
+                java.util.regex.Pattern.CASE_INSENSITIVE);
+
     static String parseSerialFromString(String s) {
             if (s == null) return null;
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(
-            "(S[CL](?:ES|US|PS|CS)?[-_]?[0-9]{3,5}(?:\\.[0-9]{2})?)",
-            java.util.regex.Pattern.CASE_INSENSITIVE);
-            java.util.regex.Matcher m = p.matcher(s);
+            java.util.regex.Matcher m = SERIAL_PATTERN.matcher(s);
             if (m.find()) {
                 String v = m.group(1).toUpperCase();
                 v = v.replace('_','-');
                 v = v.replace(".", "");
-                v = v.replaceAll("^([A-Z]+)([0-9])", "$1-$2");
+                v = LEADING_LETTERS.matcher(v).replaceAll("$1-$2");
                 return v;
             }
             return null;
         }
 
-        static String tryExtractIsoSerial(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
+        /**
+         * Reads SYSTEM.CNF through the ISO9660 primary volume descriptor and root directory, which
+         * costs a handful of sectors regardless of the container format.
+         */
+        @Nullable
+        static String tryExtractIsoSerial(SectorSource source) throws java.io.IOException {
             final int SECTOR = 2048;
-            byte[] pvd = readRange(cr, uri, 16L * SECTOR, SECTOR);
+            byte[] pvd = source.read(16, 1);
             if (pvd == null || pvd.length < SECTOR) return null;
             if (pvd[0] != 0x01 || pvd[1] != 'C' || pvd[2] != 'D' || pvd[3] != '0' || pvd[4] != '0' || pvd[5] != '1')
                 return null;
             int rootLBA = u32le(pvd, 156 + 2);
             int rootSize = u32le(pvd, 156 + 10);
             if (rootLBA <= 0 || rootSize <= 0 || rootSize > 512 * 1024) rootSize = 64 * 1024;
-            byte[] dir = readRange(cr, uri, (long) rootLBA * SECTOR, rootSize);
+            byte[] dir = source.read(rootLBA, (rootSize + SECTOR - 1) / SECTOR);
             if (dir == null) return null;
             int off = 0;
             while (off < dir.length) {
@@ -5276,12 +5457,10 @@ public class MainActivity extends AppCompatActivity {
                         if (semi >= 0) norm = norm.substring(0, semi);
                         if ("SYSTEM.CNF".equalsIgnoreCase(norm)) {
                             int readSize = Math.min(size, 4096);
-                            byte[] cnf = readRange(cr, uri, (long) lba * SECTOR, readSize);
+                            byte[] cnf = source.read(lba, (readSize + SECTOR - 1) / SECTOR);
                             if (cnf != null) {
-                                String txt = new String(cnf, java.nio.charset.StandardCharsets.US_ASCII);
-                java.util.regex.Matcher m = java.util.regex.Pattern.compile(
-                    "BOOT\\d*\\s*=\\s*[^\\\\\\r\\n]*\\\\([A-Z0-9_\\.]+)",
-                    java.util.regex.Pattern.CASE_INSENSITIVE).matcher(txt);
+                                String txt = new String(cnf, 0, Math.min(readSize, cnf.length), java.nio.charset.StandardCharsets.US_ASCII);
+                java.util.regex.Matcher m = BOOT_PATTERN.matcher(txt);
                                 if (m.find()) {
                                     String bootElf = m.group(1);
                                     String serial = parseSerialFromString(bootElf);
@@ -5297,35 +5476,140 @@ public class MainActivity extends AppCompatActivity {
             return null;
         }
 
+        private static final int BIN_SCAN_LIMIT = 8 * 1024 * 1024;
+        // Whole raw sectors per read, so a SYSTEM.CNF sector never straddles two chunks
+        private static final int BIN_SCAN_CHUNK = 32 * 2352;
+        private static final int BOOT_LINE_MAX = 128;
+        // Longest text matchSerial accepts: SCES_12345.67
+        private static final int SERIAL_TEXT_MAX = 13;
+        private static final ThreadLocal<byte[]> sBinScanBuffer =
+                ThreadLocal.withInitial(() -> new byte[BOOT_LINE_MAX + BIN_SCAN_CHUNK]);
+        private static final int[] BOOT_SHIFT = new int[256];
+        static {
+            // Boyer-Moore-Horspool shifts for the key "BOOT", either case
+            Arrays.fill(BOOT_SHIFT, 4);
+            BOOT_SHIFT['B'] = 3;
+            BOOT_SHIFT['b'] = 3;
+            BOOT_SHIFT['O'] = 1;
+            BOOT_SHIFT['o'] = 1;
+        }
+
+        /**
+         * Last resort for raw BIN images whose ISO9660 structures could not be followed: streams the
+         * first sectors through one reusable per-thread buffer looking for the SYSTEM.CNF
+         * {@code BOOT2 = cdrom0:\XXXX_YYY.ZZ;1} line. The text of SYSTEM.CNF is contiguous inside the user
+         * data of its sector for both Mode 1 and Mode 2 layouts, so the raw bytes can be searched as-is.
+         * The same pass remembers the first text shaped like a serial, which is the answer when no BOOT
+         * line turns up.
+         */
         static String tryExtractBinSerialQuick(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
-            final int MAX = 8 * 1024 * 1024; 
-            byte[] buf;
-            try (java.io.InputStream in = CsoUtils.openInputStream(cr, uri)) {
-                if (in == null) return null;
-                java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream(Math.min(MAX, 1 << 20));
-                byte[] tmp = new byte[64 * 1024];
-                int total = 0;
-                while (total < MAX) {
-                    int want = Math.min(tmp.length, MAX - total);
-                    int r = in.read(tmp, 0, want);
+            return tryExtractBinSerialQuick(ImageFile.open(cr, uri));
+        }
+
+        /** As above over an already opened image, which is closed on return. */
+        @Nullable
+        static String tryExtractBinSerialQuick(@Nullable ImageFile opened) throws java.io.IOException {
+            try (ImageFile image = opened) {
+                if (image == null) return null;
+                byte[] buf = sBinScanBuffer.get();
+                long limit = Math.min(BIN_SCAN_LIMIT, image.size());
+                long pos = 0;
+                int carry = 0;
+                String fallback = null;
+                // Where the serial-text scan resumes; bytes before it were checked in an earlier chunk
+                int serialFrom = 0;
+                while (pos < limit) {
+                    int want = (int) Math.min(BIN_SCAN_CHUNK, limit - pos);
+                    int r = image.read(ByteBuffer.wrap(buf, carry, want), pos);
                     if (r <= 0) break;
-                    bos.write(tmp, 0, r);
-                    total += r;
+                    pos += r;
+                    int end = carry + r;
+                    boolean last = pos >= limit;
+                    int serialTo = last ? end : end - SERIAL_TEXT_MAX;
+                    if (fallback == null) {
+                        for (int j = serialFrom; j < serialTo; j++) {
+                            if ((buf[j] | 0x20) == 's') {
+                                fallback = matchSerial(buf, j, end);
+                                if (fallback != null) break;
+                            }
+                        }
+                    }
+                    int i = 0;
+                    while (i + 4 <= end) {
+                        int tail = buf[i + 3] & 0xFF;
+                        // | 0x20 folds ASCII letters to lower case
+                        if ((tail | 0x20) == 't' && (buf[i] | 0x20) == 'b' && (buf[i + 1] | 0x20) == 'o' && (buf[i + 2] | 0x20) == 'o') {
+                            if (!last && end - i < BOOT_LINE_MAX) {
+                                // The line may continue in the next chunk; it is rescanned from the carried tail
+                                break;
+                            }
+                            String serial = parseBootLine(buf, i + 4, end);
+                            if (serial != null) return serial;
+                            i += 4;
+                            continue;
+                        }
+                        i += BOOT_SHIFT[tail];
+                    }
+                    carry = Math.min(end, BOOT_LINE_MAX);
+                    System.arraycopy(buf, end - carry, buf, 0, carry);
+                    serialFrom = Math.max(0, serialTo - (end - carry));
                 }
-                buf = bos.toByteArray();
+                return fallback;
             }
-            if (buf == null || buf.length == 0) return null;
-            String txt = new String(buf, java.nio.charset.StandardCharsets.US_ASCII);
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile(
-                "BOOT\\d*\\s*=\\s*[^\\\\\\r\\n]*\\\\([A-Z0-9_\\.]+)",
-                java.util.regex.Pattern.CASE_INSENSITIVE).matcher(txt);
-            if (m.find()) {
-                String bootElf = m.group(1);
-                String serial = parseSerialFromString(bootElf);
+        }
+
+        /**
+         * Byte-level equivalent of {@link #parseSerialFromString} anchored at {@code at}: matches
+         * {@code S[CL](ES|US|PS|CS)?[-_]?[0-9]{3,5}(\.[0-9]{2})?} in either case and returns it normalised.
+         */
+        @Nullable
+        private static String matchSerial(byte[] buf, int at, int end) {
+            if (at + 5 > end || (buf[at] | 0x20) != 's') return null;
+            int second = buf[at + 1] | 0x20;
+            if (second != 'c' && second != 'l') return null;
+            int third = buf[at + 2] | 0x20;
+            if ((buf[at + 3] | 0x20) == 's' && (third == 'e' || third == 'u' || third == 'p' || third == 'c')) {
+                String serial = matchSerialNumber(buf, at, 4, end);
                 if (serial != null) return serial;
             }
-            String s2 = parseSerialFromString(txt);
-            return s2;
+            // Like the regex, fall back to the two-letter prefix when the four-letter one has no number
+            return matchSerialNumber(buf, at, 2, end);
+        }
+
+        @Nullable
+        private static String matchSerialNumber(byte[] buf, int at, int letters, int end) {
+            int i = at + letters;
+            if (i < end && (buf[i] == '-' || buf[i] == '_')) i++;
+            int digitsStart = i;
+            while (i < end && i - digitsStart < 5 && buf[i] >= '0' && buf[i] <= '9') i++;
+            if (i - digitsStart < 3) return null;
+            StringBuilder sb = new StringBuilder(letters + 8);
+            for (int k = 0; k < letters; k++) sb.append((char) (buf[at + k] & 0xDF));
+            sb.append('-');
+            for (int k = digitsStart; k < i; k++) sb.append((char) buf[k]);
+            if (i + 3 <= end && buf[i] == '.' && buf[i + 1] >= '0' && buf[i + 1] <= '9' && buf[i + 2] >= '0' && buf[i + 2] <= '9') {
+                sb.append((char) buf[i + 1]).append((char) buf[i + 2]);
+            }
+            return sb.toString();
+        }
+
+        /** Parses {@code [digits] = device:\NAME;1} following a BOOT key; null if it is not such a line. */
+        @Nullable
+        private static String parseBootLine(byte[] buf, int from, int end) {
+            int i = from;
+            int stop = Math.min(end, from + BOOT_LINE_MAX);
+            while (i < stop && buf[i] >= '0' && buf[i] <= '9') i++;
+            while (i < stop && (buf[i] == ' ' || buf[i] == '\t')) i++;
+            if (i >= stop || buf[i] != '=') return null;
+            i++;
+            int nameStart = i;
+            int lineEnd = i;
+            while (lineEnd < stop && buf[lineEnd] != '\r' && buf[lineEnd] != '\n' && buf[lineEnd] != ';' && buf[lineEnd] != 0) {
+                if (buf[lineEnd] == '\\' || buf[lineEnd] == ':' || buf[lineEnd] == '/') nameStart = lineEnd + 1;
+                lineEnd++;
+            }
+            if (lineEnd <= nameStart) return null;
+            return parseSerialFromString(new String(buf, nameStart, lineEnd - nameStart, java.nio.charset.StandardCharsets.US_ASCII).trim());
         }
 
         private static int u8(byte[] a, int i) { return (i >= 0 && i < a.length) ? (a[i] & 0xFF) : 0; }
@@ -5333,70 +5617,171 @@ public class MainActivity extends AppCompatActivity {
             if (i + 3 >= a.length) return 0;
             return (a[i] & 0xFF) | ((a[i+1] & 0xFF) << 8) | ((a[i+2] & 0xFF) << 16) | ((a[i+3] & 0xFF) << 24);
         }
-        private static byte[] readRange(android.content.ContentResolver cr, Uri uri, long offset, int size) throws java.io.IOException {
-            if (size <= 0) return null;
-            if (size > 2 * 1024 * 1024) size = 2 * 1024 * 1024;
-            byte[] csoBytes = CsoUtils.readRange(cr, uri, offset, size);
-            if (csoBytes != null) {
-                return csoBytes;
-            }
-            try (java.io.InputStream in = cr.openInputStream(uri)) {
-                if (in == null) return null;
-                long toSkip = offset;
-                byte[] skipBuf = new byte[8192];
-                while (toSkip > 0) {
-                    long skipped = in.skip(toSkip);
-                    if (skipped <= 0) {
-                        int r = in.read(skipBuf, 0, (int) Math.min(skipBuf.length, toSkip));
-                        if (r <= 0) break;
-                        toSkip -= r;
-                    } else {
-                        toSkip -= skipped;
+        /** 2048-byte user-data sectors of a disc image, independent of how the image is stored. */
+        interface SectorSource extends Closeable {
+            @Nullable
+            byte[] read(long lsn, int count) throws java.io.IOException;
+        }
+
+        /**
+         * Opens the cheapest reader for the image: positional FileChannel reads for ISO/BIN (cooked
+         * or raw 2352-byte sectors), the CSO block table for CSO/ZSO, and the core's own disc reader
+         * for CHD and GZ. Returns null when the image has no recognisable ISO9660 layout.
+         */
+        @Nullable
+        static SectorSource openSectorSource(android.content.ContentResolver cr, Uri uri, String lowerName) {
+            if (lowerName.endsWith(".chd") || lowerName.endsWith(".gz")) {
+                return NativeSectorSource.open(uri);
+            }
+            try {
+                SectorSource source = openImageSectorSource(() -> ImageFile.open(cr, uri), lowerName);
+                if (source != null) {
+                    return source;
+                }
+            } catch (Exception ignored) {}
+            return NativeSectorSource.open(uri);
+        }
+
+        interface ImageOpener { @Nullable ImageFile open() throws java.io.IOException; }
+
+        /** The CSO/ZSO or flat ISO/BIN tier of {@link #openSectorSource}, each attempt on a fresh handle from {@code opener}. */
+        @Nullable
+        static SectorSource openImageSectorSource(ImageOpener opener, String lowerName) throws java.io.IOException {
+            if (lowerName.endsWith(".cso") || lowerName.endsWith(".zso")) {
+                CsoUtils.CsoReader reader = CsoUtils.CsoReader.open(opener.open());
+                if (reader != null) {
+                    return new SectorSource() {
+                        @Override
+                        public byte[] read(long lsn, int count) throws java.io.IOException {
+                            return reader.readRange(lsn * 2048L, count * 2048);
+                        }
+
+                        @Override
+                        public void close() throws java.io.IOException {
+                            reader.close();
+                        }
+                    };
+                }
+            }
+            return FlatSectorSource.open(opener.open());
+        }
+
+        static final class FlatSectorSource implements SectorSource {
+            // {sector size, offset of the user data inside a sector}: cooked ISO, raw Mode 2 and raw Mode 1
+            private static final int[][] LAYOUTS = {{2048, 0}, {2352, 24}, {2352, 16}};
+
+            private final ImageFile image;
+            private final int sectorSize;
+            private final int dataOffset;
+
+            private FlatSectorSource(ImageFile image, int sectorSize, int dataOffset) {
+                this.image = image;
+                this.sectorSize = sectorSize;
+                this.dataOffset = dataOffset;
+            }
+
+            /** Takes over {@code image}, closing it if no layout matches. */
+            @Nullable
+            static FlatSectorSource open(@Nullable ImageFile image) throws java.io.IOException {
+                if (image == null) {
+                    return null;
+                }
+                for (int[] layout : LAYOUTS) {
+                    byte[] magic = image.readBytes(16L * layout[0] + layout[1], 6);
+                    if (magic != null && magic.length == 6 && magic[0] == 0x01 && magic[1] == 'C' && magic[2] == 'D'
+                            && magic[3] == '0' && magic[4] == '0' && magic[5] == '1') {
+                        return new FlatSectorSource(image, layout[0], layout[1]);
                     }
                 }
-                byte[] buf = new byte[size];
-                int off2 = 0;
-                while (off2 < size) {
-                    int r = in.read(buf, off2, size - off2);
-                    if (r <= 0) break;
-                    off2 += r;
+                image.close();
+                return null;
+            }
+
+            @Override
+            public byte[] read(long lsn, int count) throws java.io.IOException {
+                if (count <= 0) return null;
+                if (sectorSize == 2048) {
+                    return image.readBytes(lsn * 2048L, count * 2048);
+                }
+                byte[] out = new byte[count * 2048];
+                int filled = 0;
+                for (int i = 0; i < count; i++) {
+                    int r = image.read(ByteBuffer.wrap(out, i * 2048, 2048), (lsn + i) * sectorSize + dataOffset);
+                    filled += r;
+                    if (r < 2048) break;
+                }
+                if (filled == 0) return null;
+                return filled < out.length ? Arrays.copyOf(out, filled) : out;
+            }
+
+            @Override
+            public void close() throws java.io.IOException {
+                image.close();
+            }
+        }
+
+        private static final class NativeSectorSource implements SectorSource {
+            private long handle;
+
+            private NativeSectorSource(long handle) {
+                this.handle = handle;
+            }
+
+            @Nullable
+            static NativeSectorSource open(Uri uri) {
+                try {
+                    long handle = NativeApp.openDiscImage(uri.toString());
+                    return handle != 0 ? new NativeSectorSource(handle) : null;
+                } catch (Throwable t) {
+                    // Core library unavailable; this tier is simply skipped
+                    return null;
+                }
+            }
+
+            @Override
+            public byte[] read(long lsn, int count) {
+                if (handle == 0 || lsn < 0 || lsn > Integer.MAX_VALUE) return null;
+                return NativeApp.readDiscSectors(handle, (int) lsn, count);
+            }
+
+            @Override
+            public void close() {
+                if (handle != 0) {
+                    NativeApp.closeDiscImage(handle);
+                    handle = 0;
                 }
-                if (off2 == 0) return null;
-                if (off2 < size) return java.util.Arrays.copyOf(buf, off2);
-                return buf;
             }
         }
     }
 
-    private static final class CsoUtils {
+    static final class CsoUtils {
         private static final int MAGIC_CISO = 0x4F534943;
         private static final int MAGIC_ZISO = 0x4F53495A;
 
         private CsoUtils() {}
 
         @Nullable
-        static byte[] readRange(android.content.ContentResolver cr, Uri uri, long offset, int size) {
-            CsoReader reader = null;
-            try {
-                reader = CsoReader.open(cr, uri);
-                if (reader == null) {
-                    return null;
-                }
-                return reader.readRange(offset, size);
-            } catch (Exception ignored) {
-                return null;
-            } finally {
-                closeQuietly(reader);
-            }
+        static java.io.InputStream openInputStream(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
+            java.nio.channels.ReadableByteChannel channel = openChannel(cr, uri);
+            return channel != null ? java.nio.channels.Channels.newInputStream(channel) : null;
         }
 
+        /** Plain images are read straight from the descriptor's FileChannel; CSO/ZSO are decompressed on the fly. */
         @Nullable
-        static java.io.InputStream openInputStream(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
+        static java.nio.channels.ReadableByteChannel openChannel(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
             CsoReader reader = CsoReader.open(cr, uri);
-            if (reader == null) {
-                return cr.openInputStream(uri);
+            if (reader != null) {
+                return new CsoChannel(reader);
             }
-            return new CsoInputStream(reader);
+            ImageFile image = null;
+            try {
+                image = ImageFile.open(cr, uri);
+            } catch (Exception ignored) {}
+            if (image != null) {
+                return image;
+            }
+            java.io.InputStream in = cr.openInputStream(uri);
+            return in != null ? java.nio.channels.Channels.newChannel(in) : null;
         }
 
         private static void closeQuietly(@Nullable Closeable closeable) {
@@ -5408,83 +5793,91 @@ public class MainActivity extends AppCompatActivity {
             } catch (Exception ignored) {}
         }
 
-        private static final class CsoReader implements Closeable {
-            private final ParcelFileDescriptor descriptor;
-            private final FileInputStream inputStream;
-            private final FileChannel channel;
+        /**
+         * Random-access reader over a CSO (deflate) or ZSO (LZ4) image. One instance keeps the
+         * descriptor and index table open, inflates with a single reused {@link Inflater} and keeps
+         * the most recently used decompressed blocks, so repeated small reads (ISO9660 parsing)
+         * cost one block decode each at most. Not thread-safe.
+         */
+        static final class CsoReader implements Closeable {
+            private static final int CACHED_BLOCKS = 8;
+
+            private final ImageFile image;
             private final long uncompressedSize;
             private final int blockSize;
             private final int alignShift;
             private final int[] indexTable;
             private final int blockCount;
-
-            private CsoReader(ParcelFileDescriptor descriptor, FileInputStream inputStream, FileChannel channel,
-                              long uncompressedSize, int blockSize, int alignShift, int[] indexTable) {
-                this.descriptor = descriptor;
-                this.inputStream = inputStream;
-                this.channel = channel;
+            private final boolean lz4;
+            private final Inflater inflater = new Inflater(true);
+            private final java.util.LinkedHashMap<Integer, byte[]> cache =
+                    new java.util.LinkedHashMap<>(CACHED_BLOCKS * 2, 0.75f, true);
+            private byte[] compressed = new byte[0];
+
+            private CsoReader(ImageFile image, long uncompressedSize, int blockSize, int alignShift,
+                              int[] indexTable, boolean lz4) {
+                this.image = image;
                 this.uncompressedSize = uncompressedSize;
                 this.blockSize = blockSize;
                 this.alignShift = alignShift;
                 this.indexTable = indexTable;
                 this.blockCount = indexTable.length - 1;
+                this.lz4 = lz4;
             }
 
             static CsoReader open(android.content.ContentResolver cr, Uri uri) throws java.io.IOException {
-                ParcelFileDescriptor pfd = cr.openFileDescriptor(uri, "r");
-                if (pfd == null) {
+                return open(ImageFile.open(cr, uri));
+            }
+
+            /** Takes over {@code image}, closing it if it is not a CSO or ZSO image. */
+            @Nullable
+            static CsoReader open(@Nullable ImageFile image) throws java.io.IOException {
+                if (image == null) {
                     return null;
                 }
-                FileInputStream fis = null;
                 try {
-                    fis = new FileInputStream(pfd.getFileDescriptor());
-                    FileChannel channel = fis.getChannel();
                     ByteBuffer header = ByteBuffer.allocate(0x18).order(ByteOrder.LITTLE_ENDIAN);
-                    if (channel.read(header) < 0x18) {
-                        closeQuietly(fis);
-                        closeQuietly(pfd);
+                    if (image.read(header, 0) < 0x18) {
+                        closeQuietly(image);
                         return null;
                     }
                     header.flip();
                     int magic = header.getInt();
                     if (magic != MAGIC_CISO && magic != MAGIC_ZISO) {
-                        closeQuietly(fis);
-                        closeQuietly(pfd);
+                        closeQuietly(image);
                         return null;
                     }
-                    int headerSize = header.getInt();
+                    header.getInt(); // header_size
                     long uncompressedSize = header.getLong();
                     int blockSize = header.getInt();
                     header.get();
                     int align = header.get() & 0xFF;
                     header.get();
                     header.get();
-                    if (blockSize <= 0 || uncompressedSize <= 0 || headerSize < 0x18) {
-                        closeQuietly(fis);
-                        closeQuietly(pfd);
+                    if (blockSize <= 0 || uncompressedSize <= 0) {
+                        closeQuietly(image);
                         return null;
                     }
-                    int entryCount = (headerSize - 0x18) / 4;
-                    if (entryCount <= 1) {
-                        closeQuietly(fis);
-                        closeQuietly(pfd);
+                    // The index follows the 0x18-byte header; some writers leave header_size at 0
+                    long entries = (uncompressedSize + blockSize - 1) / blockSize + 1;
+                    if (entries <= 1 || entries > (64L << 20)) {
+                        closeQuietly(image);
                         return null;
                     }
+                    int entryCount = (int) entries;
                     int[] table = new int[entryCount];
                     ByteBuffer indexBuffer = ByteBuffer.allocate(entryCount * 4).order(ByteOrder.LITTLE_ENDIAN);
-                    if (channel.read(indexBuffer) < entryCount * 4) {
-                        closeQuietly(fis);
-                        closeQuietly(pfd);
+                    if (image.read(indexBuffer, 0x18) < entryCount * 4) {
+                        closeQuietly(image);
                         return null;
                     }
                     indexBuffer.flip();
                     for (int i = 0; i < entryCount; i++) {
                         table[i] = indexBuffer.getInt();
                     }
-                    return new CsoReader(pfd, fis, channel, uncompressedSize, blockSize, align, table);
+                    return new CsoReader(image, uncompressedSize, blockSize, align, table, magic == MAGIC_ZISO);
                 } catch (Exception e) {
-                    closeQuietly(fis);
-                    closeQuietly(pfd);
+                    closeQuietly(image);
                     throw e;
                 }
             }
@@ -5493,35 +5886,64 @@ public class MainActivity extends AppCompatActivity {
                 if (size <= 0 || offset < 0 || offset >= uncompressedSize) {
                     return null;
                 }
-                int cappedSize = (int)Math.min(size, uncompressedSize - offset);
-                byte[] output = new byte[cappedSize];
-                byte[] blockBuffer = new byte[blockSize];
-                int startBlock = (int)(offset / blockSize);
-                int endBlock = Math.min(blockCount, (int)Math.ceil((offset + cappedSize) / (double)blockSize));
-                int outOffset = 0;
-                int offsetInBlock = (int)(offset % blockSize);
-                long remaining = cappedSize;
-                for (int block = startBlock; block < endBlock && remaining > 0; block++) {
-                    int produced = readBlockInto(block, blockBuffer);
-                    if (produced <= 0) {
+                byte[] output = new byte[(int) Math.min(size, uncompressedSize - offset)];
+                int produced = read(offset, output, 0, output.length);
+                if (produced <= 0) {
+                    return null;
+                }
+                return produced < output.length ? Arrays.copyOf(output, produced) : output;
+            }
+
+            /** Copies up to {@code len} bytes starting at {@code position}; returns -1 at the end of the image. */
+            int read(long position, byte[] dst, int off, int len) throws java.io.IOException {
+                if (position >= uncompressedSize) {
+                    return -1;
+                }
+                len = (int) Math.min(len, uncompressedSize - position);
+                int total = 0;
+                while (total < len) {
+                    long at = position + total;
+                    int blockIndex = (int) (at / blockSize);
+                    byte[] block = block(blockIndex);
+                    if (block == null) {
                         break;
                     }
-                    int start = (block == startBlock) ? offsetInBlock : 0;
-                    if (start >= produced) {
-                        continue;
+                    int inBlock = (int) (at - (long) blockIndex * blockSize);
+                    int available = expectedSize(blockIndex) - inBlock;
+                    if (available <= 0) {
+                        break;
                     }
-                    int copyLength = (int)Math.min(produced - start, remaining);
-                    System.arraycopy(blockBuffer, start, output, outOffset, copyLength);
-                    outOffset += copyLength;
-                    remaining -= copyLength;
+                    int copy = Math.min(available, len - total);
+                    System.arraycopy(block, inBlock, dst, off + total, copy);
+                    total += copy;
                 }
-                if (outOffset == 0) {
-                    return null;
+                return total > 0 ? total : -1;
+            }
+
+            private int expectedSize(int blockIndex) {
+                return (int) Math.min(blockSize, uncompressedSize - ((long) blockIndex * blockSize));
+            }
+
+            @Nullable
+            private byte[] block(int blockIndex) throws java.io.IOException {
+                byte[] cached = cache.get(blockIndex);
+                if (cached != null) {
+                    return cached;
                 }
-                if (outOffset < output.length) {
-                    return Arrays.copyOf(output, outOffset);
+                byte[] dest = null;
+                if (cache.size() >= CACHED_BLOCKS) {
+                    java.util.Iterator<Map.Entry<Integer, byte[]>> eldest = cache.entrySet().iterator();
+                    dest = eldest.next().getValue();
+                    eldest.remove();
                 }
-                return output;
+                if (dest == null) {
+                    dest = new byte[blockSize];
+                }
+                if (readBlockInto(blockIndex, dest) <= 0) {
+                    return null;
+                }
+                cache.put(blockIndex, dest);
+                return dest;
             }
 
             int readBlockInto(int blockIndex, byte[] dest) throws java.io.IOException {
@@ -5532,7 +5954,7 @@ public class MainActivity extends AppCompatActivity {
                 long endOffset = (long)(indexTable[blockIndex + 1] & 0x7FFFFFFFL) << alignShift;
                 boolean isPlain = (indexTable[blockIndex] & 0x80000000) != 0;
                 int compressedSize = (int)Math.max(0, endOffset - startOffset);
-                int expectedSize = (int)Math.min(blockSize, uncompressedSize - ((long)blockIndex * blockSize));
+                int expectedSize = expectedSize(blockIndex);
                 if (expectedSize <= 0) {
                     return 0;
                 }
@@ -5540,18 +5962,10 @@ public class MainActivity extends AppCompatActivity {
                     Arrays.fill(dest, 0, expectedSize, (byte)0);
                     return expectedSize;
                 }
-                byte[] compressed = new byte[compressedSize];
-                ByteBuffer buffer = ByteBuffer.wrap(compressed);
-                channel.position(startOffset);
-                int readTotal = 0;
-                while (buffer.hasRemaining()) {
-                    int r = channel.read(buffer);
-                    if (r <= 0) {
-                        break;
-                    }
-                    readTotal += r;
+                if (compressed.length < compressedSize) {
+                    compressed = new byte[compressedSize];
                 }
-                if (readTotal != compressedSize) {
+                if (image.read(ByteBuffer.wrap(compressed, 0, compressedSize), startOffset) != compressedSize) {
                     return -1;
                 }
                 if (isPlain) {
@@ -5562,271 +5976,244 @@ public class MainActivity extends AppCompatActivity {
                     }
                     return expectedSize;
                 }
-                Inflater inflater = new Inflater(true);
+                if (lz4) {
+                    int total = Lz4.decompress(compressed, compressedSize, dest, expectedSize);
+                    if (total < 0) {
+                        return -1;
+                    }
+                    if (total < expectedSize) {
+                        Arrays.fill(dest, total, expectedSize, (byte)0);
+                    }
+                    return expectedSize;
+                }
+                inflater.reset();
                 try {
-                    inflater.setInput(compressed);
+                    inflater.setInput(compressed, 0, compressedSize);
                     int total = 0;
                     while (!inflater.finished() && total < expectedSize) {
                         int r = inflater.inflate(dest, total, expectedSize - total);
                         if (r <= 0) {
-                            if (inflater.needsInput() || inflater.finished()) {
+                            // A raw deflate stream never asks for a dictionary; treat it like a truncated one
+                            if (inflater.needsInput() || inflater.finished() || inflater.needsDictionary()) {
                                 break;
                             }
                         } else {
                             total += r;
                         }
                     }
-                    if (total <= 0) {
-                        Arrays.fill(dest, 0, expectedSize, (byte)0);
-                        return expectedSize;
+                    // dest may be a recycled cache array; never leave another block's bytes in the tail
+                    if (total < expectedSize) {
+                        Arrays.fill(dest, total, expectedSize, (byte)0);
                     }
-                    return total;
+                    return expectedSize;
                 } catch (Exception ignored) {
                     return -1;
-                } finally {
-                    inflater.end();
                 }
             }
 
-            int getBlockCount() {
-                return blockCount;
-            }
-
-            int getBlockSize() {
-                return blockSize;
-            }
-
             long getUncompressedSize() {
                 return uncompressedSize;
             }
 
             @Override
             public void close() throws java.io.IOException {
-                try {
-                    channel.close();
-                } finally {
-                    try {
-                        inputStream.close();
-                    } finally {
-                        descriptor.close();
+                inflater.end();
+                cache.clear();
+                image.close();
+            }
+        }
+
+        /** LZ4 block format decoder (no frame header), as used by ZSO images. */
+        static final class Lz4 {
+            private Lz4() {}
+
+            /** Returns the number of bytes written to {@code dst}, or -1 if the block is malformed. */
+            static int decompress(byte[] src, int srcLen, byte[] dst, int dstLen) {
+                int s = 0;
+                int d = 0;
+                // Aligned ZSO blocks may carry padding after the last sequence, so stop once the block is full
+                while (s < srcLen && d < dstLen) {
+                    int token = src[s++] & 0xFF;
+                    int literals = token >>> 4;
+                    if (literals == 15) {
+                        int b;
+                        do {
+                            if (s >= srcLen) return -1;
+                            b = src[s++] & 0xFF;
+                            literals += b;
+                        } while (b == 255);
+                    }
+                    if (literals > 0) {
+                        if (s + literals > srcLen) return -1;
+                        int copy = Math.min(literals, dstLen - d);
+                        System.arraycopy(src, s, dst, d, copy);
+                        s += literals;
+                        d += copy;
+                    }
+                    if (s >= srcLen || d >= dstLen) {
+                        break;
+                    }
+                    if (s + 2 > srcLen) return -1;
+                    int offset = (src[s] & 0xFF) | ((src[s + 1] & 0xFF) << 8);
+                    s += 2;
+                    if (offset == 0 || offset > d) return -1;
+                    int match = token & 0x0F;
+                    if (match == 15) {
+                        int b;
+                        do {
+                            if (s >= srcLen) return -1;
+                            b = src[s++] & 0xFF;
+                            match += b;
+                        } while (b == 255);
+                    }
+                    match = Math.min(match + 4, dstLen - d);
+                    int from = d - offset;
+                    if (offset >= match) {
+                        System.arraycopy(dst, from, dst, d, match);
+                        d += match;
+                    } else {
+                        for (int i = 0; i < match; i++) {
+                            dst[d++] = dst[from + i];
+                        }
                     }
                 }
+                return d;
             }
         }
 
-        private static final class CsoInputStream extends java.io.InputStream {
+        /** Seekable view of the uncompressed image, so stream- and channel-based readers share one {@link CsoReader}. */
+        static final class CsoChannel implements java.nio.channels.SeekableByteChannel {
             private final CsoReader reader;
-            private final byte[] blockBuffer;
-            private int currentBlock = 0;
-            private int blockPos = 0;
-            private int blockLimit = 0;
-            private long bytesRemaining;
+            private final byte[] transfer = new byte[64 * 1024];
+            private long position;
+            private boolean open = true;
 
-            CsoInputStream(CsoReader reader) {
+            CsoChannel(CsoReader reader) {
                 this.reader = reader;
-                this.blockBuffer = new byte[reader.getBlockSize()];
-                this.bytesRemaining = reader.getUncompressedSize();
             }
 
             @Override
-            public int read() throws java.io.IOException {
-                byte[] single = new byte[1];
-                int r = read(single, 0, 1);
-                if (r <= 0) {
-                    return -1;
-                }
-                return single[0] & 0xFF;
-            }
-
-            @Override
-            public int read(@NonNull byte[] b, int off, int len) throws java.io.IOException {
-                if (b == null) {
-                    throw new NullPointerException();
-                }
-                if (off < 0 || len < 0 || len > b.length - off) {
-                    throw new IndexOutOfBoundsException();
-                }
-                if (len == 0) {
-                    return 0;
-                }
-                if (bytesRemaining <= 0) {
-                    return -1;
+            public int read(ByteBuffer dst) throws java.io.IOException {
+                if (!open) {
+                    throw new java.nio.channels.ClosedChannelException();
                 }
                 int total = 0;
-                while (len > 0 && bytesRemaining > 0) {
-                    if (blockPos >= blockLimit) {
-                        if (currentBlock >= reader.getBlockCount()) {
-                            break;
-                        }
-                        blockLimit = reader.readBlockInto(currentBlock, blockBuffer);
-                        currentBlock++;
-                        blockPos = 0;
-                        if (blockLimit <= 0) {
-                            break;
-                        }
-                    }
-                    int available = blockLimit - blockPos;
-                    int copy = Math.min(len, available);
-                    copy = (int)Math.min(copy, bytesRemaining);
-                    if (copy <= 0) {
+                while (dst.hasRemaining()) {
+                    int want = Math.min(dst.remaining(), transfer.length);
+                    int r = reader.read(position, transfer, 0, want);
+                    if (r <= 0) {
                         break;
                     }
-                    System.arraycopy(blockBuffer, blockPos, b, off, copy);
-                    off += copy;
-                    len -= copy;
-                    total += copy;
-                    blockPos += copy;
-                    bytesRemaining -= copy;
+                    dst.put(transfer, 0, r);
+                    position += r;
+                    total += r;
                 }
-                return total > 0 ? total : -1;
+                return total > 0 ? total : (dst.hasRemaining() ? -1 : 0);
+            }
+
+            @Override
+            public int write(ByteBuffer src) {
+                throw new java.nio.channels.NonWritableChannelException();
+            }
+
+            @Override
+            public long position() {
+                return position;
+            }
+
+            @Override
+            public java.nio.channels.SeekableByteChannel position(long newPosition) {
+                if (newPosition < 0) {
+                    throw new IllegalArgumentException("negative position");
+                }
+                position = newPosition;
+                return this;
+            }
+
+            @Override
+            public long size() {
+                return reader.getUncompressedSize();
+            }
+
+            @Override
+            public java.nio.channels.SeekableByteChannel truncate(long size) {
+                throw new java.nio.channels.NonWritableChannelException();
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
             }
 
             @Override
             public void close() throws java.io.IOException {
-                reader.close();
+                if (open) {
+                    open = false;
+                    reader.close();
+                }
             }
         }
     }
 
     static class RedumpDB {
         static class Result { String serial; String name; }
-        private static final Object LOCK = new Object();
-        private static java.util.Map<String, Result> sMd5SizeToResult = null; 
 
-        private static String md5ToLower(String s) { return s != null ? s.trim().toLowerCase() : null; }
-
-        private static String externalResourcesPath(Context ctx) {
-            File base = DataDirectoryManager.getDataRoot(ctx);
-            return new File(base, "resources").getAbsolutePath();
-        }
-
-        private static void ensureLoaded(Context ctx) {
-            if (sMd5SizeToResult != null) return;
-            synchronized (LOCK) {
-                if (sMd5SizeToResult != null) return;
-                sMd5SizeToResult = new java.util.HashMap<>(8192);
-                File f = new File(externalResourcesPath(ctx), "RedumpDatabase.yaml");
-                java.io.BufferedReader br = null;
-                try {
-                    java.io.InputStream in;
-                    if (f.exists()) {
-                        in = new java.io.FileInputStream(f);
-                    } else {
-                        try { in = ctx.getAssets().open("resources/RedumpDatabase.yaml"); }
-                        catch (Exception e) {
-                            try { DebugLog.w("Redump", "Database not found (assets and external)"); } catch (Throwable ignored) {}
-                            return;
-                        }
-                    }
-                    br = new java.io.BufferedReader(new java.io.InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8));
-                    String line;
-                    java.util.List<String[]> pendingHashes = new java.util.ArrayList<>(); // each [md5,size]
-                    String curSerial = null;
-                    String curName = null;
-                    String pendingMd5 = null;
-                    String pendingSize = null;
-                    while ((line = br.readLine()) != null) {
-                        String t = line.trim();
-                        if (t.isEmpty() || t.startsWith("#")) continue;
-                        if (t.startsWith("- hashes:")) {
-                            if (curSerial != null && !pendingHashes.isEmpty()) {
-                                for (String[] hs : pendingHashes) {
-                                    String md5 = md5ToLower(hs[0]);
-                                    String size = hs[1] != null ? hs[1].trim() : null;
-                                    if (md5 != null && size != null) {
-                                        Result r = new Result();
-                                        r.serial = curSerial;
-                                        r.name = (curName != null ? curName : curSerial);
-                                        sMd5SizeToResult.put(md5 + "|" + size, r);
-                                    }
-                                }
-                            }
-                            pendingHashes.clear();
-                            curSerial = null;
-                            curName = null;
-                            pendingMd5 = null; pendingSize = null;
-                            continue;
-                        }
-                        if (t.startsWith("- md5:")) {
-                            int idx = t.indexOf(':');
-                            if (idx >= 0) { pendingMd5 = t.substring(idx + 1).trim(); }
-                            continue;
-                        }
-                        if (t.startsWith("md5:")) {
-                            int idx = t.indexOf(':');
-                            if (idx >= 0) { pendingMd5 = t.substring(idx + 1).trim(); }
-                            continue;
-                        }
-                        if (t.startsWith("size:")) {
-                            int idx = t.indexOf(':');
-                            if (idx >= 0) { pendingSize = t.substring(idx + 1).trim(); }
-                            if (pendingMd5 != null && pendingSize != null) {
-                                pendingHashes.add(new String[]{pendingMd5, pendingSize});
-                                pendingMd5 = null; pendingSize = null;
-                            }
-                            continue;
-                        }
-                        if (t.startsWith("serial:")) {
-                            int idx = t.indexOf(':');
-                            curSerial = (idx >= 0 ? t.substring(idx + 1).trim() : null);
-                            continue;
-                        }
-                        if (t.startsWith("name:")) {
-                            int idx = t.indexOf(':');
-                            curName = (idx >= 0 ? t.substring(idx + 1).trim() : null);
-                            continue;
-                        }
-                    }
-                    if (curSerial != null && !pendingHashes.isEmpty()) {
-                        for (String[] hs : pendingHashes) {
-                            String md5 = md5ToLower(hs[0]);
-                            String size = hs[1] != null ? hs[1].trim() : null;
-                            if (md5 != null && size != null) {
-                                Result r = new Result();
-                                r.serial = curSerial;
-                                r.name = (curName != null ? curName : curSerial);
-                                sMd5SizeToResult.put(md5 + "|" + size, r);
-                            }
-                        }
-                    }
-                    pendingHashes.clear();
-                    try { DebugLog.i("Redump", "Loaded hash map entries: " + sMd5SizeToResult.size()); } catch (Throwable ignored) {}
-                } catch (Exception ex) {
-                    try { DebugLog.e("Redump", "Failed to load DB: " + ex.getMessage()); } catch (Throwable ignored) {}
-                } finally {
-                    if (br != null) try { br.close(); } catch (Exception ignored) {}
-                }
-            }
+        @Nullable
+        private static Result find(RedumpIndex index, String md5, long size) {
+            RedumpIndex.Match match = index.find(md5, size);
+            if (match == null) return null;
+            Result r = new Result();
+            r.serial = match.serial;
+            r.name = match.name;
+            return r;
         }
 
-        static Result lookupByFile(android.content.ContentResolver cr, Uri file) {
+        // size/lastModified come from the scan; when unknown they are queried from the provider.
+        static Result lookupByFile(android.content.ContentResolver cr, Uri file, long size, long lastModified) {
             Context ctx = NativeApp.getContext();
             if (ctx == null) return null;
-            ensureLoaded(ctx);
-            if (sMd5SizeToResult == null || sMd5SizeToResult.isEmpty()) return null;
+            RedumpIndex index = RedumpIndex.get(ctx);
+            if (index == null || index.size() == 0) return null;
+            if (size < 0 || lastModified <= 0) {
+                long[] stat = queryFileStat(cr, file);
+                size = stat[0];
+                lastModified = stat[1];
+            }
+            String uriKey = file.toString();
+            RedumpHashCache.Entry cached = RedumpHashCache.get(ctx, uriKey, size, lastModified);
+            if (cached != null) {
+                return find(index, cached.md5, cached.hashedSize);
+            }
             try {
-                MessageDigest md = MessageDigest.getInstance("MD5");
-                long total = 0;
-                final int BUF = 1024 * 1024;
-                byte[] buf = new byte[BUF];
-                try (java.io.InputStream in = CsoUtils.openInputStream(cr, file)) {
-                    if (in == null) return null;
-                    while (true) {
-                        int r = in.read(buf);
-                        if (r <= 0) break;
-                        md.update(buf, 0, r);
-                        total += r;
-                    }
-                }
-                String md5 = new java.math.BigInteger(1, md.digest()).toString(16);
-                while (md5.length() < 32) md5 = "0" + md5;
-                String key = md5ToLower(md5) + "|" + Long.toString(total);
-                Result r = sMd5SizeToResult.get(key);
+                java.nio.channels.ReadableByteChannel channel = CsoUtils.openChannel(cr, file);
+                if (channel == null) return null;
+                HashPipeline.Result hashed = HashPipeline.md5(channel, size, null);
+                try {
+                    DebugLog.d("Redump", String.format(java.util.Locale.US, "Hashed %s: %d bytes at %.1f MB/s",
+                            file.getLastPathSegment(), hashed.length, hashed.megabytesPerSecond()));
+                } catch (Throwable ignored) {}
+                Result r = find(index, hashed.md5, hashed.length);
+                RedumpHashCache.put(ctx, uriKey, new RedumpHashCache.Entry(size, lastModified, hashed.md5, hashed.length,
+                        r != null ? r.serial : null, r != null ? r.name : null));
                 return r;
             } catch (Exception ignored) {
                 return null;
             }
         }
+
+        private static long[] queryFileStat(android.content.ContentResolver cr, Uri file) {
+            long[] stat = new long[]{-1L, 0L};
+            try (android.database.Cursor c = cr.query(file, new String[]{
+                    android.provider.DocumentsContract.Document.COLUMN_SIZE,
+                    android.provider.DocumentsContract.Document.COLUMN_LAST_MODIFIED
+            }, null, null, null)) {
+                if (c != null && c.moveToFirst()) {
+                    if (!c.isNull(0)) stat[0] = c.getLong(0);
+                    if (!c.isNull(1)) stat[1] = c.getLong(1);
+                }
+            } catch (Exception ignored) {}
+            return stat;
+        }
     }
 
     private android.graphics.Bitmap loadHeaderBitmapFromAssets() {
@@ -5857,10 +6244,16 @@ public class MainActivity extends AppCompatActivity {
     // Recycler adapter
     static class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.VH> {
         interface OnClick { void onClick(GameEntry e); }
+        // Partial rebind payloads; a bind with none of these redraws the whole cell
+        static final String PAYLOAD_TITLE = "title";
+        static final String PAYLOAD_SERIAL = "serial";
+        static final String PAYLOAD_COVER = "cover";
         static class VH extends RecyclerView.ViewHolder {
             final TextView tv;
             final android.widget.ImageView img;
             final TextView tvOverlay;
+            // Download this cell is waiting for, dropped or deprioritised when the cell moves on
+            @Nullable CoverFetcher.Request coverRequest;
             VH(View v) {
                 super(v);
                 this.tv = v.findViewById(R.id.tv_title);
@@ -5872,31 +6265,51 @@ public class MainActivity extends AppCompatActivity {
     private final List<GameEntry> filtered = new ArrayList<>();
         private final OnClick onClick;
         private boolean listMode = false;
-        // Lightweight in-memory cache for cover bitmaps
-        private static final android.util.LruCache<String, android.graphics.Bitmap> sCoverCache;
-        private static final java.util.Set<String> sNegativeCache = java.util.Collections.synchronizedSet(new java.util.HashSet<>());
-        private static final java.util.concurrent.ExecutorService sExec = java.util.concurrent.Executors.newFixedThreadPool(3);
         private static final java.util.Map<String, File> sLocalCoverFiles = java.util.Collections.synchronizedMap(new java.util.HashMap<>());
         private static final java.util.Set<String> sLocalCoverMissing = java.util.Collections.synchronizedSet(new java.util.HashSet<>());
-        static {
-            int maxMem = (int) (Runtime.getRuntime().maxMemory() / 1024);
-            int cacheSize = Math.max(1024 * 8, Math.min(1024 * 64, maxMem / 16)); 
-            sCoverCache = new android.util.LruCache<String, android.graphics.Bitmap>(cacheSize) {
-                @Override protected int sizeOf(String key, android.graphics.Bitmap value) {
-                    return value.getByteCount() / 1024;
-                }
-            };
-        }
+        private static final ExecutorService sDiffExec = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "GamesDiff");
+            t.setDaemon(true);
+            return t;
+        });
+        private final android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
+        // Bumped on every submitted list; a diff finishing for an older generation is dropped
+        private int diffGeneration = 0;
+        private boolean diffPending = false;
+        private static final long SEARCH_DEBOUNCE_MS = 150L;
+        private static final ExecutorService sSearchExec = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "GamesSearch");
+            t.setDaemon(true);
+            return t;
+        });
+        private static final LibrarySearchIndex.Fields<GameEntry> SEARCH_FIELDS = new LibrarySearchIndex.Fields<GameEntry>() {
+            @Override public String[] texts(GameEntry e) { return new String[]{e.title, e.gameTitle}; }
+            @Override public String serial(GameEntry e) { return e.serial; }
+        };
+        // Only touched on the search thread
+        private LibrarySearchIndex<GameEntry> searchIndex;
+        // Set on the main thread when entries are added or re-resolved; the next search rebuilds the index
+        private boolean searchIndexStale = true;
+        private final java.util.concurrent.atomic.AtomicInteger searchGeneration = new java.util.concurrent.atomic.AtomicInteger();
+        private final Runnable searchRunnable = this::runSearch;
+        // Forgets per-entry lookups. The directory index itself is kept: downloads and cache trims
+        // update it file by file, and a manual cover lives outside the covers directory
         static void clearLocalCoverCache() {
             sLocalCoverFiles.clear();
             sLocalCoverMissing.clear();
         }
 
+        // Also re-lists the covers directory on the next lookup, picking up files changed outside the app
+        static void reloadCoverDirectory() {
+            clearLocalCoverCache();
+            CoverDirectoryIndex.invalidateAll();
+        }
+
         static void registerCachedCover(GameEntry entry, File file) {
             if (entry == null || file == null || !file.exists()) {
                 return;
             }
-            String key = coverKey(entry);
+            String key = entry.coverKey();
             if (TextUtils.isEmpty(key)) {
                 return;
             }
@@ -5904,23 +6317,155 @@ public class MainActivity extends AppCompatActivity {
             sLocalCoverMissing.remove(key);
         }
     GamesAdapter(List<GameEntry> d, OnClick oc) { data = d; filtered.addAll(d); onClick = oc; setHasStableIds(true); }
-        void update(List<GameEntry> d) { clearLocalCoverCache(); data.clear(); data.addAll(d); applyFilter(currentFilter); }
+        // A rescan can resolve serials, which changes cover names; only the misses are worth forgetting
+        void update(List<GameEntry> d) { sLocalCoverMissing.clear(); data.clear(); data.addAll(d); searchIndexStale = true; applyFilter(currentFilter); }
         int getItemCountTotal() { return data.size(); }
         private String currentFilter = "";
-        void setFilter(String q) { currentFilter = q == null ? "" : q.trim(); applyFilter(currentFilter); }
+        // Typing only schedules a search; it runs once input pauses for SEARCH_DEBOUNCE_MS. Clearing the
+        // box shows the whole library right away.
+        void setFilter(String q) {
+            currentFilter = q == null ? "" : q.trim();
+            if (currentFilter.isEmpty()) {
+                applyFilter(currentFilter);
+                return;
+            }
+            mainHandler.removeCallbacks(searchRunnable);
+            mainHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+        }
+        // Streams entries from an in-progress scan in without rebinding the rows already shown.
+        void append(List<GameEntry> d) {
+            if (d == null || d.isEmpty()) return;
+            data.addAll(d);
+            searchIndexStale = true;
+            if (diffPending) {
+                // The shown list is about to be replaced; fold the new entries into the next diff instead
+                applyFilter(currentFilter);
+                return;
+            }
+            if (!TextUtils.isEmpty(currentFilter)) {
+                // Re-run the query once the batch burst settles rather than per batch
+                mainHandler.removeCallbacks(searchRunnable);
+                mainHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+                return;
+            }
+            int start = filtered.size();
+            filtered.addAll(d);
+            notifyItemRangeInserted(start, d.size());
+        }
         private void applyFilter(String q) {
-            filtered.clear();
+            mainHandler.removeCallbacks(searchRunnable);
             if (TextUtils.isEmpty(q)) {
-                filtered.addAll(data);
+                searchGeneration.incrementAndGet();
+                submitFiltered(new ArrayList<>(data));
             } else {
-                String needle = q.toLowerCase();
-                for (GameEntry e : data) {
-                    String t = e != null && e.title != null ? e.title.toLowerCase() : "";
-                    String s = e != null && e.serial != null ? e.serial.toLowerCase() : "";
-                    if (t.contains(needle) || s.contains(needle)) filtered.add(e);
+                runSearch();
+            }
+        }
+        /**
+         * Evaluates the current filter on the search thread. The index is rebuilt there first when the
+         * library changed; a query superseded by a newer one stops early and its result is dropped.
+         */
+        private void runSearch() {
+            final String query = currentFilter;
+            if (TextUtils.isEmpty(query)) {
+                // Nothing to search for: every entry, straight from the main thread's list
+                applyFilter(query);
+                return;
+            }
+            final int generation = searchGeneration.incrementAndGet();
+            final List<GameEntry> snapshot = searchIndexStale ? new ArrayList<>(data) : null;
+            searchIndexStale = false;
+            sSearchExec.execute(() -> {
+                if (snapshot != null || searchIndex == null) {
+                    searchIndex = LibrarySearchIndex.build(snapshot != null ? snapshot : new ArrayList<>(), SEARCH_FIELDS);
                 }
+                if (generation != searchGeneration.get()) return;
+                final List<GameEntry> result = searchIndex.search(query, () -> generation != searchGeneration.get());
+                if (result == null) return;
+                mainHandler.post(() -> {
+                    if (generation != searchGeneration.get()) return;
+                    submitFiltered(result);
+                });
+            });
+        }
+        /**
+         * Replaces the shown list. The diff against the current list runs on a background thread and
+         * only the rows that were inserted, removed, moved or changed are dispatched on the main thread.
+         */
+        private void submitFiltered(List<GameEntry> next) {
+            final int generation = ++diffGeneration;
+            if (filtered.isEmpty() || next.isEmpty()) {
+                diffPending = false;
+                int removed = filtered.size();
+                filtered.clear();
+                filtered.addAll(next);
+                if (removed > 0) notifyItemRangeRemoved(0, removed);
+                if (!next.isEmpty()) notifyItemRangeInserted(0, next.size());
+                return;
+            }
+            diffPending = true;
+            final List<GameEntry> previous = new ArrayList<>(filtered);
+            sDiffExec.execute(() -> {
+                final androidx.recyclerview.widget.DiffUtil.DiffResult result =
+                        androidx.recyclerview.widget.DiffUtil.calculateDiff(new EntryDiff(previous, next), true);
+                mainHandler.post(() -> {
+                    if (generation != diffGeneration) return;
+                    diffPending = false;
+                    filtered.clear();
+                    filtered.addAll(next);
+                    result.dispatchUpdatesTo(this);
+                });
+            });
+        }
+        /** Rebinds only the given part of the cells showing {@code entry} (matched by document, not instance). */
+        void notifyEntryChanged(GameEntry entry, Object payload) {
+            if (entry == null) return;
+            // A resolved serial usually comes with a Redump title, both of which are searchable
+            if (PAYLOAD_SERIAL.equals(payload) || PAYLOAD_TITLE.equals(payload)) {
+                searchIndexStale = true;
+                if (!TextUtils.isEmpty(currentFilter)) {
+                    mainHandler.removeCallbacks(searchRunnable);
+                    mainHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+                }
+            }
+            for (int i = 0; i < filtered.size(); i++) {
+                if (filtered.get(i).stableId == entry.stableId) notifyItemChanged(i, payload);
+            }
+        }
+        void notifyGameKeyChanged(String gameKey, Object payload) {
+            if (gameKey == null) return;
+            for (int i = 0; i < filtered.size(); i++) {
+                if (gameKey.equals(gameKeyFromEntry(filtered.get(i)))) notifyItemChanged(i, payload);
+            }
+        }
+        void notifyAllChanged(Object payload) {
+            if (!filtered.isEmpty()) notifyItemRangeChanged(0, filtered.size(), payload);
+        }
+        static final class EntryDiff extends androidx.recyclerview.widget.DiffUtil.Callback {
+            private final List<GameEntry> oldList;
+            private final List<GameEntry> newList;
+            EntryDiff(List<GameEntry> oldList, List<GameEntry> newList) {
+                this.oldList = oldList;
+                this.newList = newList;
+            }
+            @Override public int getOldListSize() { return oldList.size(); }
+            @Override public int getNewListSize() { return newList.size(); }
+            @Override public boolean areItemsTheSame(int oldPos, int newPos) {
+                return oldList.get(oldPos).stableId == newList.get(newPos).stableId;
+            }
+            @Override public boolean areContentsTheSame(int oldPos, int newPos) {
+                GameEntry a = oldList.get(oldPos);
+                GameEntry b = newList.get(newPos);
+                // In-place updates of a shown entry are announced with their own payloads
+                if (a == b) return true;
+                return java.util.Objects.equals(a.title, b.title) && java.util.Objects.equals(a.gameTitle, b.gameTitle)
+                        && java.util.Objects.equals(a.serial, b.serial);
+            }
+            @Nullable @Override public Object getChangePayload(int oldPos, int newPos) {
+                GameEntry a = oldList.get(oldPos);
+                GameEntry b = newList.get(newPos);
+                return java.util.Objects.equals(a.serial, b.serial) ? PAYLOAD_TITLE : PAYLOAD_SERIAL;
             }
-            notifyDataSetChanged();
         }
         void setListMode(boolean list) { this.listMode = list; notifyDataSetChanged(); }
         @Override public int getItemViewType(int position) { return listMode ? 1 : 0; }
@@ -5930,78 +6475,122 @@ public class MainActivity extends AppCompatActivity {
             return new VH(v);
         }
         @Override public long getItemId(int position) {
-            try {
-                GameEntry e = data.get(position);
-                String key = (e.uri != null ? e.uri.toString() : e.title) + "|" + (e.title != null ? e.title : "");
-                return (long) key.hashCode();
-            } catch (Throwable ignored) { return position; }
+            return filtered.get(position).stableId;
         }
         @Override public void onViewRecycled(@NonNull VH holder) {
             super.onViewRecycled(holder);
+            cancelCoverRequest(holder);
             try {
                 holder.img.setTag(R.id.tag_request_key, null);
                 holder.img.setImageDrawable(null);
             } catch (Throwable ignored) {}
         }
+        @Override public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            GameEntry e = filtered.get(position);
+            boolean hasCover = holder.img.getDrawable() != null;
+            // A resolved serial only matters to a cell still waiting for its cover
+            if (payloads.contains(PAYLOAD_COVER) || (payloads.contains(PAYLOAD_SERIAL) && !hasCover)) {
+                hasCover = bindCover(holder, e);
+            }
+            bindLabels(holder, e, hasCover);
+            // A diff may hand over an equal entry from a rescan; keep the listeners on the current instance
+            bindHandlers(holder, e);
+        }
         @Override public void onBindViewHolder(@NonNull VH holder, int position) {
             GameEntry e = filtered.get(position);
-            String tpl = ((MainActivity)holder.itemView.getContext()).getCoversUrlTemplate();
-            boolean loaded = false;
+            bindLabels(holder, e, bindCover(holder, e));
+            bindHandlers(holder, e);
+        }
+        private static void cancelCoverRequest(@NonNull VH holder) {
+            CoverFetcher.Request request = holder.coverRequest;
+            if (request != null) {
+                holder.coverRequest = null;
+                request.cancel();
+            }
+        }
+        private boolean bindCover(@NonNull VH holder, GameEntry e) {
+            cancelCoverRequest(holder);
+            try { holder.img.setTag(R.id.tag_request_key, null); } catch (Throwable ignored) {}
             try { holder.img.setImageDrawable(null); } catch (Throwable ignored) {}
             try { holder.img.setBackgroundColor(android.graphics.Color.TRANSPARENT); } catch (Throwable ignored) {}
             if (holder.tvOverlay != null) holder.tvOverlay.setVisibility(View.GONE);
+            holder.img.setVisibility(View.VISIBLE);
+            final int[] target = coverTargetSize(holder);
             try {
                 String gameKey = gameKeyFromEntry(e);
                 String manual = ((MainActivity)holder.itemView.getContext()).getManualCoverUri(gameKey);
                 if (manual != null && !manual.isEmpty()) {
-                    android.net.Uri mu = android.net.Uri.parse(manual);
-                    try (java.io.InputStream is = holder.itemView.getContext().getContentResolver().openInputStream(mu)) {
-                        if (is != null) {
-                            android.graphics.Bitmap bmp = android.graphics.BitmapFactory.decodeStream(is);
-                            if (bmp != null) {
-                                holder.img.setImageBitmap(bmp);
-                                loaded = true;
-                            }
-                        }
-                    } catch (Throwable ignored) {}
+                    final android.net.Uri mu = android.net.Uri.parse(manual);
+                    final android.content.ContentResolver cr = holder.itemView.getContext().getContentResolver();
+                    // A manual cover that can't be read anymore (permission revoked, file deleted) falls back
+                    // to the cached and online covers
+                    return bindDecodedCover(holder, manual, 0L, () -> cr.openInputStream(mu), target,
+                            () -> bindLabels(holder, e, bindCachedOrOnlineCover(holder, e, target)));
                 }
             } catch (Throwable ignored) {}
-            if (!loaded) {
-                File cachedLocal = findCachedCoverFile(holder.itemView.getContext(), e);
-                if (cachedLocal != null && cachedLocal.exists()) {
-                    String localKey = cachedLocal.getAbsolutePath();
-                    android.graphics.Bitmap cachedBmp = sCoverCache.get(localKey);
-                    if (cachedBmp != null) {
-                        holder.img.setImageBitmap(cachedBmp);
-                        loaded = true;
-                    } else {
-                        android.graphics.Bitmap bmp = android.graphics.BitmapFactory.decodeFile(localKey);
-                        if (bmp != null) {
-                            holder.img.setImageBitmap(bmp);
-                            sCoverCache.put(localKey, bmp);
-                            loaded = true;
-                        }
-                    }
-                }
+            return bindCachedOrOnlineCover(holder, e, target);
+        }
+        private boolean bindCachedOrOnlineCover(@NonNull VH holder, GameEntry e, int[] target) {
+            File cachedLocal = findCachedCoverFile(holder.itemView.getContext(), e);
+            if (cachedLocal != null && cachedLocal.exists()) {
+                final File localFile = cachedLocal;
+                return bindDecodedCover(holder, localFile.getAbsolutePath(), localFile.lastModified(),
+                        () -> new java.io.FileInputStream(localFile), target, () -> bindLabels(holder, e, false));
             }
+            String tpl = ((MainActivity)holder.itemView.getContext()).getCoversUrlTemplate();
             boolean online = MainActivity.hasInternetConnection(holder.itemView.getContext());
-            if (!loaded && online && tpl != null && !tpl.isEmpty()) {
+            if (online && tpl != null && !tpl.isEmpty()) {
                 java.util.List<String> urls = MainActivity.buildCoverCandidateUrls(e, tpl);
-                String requestKey = (e.uri != null ? e.uri.toString() : e.title) + "|" + (e.serial != null ? e.serial : "") + "|" + (e.title != null ? e.title : "");
+                String requestKey = Long.toHexString(e.stableId) + "|" + (e.serial != null ? e.serial : "") + "|" + (e.title != null ? e.title : "");
                 holder.img.setTag(R.id.tag_request_key, requestKey);
-                for (String u : urls) {
-                    if (u == null || u.isEmpty() || u.contains("${")) continue;
-                    android.graphics.Bitmap cached = sCoverCache.get(u);
-                    if (cached != null) {
-                        loaded = true;
-                        holder.img.setImageBitmap(cached);
-                        break;
-                    }
-                }
-                if (!loaded && !urls.isEmpty())
-                    loadImageWithFallback(holder.img, holder.tvOverlay, holder.itemView.getContext(), e, urls, requestKey);
+                if (!urls.isEmpty())
+                    loadImageWithFallback(holder, e, urls, requestKey, target);
             }
-            holder.img.setVisibility(View.VISIBLE);
+            return false;
+        }
+        /**
+         * Shows a local cover through the sampled background decoder. Returns true because the
+         * source exists; {@code onFailure} runs on the main thread if the decode fails.
+         */
+        private boolean bindDecodedCover(@NonNull VH holder, String sourceKey, long version,
+                                         CoverBitmapLoader.Source source, int[] target, Runnable onFailure) {
+            android.graphics.Bitmap cached = CoverBitmapLoader.getCached(sourceKey, version, target[0], target[1]);
+            if (cached != null) {
+                holder.img.setImageBitmap(cached);
+                return true;
+            }
+            final String requestKey = sourceKey + "|" + version;
+            holder.img.setTag(R.id.tag_request_key, requestKey);
+            CoverBitmapLoader.load(holder.itemView.getContext(), sourceKey, version, source, target[0], target[1],
+                    new CoverBitmapLoader.Callback() {
+                        @Override public boolean isWanted() {
+                            return requestKey.equals(holder.img.getTag(R.id.tag_request_key));
+                        }
+                        @Override public void onCover(android.graphics.Bitmap bitmap) {
+                            if (!isWanted()) return;
+                            if (bitmap != null) {
+                                holder.img.setImageBitmap(bitmap);
+                            } else {
+                                onFailure.run();
+                            }
+                        }
+                    });
+            return true;
+        }
+        // Decode covers at the size of a grid cell (2:3 box art) rather than at full resolution
+        private int[] coverTargetSize(@NonNull VH holder) {
+            int width = holder.img.getWidth();
+            if (width <= 0) {
+                MainActivity activity = (MainActivity) holder.itemView.getContext();
+                width = activity.getResources().getDisplayMetrics().widthPixels / Math.max(1, activity.getGameGridSpanCount());
+            }
+            return new int[]{width, width * 3 / 2};
+        }
+        private void bindLabels(@NonNull VH holder, GameEntry e, boolean loaded) {
             if (listMode) {
                 holder.tv.setVisibility(View.VISIBLE);
                 holder.tv.setText(e.gameTitle != null ? e.gameTitle : e.title);
@@ -6019,6 +6608,8 @@ public class MainActivity extends AppCompatActivity {
                     }
                 }
             }
+        }
+        private void bindHandlers(@NonNull VH holder, GameEntry e) {
             holder.itemView.setOnClickListener(v -> onClick.onClick(e));
             holder.itemView.setOnKeyListener((v, keyCode, event) -> {
                 if (event.getAction() != KeyEvent.ACTION_DOWN) return false;
@@ -6087,88 +6678,40 @@ public class MainActivity extends AppCompatActivity {
             return android.view.LayoutInflater.from(parent.getContext());
         }
 
-        private void loadImageWithFallback(android.widget.ImageView iv, TextView overlayView, Context ctx, GameEntry entry, java.util.List<String> urls, String requestKey) {
-            try {
-                sExec.execute(() -> {
-                    try {
-                        android.graphics.Bitmap bmp = null;
-                        String hitUrl = null;
-                        byte[] downloadedBytes = null;
-                        String downloadExtension = null;
-                        for (String ustr : urls) {
-                            if (ustr == null || ustr.isEmpty() || ustr.contains("${")) continue;
-                            Object tag = iv.getTag(R.id.tag_request_key);
-                            if (!(requestKey.equals(tag))) { break; }
-                            if (sNegativeCache.contains(ustr)) continue;
-                            android.graphics.Bitmap cached = sCoverCache.get(ustr);
-                            if (cached != null) { bmp = cached; hitUrl = ustr; break; }
-                            try {
-                                java.net.HttpURLConnection c = (java.net.HttpURLConnection) new java.net.URL(ustr).openConnection();
-                                c.setConnectTimeout(4000); c.setReadTimeout(6000);
-                                c.setInstanceFollowRedirects(true);
-                                c.setRequestMethod("GET");
-                                int code = c.getResponseCode();
-                                if (code == 200) {
-                                    try (java.io.InputStream is = c.getInputStream();
-                                         java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream()) {
-                                        byte[] buffer = new byte[8192];
-                                        int read;
-                                        while ((read = is.read(buffer)) != -1) {
-                                            baos.write(buffer, 0, read);
-                                        }
-                                        byte[] data = baos.toByteArray();
-                                        if (data.length > 0) {
-                                            android.graphics.Bitmap candidate = android.graphics.BitmapFactory.decodeByteArray(data, 0, data.length);
-                                            if (candidate != null) {
-                                                bmp = candidate;
-                                                downloadedBytes = data;
-                                                downloadExtension = guessImageExtension(ustr, c.getContentType());
-                                                hitUrl = ustr;
-                                                break;
-                                            }
-                                        }
-                                    }
-                                } else if (code == 404) {
-                                    sNegativeCache.add(ustr);
-                                    continue; 
-                                } else {
-                                    try { DebugLog.d("Covers", "HTTP " + code + " for " + ustr); } catch (Throwable ignored) {}
-                                }
-                            } catch (Exception ex) {
-                                try { DebugLog.d("Covers", "Error loading cover: " + ex.getMessage()); } catch (Throwable ignored) {}
-                            }
-                        }
-                        if (downloadedBytes != null && downloadedBytes.length > 0 && entry != null && ctx != null) {
-                            try { storeCoverBytes(ctx, entry, downloadedBytes, downloadExtension); } catch (Throwable ignored) {}
-                        }
-                        final android.graphics.Bitmap fb = bmp;
-                        final String fUrl = hitUrl;
-                        iv.post(() -> {
-                            Object tagNow = iv.getTag(R.id.tag_request_key);
-                            if (requestKey.equals(tagNow) && fb != null) {
-                                iv.setImageBitmap(fb);
-                                if (fUrl != null) sCoverCache.put(fUrl, fb);
-                                if (overlayView != null) overlayView.setVisibility(View.GONE);
-                            }
-                        });
-                    } catch (Throwable ignored) {}
+        private void loadImageWithFallback(@NonNull VH holder, GameEntry entry, java.util.List<String> urls, String requestKey, int[] target) {
+            Context ctx = holder.itemView.getContext();
+            File cacheDir = MainActivity.getCoversCacheDir(ctx);
+            String baseName = computeCoverBaseName(entry);
+            if (cacheDir == null || TextUtils.isEmpty(baseName)) {
+                return;
+            }
+            holder.coverRequest = CoverFetcher.request(ctx, cacheDir, baseName, urls, CoverFetcher.PRIORITY_VISIBLE, stored -> {
+                if (stored == null) return;
+                registerCachedCover(entry, stored);
+                holder.img.post(() -> {
+                    if (!requestKey.equals(holder.img.getTag(R.id.tag_request_key))) return;
+                    bindDecodedCover(holder, stored.getAbsolutePath(), stored.lastModified(),
+                            () -> new java.io.FileInputStream(stored), target, () -> bindLabels(holder, entry, false));
+                    if (holder.tvOverlay != null) holder.tvOverlay.setVisibility(View.GONE);
                 });
-            } catch (Throwable ignored) {}
+            });
         }
 
         private File findCachedCoverFile(Context ctx, GameEntry entry) {
-            if (ctx == null || entry == null || entry.uri == null) {
+            if (ctx == null || entry == null || !entry.hasDocument()) {
                 return null;
             }
-            String key = coverKey(entry);
+            String key = entry.coverKey();
             if (TextUtils.isEmpty(key)) {
                 return null;
             }
             File cached = sLocalCoverFiles.get(key);
             if (cached != null && cached.exists()) {
+                CoverDiskCache.recordHit(ctx, cached);
                 return cached;
             }
             if (sLocalCoverMissing.contains(key)) {
+                CoverDiskCache.recordMiss();
                 return null;
             }
             File cacheDir = MainActivity.getCoversCacheDir(ctx);
@@ -6181,65 +6724,14 @@ public class MainActivity extends AppCompatActivity {
             if (coverFile != null && coverFile.isFile() && coverFile.length() > 0) {
                 sLocalCoverFiles.put(key, coverFile);
                 sLocalCoverMissing.remove(key);
+                CoverDiskCache.recordHit(ctx, coverFile);
                 return coverFile;
             }
             sLocalCoverMissing.add(key);
+            CoverDiskCache.recordMiss();
             return null;
         }
 
-        private static void storeCoverBytes(Context ctx, GameEntry entry, byte[] data, String extension) {
-            if (ctx == null || entry == null || data == null || data.length == 0) {
-                return;
-            }
-            File cacheDir = MainActivity.getCoversCacheDir(ctx);
-            if (cacheDir == null) {
-                return;
-            }
-            String baseName = computeCoverBaseName(entry);
-            if (TextUtils.isEmpty(baseName)) {
-                return;
-            }
-            String ext = extension;
-            if (TextUtils.isEmpty(ext)) {
-                ext = ".jpg";
-            }
-            if (!ext.startsWith(".")) {
-                ext = "." + ext;
-            }
-            File target = new File(cacheDir, baseName + ext);
-            File parent = target.getParentFile();
-            if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                return;
-            }
-            File temp = new File(cacheDir, baseName + "_tmp" + ext);
-            try (FileOutputStream fos = new FileOutputStream(temp)) {
-                fos.write(data);
-                fos.flush();
-            } catch (IOException ignored) {
-                temp.delete();
-                return;
-            }
-            if (!temp.renameTo(target)) {
-                temp.delete();
-                return;
-            }
-            GamesAdapter.registerCachedCover(entry, target);
-            try { DebugLog.d("Covers", "Stored cover cache file: " + target.getAbsolutePath()); } catch (Throwable ignored) {}
-        }
-
-        private static String coverKey(GameEntry entry) {
-            if (entry == null) {
-                return null;
-            }
-            if (entry.uri != null) {
-                return entry.uri.toString();
-            }
-            String fallback = entry.title;
-            if (TextUtils.isEmpty(fallback)) {
-                fallback = entry.fileTitleNoExt();
-            }
-            return fallback;
-        }
 
     }
 
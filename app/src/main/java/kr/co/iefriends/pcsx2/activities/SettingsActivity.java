@@ -67,12 +67,15 @@ import kr.co.iefriends.pcsx2.input.ControllerMappingDialog;
 import kr.co.iefriends.pcsx2.BuildConfig;
 import kr.co.iefriends.pcsx2.provider.Armsx2DocumentsProvider;
 import kr.co.iefriends.pcsx2.utils.AppIconManager;
+import kr.co.iefriends.pcsx2.utils.CoverDiskCache;
 import kr.co.iefriends.pcsx2.utils.DataDirectoryManager;
 import kr.co.iefriends.pcsx2.utils.DiscordBridge;
 import kr.co.iefriends.pcsx2.utils.LogcatRecorder;
 import kr.co.iefriends.pcsx2.NativeApp;
 import kr.co.iefriends.pcsx2.R;
 import kr.co.iefriends.pcsx2.utils.RetroAchievementsBridge;
+import kr.co.iefriends.pcsx2.utils.NativeSettings;
+import kr.co.iefriends.pcsx2.utils.SettingsCache;
 import kr.co.iefriends.pcsx2.input.ControllerMappingManager;
 import kr.co.iefriends.pcsx2.utils.DeviceProfiles;
 import kr.co.iefriends.pcsx2.utils.AvatarLoader;
@@ -642,11 +645,11 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swFsui = findViewById(R.id.sw_fsui);
 		if (swFsui != null) {
 			try {
-				String fsui = NativeApp.getSetting("UI", "EnableFullscreenUI", "bool");
+				String fsui = SettingsCache.get(NativeSettings.FULLSCREEN_UI);
 				swFsui.setChecked("true".equalsIgnoreCase(fsui));
 			} catch (Exception ignored) {}
 			swFsui.setOnCheckedChangeListener((buttonView, isChecked) -> {
-				NativeApp.setSetting("UI", "EnableFullscreenUI", "bool", isChecked ? "true" : "false");
+				SettingsCache.setBool(NativeSettings.FULLSCREEN_UI, isChecked);
 				new MaterialAlertDialogBuilder(this)
 						.setTitle("Restart Required")
 						.setMessage("Fullscreen UI setting will take effect after you restart the app.")
@@ -661,17 +664,17 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swFrameLimiter = findViewById(R.id.sw_frame_limiter);
 		if (swFrameLimiter != null) {
 			try {
-				String ns = NativeApp.getSetting("Framerate", "NominalScalar", "float");
+				String ns = SettingsCache.get(NativeSettings.NOMINAL_SCALAR);
 				float scalar = (ns == null || ns.isEmpty()) ? 1.0f : Float.parseFloat(ns);
 				swFrameLimiter.setChecked(scalar < 5.0f);
 			} catch (Exception ignored) {}
 			swFrameLimiter.setOnCheckedChangeListener((buttonView, isChecked) -> {
 				if (!isChecked) {
-					NativeApp.setSetting("Framerate", "NominalScalar", "float", Float.toString(10.0f));
+					SettingsCache.setFloat(NativeSettings.NOMINAL_SCALAR, 10.0f);
 				} else {
 					float baseFps = 59.94f;
 					try {
-						String ntsc = NativeApp.getSetting("EmuCore/GS", "FramerateNTSC", "float");
+						String ntsc = SettingsCache.get(NativeSettings.FRAMERATE_NTSC);
 						if (ntsc != null && !ntsc.isEmpty()) {
 							baseFps = Float.parseFloat(ntsc);
 						}
@@ -681,7 +684,7 @@ public class SettingsActivity extends AppCompatActivity {
 						fps = Math.max(30, Math.min(180, Math.round(sbFpsLimit.getValue())));
 					}
 					float scalar = fps / baseFps;
-					NativeApp.setSetting("Framerate", "NominalScalar", "float", Float.toString(scalar));
+					SettingsCache.setFloat(NativeSettings.NOMINAL_SCALAR, scalar);
 				}
 			});
 		}
@@ -690,11 +693,11 @@ public class SettingsActivity extends AppCompatActivity {
 			try {
 				float baseFps = 59.94f;
 				try {
-					String ntsc = NativeApp.getSetting("EmuCore/GS", "FramerateNTSC", "float");
+					String ntsc = SettingsCache.get(NativeSettings.FRAMERATE_NTSC);
 					if (ntsc != null && !ntsc.isEmpty()) baseFps = Float.parseFloat(ntsc);
 				} catch (Exception ignored2) {}
 
-				String ns = NativeApp.getSetting("Framerate", "NominalScalar", "float");
+				String ns = SettingsCache.get(NativeSettings.NOMINAL_SCALAR);
 				float scalar = (ns == null || ns.isEmpty()) ? 1.0f : Float.parseFloat(ns);
 				int fpsValue = Math.round(scalar * baseFps);
 				if (fpsValue < 30) fpsValue = 30;
@@ -711,11 +714,11 @@ public class SettingsActivity extends AppCompatActivity {
 				tvFpsLimit.setText("Custom FPS Limit: " + fps);
 				float baseFps = 59.94f;
 				try {
-					String ntsc = NativeApp.getSetting("EmuCore/GS", "FramerateNTSC", "float");
+					String ntsc = SettingsCache.get(NativeSettings.FRAMERATE_NTSC);
 					if (ntsc != null && !ntsc.isEmpty()) baseFps = Float.parseFloat(ntsc);
 				} catch (Exception ignored2) {}
 				float scalar = fps / baseFps;
-				NativeApp.setSetting("Framerate", "NominalScalar", "float", Float.toString(scalar));
+				SettingsCache.setFloat(NativeSettings.NOMINAL_SCALAR, scalar);
 			});
 		}
 
@@ -725,7 +728,7 @@ public class SettingsActivity extends AppCompatActivity {
 		spAspectRatio.setAdapter(aspectAdapter);
 		final String[] aspectChoices = getResources().getStringArray(R.array.aspect_ratios);
 		try {
-			String aspect = NativeApp.getSetting("EmuCore/GS", "AspectRatio", "string");
+			String aspect = SettingsCache.get(NativeSettings.ASPECT_RATIO);
 			int pos = 0;
 			if (aspect != null && !aspect.isEmpty()) {
 				for (int i = 0; i < aspectChoices.length; i++) {
@@ -742,7 +745,7 @@ public class SettingsActivity extends AppCompatActivity {
 				if (position < 0 || position >= aspectChoices.length)
 					return;
 				String value = aspectChoices[position];
-				NativeApp.setSetting("EmuCore/GS", "AspectRatio", "string", value);
+				SettingsCache.set(NativeSettings.ASPECT_RATIO, value);
 				NativeApp.setAspectRatio(position);
 			}
 			@Override public void onNothingSelected(AdapterView<?> parent) {}
@@ -751,24 +754,24 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swFastBoot = findViewById(R.id.sw_fast_boot);
 		if (swFastBoot != null) {
 			try {
-				String fast = NativeApp.getSetting("EmuCore", "EnableFastBoot", "bool");
+				String fast = SettingsCache.get(NativeSettings.FAST_BOOT);
 				swFastBoot.setChecked("true".equalsIgnoreCase(fast) || fast == null || fast.isEmpty());
 			} catch (Exception ignored) {}
 			swFastBoot.setOnCheckedChangeListener((b, isChecked) ->
-					NativeApp.setSetting("EmuCore", "EnableFastBoot", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.FAST_BOOT, isChecked));
 		}
 
 		MaterialSwitch swRecordLogs = findViewById(R.id.sw_record_logs);
 		if (swRecordLogs != null) {
 			boolean recordLogs = false;
 			try {
-				String current = NativeApp.getSetting("Logging", "RecordAndroidLog", "bool");
+				String current = SettingsCache.get(NativeSettings.RECORD_ANDROID_LOG);
 				recordLogs = "true".equalsIgnoreCase(current);
 			} catch (Exception ignored) {}
 			swRecordLogs.setChecked(recordLogs);
 			LogcatRecorder.setEnabled(recordLogs);
 			swRecordLogs.setOnCheckedChangeListener((buttonView, isChecked) -> {
-				NativeApp.setSetting("Logging", "RecordAndroidLog", "bool", isChecked ? "true" : "false");
+				SettingsCache.setBool(NativeSettings.RECORD_ANDROID_LOG, isChecked);
 				LogcatRecorder.setEnabled(isChecked);
 			});
 		}
@@ -777,7 +780,7 @@ public class SettingsActivity extends AppCompatActivity {
 		TextView tvBrightness = findViewById(R.id.tv_brightness_value);
 		if (sbBrightness != null && tvBrightness != null) {
 			try {
-				String br = NativeApp.getSetting("EmuCore/GS", "BrightnessScale", "float");
+				String br = SettingsCache.get(NativeSettings.BRIGHTNESS_SCALE);
 				float val = (br == null || br.isEmpty()) ? 1.0f : Float.parseFloat(br);
 				int prog = Math.round(val * 100f);
 				prog = Math.max(0, Math.min(200, prog));
@@ -792,7 +795,7 @@ public class SettingsActivity extends AppCompatActivity {
 				if (clamped != Math.round(value)) slider.setValue(clamped);
 				float scale = clamped / 100f;
 				tvBrightness.setText(String.format("Brightness: %.2f", scale));
-				NativeApp.setSetting("EmuCore/GS", "BrightnessScale", "float", Float.toString(scale));
+				SettingsCache.setFloat(NativeSettings.BRIGHTNESS_SCALE, scale);
 			});
 		}
 
@@ -875,7 +878,7 @@ public class SettingsActivity extends AppCompatActivity {
 		TextView tvUpscale = findViewById(R.id.tv_upscale_value);
 		if (sbUpscale != null && tvUpscale != null) {
 			try {
-				String up = NativeApp.getSetting("EmuCore/GS", "upscale_multiplier", "float");
+				String up = SettingsCache.get(NativeSettings.UPSCALE_MULTIPLIER);
 				float f = up == null || up.isEmpty() ? 1f : Float.parseFloat(up);
 				int mult = Math.max(1, Math.min(8, Math.round(f)));
 				sbUpscale.setValue(mult);
@@ -888,7 +891,7 @@ public class SettingsActivity extends AppCompatActivity {
 				int mult = Math.max(1, Math.min(8, Math.round(value)));
 				if (mult != Math.round(value)) slider.setValue(mult);
 				tvUpscale.setText("Upscale: " + mult + "x");
-				NativeApp.setSetting("EmuCore/GS", "upscale_multiplier", "float", String.valueOf(mult));
+				SettingsCache.set(NativeSettings.UPSCALE_MULTIPLIER, String.valueOf(mult));
 			});
 		}
 
@@ -898,7 +901,7 @@ public class SettingsActivity extends AppCompatActivity {
 		filtAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
 		spFiltering.setAdapter(filtAdapter);
 		try {
-			String filt = NativeApp.getSetting("EmuCore/GS", "filter", "int");
+			String filt = SettingsCache.get(NativeSettings.TEXTURE_FILTER);
 			int v = (filt == null || filt.isEmpty()) ? 2 : Integer.parseInt(filt);
 			int pos = (v==2)?0: (v==1?1:2);
 			spFiltering.setSelection(pos,false);
@@ -912,7 +915,7 @@ public class SettingsActivity extends AppCompatActivity {
 					case 2: value = 0; break; // Nearest
 					default: value = 2; break;
 				}
-				NativeApp.setSetting("EmuCore/GS", "filter", "int", Integer.toString(value));
+				SettingsCache.setInt(NativeSettings.TEXTURE_FILTER, value);
 			}
 			@Override public void onNothingSelected(AdapterView<?> parent) {}
 		});
@@ -923,13 +926,13 @@ public class SettingsActivity extends AppCompatActivity {
 		interAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
 		spInterlace.setAdapter(interAdapter);
 		try {
-			String inter = NativeApp.getSetting("EmuCore/GS", "deinterlace_mode", "int");
+			String inter = SettingsCache.get(NativeSettings.DEINTERLACE_MODE);
 			int pos = (inter==null||inter.isEmpty())?0:Integer.parseInt(inter);
 			spInterlace.setSelection(Math.max(0, Math.min(interAdapter.getCount()-1, pos)), false);
 		} catch (Exception ignored) {}
         spInterlace.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                NativeApp.setSetting("EmuCore/GS", "deinterlace_mode", "int", Integer.toString(position));
+                SettingsCache.setInt(NativeSettings.DEINTERLACE_MODE, position);
             }
             @Override public void onNothingSelected(AdapterView<?> parent) {}
         });
@@ -938,11 +941,11 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch swFxaa = findViewById(R.id.sw_fxaa);
         if (swFxaa != null) {
             try {
-                String fxaa = NativeApp.getSetting("EmuCore/GS", "fxaa", "bool");
+                String fxaa = SettingsCache.get(NativeSettings.FXAA);
                 swFxaa.setChecked("true".equalsIgnoreCase(fxaa));
             } catch (Exception ignored) {}
             swFxaa.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "fxaa", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.FXAA, isChecked));
         }
 
         // CAS Mode
@@ -951,13 +954,13 @@ public class SettingsActivity extends AppCompatActivity {
         casAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spCasMode.setAdapter(casAdapter);
         try {
-            String cas = NativeApp.getSetting("EmuCore/GS", "CASMode", "int");
+            String cas = SettingsCache.get(NativeSettings.CAS_MODE);
             int pos = (cas==null||cas.isEmpty())? 0 : Integer.parseInt(cas);
             spCasMode.setSelection(Math.max(0, Math.min(casAdapter.getCount()-1, pos)), false);
         } catch (Exception ignored) {}
         spCasMode.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                NativeApp.setSetting("EmuCore/GS", "CASMode", "int", Integer.toString(position));
+                SettingsCache.setInt(NativeSettings.CAS_MODE, position);
             }
             @Override public void onNothingSelected(AdapterView<?> parent) {}
         });
@@ -968,14 +971,14 @@ public class SettingsActivity extends AppCompatActivity {
             preloadAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spTexturePreload.setAdapter(preloadAdapter);
             try {
-                String preload = NativeApp.getSetting("EmuCore/GS", "texture_preloading", "int");
+                String preload = SettingsCache.get(NativeSettings.TEXTURE_PRELOADING);
                 int val = (preload == null || preload.isEmpty()) ? 0 : Integer.parseInt(preload);
                 if (val < 0 || val >= preloadAdapter.getCount()) val = 0;
                 spTexturePreload.setSelection(val, false);
             } catch (Exception ignored) {}
             spTexturePreload.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "texture_preloading", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.TEXTURE_PRELOADING, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -987,14 +990,14 @@ public class SettingsActivity extends AppCompatActivity {
             blendAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spAccBlending.setAdapter(blendAdapter);
             try {
-                String blend = NativeApp.getSetting("EmuCore/GS", "accurate_blending_unit", "int");
+                String blend = SettingsCache.get(NativeSettings.ACCURATE_BLENDING);
                 int val = (blend == null || blend.isEmpty()) ? 1 : Integer.parseInt(blend);
                 if (val < 0 || val >= blendAdapter.getCount()) val = 1;
                 spAccBlending.setSelection(val, false);
             } catch (Exception ignored) {}
             spAccBlending.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "accurate_blending_unit", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.ACCURATE_BLENDING, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1007,7 +1010,7 @@ public class SettingsActivity extends AppCompatActivity {
             spAnisotropic.setAdapter(anisoAdapter);
             final int[] anisoValues = {0, 2, 4, 8, 16};
             try {
-                String aniso = NativeApp.getSetting("EmuCore/GS", "MaxAnisotropy", "int");
+                String aniso = SettingsCache.get(NativeSettings.MAX_ANISOTROPY);
                 int val = (aniso == null || aniso.isEmpty()) ? 0 : Integer.parseInt(aniso);
                 int idx = 0;
                 for (int i = 0; i < anisoValues.length; i++) {
@@ -1021,7 +1024,7 @@ public class SettingsActivity extends AppCompatActivity {
             spAnisotropic.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                     int value = position >= 0 && position < anisoValues.length ? anisoValues[position] : 0;
-                    NativeApp.setSetting("EmuCore/GS", "MaxAnisotropy", "int", Integer.toString(value));
+                    SettingsCache.setInt(NativeSettings.MAX_ANISOTROPY, value);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1033,14 +1036,14 @@ public class SettingsActivity extends AppCompatActivity {
             triAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spTrilinear.setAdapter(triAdapter);
             try {
-                String tri = NativeApp.getSetting("EmuCore/GS", "TriFilter", "int");
+                String tri = SettingsCache.get(NativeSettings.TRILINEAR_FILTER);
                 int val = (tri == null || tri.isEmpty()) ? 0 : Integer.parseInt(tri);
                 if (val < 0 || val >= triAdapter.getCount()) val = 0;
                 spTrilinear.setSelection(val, false);
             } catch (Exception ignored) {}
             spTrilinear.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "TriFilter", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.TRILINEAR_FILTER, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1052,14 +1055,14 @@ public class SettingsActivity extends AppCompatActivity {
             ditheringAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spDithering.setAdapter(ditheringAdapter);
             try {
-                String dither = NativeApp.getSetting("EmuCore/GS", "dithering_ps2", "int");
+                String dither = SettingsCache.get(NativeSettings.DITHERING);
                 int val = (dither == null || dither.isEmpty()) ? 2 : Integer.parseInt(dither);
                 if (val < 0 || val >= ditheringAdapter.getCount()) val = 2;
                 spDithering.setSelection(val, false);
             } catch (Exception ignored) {}
             spDithering.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "dithering_ps2", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.DITHERING, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1071,14 +1074,14 @@ public class SettingsActivity extends AppCompatActivity {
             bilinearAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spBilinearPresent.setAdapter(bilinearAdapter);
             try {
-                String linear = NativeApp.getSetting("EmuCore/GS", "linear_present_mode", "int");
+                String linear = SettingsCache.get(NativeSettings.LINEAR_PRESENT_MODE);
                 int val = (linear == null || linear.isEmpty()) ? 2 : Integer.parseInt(linear);
                 if (val < 0 || val >= bilinearAdapter.getCount()) val = 2;
                 spBilinearPresent.setSelection(val, false);
             } catch (Exception ignored) {}
             spBilinearPresent.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "linear_present_mode", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.LINEAR_PRESENT_MODE, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1088,7 +1091,7 @@ public class SettingsActivity extends AppCompatActivity {
         TextView tvCas = findViewById(R.id.tv_cas_sharpness_value);
         if (sbCas != null && tvCas != null) {
             try {
-                String sharp = NativeApp.getSetting("EmuCore/GS", "CASSharpness", "int");
+                String sharp = SettingsCache.get(NativeSettings.CAS_SHARPNESS);
                 int v = (sharp == null || sharp.isEmpty()) ? 50 : Integer.parseInt(sharp);
                 if (v < 0) v = 0;
                 if (v > 100) v = 100;
@@ -1102,7 +1105,7 @@ public class SettingsActivity extends AppCompatActivity {
                 int v = Math.max(0, Math.min(100, Math.round(value)));
                 if (v != Math.round(value)) slider.setValue(v);
                 tvCas.setText("CAS Sharpness: " + v + "%");
-                NativeApp.setSetting("EmuCore/GS", "CASSharpness", "int", Integer.toString(v));
+                SettingsCache.setInt(NativeSettings.CAS_SHARPNESS, v);
             });
         }
 
@@ -1110,33 +1113,33 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swHWMip = findViewById(R.id.sw_hw_mipmap);
 		if (swHWMip != null) {
 			try {
-				String hw = NativeApp.getSetting("EmuCore/GS", "hw_mipmap", "bool");
+				String hw = SettingsCache.get(NativeSettings.HW_MIPMAP);
 				swHWMip.setChecked("true".equalsIgnoreCase(hw));
 			} catch (Exception ignored) {}
 			swHWMip.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "hw_mipmap", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.HW_MIPMAP, isChecked));
 		}
 
         // VSync
         MaterialSwitch swVsync = findViewById(R.id.sw_vsync);
         if (swVsync != null) {
             try {
-                String vs = NativeApp.getSetting("EmuCore/GS", "VsyncEnable", "bool");
+                String vs = SettingsCache.get(NativeSettings.VSYNC_ENABLE);
                 swVsync.setChecked("true".equalsIgnoreCase(vs));
             } catch (Exception ignored) {}
             swVsync.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "VsyncEnable", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.VSYNC_ENABLE, isChecked));
         }
 
         // Auto Flush (SW)
         MaterialSwitch swAutoFlushSW = findViewById(R.id.sw_autoflush_sw);
         if (swAutoFlushSW != null) {
             try {
-                String af = NativeApp.getSetting("EmuCore/GS", "autoflush_sw", "bool");
+                String af = SettingsCache.get(NativeSettings.AUTOFLUSH_SW);
                 swAutoFlushSW.setChecked("true".equalsIgnoreCase(af));
             } catch (Exception ignored) {}
             swAutoFlushSW.setOnCheckedChangeListener((b, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "autoflush_sw", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.AUTOFLUSH_SW, isChecked));
         }
 
         // Auto Flush (HW)
@@ -1146,14 +1149,14 @@ public class SettingsActivity extends AppCompatActivity {
             afAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
             spAutoFlushHW.setAdapter(afAdapter);
             try {
-                String lvl = NativeApp.getSetting("EmuCore/GS", "UserHacks_AutoFlushLevel", "int");
+                String lvl = SettingsCache.get(NativeSettings.AUTO_FLUSH_LEVEL);
                 int pos = (lvl==null||lvl.isEmpty()) ? 0 : Integer.parseInt(lvl);
                 if (pos < 0 || pos > 2) pos = 0;
                 spAutoFlushHW.setSelection(pos, false);
             } catch (Exception ignored) {}
             spAutoFlushHW.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
                 @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    NativeApp.setSetting("EmuCore/GS", "UserHacks_AutoFlushLevel", "int", Integer.toString(position));
+                    SettingsCache.setInt(NativeSettings.AUTO_FLUSH_LEVEL, position);
                 }
                 @Override public void onNothingSelected(AdapterView<?> parent) {}
             });
@@ -1162,37 +1165,37 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch swIntegerScaling = findViewById(R.id.sw_integer_scaling);
         if (swIntegerScaling != null) {
             try {
-                String integer = NativeApp.getSetting("EmuCore/GS", "IntegerScaling", "bool");
+                String integer = SettingsCache.get(NativeSettings.INTEGER_SCALING);
                 swIntegerScaling.setChecked("true".equalsIgnoreCase(integer));
             } catch (Exception ignored) {}
             swIntegerScaling.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "IntegerScaling", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.INTEGER_SCALING, isChecked));
         }
 
         MaterialSwitch swScreenOffsets = findViewById(R.id.sw_screen_offsets);
         if (swScreenOffsets != null) {
             try {
-                String offsets = NativeApp.getSetting("EmuCore/GS", "pcrtc_offsets", "bool");
+                String offsets = SettingsCache.get(NativeSettings.PCRTC_OFFSETS);
                 swScreenOffsets.setChecked("true".equalsIgnoreCase(offsets));
             } catch (Exception ignored) {}
             swScreenOffsets.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "pcrtc_offsets", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.PCRTC_OFFSETS, isChecked));
         }
 
         MaterialSwitch swShowOverscan = findViewById(R.id.sw_show_overscan);
         if (swShowOverscan != null) {
             try {
-                String overscan = NativeApp.getSetting("EmuCore/GS", "pcrtc_overscan", "bool");
+                String overscan = SettingsCache.get(NativeSettings.PCRTC_OVERSCAN);
                 swShowOverscan.setChecked("true".equalsIgnoreCase(overscan));
             } catch (Exception ignored) {}
             swShowOverscan.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "pcrtc_overscan", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.PCRTC_OVERSCAN, isChecked));
         }
 
         MaterialSwitch swAntiblur = findViewById(R.id.sw_antiblur);
         if (swAntiblur != null) {
             try {
-                String antiblur = NativeApp.getSetting("EmuCore/GS", "pcrtc_antiblur", "bool");
+                String antiblur = SettingsCache.get(NativeSettings.PCRTC_ANTIBLUR);
                 if (antiblur == null || antiblur.isEmpty()) {
                     swAntiblur.setChecked(true);
                 } else {
@@ -1200,12 +1203,12 @@ public class SettingsActivity extends AppCompatActivity {
                 }
             } catch (Exception ignored) {}
             swAntiblur.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "pcrtc_antiblur", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.PCRTC_ANTIBLUR, isChecked));
         }
 
         // Set initial renderer value
         try {
-            String r = NativeApp.getSetting("EmuCore/GS", "Renderer", "int");
+            String r = SettingsCache.get(NativeSettings.RENDERER);
             int v = (r==null||r.isEmpty())? -1 : Integer.parseInt(r);
             int pos; 
 			switch (v) { 
@@ -1234,18 +1237,18 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swVibration = findViewById(R.id.sw_vibration);
 		boolean vibrationEnabled = true;
 		try {
-			String vibration = NativeApp.getSetting("Pad1", "Vibration", "bool");
+			String vibration = SettingsCache.get(NativeSettings.PAD1_VIBRATION);
 			if (vibration != null && !vibration.isEmpty()) {
 				vibrationEnabled = !"false".equalsIgnoreCase(vibration);
 			} else {
-				NativeApp.setSetting("Pad1", "Vibration", "bool", "true");
+				SettingsCache.set(NativeSettings.PAD1_VIBRATION, "true");
 				vibrationEnabled = true;
 			}
 		} catch (Exception ignored) {}
 		swVibration.setChecked(vibrationEnabled);
 		MainActivity.setVibrationPreference(vibrationEnabled);
 		swVibration.setOnCheckedChangeListener((buttonView, isChecked) -> {
-			NativeApp.setSetting("Pad1", "Vibration", "bool", isChecked ? "true" : "false");
+			SettingsCache.setBool(NativeSettings.PAD1_VIBRATION, isChecked);
 			MainActivity.setVibrationPreference(isChecked);
 		});
 	}
@@ -1264,7 +1267,7 @@ public class SettingsActivity extends AppCompatActivity {
 
 				int pos = 0;
 				try {
-					String coreTypeStr = NativeApp.getSetting("EmuCore/CPU", "CoreType", "int");
+					String coreTypeStr = SettingsCache.get(NativeSettings.CPU_CORE_TYPE);
 					if (coreTypeStr != null && !coreTypeStr.isEmpty()) {
 						int ct = Integer.parseInt(coreTypeStr);
 						if (ct < 0 || ct >= cpuAdapter.getCount()) {
@@ -1276,7 +1279,7 @@ public class SettingsActivity extends AppCompatActivity {
 				spCpu.setSelection(pos, false);
 				spCpu.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
 					@Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-						NativeApp.setSetting("EmuCore/CPU", "CoreType", "int", Integer.toString(position));
+						SettingsCache.setInt(NativeSettings.CPU_CORE_TYPE, position);
 					}
 					@Override public void onNothingSelected(AdapterView<?> parent) {}
 				});
@@ -1287,11 +1290,11 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch swHwRead = findViewById(R.id.sw_hw_readbacks);
         if (swHwRead != null) {
             try {
-                String hr = NativeApp.getSetting("EmuCore/GS", "HardwareReadbacks", "bool");
+                String hr = SettingsCache.get(NativeSettings.HARDWARE_READBACKS);
                 swHwRead.setChecked("true".equalsIgnoreCase(hr));
             } catch (Exception ignored) {}
             swHwRead.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "HardwareReadbacks", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.HARDWARE_READBACKS, isChecked));
         }
 
         // Hardware Download Mode
@@ -1299,7 +1302,7 @@ public class SettingsActivity extends AppCompatActivity {
         TextView tvHwDownloadMode = findViewById(R.id.tv_hw_download_mode);
         if (sbHwDownloadMode != null && tvHwDownloadMode != null) {
             try {
-                String mode = NativeApp.getSetting("EmuCore/GS", "HWDownloadMode", "int");
+                String mode = SettingsCache.get(NativeSettings.HW_DOWNLOAD_MODE);
                 int v = (mode == null || mode.isEmpty()) ? 0 : Integer.parseInt(mode);
                 if (v < 0) v = 0;
                 if (v > 3) v = 3;
@@ -1313,7 +1316,7 @@ public class SettingsActivity extends AppCompatActivity {
                 int v = Math.max(-3, Math.min(3, Math.round(value)));
                 if (v != Math.round(value)) slider.setValue(v);
                 tvHwDownloadMode.setText("Hardware Download Mode: " + v);
-                NativeApp.setSetting("EmuCore/GS", "HWDownloadMode", "int", Integer.toString(v));
+                SettingsCache.setInt(NativeSettings.HW_DOWNLOAD_MODE, v);
             });
         }
 
@@ -1321,18 +1324,18 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch skipDuplicateFrames = findViewById(R.id.skip_duplicate_frames);
         if (skipDuplicateFrames != null) {
             try {
-                String sdf = NativeApp.getSetting("EmuCore/GS", "SkipDuplicateFrames", "bool");
+                String sdf = SettingsCache.get(NativeSettings.SKIP_DUPLICATE_FRAMES);
                 skipDuplicateFrames.setChecked("true".equalsIgnoreCase(sdf));
             } catch (Exception ignored) {}
             skipDuplicateFrames.setOnCheckedChangeListener((buttonView, isChecked) ->
-                    NativeApp.setSetting("EmuCore/GS", "SkipDuplicateFrames", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.SKIP_DUPLICATE_FRAMES, isChecked));
         }
 
         Slider sbEeRate = findViewById(R.id.sb_ee_cycle_rate);
         TextView tvEeRate = findViewById(R.id.tv_ee_cycle_rate);
         if (sbEeRate != null && tvEeRate != null) {
             try {
-                String rate = NativeApp.getSetting("EmuCore/Speedhacks", "EECycleRate", "int");
+                String rate = SettingsCache.get(NativeSettings.EE_CYCLE_RATE);
                 int v = (rate == null || rate.isEmpty()) ? 0 : Integer.parseInt(rate);
                 if (v < -3) v = -3;
                 if (v > 3) v = 3;
@@ -1346,7 +1349,7 @@ public class SettingsActivity extends AppCompatActivity {
                 int v = Math.max(-3, Math.min(3, Math.round(value)));
                 if (v != Math.round(value)) slider.setValue(v);
                 tvEeRate.setText("EE Cycle Rate: " + v);
-                NativeApp.setSetting("EmuCore/Speedhacks", "EECycleRate", "int", Integer.toString(v));
+                SettingsCache.setInt(NativeSettings.EE_CYCLE_RATE, v);
             });
         }
 
@@ -1354,7 +1357,7 @@ public class SettingsActivity extends AppCompatActivity {
         TextView tvEeSkip = findViewById(R.id.tv_ee_cycle_skip);
         if (sbEeSkip != null && tvEeSkip != null) {
             try {
-                String skip = NativeApp.getSetting("EmuCore/Speedhacks", "EECycleSkip", "int");
+                String skip = SettingsCache.get(NativeSettings.EE_CYCLE_SKIP);
                 int v = (skip == null || skip.isEmpty()) ? 0 : Integer.parseInt(skip);
                 if (v < 0) v = 0;
                 if (v > 3) v = 3;
@@ -1368,7 +1371,7 @@ public class SettingsActivity extends AppCompatActivity {
                 int v = Math.max(0, Math.min(3, Math.round(value)));
                 if (v != Math.round(value)) slider.setValue(v);
                 tvEeSkip.setText("EE Cycle Skip: " + v);
-                NativeApp.setSetting("EmuCore/Speedhacks", "EECycleSkip", "int", Integer.toString(v));
+                SettingsCache.setInt(NativeSettings.EE_CYCLE_SKIP, v);
             });
         }
 
@@ -1376,70 +1379,70 @@ public class SettingsActivity extends AppCompatActivity {
 		if (swWaitLoop != null) {
 			boolean enabled = true;
 			try {
-				String waitLoop = NativeApp.getSetting("EmuCore/Speedhacks", "WaitLoop", "bool");
+				String waitLoop = SettingsCache.get(NativeSettings.WAIT_LOOP);
 				if (waitLoop != null && !waitLoop.isEmpty()) {
 					enabled = !"false".equalsIgnoreCase(waitLoop);
 				}
 			} catch (Exception ignored) {}
 			swWaitLoop.setChecked(enabled);
 			swWaitLoop.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/Speedhacks", "WaitLoop", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.WAIT_LOOP, isChecked));
 		}
 
 		MaterialSwitch swIntc = findViewById(R.id.sw_intc_spin);
 		if (swIntc != null) {
 			boolean enabled = true;
 			try {
-				String intc = NativeApp.getSetting("EmuCore/Speedhacks", "IntcStat", "bool");
+				String intc = SettingsCache.get(NativeSettings.INTC_STAT);
 				if (intc != null && !intc.isEmpty()) {
 					enabled = !"false".equalsIgnoreCase(intc);
 				}
 			} catch (Exception ignored) {}
 			swIntc.setChecked(enabled);
 			swIntc.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/Speedhacks", "IntcStat", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.INTC_STAT, isChecked));
 		}
 
 		MaterialSwitch swMvuFlag = findViewById(R.id.sw_mvu_flag);
 		if (swMvuFlag != null) {
 			boolean enabled = true;
 			try {
-				String flag = NativeApp.getSetting("EmuCore/Speedhacks", "vuFlagHack", "bool");
+				String flag = SettingsCache.get(NativeSettings.VU_FLAG_HACK);
 				if (flag != null && !flag.isEmpty()) {
 					enabled = !"false".equalsIgnoreCase(flag);
 				}
 			} catch (Exception ignored) {}
 			swMvuFlag.setChecked(enabled);
 			swMvuFlag.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/Speedhacks", "vuFlagHack", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.VU_FLAG_HACK, isChecked));
 		}
 
 		MaterialSwitch swInstantVu1 = findViewById(R.id.sw_instant_vu1);
 		if (swInstantVu1 != null) {
 			boolean enabled = true;
 			try {
-				String instant = NativeApp.getSetting("EmuCore/Speedhacks", "vu1Instant", "bool");
+				String instant = SettingsCache.get(NativeSettings.VU1_INSTANT);
 				if (instant != null && !instant.isEmpty()) {
 					enabled = "true".equalsIgnoreCase(instant);
 				}
 			} catch (Exception ignored) {}
 			swInstantVu1.setChecked(enabled);
 			swInstantVu1.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/Speedhacks", "vu1Instant", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.VU1_INSTANT, isChecked));
 		}
 
 		// VU Thread
 		MaterialSwitch swVu = findViewById(R.id.sw_vu_thread);
 		if (swVu != null) {
 			try {
-				String vu = NativeApp.getSetting("EmuCore/Speedhacks", "vuThread", "bool");
+				String vu = SettingsCache.get(NativeSettings.VU_THREAD);
 				swVu.setChecked("true".equalsIgnoreCase(vu));
 			} catch (Exception ignored) {}
 			if (swInstantVu1 != null) {
 				swInstantVu1.setEnabled(!swVu.isChecked());
 			}
 			swVu.setOnCheckedChangeListener((b, isChecked) -> {
-				NativeApp.setSetting("EmuCore/Speedhacks", "vuThread", "bool", isChecked ? "true" : "false");
+				SettingsCache.setBool(NativeSettings.VU_THREAD, isChecked);
 				if (swInstantVu1 != null) {
 					if (isChecked && swInstantVu1.isChecked()) {
 						swInstantVu1.setChecked(false);
@@ -1453,11 +1456,11 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch swFastCdvd = findViewById(R.id.sw_fast_cdvd);
         if (swFastCdvd != null) {
             try {
-                String fast = NativeApp.getSetting("EmuCore/Speedhacks", "fastCDVD", "bool");
+                String fast = SettingsCache.get(NativeSettings.FAST_CDVD);
                 swFastCdvd.setChecked("true".equalsIgnoreCase(fast));
             } catch (Exception ignored) {}
             swFastCdvd.setOnCheckedChangeListener((b, isChecked) ->
-                    NativeApp.setSetting("EmuCore/Speedhacks", "fastCDVD", "bool", isChecked ? "true" : "false"));
+                    SettingsCache.setBool(NativeSettings.FAST_CDVD, isChecked));
         }
     }
 
@@ -1466,14 +1469,14 @@ public class SettingsActivity extends AppCompatActivity {
         MaterialSwitch swPerfOverlay = findViewById(R.id.sw_perf_overlay);
         if (swPerfOverlay != null) {
             try {
-                String pos = NativeApp.getSetting("EmuCore/GS", "OsdPerformancePos", "int");
+                String pos = SettingsCache.get(NativeSettings.OSD_PERFORMANCE_POS);
                 int v = (pos == null || pos.isEmpty()) ? 0 : Integer.parseInt(pos);
                 if (v < 0 || v > 2) v = 0;
                 swPerfOverlay.setChecked(v != 0);
             } catch (Exception ignored) {}
             swPerfOverlay.setOnCheckedChangeListener((buttonView, isChecked) -> {
                 int value = isChecked ? 2 : 0;
-                NativeApp.setSetting("EmuCore/GS", "OsdPerformancePos", "int", Integer.toString(value));
+                SettingsCache.setInt(NativeSettings.OSD_PERFORMANCE_POS, value);
             });
         }
 
@@ -1481,7 +1484,7 @@ public class SettingsActivity extends AppCompatActivity {
         TextView tvOsdScale = findViewById(R.id.tv_osd_scale);
         if (sbOsdScale != null && tvOsdScale != null) {
             try {
-                String scale = NativeApp.getSetting("EmuCore/GS", "OsdScale", "int");
+                String scale = SettingsCache.get(NativeSettings.OSD_SCALE);
                 int v = (scale == null || scale.isEmpty()) ? 50 : Integer.parseInt(scale);
                 if (v < 50) v = 50;
                 if (v > 100) v = 100;
@@ -1495,7 +1498,7 @@ public class SettingsActivity extends AppCompatActivity {
                 int v = Math.max(50, Math.min(100, Math.round(value)));
                 if (v != Math.round(value)) slider.setValue(v);
                 tvOsdScale.setText("On-Screen Display Scale: " + v);
-                NativeApp.setSetting("EmuCore/GS", "OsdScale", "int", Integer.toString(v));
+                SettingsCache.setInt(NativeSettings.OSD_SCALE, v);
             });
         }
 
@@ -1503,165 +1506,165 @@ public class SettingsActivity extends AppCompatActivity {
 		MaterialSwitch swOsdFps = findViewById(R.id.sw_osd_fps);
 		if (swOsdFps != null) {
 			try {
-				String fps = NativeApp.getSetting("EmuCore/GS", "OsdShowFPS", "bool");
+				String fps = SettingsCache.get(NativeSettings.OSD_SHOW_FPS);
 				swOsdFps.setChecked("true".equalsIgnoreCase(fps));
 			} catch (Exception ignored) {}
 			swOsdFps.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowFPS", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_FPS, isChecked));
 		}
 
         // OSD VPS
 		MaterialSwitch swOsdVps = findViewById(R.id.sw_osd_vps);
 		if (swOsdVps != null) {
 			try {
-				String vps = NativeApp.getSetting("EmuCore/GS", "OsdShowVPS", "bool");
+				String vps = SettingsCache.get(NativeSettings.OSD_SHOW_VPS);
                 swOsdVps.setChecked("true".equalsIgnoreCase(vps));
 			} catch (Exception ignored) {}
             swOsdVps.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowVPS", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_VPS, isChecked));
 		}
 
         // OSD Speed
 		MaterialSwitch swOsdSpeed = findViewById(R.id.sw_osd_speed);
 		if (swOsdSpeed != null) {
 			try {
-				String speed = NativeApp.getSetting("EmuCore/GS", "OsdShowSpeed", "bool");
+				String speed = SettingsCache.get(NativeSettings.OSD_SHOW_SPEED);
                 swOsdSpeed.setChecked("true".equalsIgnoreCase(speed));
 			} catch (Exception ignored) {}
             swOsdSpeed.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowSpeed", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_SPEED, isChecked));
 		}
 
         // OSD CPU
 		MaterialSwitch swOsdCpu = findViewById(R.id.sw_osd_cpu);
 		if (swOsdCpu != null) {
 			try {
-				String cpu = NativeApp.getSetting("EmuCore/GS", "OsdShowCPU", "bool");
+				String cpu = SettingsCache.get(NativeSettings.OSD_SHOW_CPU);
                 swOsdCpu.setChecked("true".equalsIgnoreCase(cpu));
 			} catch (Exception ignored) {}
             swOsdCpu.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowCPU", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_CPU, isChecked));
 		}
 
         // OSD GPU
 		MaterialSwitch swOsdGpu = findViewById(R.id.sw_osd_gpu);
 		if (swOsdGpu != null) {
 			try {
-				String gpu = NativeApp.getSetting("EmuCore/GS", "OsdShowGPU", "bool");
+				String gpu = SettingsCache.get(NativeSettings.OSD_SHOW_GPU);
                 swOsdGpu.setChecked("true".equalsIgnoreCase(gpu));
 			} catch (Exception ignored) {}
             swOsdGpu.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowGPU", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_GPU, isChecked));
 		}
 
         // OSD Resolution
 		MaterialSwitch swOsdRes = findViewById(R.id.sw_osd_res);
 		if (swOsdRes != null) {
 			try {
-				String res = NativeApp.getSetting("EmuCore/GS", "OsdShowResolution", "bool");
+				String res = SettingsCache.get(NativeSettings.OSD_SHOW_RESOLUTION);
                 swOsdRes.setChecked("false".equalsIgnoreCase(res));
 			} catch (Exception ignored) {}
             swOsdRes.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowResolution", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_RESOLUTION, isChecked));
 		}
 
         // OSD GS Stats
 		MaterialSwitch swOsdGs = findViewById(R.id.sw_osd_gs);
 		if (swOsdGs != null) {
 			try {
-				String gs = NativeApp.getSetting("EmuCore/GS", "OsdShowGSStats", "bool");
+				String gs = SettingsCache.get(NativeSettings.OSD_SHOW_GS_STATS);
                 swOsdGs.setChecked("false".equalsIgnoreCase(gs));
 			} catch (Exception ignored) {}
             swOsdGs.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowGSStats", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_GS_STATS, isChecked));
 		}
 
         // OSD Indicators
 		MaterialSwitch swOsdIndicators = findViewById(R.id.sw_osd_indicators);
 		if (swOsdIndicators != null) {
 			try {
-				String indicators = NativeApp.getSetting("EmuCore/GS", "OsdShowIndicators", "bool");
+				String indicators = SettingsCache.get(NativeSettings.OSD_SHOW_INDICATORS);
                 swOsdIndicators.setChecked("false".equalsIgnoreCase(indicators));
 			} catch (Exception ignored) {}
             swOsdIndicators.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowIndicators", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_INDICATORS, isChecked));
 		}
 
         // OSD Settings
 		MaterialSwitch swOsdSettings = findViewById(R.id.sw_osd_settings);
 		if (swOsdSettings != null) {
 			try {
-				String settings = NativeApp.getSetting("EmuCore/GS", "OsdShowSettings", "bool");
+				String settings = SettingsCache.get(NativeSettings.OSD_SHOW_SETTINGS);
                 swOsdSettings.setChecked("false".equalsIgnoreCase(settings));
 			} catch (Exception ignored) {}
             swOsdSettings.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowSettings", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_SETTINGS, isChecked));
 		}
 
         // OSD Inputs
 		MaterialSwitch swOsdInputs = findViewById(R.id.sw_osd_inputs);
 		if (swOsdInputs != null) {
 			try {
-				String inputs = NativeApp.getSetting("EmuCore/GS", "OsdShowInputs", "bool");
+				String inputs = SettingsCache.get(NativeSettings.OSD_SHOW_INPUTS);
                 swOsdInputs.setChecked("false".equalsIgnoreCase(inputs));
 			} catch (Exception ignored) {}
             swOsdInputs.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowInputs", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_INPUTS, isChecked));
 		}
 
         // OSD Frame Times
 		MaterialSwitch swOsdFrameTimes = findViewById(R.id.sw_osd_frame_times);
 		if (swOsdFrameTimes != null) {
 			try {
-				String ft = NativeApp.getSetting("EmuCore/GS", "OsdShowFrameTimes", "bool");
+				String ft = SettingsCache.get(NativeSettings.OSD_SHOW_FRAME_TIMES);
                 swOsdFrameTimes.setChecked("true".equalsIgnoreCase(ft));
 			} catch (Exception ignored) {}
             swOsdFrameTimes.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowFrameTimes", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_FRAME_TIMES, isChecked));
 		}
 
         // OSD Version
 		MaterialSwitch swOsdVersion = findViewById(R.id.sw_osd_version);
 		if (swOsdVersion != null) {
 			try {
-				String ver = NativeApp.getSetting("EmuCore/GS", "OsdShowVersion", "bool");
+				String ver = SettingsCache.get(NativeSettings.OSD_SHOW_VERSION);
                 swOsdVersion.setChecked("true".equalsIgnoreCase(ver));
 			} catch (Exception ignored) {}
             swOsdVersion.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowVersion", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_VERSION, isChecked));
 		}
 
         // OSD HW Info
 		MaterialSwitch swOsdHwInfo = findViewById(R.id.sw_osd_hw_info);
 		if (swOsdHwInfo != null) {
 			try {
-				String hw = NativeApp.getSetting("EmuCore/GS", "OsdShowHardwareInfo", "bool");
+				String hw = SettingsCache.get(NativeSettings.OSD_SHOW_HARDWARE_INFO);
                 swOsdHwInfo.setChecked("true".equalsIgnoreCase(hw));
 			} catch (Exception ignored) {}
             swOsdHwInfo.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowHardwareInfo", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_HARDWARE_INFO, isChecked));
 		}
 
         // OSD Video Capture
 		MaterialSwitch swOsdVideoCapture = findViewById(R.id.sw_osd_video_capture);
 		if (swOsdVideoCapture != null) {
 			try {
-				String video = NativeApp.getSetting("EmuCore/GS", "OsdShowVideoCapture", "bool");
+				String video = SettingsCache.get(NativeSettings.OSD_SHOW_VIDEO_CAPTURE);
                 swOsdVideoCapture.setChecked("true".equalsIgnoreCase(video));
 			} catch (Exception ignored) {}
             swOsdVideoCapture.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowVideoCapture", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_VIDEO_CAPTURE, isChecked));
 		}
 
         // OSD Video Capture
 		MaterialSwitch swOsdInputRec = findViewById(R.id.sw_osd_input_rec);
 		if (swOsdInputRec != null) {
 			try {
-				String rec = NativeApp.getSetting("EmuCore/GS", "OsdShowInputRec", "bool");
+				String rec = SettingsCache.get(NativeSettings.OSD_SHOW_INPUT_REC);
                 swOsdInputRec.setChecked("true".equalsIgnoreCase(rec));
 			} catch (Exception ignored) {}
             swOsdInputRec.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("EmuCore/GS", "OsdShowInputRec", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.OSD_SHOW_INPUT_REC, isChecked));
 		}
     }
 
@@ -1851,13 +1854,34 @@ public class SettingsActivity extends AppCompatActivity {
 			});
 		}
 
+		Slider sbCoverBudget = findViewById(R.id.sb_cover_cache_budget);
+		TextView tvCoverBudget = findViewById(R.id.tv_cover_cache_budget);
+		if (sbCoverBudget != null && tvCoverBudget != null) {
+			int budgetMb = (int) (CoverDiskCache.getBudgetBytes(this) / (1024L * 1024L));
+			int snapped = Math.round(budgetMb / 32f) * 32;
+			sbCoverBudget.setValue(Math.max(32, Math.min(1024, snapped)));
+			tvCoverBudget.setText("Cover cache size: " + budgetMb + " MB");
+			sbCoverBudget.addOnChangeListener((slider, value, fromUser) -> {
+				if (!fromUser) return;
+				int mb = Math.round(value);
+				tvCoverBudget.setText("Cover cache size: " + mb + " MB");
+				CoverDiskCache.setBudgetMegabytes(this, mb);
+			});
+		}
+		MaterialSwitch swCoverWebp = findViewById(R.id.sw_cover_cache_webp);
+		if (swCoverWebp != null) {
+			swCoverWebp.setChecked(CoverDiskCache.isReencodeEnabled(this));
+			swCoverWebp.setOnCheckedChangeListener((buttonView, isChecked) ->
+					CoverDiskCache.setReencodeEnabled(this, isChecked));
+		}
+
 		MaterialSwitch swDev9Hdd = findViewById(R.id.sw_dev9_hdd_enable);
 		TextView tvDev9HddPath = findViewById(R.id.tv_dev9_hdd_path);
 		MaterialButton btnDev9Reset = findViewById(R.id.btn_dev9_reset_hdd);
 		boolean hddEnabled = false;
 		if (swDev9Hdd != null) {
 			try {
-				String value = NativeApp.getSetting("DEV9/Hdd", "HddEnable", "bool");
+				String value = SettingsCache.get(NativeSettings.HDD_ENABLE);
 				hddEnabled = "true".equalsIgnoreCase(value);
 			} catch (Exception ignored) {}
 			swDev9Hdd.setChecked(hddEnabled);
@@ -1866,13 +1890,13 @@ public class SettingsActivity extends AppCompatActivity {
 		if (swDev9Hdd != null) {
 			final TextView finalTvDev9HddPath = tvDev9HddPath;
 			swDev9Hdd.setOnCheckedChangeListener((buttonView, isChecked) -> {
-				NativeApp.setSetting("DEV9/Hdd", "HddEnable", "bool", isChecked ? "true" : "false");
+				SettingsCache.setBool(NativeSettings.HDD_ENABLE, isChecked);
 				updateDev9HddPathSummary(finalTvDev9HddPath, isChecked);
 			});
 		}
 		if (btnDev9Reset != null) {
 			btnDev9Reset.setOnClickListener(v -> {
-				NativeApp.setSetting("DEV9/Hdd", "HddFile", "string", "DEV9hdd.raw");
+				SettingsCache.set(NativeSettings.HDD_FILE, "DEV9hdd.raw");
 				updateDev9HddPathSummary(tvDev9HddPath, swDev9Hdd != null && swDev9Hdd.isChecked());
 				try {
 					Toast.makeText(this, R.string.settings_dev9_hdd_reset_toast, Toast.LENGTH_SHORT).show();
@@ -1884,12 +1908,12 @@ public class SettingsActivity extends AppCompatActivity {
 		if (swDev9Network != null) {
 			boolean networkEnabled = false;
 			try {
-				String value = NativeApp.getSetting("DEV9/Eth", "EthEnable", "bool");
+				String value = SettingsCache.get(NativeSettings.ETH_ENABLE);
 				networkEnabled = "true".equalsIgnoreCase(value);
 			} catch (Exception ignored) {}
 			swDev9Network.setChecked(networkEnabled);
 			swDev9Network.setOnCheckedChangeListener((buttonView, isChecked) ->
-					NativeApp.setSetting("DEV9/Eth", "EthEnable", "bool", isChecked ? "true" : "false"));
+					SettingsCache.setBool(NativeSettings.ETH_ENABLE, isChecked));
 		}
 		
 		Spinner spDev9networkEthApi = findViewById(R.id.sp_dev9_network_ethapi);
@@ -1905,7 +1929,7 @@ public class SettingsActivity extends AppCompatActivity {
 
 			// Load saved value from native settings
 			try {
-				String savedValue = NativeApp.getSetting("DEV9/Eth", "EthApi", "string");
+				String savedValue = SettingsCache.get(NativeSettings.ETH_API);
 				if (savedValue != null) {
 					int pos = adapter.getPosition(savedValue);
 					if (pos >= 0) {
@@ -1919,7 +1943,7 @@ public class SettingsActivity extends AppCompatActivity {
 				@Override
 				public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
 					String selected = parent.getItemAtPosition(position).toString();
-					NativeApp.setSetting("DEV9/Eth", "EthApi", "string", selected);
+					SettingsCache.set(NativeSettings.ETH_API, selected);
 				}
 
 				@Override
@@ -1957,7 +1981,7 @@ public class SettingsActivity extends AppCompatActivity {
 
 			// Load saved value from native settings
 			try {
-				String savedValue = NativeApp.getSetting("DEV9/Eth", "EthDevice", "string");
+				String savedValue = SettingsCache.get(NativeSettings.ETH_DEVICE);
 				if (savedValue != null) {
 					int pos = adapter.getPosition(savedValue);
 					if (pos >= 0) {
@@ -1972,7 +1996,7 @@ public class SettingsActivity extends AppCompatActivity {
 				public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
 					String selectedAdapter = adapterNames.get(position);
 					// Call your NativeApp function with the selected network adapter
-					NativeApp.setSetting("DEV9/Eth", "EthDevice", "string", selectedAdapter);
+					SettingsCache.set(NativeSettings.ETH_DEVICE, selectedAdapter);
 				}
 
 				@Override
@@ -1989,7 +2013,7 @@ public class SettingsActivity extends AppCompatActivity {
 		}
 		String configured = null;
 		try {
-			configured = NativeApp.getSetting("DEV9/Hdd", "HddFile", "string");
+			configured = SettingsCache.get(NativeSettings.HDD_FILE);
 		} catch (Exception ignored) {}
 		if (TextUtils.isEmpty(configured)) {
 			configured = "DEV9hdd.raw";
@@ -2364,7 +2388,7 @@ public class SettingsActivity extends AppCompatActivity {
 		SeekBar sbLeftDeadzone = dialogView.findViewById(R.id.sb_left_deadzone);
 		TextView tvLeftDeadzone = dialogView.findViewById(R.id.tv_left_deadzone_value);
 		try {
-			String deadzone = NativeApp.getSetting("InputSources/SDL", "ControllerDeadzone", "float");
+			String deadzone = SettingsCache.get(NativeSettings.SDL_CONTROLLER_DEADZONE);
 			float value = deadzone == null || deadzone.isEmpty() ? 0.10f : Float.parseFloat(deadzone);
 			int progress = Math.round(value * 100);
 			sbLeftDeadzone.setProgress(progress);
@@ -2383,7 +2407,7 @@ public class SettingsActivity extends AppCompatActivity {
 		SeekBar sbRightDeadzone = dialogView.findViewById(R.id.sb_right_deadzone);
 		TextView tvRightDeadzone = dialogView.findViewById(R.id.tv_right_deadzone_value);
 		try {
-			String deadzone = NativeApp.getSetting("InputSources/SDL", "ControllerDeadzone", "float");
+			String deadzone = SettingsCache.get(NativeSettings.SDL_CONTROLLER_DEADZONE);
 			float value = deadzone == null || deadzone.isEmpty() ? 0.10f : Float.parseFloat(deadzone);
 			int progress = Math.round(value * 100);
 			sbRightDeadzone.setProgress(progress);
@@ -2402,7 +2426,7 @@ public class SettingsActivity extends AppCompatActivity {
 		SeekBar sbLeftSensitivity = dialogView.findViewById(R.id.sb_left_sensitivity);
 		TextView tvLeftSensitivity = dialogView.findViewById(R.id.tv_left_sensitivity_value);
 		try {
-			String sensitivity = NativeApp.getSetting("InputSources/SDL", "ControllerSensitivity", "float");
+			String sensitivity = SettingsCache.get(NativeSettings.SDL_CONTROLLER_SENSITIVITY);
 			float value = sensitivity == null || sensitivity.isEmpty() ? 1.0f : Float.parseFloat(sensitivity);
 			int progress = Math.round(value * 100);
 			sbLeftSensitivity.setProgress(progress);
@@ -2421,7 +2445,7 @@ public class SettingsActivity extends AppCompatActivity {
 		SeekBar sbRightSensitivity = dialogView.findViewById(R.id.sb_right_sensitivity);
 		TextView tvRightSensitivity = dialogView.findViewById(R.id.tv_right_sensitivity_value);
 		try {
-			String sensitivity = NativeApp.getSetting("InputSources/SDL", "ControllerSensitivity", "float");
+			String sensitivity = SettingsCache.get(NativeSettings.SDL_CONTROLLER_SENSITIVITY);
 			float value = sensitivity == null || sensitivity.isEmpty() ? 1.0f : Float.parseFloat(sensitivity);
 			int progress = Math.round(value * 100);
 			sbRightSensitivity.setProgress(progress);
@@ -2448,8 +2472,8 @@ public class SettingsActivity extends AppCompatActivity {
 			float leftSensitivity = sbLeftSensitivity.getProgress() / 100.0f;
 			float rightSensitivity = sbRightSensitivity.getProgress() / 100.0f;
 
-			NativeApp.setSetting("InputSources/SDL", "ControllerDeadzone", "float", String.valueOf(Math.max(leftDeadzone, rightDeadzone)));
-			NativeApp.setSetting("InputSources/SDL", "ControllerSensitivity", "float", String.valueOf(Math.max(leftSensitivity, rightSensitivity)));
+			SettingsCache.set(NativeSettings.SDL_CONTROLLER_DEADZONE, String.valueOf(Math.max(leftDeadzone, rightDeadzone)));
+			SettingsCache.set(NativeSettings.SDL_CONTROLLER_SENSITIVITY, String.valueOf(Math.max(leftSensitivity, rightSensitivity)));
 			
 			Toast.makeText(this, "Controller settings applied", Toast.LENGTH_SHORT).show();
 			dialog.dismiss();
@@ -2467,9 +2491,9 @@ public class SettingsActivity extends AppCompatActivity {
 				getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION); 
 			} catch (Exception ignored) {}
 			if (importMemcardToSlot1(uri)) {
-				NativeApp.setSetting("MemoryCards", "Slot1_Enable", "bool", "false");
-				NativeApp.setSetting("MemoryCards", "Slot1_Filename", "string", "Mcd001.ps2");
-				NativeApp.setSetting("MemoryCards", "Slot1_Enable", "bool", "true");
+				SettingsCache.set(NativeSettings.MEMCARD_SLOT1_ENABLE, "false");
+				SettingsCache.set(NativeSettings.MEMCARD_SLOT1_FILENAME, "Mcd001.ps2");
+				SettingsCache.set(NativeSettings.MEMCARD_SLOT1_ENABLE, "true");
 				Toast.makeText(this, "Memory card inserted (Slot 1)", Toast.LENGTH_SHORT).show();
 			} else {
 				Toast.makeText(this, "Failed to import memory card", Toast.LENGTH_LONG).show();
@@ -0,0 +1,318 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Auto-tune searches in progress, one {@link AutoTuner} per game key, stored in AutoTune.json. Unlike
+ * the per-game settings, every change is written before the call returns: whether a trial was
+ * running when the process died is how a crashing configuration is recognized, so it has to be on
+ * disk before the VM boots. The file is tiny and only written around sessions. When a search
+ * finishes, its best configuration is saved into the game's {@link GameSpecificSettingsManager}
+ * profile and the search is dropped.
+ */
+public final class AutoTuneManager {
+    private static final String FILE_NAME = "AutoTune.json";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_DIMENSIONS = "dimensions";
+    private static final String KEY_GAMES = "games";
+    private static final int CURRENT_VERSION = 1;
+    private static final String TAG = "AutoTune";
+    private static final Object LOCK = new Object();
+
+    private static Map<String, AutoTuner> sTuners = null;
+    private static File sLoadedFrom = null;
+
+    private AutoTuneManager() {
+    }
+
+    /** Completed sessions of the game's search, or -1 if it isn't being tuned. */
+    public static int trialsRun(Context context, String gameKey) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return -1;
+        }
+        synchronized (LOCK) {
+            AutoTuner tuner = tuners(context).get(gameKey);
+            return tuner != null ? tuner.trialsRun() : -1;
+        }
+    }
+
+    /** Starts tuning a game from {@code baseline}, the values it runs with now; a running search is kept. */
+    public static void start(Context context, String gameKey, Map<NativeSettings.Key, String> baseline) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return;
+        }
+        synchronized (LOCK) {
+            Map<String, AutoTuner> tuners = tuners(context);
+            if (tuners.containsKey(gameKey)) {
+                return;
+            }
+            tuners.put(gameKey, AutoTuner.start(AutoTuner.DEFAULT_DIMENSIONS, baseline, AutoTuner.DEFAULT_MAX_TRIALS));
+            save();
+        }
+    }
+
+    public static void cancel(Context context, String gameKey) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return;
+        }
+        synchronized (LOCK) {
+            if (tuners(context).remove(gameKey) != null) {
+                save();
+            }
+        }
+    }
+
+    /**
+     * Values to boot the game with this time, on top of its profile, or null if it isn't being
+     * tuned. A search that ends here is saved into the profile first.
+     */
+    @Nullable
+    public static Map<NativeSettings.Key, String> beginTrial(Context context, String gameKey) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return null;
+        }
+        synchronized (LOCK) {
+            AutoTuner tuner = tuners(context).get(gameKey);
+            if (tuner == null) {
+                return null;
+            }
+            Map<NativeSettings.Key, String> trial = tuner.begin();
+            if (trial == null) {
+                finish(context, gameKey, tuner);
+            }
+            save();
+            return trial;
+        }
+    }
+
+    /** The game left the screen mid-session; a process death from here on is not a crash. */
+    public static void suspend(Context context, String gameKey) {
+        update(context, gameKey, false);
+    }
+
+    public static void resume(Context context, String gameKey) {
+        update(context, gameKey, true);
+    }
+
+    /**
+     * Ends the game's running trial with {@code session}, or as too short to judge if it isn't
+     * conclusive. Returns the configuration saved into the profile if this finished the search.
+     */
+    @Nullable
+    public static Map<NativeSettings.Key, String> endTrial(Context context, String gameKey, AutoTuner.Session session) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return null;
+        }
+        synchronized (LOCK) {
+            AutoTuner tuner = tuners(context).get(gameKey);
+            if (tuner == null) {
+                return null;
+            }
+            if (session.isConclusive()) {
+                AutoTuner.Result result = session.result();
+                tuner.report(result);
+                try { DebugLog.i(TAG, String.format(Locale.US, "Trial %d for %s: %.0f%% sustained, %.1f fps",
+                        tuner.trialsRun(), gameKey, result.sustainedSpeed * 100, result.averageFps)); } catch (Throwable ignored) {}
+            } else {
+                tuner.abandon();
+            }
+            Map<NativeSettings.Key, String> best = null;
+            if (tuner.isFinished()) {
+                best = finish(context, gameKey, tuner);
+            }
+            save();
+            return best;
+        }
+    }
+
+    private static void update(Context context, String gameKey, boolean running) {
+        if (context == null || TextUtils.isEmpty(gameKey)) {
+            return;
+        }
+        synchronized (LOCK) {
+            AutoTuner tuner = tuners(context).get(gameKey);
+            if (tuner == null) {
+                return;
+            }
+            if (running) {
+                tuner.resume();
+            } else {
+                tuner.suspend();
+            }
+            save();
+        }
+    }
+
+    private static Map<NativeSettings.Key, String> finish(Context context, String gameKey, AutoTuner tuner) {
+        sTuners.remove(gameKey);
+        Map<NativeSettings.Key, String> best = tuner.best();
+        GameSpecificSettingsManager.GameSettings settings = GameSpecificSettingsManager.getSettings(context, gameKey);
+        if (settings == null) {
+            settings = new GameSpecificSettingsManager.GameSettings();
+        }
+        for (Map.Entry<NativeSettings.Key, String> e : best.entrySet()) {
+            settings.put(e.getKey(), e.getValue());
+        }
+        GameSpecificSettingsManager.saveSettings(context, gameKey, settings);
+        try { DebugLog.i(TAG, "Tuned " + gameKey + " after " + tuner.trialsRun() + " session(s): " + best); } catch (Throwable ignored) {}
+        return best;
+    }
+
+    private static Map<String, AutoTuner> tuners(Context context) {
+        File file = getFile(context);
+        if (sTuners == null || !file.equals(sLoadedFrom)) {
+            sTuners = read(file);
+            sLoadedFrom = file;
+        }
+        return sTuners;
+    }
+
+    private static void save() {
+        if (sTuners == null || sLoadedFrom == null) {
+            return;
+        }
+        try {
+            JSONObject games = new JSONObject();
+            for (Map.Entry<String, AutoTuner> e : sTuners.entrySet()) {
+                games.put(e.getKey(), toJson(e.getValue().state()));
+            }
+            JSONObject root = new JSONObject();
+            root.put(KEY_VERSION, CURRENT_VERSION);
+            root.put(KEY_DIMENSIONS, AutoTuner.describe(AutoTuner.DEFAULT_DIMENSIONS));
+            root.put(KEY_GAMES, games);
+            GameLibraryIndex.writeAtomically(sLoadedFrom, root.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException | IOException e) {
+            try { DebugLog.e(TAG, "Failed to save auto-tune state: " + e.getMessage()); } catch (Throwable ignored) {}
+        }
+    }
+
+    private static Map<String, AutoTuner> read(File file) {
+        Map<String, AutoTuner> tuners = new HashMap<>();
+        if (!file.isFile()) {
+            return tuners;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            JSONObject root = new JSONObject(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+            if (!AutoTuner.describe(AutoTuner.DEFAULT_DIMENSIONS).equals(root.optString(KEY_DIMENSIONS))) {
+                // Searches over other settings can't be resumed
+                return tuners;
+            }
+            JSONObject games = root.optJSONObject(KEY_GAMES);
+            if (games == null) {
+                return tuners;
+            }
+            Iterator<String> keys = games.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                JSONObject obj = games.optJSONObject(key);
+                AutoTuner tuner = obj != null ? AutoTuner.restore(AutoTuner.DEFAULT_DIMENSIONS, fromJson(obj)) : null;
+                if (tuner != null) {
+                    tuners.put(key, tuner);
+                }
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable auto-tune state: " + e.getMessage()); } catch (Throwable ignored) {}
+            tuners.clear();
+        }
+        return tuners;
+    }
+
+    static JSONObject toJson(AutoTuner.State state) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("best", toJson(state.best));
+        // Doubles as strings: JSON has no NaN or infinity
+        obj.put("bestScore", Double.toString(state.bestScore));
+        obj.put("bestSpeed", Double.toString(state.bestSpeed));
+        obj.put("dim", state.dim);
+        obj.put("direction", state.direction);
+        obj.put("scan", state.scan);
+        obj.put("trials", state.trials);
+        obj.put("maxTrials", state.maxTrials);
+        obj.put("incomplete", state.incomplete);
+        obj.put("finished", state.finished);
+        if (state.pending != null) obj.put("pending", toJson(state.pending));
+        obj.put("running", state.running);
+        obj.put("unstable", new JSONArray(state.unstable));
+        return obj;
+    }
+
+    static AutoTuner.State fromJson(JSONObject obj) {
+        AutoTuner.State state = new AutoTuner.State();
+        state.best = toInts(obj.optJSONArray("best"));
+        state.bestScore = parseDouble(obj.optString("bestScore"), Double.NaN);
+        state.bestSpeed = parseDouble(obj.optString("bestSpeed"), 0);
+        state.dim = obj.optInt("dim");
+        state.direction = obj.optInt("direction");
+        state.scan = obj.optInt("scan");
+        state.trials = obj.optInt("trials");
+        state.maxTrials = obj.optInt("maxTrials", AutoTuner.DEFAULT_MAX_TRIALS);
+        state.incomplete = obj.optInt("incomplete");
+        state.finished = obj.optBoolean("finished");
+        state.pending = toInts(obj.optJSONArray("pending"));
+        state.running = obj.optBoolean("running");
+        JSONArray unstable = obj.optJSONArray("unstable");
+        if (unstable != null) {
+            for (int i = 0; i < unstable.length(); i++) {
+                state.unstable.add(unstable.optString(i));
+            }
+        }
+        return state;
+    }
+
+    private static JSONArray toJson(int[] values) {
+        JSONArray array = new JSONArray();
+        for (int value : values) array.put(value);
+        return array;
+    }
+
+    @Nullable
+    private static int[] toInts(@Nullable JSONArray array) {
+        if (array == null) {
+            return null;
+        }
+        int[] values = new int[array.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.optInt(i, -1);
+        }
+        return values;
+    }
+
+    private static double parseDouble(String value, double fallback) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static File getFile(Context context) {
+        File base = DataDirectoryManager.getDataRoot(context != null ? context : NativeApp.getContext());
+        return new File(base, FILE_NAME);
+    }
+}
@@ -0,0 +1,411 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search for the per-game settings that run a game best on this device, one trial per boot. Each
+ * trial is a full set of values for the tuned {@link Dimension}s; a play session on it is sampled
+ * into a {@link Session}, and the result decides the next trial. The search starts from the game's
+ * current values and walks one dimension at a time: ordered dimensions step towards quality while
+ * the game holds full speed and towards speed while it doesn't, stopping at the first step that
+ * doesn't help, and unordered ones try every value. A trial that never reports back (the app died
+ * while it ran) counts as unstable and is never picked.
+ *
+ * <p>Nothing here touches Android or native code: the caller feeds speed samples in and applies the
+ * trials, so the search can be exercised off-device.
+ */
+public final class AutoTuner {
+    /** Completed sessions, the baseline included, before the best configuration found is kept. */
+    public static final int DEFAULT_MAX_TRIALS = 8;
+    /** Sessions in a row that end too early to judge before a trial is given up on. */
+    static final int MAX_INCOMPLETE = 3;
+    /** Sustained speed, as a fraction of full speed, that counts as full speed. */
+    private static final double FULL_SPEED = 0.97;
+    /** Score of one step towards quality on an ordered dimension; worth less than 1% of speed. */
+    private static final double QUALITY_STEP = 0.01;
+    /** Differences smaller than this are sampling noise. */
+    private static final double MIN_GAIN = 0.005;
+
+    /** A setting the tuner may change, with the values it tries. */
+    public static final class Dimension {
+        public final NativeSettings.Key key;
+        /** Candidate values; for an ordered dimension, cheapest first. */
+        final String[] values;
+        final boolean ordered;
+
+        public Dimension(NativeSettings.Key key, boolean ordered, String... values) {
+            this.key = key;
+            this.ordered = ordered;
+            this.values = values.clone();
+        }
+
+        /** Index of the candidate closest to {@code value}, which need not be a candidate itself. */
+        int indexOf(@Nullable String value) {
+            if (value == null) {
+                return 0;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(value)) return i;
+            }
+            double target = parse(value);
+            int closest = 0;
+            for (int i = 1; i < values.length; i++) {
+                if (Math.abs(parse(values[i]) - target) < Math.abs(parse(values[closest]) - target)) closest = i;
+            }
+            return closest;
+        }
+
+        private static double parse(String value) {
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * What is tuned by default: texture preloading first, since it costs no quality, then internal
+     * resolution, then EE cycle skipping, which trades accuracy for speed and is touched last.
+     */
+    public static final List<Dimension> DEFAULT_DIMENSIONS = Collections.unmodifiableList(Arrays.asList(
+            new Dimension(NativeSettings.TEXTURE_PRELOADING, false, "0", "1", "2"),
+            new Dimension(NativeSettings.UPSCALE_MULTIPLIER, true, "1", "2", "3", "4"),
+            new Dimension(NativeSettings.EE_CYCLE_SKIP, true, "3", "2", "1", "0")));
+
+    /** How one trial went. */
+    public static final class Result {
+        static final Result UNSTABLE = new Result(0, 0, false);
+
+        /** Speed held 90% of the time, as a fraction of full speed. */
+        public final double sustainedSpeed;
+        public final double averageFps;
+        public final boolean stable;
+
+        Result(double sustainedSpeed, double averageFps, boolean stable) {
+            this.sustainedSpeed = sustainedSpeed;
+            this.averageFps = averageFps;
+            this.stable = stable;
+        }
+    }
+
+    /** Speed samples from one play session, taken about once a second. */
+    public static final class Session {
+        /** Samples dropped at the start, while the game boots and shaders compile. */
+        static final int WARMUP_SAMPLES = 15;
+        static final int MIN_SAMPLES = 60;
+        static final int MAX_SAMPLES = 300;
+
+        private final float[] speeds = new float[MAX_SAMPLES];
+        private int count;
+        private int skipped;
+        private double fpsSum;
+
+        /**
+         * Adds a sample of the emulation speed in percent and the frame rate. Non-positive speeds
+         * (nothing running, paused) are ignored.
+         */
+        public void add(float speedPercent, float fps) {
+            if (!(speedPercent > 0f) || count >= MAX_SAMPLES) {
+                return;
+            }
+            if (skipped < WARMUP_SAMPLES) {
+                skipped++;
+                return;
+            }
+            speeds[count++] = speedPercent;
+            fpsSum += fps;
+        }
+
+        /** Whether no sample was taken yet, warm-up included; the game never got going. */
+        public boolean isEmpty() {
+            return skipped == 0;
+        }
+
+        /** Whether enough was sampled to judge the trial. */
+        public boolean isConclusive() {
+            return count >= MIN_SAMPLES;
+        }
+
+        /** Whether sampling longer would add nothing. */
+        public boolean isComplete() {
+            return count >= MAX_SAMPLES;
+        }
+
+        public Result result() {
+            if (count == 0) {
+                return new Result(0, 0, true);
+            }
+            float[] sorted = Arrays.copyOf(speeds, count);
+            Arrays.sort(sorted);
+            return new Result(sorted[count / 10] / 100.0, fpsSum / count, true);
+        }
+    }
+
+    /** Everything needed to resume a search in a later process; indices refer to the dimensions' values. */
+    public static final class State {
+        public int[] best;
+        public double bestScore = Double.NaN;
+        public double bestSpeed;
+        public int dim;
+        public int direction;
+        public int scan;
+        public int trials;
+        public int maxTrials = DEFAULT_MAX_TRIALS;
+        public int incomplete;
+        public boolean finished;
+        /** Trial handed out by {@link #begin()} and not yet reported on; null if none. */
+        @Nullable
+        public int[] pending;
+        /** Whether {@link #pending} is being played right now. */
+        public boolean running;
+        /** Trials that took the app down. */
+        public Set<String> unstable = new HashSet<>();
+    }
+
+    private final List<Dimension> dimensions;
+    private final State state;
+
+    private AutoTuner(List<Dimension> dimensions, State state) {
+        this.dimensions = dimensions;
+        this.state = state;
+    }
+
+    /** Starts a search from {@code baseline}, the values the game runs with today. */
+    public static AutoTuner start(List<Dimension> dimensions, Map<NativeSettings.Key, String> baseline, int maxTrials) {
+        State state = new State();
+        state.best = new int[dimensions.size()];
+        for (int i = 0; i < dimensions.size(); i++) {
+            Dimension d = dimensions.get(i);
+            state.best[i] = d.indexOf(baseline.get(d.key));
+        }
+        state.maxTrials = Math.max(1, maxTrials);
+        return new AutoTuner(dimensions, state);
+    }
+
+    /** Resumes a search saved with {@link #state()}; null if it was made with other dimensions. */
+    @Nullable
+    public static AutoTuner restore(List<Dimension> dimensions, State state) {
+        if (state.best == null || state.best.length != dimensions.size()
+                || (state.pending != null && state.pending.length != dimensions.size())) {
+            return null;
+        }
+        for (int i = 0; i < dimensions.size(); i++) {
+            int n = dimensions.get(i).values.length;
+            if (state.best[i] < 0 || state.best[i] >= n) return null;
+            if (state.pending != null && (state.pending[i] < 0 || state.pending[i] >= n)) return null;
+        }
+        return new AutoTuner(dimensions, state);
+    }
+
+    /** Signature of {@code dimensions}, stored with a state to tell whether it still applies. */
+    public static String describe(List<Dimension> dimensions) {
+        StringBuilder sb = new StringBuilder();
+        for (Dimension d : dimensions) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(d.key).append(d.ordered ? '<' : '=').append(String.join(",", d.values));
+        }
+        return sb.toString();
+    }
+
+    /** The live state; persist it after every call that changes the search. */
+    public State state() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state.finished;
+    }
+
+    public int trialsRun() {
+        return state.trials;
+    }
+
+    public int maxTrials() {
+        return state.maxTrials;
+    }
+
+    /**
+     * The configuration to boot with next, marked as running, or null once the search is over. A
+     * trial left running by a previous call counts as having crashed; one that was suspended and
+     * never resumed counts as an early exit.
+     */
+    @Nullable
+    public Map<NativeSettings.Key, String> begin() {
+        if (state.pending != null) {
+            if (state.running) {
+                report(Result.UNSTABLE);
+            } else {
+                abandon();
+            }
+        }
+        if (state.finished) {
+            return null;
+        }
+        int[] candidate = candidate();
+        if (candidate == null) {
+            state.finished = true;
+            return null;
+        }
+        state.pending = candidate;
+        state.running = true;
+        return values(candidate);
+    }
+
+    /** The running trial stopped being played, e.g. the app went to the background. */
+    public void suspend() {
+        state.running = false;
+    }
+
+    public void resume() {
+        if (state.pending != null) {
+            state.running = true;
+        }
+    }
+
+    /** The session on the pending trial ended before it could be judged; it is tried again. */
+    public void abandon() {
+        if (state.pending == null) {
+            return;
+        }
+        state.running = false;
+        if (++state.incomplete < MAX_INCOMPLETE) {
+            state.pending = null;
+            return;
+        }
+        if (Double.isNaN(state.bestScore)) {
+            // The baseline never ran long enough; there is nothing to compare against
+            state.pending = null;
+            state.finished = true;
+            return;
+        }
+        report(new Result(0, 0, true));
+    }
+
+    /** Records how the pending trial went and moves the search on. */
+    public void report(Result result) {
+        int[] trial = state.pending;
+        if (trial == null) {
+            return;
+        }
+        state.pending = null;
+        state.running = false;
+        state.incomplete = 0;
+        state.trials++;
+        if (!result.stable) {
+            state.unstable.add(signature(trial));
+        }
+        double score = score(trial, result);
+        if (Double.isNaN(state.bestScore)) {
+            // Baseline
+            state.bestScore = score;
+            state.bestSpeed = result.sustainedSpeed;
+            if (!result.stable) {
+                // Unstable as it is; other settings won't be judged fairly against a crash
+                state.finished = true;
+            }
+        } else {
+            boolean better = score > state.bestScore + MIN_GAIN;
+            if (better) {
+                state.best = trial;
+                state.bestScore = score;
+                state.bestSpeed = result.sustainedSpeed;
+            }
+            Dimension d = dimensions.get(state.dim);
+            if (d.ordered) {
+                if (!better) nextDimension();
+            } else {
+                state.scan++;
+            }
+        }
+        if (state.trials >= state.maxTrials) {
+            state.finished = true;
+        }
+    }
+
+    /** Best configuration found so far, the baseline until a trial beats it. */
+    public Map<NativeSettings.Key, String> best() {
+        return values(state.best);
+    }
+
+    @Nullable
+    private int[] candidate() {
+        if (Double.isNaN(state.bestScore)) {
+            return state.best.clone();
+        }
+        while (state.dim < dimensions.size()) {
+            Dimension d = dimensions.get(state.dim);
+            int current = state.best[state.dim];
+            if (d.ordered) {
+                if (state.direction == 0) {
+                    state.direction = state.bestSpeed >= FULL_SPEED ? 1 : -1;
+                }
+                int next = current + state.direction;
+                if (next >= 0 && next < d.values.length) {
+                    int[] trial = with(state.dim, next);
+                    if (!state.unstable.contains(signature(trial))) return trial;
+                }
+            } else {
+                while (state.scan < d.values.length) {
+                    if (state.scan != current) {
+                        int[] trial = with(state.dim, state.scan);
+                        if (!state.unstable.contains(signature(trial))) return trial;
+                    }
+                    state.scan++;
+                }
+            }
+            nextDimension();
+        }
+        return null;
+    }
+
+    private void nextDimension() {
+        state.dim++;
+        state.direction = 0;
+        state.scan = 0;
+    }
+
+    private int[] with(int dim, int index) {
+        int[] trial = state.best.clone();
+        trial[dim] = index;
+        return trial;
+    }
+
+    /**
+     * Sustained speed, counted as full past {@link #FULL_SPEED} so quality breaks ties between
+     * configurations that all run at full speed, plus {@link #QUALITY_STEP} per step up each ordered
+     * dimension.
+     */
+    private double score(int[] trial, Result result) {
+        if (!result.stable) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double speed = result.sustainedSpeed >= FULL_SPEED ? 1.0 : result.sustainedSpeed;
+        int quality = 0;
+        for (int i = 0; i < dimensions.size(); i++) {
+            if (dimensions.get(i).ordered) quality += trial[i];
+        }
+        return speed + QUALITY_STEP * quality;
+    }
+
+    private Map<NativeSettings.Key, String> values(int[] indices) {
+        Map<NativeSettings.Key, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < dimensions.size(); i++) {
+            Dimension d = dimensions.get(i);
+            values.put(d.key, d.values[indices[i]]);
+        }
+        return values;
+    }
+
+    private static String signature(int[] indices) {
+        return Arrays.toString(indices);
+    }
+}
@@ -0,0 +1,328 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ColorSpace;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes game covers off the main thread, sampled down to the size of a grid cell. Decoded
+ * thumbnails are kept in a memory LRU, and re-encoded thumbnails are kept on disk so a cover is
+ * only decoded at full resolution once. Opaque (JPEG) art is decoded as RGB_565. The thumbnail
+ * directory is kept to a quarter of the {@link CoverDiskCache} budget, evicting the least recently
+ * used thumbnails first.
+ */
+public final class CoverBitmapLoader {
+    private static final String TAG = "CoverBitmapLoader";
+    private static final String THUMB_DIR = "cover_thumbs";
+    // A thumbnail's mtime doubles as its last use; refreshed at most this often so binds don't write
+    private static final long THUMB_TOUCH_INTERVAL_MS = 60L * 60L * 1000L;
+
+    // Bytes in THUMB_DIR, counted on the first store; -1 until then
+    private static final AtomicLong sThumbBytes = new AtomicLong(-1);
+    private static final Object THUMB_LOCK = new Object();
+
+    private static final LruCache<String, Bitmap> sMemory;
+    private static final ExecutorService sDecoder = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(() -> {
+            android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, "CoverDecode");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Handler sMain = new Handler(Looper.getMainLooper());
+
+    static {
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024);
+        sMemory = new LruCache<String, Bitmap>(Math.max(1024 * 8, maxKb / 8)) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount() / 1024;
+            }
+        };
+    }
+
+    private CoverBitmapLoader() {
+    }
+
+    /** Where the full-size image comes from; opened twice (bounds pass, then the sampled decode). */
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    public interface Callback {
+        /** Checked right before decoding so work for recycled cells is skipped. */
+        boolean isWanted();
+
+        /** Called on the main thread; {@code bitmap} is null if the source could not be decoded. */
+        void onCover(@Nullable Bitmap bitmap);
+    }
+
+    /**
+     * @param sourceKey identifies the image (path or URI); {@code version} changes when its content
+     *                  does (e.g. file mtime) and invalidates the on-disk thumbnail.
+     */
+    @Nullable
+    public static Bitmap getCached(String sourceKey, long version, int width, int height) {
+        return sMemory.get(memoryKey(sourceKey, version, width, height));
+    }
+
+    public static void load(Context context, String sourceKey, long version, Source source,
+                            int width, int height, Callback callback) {
+        final String key = memoryKey(sourceKey, version, width, height);
+        Bitmap cached = sMemory.get(key);
+        if (cached != null) {
+            callback.onCover(cached);
+            return;
+        }
+        final Context appContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        sDecoder.execute(() -> {
+            if (!callback.isWanted()) {
+                return;
+            }
+            Bitmap bitmap = sMemory.get(key);
+            if (bitmap == null) {
+                bitmap = loadThumbnail(appContext, key);
+            }
+            if (bitmap == null) {
+                try {
+                    bitmap = decodeSampled(source, width, height);
+                } catch (Exception e) {
+                    try { DebugLog.d(TAG, "Cover decode failed for " + sourceKey + ": " + e.getMessage()); } catch (Throwable ignored) {}
+                }
+                if (bitmap != null) {
+                    storeThumbnail(appContext, key, bitmap);
+                }
+            }
+            if (bitmap != null) {
+                sMemory.put(key, bitmap);
+            }
+            final Bitmap result = bitmap;
+            sMain.post(() -> callback.onCover(result));
+        });
+    }
+
+    /**
+     * Synchronous sampled decode of an image file in full colour, for re-encoding on a worker thread.
+     */
+    @Nullable
+    public static Bitmap decodeFileForEncode(File file, int width, int height) {
+        try {
+            return decodeSampled(() -> new FileInputStream(file), width, height, false);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Bitmap decodeSampled(Source source, int width, int height) throws IOException {
+        return decodeSampled(source, width, height, true);
+    }
+
+    @Nullable
+    private static Bitmap decodeSampled(Source source, int width, int height, boolean allowRgb565) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = source.open()) {
+            if (in == null) {
+                return null;
+            }
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, width, height);
+        boolean opaque = allowRgb565 && "image/jpeg".equals(bounds.outMimeType);
+        options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        options.inPreferredColorSpace = ColorSpace.get(ColorSpace.Named.SRGB);
+        Bitmap bitmap;
+        try (InputStream in = source.open()) {
+            if (in == null) {
+                return null;
+            }
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (bitmap == null) {
+            return null;
+        }
+        // inSampleSize only halves; finish with one bilinear scale when still well above the cell
+        if (width > 0 && height > 0 && (bitmap.getWidth() > width * 5 / 4 || bitmap.getHeight() > height * 5 / 4)) {
+            float scale = Math.min(width / (float) bitmap.getWidth(), height / (float) bitmap.getHeight());
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap,
+                    Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                    Math.max(1, Math.round(bitmap.getHeight() * scale)), true);
+            if (scaled != bitmap) {
+                bitmap.recycle();
+                bitmap = scaled;
+            }
+        }
+        return bitmap;
+    }
+
+    static int sampleSize(int sourceWidth, int sourceHeight, int width, int height) {
+        int sample = 1;
+        if (width <= 0 || height <= 0) {
+            return sample;
+        }
+        while (sourceWidth / (sample * 2) >= width && sourceHeight / (sample * 2) >= height) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    @Nullable
+    private static Bitmap loadThumbnail(Context context, String key) {
+        File file = thumbnailFile(context, key);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = file.getName().endsWith(".jpg") ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        if (bitmap == null) {
+            long length = file.length();
+            if (file.delete()) {
+                addThumbBytes(-length);
+            }
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - file.lastModified() > THUMB_TOUCH_INTERVAL_MS) {
+            file.setLastModified(now);
+        }
+        return bitmap;
+    }
+
+    private static void storeThumbnail(Context context, String key, Bitmap bitmap) {
+        File file = thumbnailFile(context, key, !bitmap.hasAlpha());
+        if (file == null) {
+            return;
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        boolean ok;
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            ok = bitmap.hasAlpha()
+                    ? bitmap.compress(Bitmap.CompressFormat.PNG, 100, out)
+                    : bitmap.compress(Bitmap.CompressFormat.JPEG, 90, out);
+        } catch (IOException e) {
+            ok = false;
+        }
+        if (!ok || !temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+        if (parent != null) {
+            trimThumbnails(context, parent, file.length());
+        }
+    }
+
+    private static void addThumbBytes(long delta) {
+        sThumbBytes.updateAndGet(bytes -> bytes < 0 ? bytes : Math.max(0, bytes + delta));
+    }
+
+    /** Accounts for a stored thumbnail and, past the budget, deletes the least recently used ones. */
+    private static void trimThumbnails(Context context, File dir, long storedBytes) {
+        long budget = CoverDiskCache.getBudgetBytes(context) / 4;
+        synchronized (THUMB_LOCK) {
+            long total = sThumbBytes.get();
+            // The running count can drift (overwritten keys); it only decides when to list the directory
+            if (total >= 0 && total + storedBytes <= budget) {
+                sThumbBytes.set(total + storedBytes);
+                return;
+            }
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+            total = 0;
+            for (File child : files) {
+                total += child.length();
+            }
+            sThumbBytes.set(total);
+            if (total <= budget) {
+                return;
+            }
+            final long[] used = new long[files.length];
+            Integer[] order = new Integer[files.length];
+            for (int i = 0; i < files.length; i++) {
+                used[i] = files[i].lastModified();
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(used[a], used[b]));
+            // Trim a little below the budget so the next few stores don't each trigger another pass
+            long target = budget - budget / 10;
+            int evicted = 0;
+            for (int i : order) {
+                if (total <= target) {
+                    break;
+                }
+                long length = files[i].length();
+                if (files[i].delete()) {
+                    total -= length;
+                    evicted++;
+                }
+            }
+            sThumbBytes.set(total);
+            try { DebugLog.i(TAG, "Evicted " + evicted + " cover thumbnails; " + (total / 1024) + " KB left"); } catch (Throwable ignored) {}
+        }
+    }
+
+    @Nullable
+    private static File thumbnailFile(Context context, String key) {
+        File jpg = thumbnailFile(context, key, true);
+        if (jpg != null && jpg.isFile()) {
+            return jpg;
+        }
+        return thumbnailFile(context, key, false);
+    }
+
+    @Nullable
+    private static File thumbnailFile(Context context, String key, boolean opaque) {
+        File cacheDir = context.getCacheDir();
+        if (cacheDir == null) {
+            return null;
+        }
+        return new File(new File(cacheDir, THUMB_DIR), sha1(key) + (opaque ? ".jpg" : ".png"));
+    }
+
+    private static String memoryKey(String sourceKey, long version, int width, int height) {
+        return sourceKey + "|" + version + "|" + width + "x" + height;
+    }
+
+    private static String sha1(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory view of the covers cache directory, keyed by cover base name (the file name without its
+ * image extension, case-insensitive). The directory is listed once on first use; covers written or
+ * deleted by the app are applied through {@link #put} and {@link #remove}, so lookups during bind and
+ * prefetch never touch the filesystem beyond a single {@code exists()} check.
+ */
+public final class CoverDirectoryIndex {
+    private static final Map<String, CoverDirectoryIndex> sIndexes = new HashMap<>();
+
+    private final File dir;
+    private final Object lock = new Object();
+    private Map<String, File> byBaseName = null;
+
+    private CoverDirectoryIndex(File dir) {
+        this.dir = dir;
+    }
+
+    public static CoverDirectoryIndex forDirectory(File dir) {
+        String key = dir.getAbsolutePath();
+        synchronized (sIndexes) {
+            CoverDirectoryIndex index = sIndexes.get(key);
+            if (index == null) {
+                index = new CoverDirectoryIndex(dir);
+                sIndexes.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    /** Returns the cached cover stored under {@code baseName}, whatever its extension. */
+    @Nullable
+    public File find(@Nullable String baseName) {
+        if (baseName == null || baseName.isEmpty()) {
+            return null;
+        }
+        String key = baseName.toLowerCase(Locale.US);
+        synchronized (lock) {
+            File file = entries().get(key);
+            if (file != null && !file.isFile()) {
+                entries().remove(key);
+                return null;
+            }
+            return file;
+        }
+    }
+
+    public void put(File file) {
+        synchronized (lock) {
+            index(entries(), file);
+        }
+    }
+
+    public void remove(File file) {
+        synchronized (lock) {
+            if (byBaseName == null) {
+                return;
+            }
+            byBaseName.values().remove(file);
+        }
+    }
+
+    /** Drops the index so the next lookup re-lists the directory, picking up changes made outside the app. */
+    public void invalidate() {
+        synchronized (lock) {
+            byBaseName = null;
+        }
+    }
+
+    public static void invalidateAll() {
+        synchronized (sIndexes) {
+            for (CoverDirectoryIndex index : sIndexes.values()) {
+                index.invalidate();
+            }
+        }
+    }
+
+    private Map<String, File> entries() {
+        if (byBaseName == null) {
+            Map<String, File> map = new HashMap<>();
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File child : files) {
+                    if (child != null && child.isFile()) {
+                        index(map, child);
+                    }
+                }
+            }
+            byBaseName = map;
+        }
+        return byBaseName;
+    }
+
+    private static void index(Map<String, File> map, File file) {
+        String name = file.getName().toLowerCase(Locale.US);
+        if (name.endsWith(".tmp")) {
+            return;
+        }
+        int dot = name.lastIndexOf('.');
+        map.put(dot > 0 ? name.substring(0, dot) : name, file);
+    }
+}
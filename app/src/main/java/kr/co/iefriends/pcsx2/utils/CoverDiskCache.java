@@ -0,0 +1,384 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Keeps the covers directory within a byte budget. Every cover served from disk records an access
+ * time; after new covers are stored, the least recently used ones are evicted until the directory is
+ * back under budget. Optionally, downloaded covers are re-encoded to WebP at grid resolution on store.
+ */
+public final class CoverDiskCache {
+    private static final String TAG = "CoverDiskCache";
+    private static final String PREFS = "armsx2";
+    private static final String PREF_BUDGET_MB = "covers_cache_budget_mb";
+    private static final String PREF_REENCODE = "covers_cache_reencode_webp";
+    private static final int DEFAULT_BUDGET_MB = 256;
+    private static final String ACCESS_FILE = "armsx2_cover_access.json";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_FILES = "files";
+    private static final int CURRENT_VERSION = 1;
+    /** Re-encoded covers fit this box (2:3 box art at roughly the largest grid cell we draw). */
+    private static final int REENCODE_WIDTH = 512;
+    private static final int REENCODE_HEIGHT = 768;
+    private static final int REENCODE_QUALITY = 85;
+    private static final long MAINTENANCE_DELAY_MS = 2000L;
+    /**
+     * Eviction only needs a rough order, so a hit on a cover used within this window changes nothing
+     * and scrolling back and forth over the same covers doesn't rewrite the access table.
+     */
+    private static final long ACCESS_RESOLUTION_MS = 10L * 60L * 1000L;
+    private static final Object LOCK = new Object();
+
+    private static Map<String, Long> sAccess = null;
+    private static boolean sMaintenanceScheduled = false;
+    /** Whether {@link #sAccess} has changes the access file doesn't have yet. */
+    private static boolean sAccessDirty = false;
+    private static boolean sTrimPending = false;
+    @Nullable
+    private static File sTrimDir = null;
+    private static final AtomicLong sHits = new AtomicLong();
+    private static final AtomicLong sMisses = new AtomicLong();
+    private static final AtomicLong sEvictions = new AtomicLong();
+    private static final AtomicLong sEvictedBytes = new AtomicLong();
+    private static final ScheduledExecutorService sWorker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CoverDiskCache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CoverDiskCache() {
+    }
+
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long bytes;
+        public final int files;
+        public final long budgetBytes;
+        public final long evictions;
+        public final long evictedBytes;
+
+        Stats(long hits, long misses, long bytes, int files, long budgetBytes, long evictions, long evictedBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.bytes = bytes;
+            this.files = files;
+            this.budgetBytes = budgetBytes;
+            this.evictions = evictions;
+            this.evictedBytes = evictedBytes;
+        }
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US, "%d files, %.1f/%.1f MiB, hit rate %.0f%% (%d/%d), %d evicted (%.1f MiB)",
+                    files, bytes / 1048576.0, budgetBytes / 1048576.0, hitRate() * 100.0, hits, hits + misses,
+                    evictions, evictedBytes / 1048576.0);
+        }
+    }
+
+    public static long getBudgetBytes(Context context) {
+        return Math.max(8, prefs(context).getInt(PREF_BUDGET_MB, DEFAULT_BUDGET_MB)) * 1024L * 1024L;
+    }
+
+    /** Takes effect right away if covers were stored this session, otherwise at the next store. */
+    public static void setBudgetMegabytes(Context context, int megabytes) {
+        prefs(context).edit().putInt(PREF_BUDGET_MB, megabytes).apply();
+        synchronized (LOCK) {
+            if (sTrimDir != null) {
+                sTrimPending = true;
+                scheduleMaintenance(context);
+            }
+        }
+    }
+
+    public static boolean isReencodeEnabled(Context context) {
+        return prefs(context).getBoolean(PREF_REENCODE, false);
+    }
+
+    public static void setReencodeEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(PREF_REENCODE, enabled).apply();
+    }
+
+    /** A cover was served from the cache directory. */
+    public static void recordHit(Context context, File file) {
+        sHits.incrementAndGet();
+        long now = System.currentTimeMillis();
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Long last = sAccess.get(file.getName());
+            if (last != null && now - last < ACCESS_RESOLUTION_MS) {
+                return;
+            }
+            sAccess.put(file.getName(), now);
+            sAccessDirty = true;
+            scheduleMaintenance(context);
+        }
+    }
+
+    /** A cover was looked up and not found on disk. */
+    public static void recordMiss() {
+        sMisses.incrementAndGet();
+    }
+
+    /**
+     * Called on a worker thread once a downloaded cover has been written to {@code file}. Returns the
+     * file now holding the cover, which differs from {@code file} if it was re-encoded, and schedules
+     * a trim of {@code dir} to the budget.
+     */
+    public static File onStored(Context context, File dir, File file) {
+        File result = file;
+        if (isReencodeEnabled(context)) {
+            File encoded = reencode(dir, file);
+            if (encoded != null) {
+                result = encoded;
+            }
+        }
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            sAccess.remove(file.getName());
+            sAccess.put(result.getName(), System.currentTimeMillis());
+            sAccessDirty = true;
+            sTrimPending = true;
+            sTrimDir = dir;
+            scheduleMaintenance(context);
+        }
+        return result;
+    }
+
+    public static Stats getStats(Context context, File dir) {
+        long bytes = 0;
+        int files = 0;
+        File[] children = dir.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isFile() && !child.getName().endsWith(".tmp")) {
+                    bytes += child.length();
+                    files++;
+                }
+            }
+        }
+        return new Stats(sHits.get(), sMisses.get(), bytes, files, getBudgetBytes(context),
+                sEvictions.get(), sEvictedBytes.get());
+    }
+
+    @Nullable
+    private static File reencode(File dir, File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        boolean oversized = bounds.outWidth > REENCODE_WIDTH * 5 / 4 || bounds.outHeight > REENCODE_HEIGHT * 5 / 4;
+        if (!oversized && "image/webp".equals(bounds.outMimeType)) {
+            return null;
+        }
+        Bitmap bitmap = CoverBitmapLoader.decodeFileForEncode(file, REENCODE_WIDTH, REENCODE_HEIGHT);
+        if (bitmap == null) {
+            return null;
+        }
+        File target = new File(dir, baseName + ".webp");
+        File temp = new File(dir, baseName + ".webp.tmp");
+        boolean ok;
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            ok = bitmap.compress(webpFormat(), REENCODE_QUALITY, out);
+        } catch (IOException e) {
+            ok = false;
+        } finally {
+            bitmap.recycle();
+        }
+        // Keep the original when re-encoding would not make it smaller
+        if (!ok || temp.length() <= 0 || temp.length() >= file.length()) {
+            temp.delete();
+            return null;
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            return null;
+        }
+        if (!target.equals(file)) {
+            file.delete();
+        }
+        return target;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+    }
+
+    // Bind and prefetch touch covers in bursts; trim and save the access table once per burst
+    private static void scheduleMaintenance(Context context) {
+        if (sMaintenanceScheduled) {
+            return;
+        }
+        sMaintenanceScheduled = true;
+        final Context appContext = context != null && context.getApplicationContext() != null
+                ? context.getApplicationContext() : context;
+        sWorker.schedule(() -> runMaintenance(appContext), MAINTENANCE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void runMaintenance(Context context) {
+        File trimDir;
+        synchronized (LOCK) {
+            sMaintenanceScheduled = false;
+            trimDir = sTrimPending ? sTrimDir : null;
+            sTrimPending = false;
+        }
+        if (trimDir != null) {
+            trim(context, trimDir);
+        }
+        save(context);
+    }
+
+    private static void trim(Context context, File dir) {
+        long budget = getBudgetBytes(context);
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        List<File> files = new ArrayList<>(children.length);
+        long total = 0;
+        for (File child : children) {
+            if (child.isFile() && !child.getName().endsWith(".tmp")) {
+                files.add(child);
+                total += child.length();
+            }
+        }
+        if (total <= budget) {
+            return;
+        }
+        final Map<String, Long> accessTimes = new HashMap<>();
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            for (File file : files) {
+                Long at = sAccess.get(file.getName());
+                accessTimes.put(file.getName(), at != null ? at : file.lastModified());
+            }
+        }
+        Collections.sort(files, (a, b) -> Long.compare(accessTimes.get(a.getName()), accessTimes.get(b.getName())));
+        // Trim a little below the budget so the next few stores don't each trigger another pass
+        long target = budget - budget / 10;
+        CoverDirectoryIndex index = CoverDirectoryIndex.forDirectory(dir);
+        int evicted = 0;
+        for (File file : files) {
+            if (total <= target) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                index.remove(file);
+                total -= length;
+                evicted++;
+                sEvictions.incrementAndGet();
+                sEvictedBytes.addAndGet(length);
+                synchronized (LOCK) {
+                    sAccess.remove(file.getName());
+                    sAccessDirty = true;
+                }
+            }
+        }
+        try { DebugLog.i(TAG, "Evicted " + evicted + " covers; " + getStats(context, dir)); } catch (Throwable ignored) {}
+    }
+
+    private static void save(Context context) {
+        synchronized (LOCK) {
+            if (sAccess == null || !sAccessDirty) {
+                return;
+            }
+            sAccessDirty = false;
+            try {
+                JSONObject files = new JSONObject();
+                for (Map.Entry<String, Long> e : sAccess.entrySet()) {
+                    files.put(e.getKey(), e.getValue());
+                }
+                JSONObject root = new JSONObject();
+                root.put(KEY_VERSION, CURRENT_VERSION);
+                root.put(KEY_FILES, files);
+                GameLibraryIndex.writeAtomically(getAccessFile(context), root.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (JSONException | IOException e) {
+                try { DebugLog.e(TAG, "Failed to save cover access times: " + e.getMessage()); } catch (Throwable ignored) {}
+            }
+        }
+    }
+
+    private static void ensureLoaded(Context context) {
+        if (sAccess != null) {
+            return;
+        }
+        sAccess = new HashMap<>();
+        File file = getAccessFile(context);
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            JSONObject root = new JSONObject(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+            if (root.optInt(KEY_VERSION, 0) != CURRENT_VERSION) {
+                return;
+            }
+            JSONObject files = root.optJSONObject(KEY_FILES);
+            if (files == null) {
+                return;
+            }
+            Iterator<String> keys = files.keys();
+            while (keys.hasNext()) {
+                String name = keys.next();
+                sAccess.put(name, files.optLong(name, 0L));
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable cover access times: " + e.getMessage()); } catch (Throwable ignored) {}
+            sAccess.clear();
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    private static File getAccessFile(Context context) {
+        File base = DataDirectoryManager.getDataRoot(context != null ? context : NativeApp.getContext());
+        return new File(base, ACCESS_FILE);
+    }
+}
@@ -0,0 +1,388 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single download path for cover art, shared by the grid and the bulk prefetch. Requests are keyed by
+ * cover base name, so a cell and the prefetch asking for the same cover share one download; covers
+ * for visible cells jump ahead of queued prefetch work, and fall back behind it once the cell that asked
+ * is recycled. Which candidate worked, and which ones 404'd,
+ * is kept in {@link CoverResolutionStore}, and covers past their TTL are revalidated with
+ * If-None-Match / If-Modified-Since. Response bodies are always drained and closed
+ * rather than disconnected, which lets {@link HttpURLConnection} keep the connection to the host alive
+ * for the next candidate.
+ */
+public final class CoverFetcher {
+    private static final String TAG = "Covers";
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_PREFETCH = 1;
+    private static final int THREADS = 4;
+    /** Covers are a few hundred KiB; anything past this is not box art. */
+    private static final long MAX_COVER_BYTES = 8L * 1024 * 1024;
+
+    public interface Listener {
+        /** Called on a fetch thread with the cached cover file, or null if no candidate URL worked. */
+        void onFetched(@Nullable File file);
+    }
+
+    /** Resolves a cover into its directory; {@link #fetch} outside tests. */
+    interface Transfer {
+        @Nullable
+        File fetch(@Nullable Context context, File dir, String baseName, List<String> urls) throws IOException;
+    }
+
+    /** One caller's interest in a cover, returned by {@link #request}. */
+    public static final class Request {
+        private final Job job;
+        private final Listener listener;
+        private final int priority;
+
+        Request(Job job, Listener listener, int priority) {
+            this.job = job;
+            this.listener = listener;
+            this.priority = priority;
+        }
+
+        /**
+         * Stops delivering the result to this caller. A job still queued is dropped when nobody else
+         * waits for it, and falls back to prefetch priority when no visible cell waits for it anymore.
+         */
+        public void cancel() {
+            synchronized (sInFlight) {
+                if (!job.listeners.remove(listener)) {
+                    return;
+                }
+                if (priority == PRIORITY_VISIBLE) {
+                    job.visibleListeners--;
+                }
+                if (job.listeners.isEmpty()) {
+                    if (sQueue.remove(job)) {
+                        sInFlight.remove(job.key);
+                    }
+                } else if (job.visibleListeners == 0 && job.priority == PRIORITY_VISIBLE && sQueue.remove(job)) {
+                    job.priority = PRIORITY_PREFETCH;
+                    sExecutor.execute(job);
+                }
+            }
+        }
+    }
+
+    private static final Map<String, Job> sInFlight = new HashMap<>();
+    private static final AtomicLong sSequence = new AtomicLong();
+    private static final PriorityBlockingQueue<Runnable> sQueue = new PriorityBlockingQueue<>();
+    private static final ThreadPoolExecutor sExecutor = new ThreadPoolExecutor(THREADS, THREADS,
+            30L, TimeUnit.SECONDS, sQueue, runnable -> {
+        Thread thread = new Thread(runnable, "CoverFetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        sExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private CoverFetcher() {
+    }
+
+    /**
+     * Downloads the first working URL of {@code urls} into {@code coversDir} as
+     * {@code baseName + extension}, unless a cover for {@code baseName} is already cached. A request
+     * for a base name that is already queued or downloading joins that job instead of starting another.
+     */
+    public static Request request(Context context, File coversDir, String baseName, List<String> urls, int priority, Listener listener) {
+        return request(context, coversDir, baseName, urls, priority, listener, CoverFetcher::fetch);
+    }
+
+    static Request request(@Nullable Context context, File coversDir, String baseName, List<String> urls, int priority,
+                           Listener listener, Transfer transfer) {
+        String key = coversDir.getAbsolutePath() + "/" + baseName.toLowerCase(Locale.US);
+        Job job;
+        boolean start = false;
+        synchronized (sInFlight) {
+            job = sInFlight.get(key);
+            if (job == null) {
+                Context appContext = context != null && context.getApplicationContext() != null
+                        ? context.getApplicationContext() : context;
+                job = new Job(appContext, key, coversDir, baseName, urls, priority, transfer);
+                sInFlight.put(key, job);
+                start = true;
+            }
+            job.listeners.add(listener);
+            if (priority == PRIORITY_VISIBLE) {
+                job.visibleListeners++;
+            }
+            if (!start && priority < job.priority && sQueue.remove(job)) {
+                // Still queued: re-queue with the higher priority
+                job.priority = priority;
+                sExecutor.execute(job);
+            }
+        }
+        if (start) {
+            sExecutor.execute(job);
+        }
+        return new Request(job, listener, priority);
+    }
+
+    private static final class Job implements Runnable, Comparable<Job> {
+        @Nullable final Context context;
+        final String key;
+        final File dir;
+        final String baseName;
+        final List<String> urls;
+        final Transfer transfer;
+        final List<Listener> listeners = new ArrayList<>();
+        final long sequence = sSequence.getAndIncrement();
+        int priority;
+        // Listeners that asked with PRIORITY_VISIBLE; guarded by sInFlight like the fields above
+        int visibleListeners;
+
+        Job(@Nullable Context context, String key, File dir, String baseName, List<String> urls, int priority, Transfer transfer) {
+            this.context = context;
+            this.key = key;
+            this.dir = dir;
+            this.baseName = baseName;
+            this.urls = urls;
+            this.priority = priority;
+            this.transfer = transfer;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            // Visible cells: newest first, so fast scrolling serves where the user stopped.
+            // Prefetch: library order.
+            return priority == PRIORITY_VISIBLE
+                    ? Long.compare(other.sequence, sequence)
+                    : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            File result = null;
+            try {
+                result = transfer.fetch(context, dir, baseName, urls);
+            } catch (Throwable t) {
+                try { DebugLog.d(TAG, "Cover fetch failed for " + baseName + ": " + t.getMessage()); } catch (Throwable ignored) {}
+            }
+            List<Listener> toNotify;
+            synchronized (sInFlight) {
+                sInFlight.remove(key);
+                toNotify = new ArrayList<>(listeners);
+            }
+            for (Listener listener : toNotify) {
+                try { listener.onFetched(result); } catch (Throwable ignored) {}
+            }
+        }
+    }
+
+    @Nullable
+    private static File fetch(@Nullable Context context, File dir, String baseName, List<String> urls) {
+        CoverDirectoryIndex index = CoverDirectoryIndex.forDirectory(dir);
+        CoverResolutionStore.Hit hit = CoverResolutionStore.getHit(context, baseName);
+        File existing = index.find(baseName);
+        if (existing != null) {
+            if (existing.length() > 0) {
+                if (hit != null && hit.isStale(System.currentTimeMillis())) {
+                    File refreshed = download(context, dir, hit.url, baseName, hit, existing);
+                    return refreshed != null ? refreshed : existing;
+                }
+                return existing;
+            }
+            if (existing.delete()) {
+                index.remove(existing);
+            }
+        }
+        List<String> ordered = urls;
+        if (hit != null && urls.contains(hit.url)) {
+            // Go straight to the candidate that worked last time
+            ordered = new ArrayList<>(urls.size());
+            ordered.add(hit.url);
+            for (String url : urls) {
+                if (!hit.url.equals(url)) ordered.add(url);
+            }
+        }
+        for (String url : ordered) {
+            if (url == null || url.isEmpty() || url.contains("${") || CoverResolutionStore.isKnownMissing(context, baseName, url)) {
+                continue;
+            }
+            File stored = download(context, dir, url, baseName, null, null);
+            if (stored != null) {
+                try { DebugLog.d(TAG, "Cached cover for " + baseName + " from " + url); } catch (Throwable ignored) {}
+                return stored;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches {@code url} into the covers directory. With {@code validators}, the request is
+     * conditional and a 304 returns {@code current} untouched.
+     */
+    @Nullable
+    private static File download(Context context, File dir, String url, String baseName,
+                                 @Nullable CoverResolutionStore.Hit validators, @Nullable File current) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(4000);
+            connection.setReadTimeout(6000);
+            connection.setInstanceFollowRedirects(true);
+            connection.setRequestMethod("GET");
+            if (validators != null) {
+                if (validators.etag != null) connection.setRequestProperty("If-None-Match", validators.etag);
+                if (validators.lastModified != null) connection.setRequestProperty("If-Modified-Since", validators.lastModified);
+            }
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && current != null) {
+                drain(connection.getInputStream());
+                CoverResolutionStore.recordNotModified(context, baseName);
+                return current;
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                if (code == HttpURLConnection.HTTP_NOT_FOUND) {
+                    CoverResolutionStore.recordMiss(context, baseName, url);
+                } else {
+                    try { DebugLog.d(TAG, "HTTP " + code + " for " + url); } catch (Throwable ignored) {}
+                }
+                drain(connection.getErrorStream());
+                return null;
+            }
+            if (!dir.exists() && !dir.mkdirs()) {
+                drain(connection.getInputStream());
+                return null;
+            }
+            long declared = connection.getContentLengthLong();
+            if (declared > MAX_COVER_BYTES) {
+                try { DebugLog.d(TAG, "Skipping oversized cover (" + declared + " bytes) at " + url); } catch (Throwable ignored) {}
+                connection.disconnect();
+                return null;
+            }
+            File temp = new File(dir, baseName + ".tmp");
+            long written = 0;
+            try (InputStream in = connection.getInputStream();
+                 OutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[16 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    written += read;
+                    if (written > MAX_COVER_BYTES) {
+                        throw new IOException("cover exceeds " + MAX_COVER_BYTES + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                temp.delete();
+                throw e;
+            }
+            // Servers answer some misses with a 200 HTML page; only keep what decodes as an image,
+            // and name it after what it really is rather than what the URL or header claims
+            String mimeType = written > 0 ? probeImageType(temp) : null;
+            if (mimeType == null) {
+                temp.delete();
+                return null;
+            }
+            File target = new File(dir, baseName + extensionFor(mimeType, url, connection.getContentType()));
+            if (!temp.renameTo(target)) {
+                temp.delete();
+                return null;
+            }
+            target = CoverDiskCache.onStored(context, dir, target);
+            CoverDirectoryIndex index = CoverDirectoryIndex.forDirectory(dir);
+            if (current != null && !current.equals(target) && current.delete()) {
+                index.remove(current);
+            }
+            index.put(target);
+            CoverResolutionStore.recordHit(context, baseName, url,
+                    connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+            return target;
+        } catch (Exception e) {
+            try { DebugLog.d(TAG, "Error loading cover: " + e.getMessage()); } catch (Throwable ignored) {}
+            // A failed exchange can leave the socket in an unknown state; don't return it to the pool
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String probeImageType(File file) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        return bounds.outMimeType != null ? bounds.outMimeType : "";
+    }
+
+    private static String extensionFor(String mimeType, @Nullable String url, @Nullable String contentType) {
+        switch (mimeType) {
+            case "image/jpeg": return ".jpg";
+            case "image/png": return ".png";
+            case "image/webp": return ".webp";
+            case "image/gif": return ".gif";
+            default: return guessImageExtension(url, contentType);
+        }
+    }
+
+    private static void drain(@Nullable InputStream in) {
+        if (in == null) {
+            return;
+        }
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[4096];
+            while (stream.read(buffer) != -1) {
+                // discard so the connection can be reused
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static String guessImageExtension(@Nullable String url, @Nullable String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.US);
+            if (type.contains("png")) return ".png";
+            if (type.contains("webp")) return ".webp";
+            if (type.contains("gif")) return ".gif";
+            if (type.contains("jpeg") || type.contains("jpg")) return ".jpg";
+        }
+        if (url != null) {
+            String path = url;
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+            int dot = path.lastIndexOf('.');
+            if (dot >= 0 && dot > path.lastIndexOf('/')) {
+                String ext = path.substring(dot).toLowerCase(Locale.US);
+                if (ext.matches("\\.(jpg|jpeg|png|webp|gif)")) {
+                    return ext.equals(".jpeg") ? ".jpg" : ext;
+                }
+            }
+        }
+        return ".jpg";
+    }
+}
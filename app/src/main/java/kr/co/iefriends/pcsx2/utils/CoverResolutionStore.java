@@ -0,0 +1,282 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Remembers, per cover base name, which candidate URL produced the cover (with its ETag and
+ * Last-Modified validators) and which candidates answered 404. A cold start can then go straight to
+ * the URL that worked, skip the ones known to fail, and revalidate an old cover with a conditional
+ * request instead of downloading it again.
+ */
+public final class CoverResolutionStore {
+    private static final String FILE_NAME = "armsx2_cover_resolution.json";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_COVERS = "covers";
+    private static final int CURRENT_VERSION = 1;
+    private static final String TAG = "CoverResolution";
+    /** A 404 is retried after this long, in case the cover was added upstream. */
+    private static final long MISS_TTL_MS = TimeUnit.DAYS.toMillis(7);
+    /** A stored cover is revalidated against its source URL after this long. */
+    private static final long HIT_TTL_MS = TimeUnit.DAYS.toMillis(30);
+    private static final long SAVE_DELAY_MS = 2000L;
+    private static final Object LOCK = new Object();
+
+    private static Map<String, Record> sRecords = null;
+    private static boolean sSaveScheduled = false;
+    private static final ScheduledExecutorService sSaver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CoverResolutionSave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CoverResolutionStore() {
+    }
+
+    public static final class Hit {
+        public final String url;
+        @Nullable
+        public final String etag;
+        @Nullable
+        public final String lastModified;
+        public final long checkedAt;
+
+        Hit(String url, @Nullable String etag, @Nullable String lastModified, long checkedAt) {
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        public boolean isStale(long now) {
+            return now - checkedAt > HIT_TTL_MS;
+        }
+    }
+
+    private static final class Record {
+        @Nullable
+        Hit hit;
+        final Map<String, Long> misses = new HashMap<>();
+
+        JSONObject toJson() throws JSONException {
+            JSONObject obj = new JSONObject();
+            if (hit != null) {
+                JSONObject h = new JSONObject();
+                h.put("url", hit.url);
+                if (!TextUtils.isEmpty(hit.etag)) h.put("etag", hit.etag);
+                if (!TextUtils.isEmpty(hit.lastModified)) h.put("lm", hit.lastModified);
+                h.put("t", hit.checkedAt);
+                obj.put("hit", h);
+            }
+            if (!misses.isEmpty()) {
+                JSONObject m = new JSONObject();
+                for (Map.Entry<String, Long> e : misses.entrySet()) {
+                    m.put(e.getKey(), e.getValue());
+                }
+                obj.put("miss", m);
+            }
+            return obj;
+        }
+
+        static Record fromJson(JSONObject obj, long now) {
+            Record record = new Record();
+            JSONObject h = obj.optJSONObject("hit");
+            if (h != null && !TextUtils.isEmpty(h.optString("url", null))) {
+                record.hit = new Hit(h.optString("url"), h.optString("etag", null), h.optString("lm", null), h.optLong("t", 0L));
+            }
+            JSONObject m = obj.optJSONObject("miss");
+            if (m != null) {
+                Iterator<String> urls = m.keys();
+                while (urls.hasNext()) {
+                    String url = urls.next();
+                    long at = m.optLong(url, 0L);
+                    if (now - at <= MISS_TTL_MS) {
+                        record.misses.put(url, at);
+                    }
+                }
+            }
+            return record;
+        }
+
+        boolean isEmpty() {
+            return hit == null && misses.isEmpty();
+        }
+    }
+
+    /** Returns the URL the cover for {@code baseName} was last fetched from, if any. */
+    @Nullable
+    public static Hit getHit(Context context, String baseName) {
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Record record = sRecords.get(key(baseName));
+            return record != null ? record.hit : null;
+        }
+    }
+
+    /** True if {@code url} answered 404 for {@code baseName} within the miss TTL. */
+    public static boolean isKnownMissing(Context context, String baseName, String url) {
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Record record = sRecords.get(key(baseName));
+            if (record == null) {
+                return false;
+            }
+            Long at = record.misses.get(url);
+            if (at == null) {
+                return false;
+            }
+            if (System.currentTimeMillis() - at > MISS_TTL_MS) {
+                record.misses.remove(url);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public static void recordHit(Context context, String baseName, String url,
+                                 @Nullable String etag, @Nullable String lastModified) {
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Record record = record(baseName);
+            record.hit = new Hit(url, etag, lastModified, System.currentTimeMillis());
+            record.misses.remove(url);
+            scheduleSave(context);
+        }
+    }
+
+    /** Marks a stored cover as still current after a 304, keeping its validators. */
+    public static void recordNotModified(Context context, String baseName) {
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Record record = sRecords.get(key(baseName));
+            if (record == null || record.hit == null) {
+                return;
+            }
+            Hit old = record.hit;
+            record.hit = new Hit(old.url, old.etag, old.lastModified, System.currentTimeMillis());
+            scheduleSave(context);
+        }
+    }
+
+    public static void recordMiss(Context context, String baseName, String url) {
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            record(baseName).misses.put(url, System.currentTimeMillis());
+            scheduleSave(context);
+        }
+    }
+
+    private static Record record(String baseName) {
+        String key = key(baseName);
+        Record record = sRecords.get(key);
+        if (record == null) {
+            record = new Record();
+            sRecords.put(key, record);
+        }
+        return record;
+    }
+
+    private static String key(String baseName) {
+        return baseName.toLowerCase(Locale.US);
+    }
+
+    // Fetches finish in bursts during prefetch; write the file once per burst rather than per cover
+    private static void scheduleSave(Context context) {
+        if (sSaveScheduled) {
+            return;
+        }
+        sSaveScheduled = true;
+        final Context appContext = context != null && context.getApplicationContext() != null
+                ? context.getApplicationContext() : context;
+        sSaver.schedule(() -> save(appContext), SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void save(Context context) {
+        synchronized (LOCK) {
+            sSaveScheduled = false;
+            if (sRecords == null) {
+                return;
+            }
+            try {
+                JSONObject covers = new JSONObject();
+                for (Map.Entry<String, Record> e : sRecords.entrySet()) {
+                    if (!e.getValue().isEmpty()) {
+                        covers.put(e.getKey(), e.getValue().toJson());
+                    }
+                }
+                JSONObject root = new JSONObject();
+                root.put(KEY_VERSION, CURRENT_VERSION);
+                root.put(KEY_COVERS, covers);
+                GameLibraryIndex.writeAtomically(getStoreFile(context), root.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (JSONException | IOException e) {
+                try { DebugLog.e(TAG, "Failed to save cover resolution table: " + e.getMessage()); } catch (Throwable ignored) {}
+            }
+        }
+    }
+
+    private static void ensureLoaded(Context context) {
+        if (sRecords != null) {
+            return;
+        }
+        sRecords = new HashMap<>();
+        File file = getStoreFile(context);
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            JSONObject root = new JSONObject(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+            if (root.optInt(KEY_VERSION, 0) != CURRENT_VERSION) {
+                return;
+            }
+            JSONObject covers = root.optJSONObject(KEY_COVERS);
+            if (covers == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Iterator<String> keys = covers.keys();
+            while (keys.hasNext()) {
+                String baseName = keys.next();
+                JSONObject obj = covers.optJSONObject(baseName);
+                if (obj == null) continue;
+                Record record = Record.fromJson(obj, now);
+                if (!record.isEmpty()) {
+                    sRecords.put(baseName, record);
+                }
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable cover resolution table: " + e.getMessage()); } catch (Throwable ignored) {}
+            sRecords.clear();
+        }
+    }
+
+    private static File getStoreFile(Context context) {
+        File base = DataDirectoryManager.getDataRoot(context != null ? context : NativeApp.getContext());
+        return new File(base, FILE_NAME);
+    }
+}
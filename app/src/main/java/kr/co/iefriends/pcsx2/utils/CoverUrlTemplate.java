@@ -0,0 +1,235 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import androidx.annotation.Nullable;
+
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The covers URL template, parsed once into literal and placeholder segments. Candidate URLs for a
+ * game are rendered from the segments into one reused builder, title variants use precompiled
+ * patterns, and the candidate list for each (file title, serial, title) is memoized, so binding a
+ * cell or walking the library during prefetch does no regex compilation or template rescanning.
+ *
+ * <p>Supported placeholders are {@code ${filetitle}}, {@code ${serial}} and {@code ${title}}. Each
+ * candidate fills one of them and leaves the others empty.
+ */
+public final class CoverUrlTemplate {
+    private static final String FILETITLE = "${filetitle}";
+    private static final String SERIAL = "${serial}";
+    private static final String TITLE = "${title}";
+    private static final int SEG_LITERAL = 0;
+    private static final int SEG_FILETITLE = 1;
+    private static final int SEG_SERIAL = 2;
+    private static final int SEG_TITLE = 3;
+    private static final int MEMO_CAPACITY = 4096;
+
+    private static final Pattern SERIAL_LIKE = Pattern.compile("^([A-Za-z]+)[-_]?([0-9]{3,})$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DASH_SEPARATOR = Pattern.compile("(?i)(?<=\\w) \\–|\\u2014| - (?=\\w)");
+    private static final Pattern FILE_UNSAFE = Pattern.compile("[\\\\/:*?\"<>|]");
+    private static final Pattern FILE_NON_PORTABLE = Pattern.compile("[^A-Za-z0-9._-]");
+    private static final Pattern UNDERSCORE_RUN = Pattern.compile("_+");
+    private static final Pattern UNDERSCORE_EDGE = Pattern.compile("^_+|_+$");
+
+    private static final Object LOCK = new Object();
+    @Nullable
+    private static CoverUrlTemplate sLast = null;
+
+    private final String template;
+    private final int[] kinds;
+    private final String[] literals;
+    private final boolean hasFileTitle;
+    private final boolean hasSerial;
+    private final boolean hasTitle;
+    private final Map<String, List<String>> memo = new LinkedHashMap<String, List<String>>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MEMO_CAPACITY;
+        }
+    };
+
+    private CoverUrlTemplate(String template) {
+        this.template = template;
+        List<Integer> kindList = new ArrayList<>();
+        List<String> literalList = new ArrayList<>();
+        int pos = 0;
+        while (pos < template.length()) {
+            int next = -1;
+            int kind = SEG_LITERAL;
+            String token = null;
+            for (int k = SEG_FILETITLE; k <= SEG_TITLE; k++) {
+                String t = k == SEG_FILETITLE ? FILETITLE : (k == SEG_SERIAL ? SERIAL : TITLE);
+                int at = template.indexOf(t, pos);
+                if (at >= 0 && (next < 0 || at < next)) {
+                    next = at;
+                    kind = k;
+                    token = t;
+                }
+            }
+            if (next < 0) {
+                kindList.add(SEG_LITERAL);
+                literalList.add(template.substring(pos));
+                break;
+            }
+            if (next > pos) {
+                kindList.add(SEG_LITERAL);
+                literalList.add(template.substring(pos, next));
+            }
+            kindList.add(kind);
+            literalList.add(null);
+            pos = next + token.length();
+        }
+        kinds = new int[kindList.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = kindList.get(i);
+        }
+        literals = literalList.toArray(new String[0]);
+        hasFileTitle = template.contains(FILETITLE);
+        hasSerial = template.contains(SERIAL);
+        hasTitle = template.contains(TITLE);
+    }
+
+    /** Returns the compiled form of {@code template}; the template rarely changes, so the last one is kept. */
+    public static CoverUrlTemplate get(String template) {
+        synchronized (LOCK) {
+            if (sLast == null || !sLast.template.equals(template)) {
+                sLast = new CoverUrlTemplate(template);
+            }
+            return sLast;
+        }
+    }
+
+    /**
+     * Candidate URLs for one game, most specific first: file title variants, then serial forms, then
+     * title variants, de-duplicated in order. The returned list is shared and must not be modified.
+     */
+    public List<String> candidates(@Nullable String fileBase, @Nullable String serial, @Nullable String gameTitle) {
+        String memoKey = (fileBase != null ? fileBase : "") + '\u0000' + (serial != null ? serial : "")
+                + '\u0000' + (gameTitle != null ? gameTitle : "");
+        synchronized (memo) {
+            List<String> cached = memo.get(memoKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<String> urls = Collections.unmodifiableList(build(fileBase, serial, gameTitle));
+        synchronized (memo) {
+            memo.put(memoKey, urls);
+        }
+        return urls;
+    }
+
+    private List<String> build(@Nullable String fileBase, @Nullable String serial, @Nullable String gameTitle) {
+        if (!hasFileTitle && !hasSerial && !hasTitle) {
+            return new ArrayList<>();
+        }
+        StringBuilder sb = new StringBuilder(template.length() + 64);
+        LinkedHashSet<String> urls = new LinkedHashSet<>();
+        List<String> variants = titleVariants(fileBase);
+        if (hasFileTitle) {
+            for (String v : variants) {
+                urls.add(render(sb, SEG_FILETITLE, v));
+            }
+        }
+        if (hasSerial) {
+            if (serial != null && !serial.isEmpty()) {
+                urls.add(render(sb, SEG_SERIAL, serial));
+            }
+            String base = fileBase != null ? fileBase : "";
+            String hyphenized = hyphenizeAlphaDigits(fileBase);
+            if (!hyphenized.isEmpty() && !hyphenized.equals(base)) {
+                urls.add(render(sb, SEG_SERIAL, hyphenized));
+            }
+            for (String v : variants) {
+                urls.add(render(sb, SEG_SERIAL, v));
+            }
+        }
+        if (hasTitle) {
+            boolean hasGameTitle = gameTitle != null && !gameTitle.isEmpty();
+            String resolvedTitle = hasGameTitle ? gameTitle : fileBase;
+            LinkedHashSet<String> titles = new LinkedHashSet<>(titleVariants(resolvedTitle));
+            if (hasGameTitle && fileBase != null && !fileBase.isEmpty() && !gameTitle.equals(fileBase)) {
+                titles.addAll(variants);
+            }
+            for (String v : titles) {
+                urls.add(render(sb, SEG_TITLE, v));
+            }
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private String render(StringBuilder sb, int kind, String value) {
+        sb.setLength(0);
+        String encoded = null;
+        for (int i = 0; i < kinds.length; i++) {
+            int k = kinds[i];
+            if (k == SEG_LITERAL) {
+                sb.append(literals[i]);
+            } else if (k == kind) {
+                if (encoded == null) {
+                    encoded = urlEncode(value);
+                }
+                sb.append(encoded);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String urlEncode(@Nullable String s) {
+        if (s == null) {
+            return "";
+        }
+        try {
+            return URLEncoder.encode(s, "UTF-8");
+        } catch (Exception e) {
+            return s;
+        }
+    }
+
+    /** "SLUS_20312" / "slus20312" become "SLUS-20312"; anything else is returned as is. */
+    public static String hyphenizeAlphaDigits(@Nullable String s) {
+        if (s == null) {
+            return "";
+        }
+        Matcher m = SERIAL_LIKE.matcher(s);
+        if (m.find()) {
+            return m.group(1).toUpperCase(Locale.US) + "-" + m.group(2);
+        }
+        return s;
+    }
+
+    /** Spellings of a title as cover databases tend to name them (underscores, colons, dashes). */
+    public static List<String> titleVariants(@Nullable String base) {
+        LinkedHashSet<String> set = new LinkedHashSet<>();
+        String b0 = base != null ? base.trim() : "";
+        if (!b0.isEmpty()) set.add(b0);
+        String b1 = b0.replace('_', ' ').trim();
+        if (!b1.isEmpty()) set.add(b1);
+        String b2 = WHITESPACE.matcher(b1.replace(":", " - ")).replaceAll(" ").trim();
+        if (!b2.isEmpty()) set.add(b2);
+        String b3 = DASH_SEPARATOR.matcher(b1).replaceAll(": ").replace(" - ", ": ");
+        b3 = WHITESPACE.matcher(b3).replaceAll(" ").trim();
+        if (!b3.isEmpty()) set.add(b3);
+        return new ArrayList<>(set);
+    }
+
+    /** Reduces {@code input} to a portable file name component ([A-Za-z0-9._-], no edge underscores). */
+    public static String sanitizeFileComponent(@Nullable String input) {
+        if (input == null || input.isEmpty()) {
+            return "";
+        }
+        String normalized = FILE_UNSAFE.matcher(input.trim()).replaceAll(" ");
+        normalized = FILE_NON_PORTABLE.matcher(normalized).replaceAll("_");
+        normalized = UNDERSCORE_RUN.matcher(normalized).replaceAll("_");
+        return UNDERSCORE_EDGE.matcher(normalized).replaceAll("");
+    }
+}
@@ -0,0 +1,390 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Persistent index of the game folders picked by the user. Every scanned directory keeps the
+ * provider's last-modified stamp together with the game files it contained, so a rescan only has
+ * to re-query directories whose stamp changed and can reuse serials and titles of files whose
+ * size and last-modified time are unchanged.
+ */
+public final class GameLibraryIndex {
+    private static final String FILE_NAME = "armsx2_library.json";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_ROOTS = "roots";
+    private static final int CURRENT_VERSION = 1;
+    private static final String TAG = "GameLibraryIndex";
+    private static final Object LOCK = new Object();
+
+    private static Map<String, RootIndex> sRoots = null;
+    private static boolean sDirty = false;
+
+    private GameLibraryIndex() {
+    }
+
+    public static final class FileRecord {
+        public final String documentId;
+        public final String displayName;
+        public final long size;
+        public final long lastModified;
+        public final String format;
+        @Nullable
+        public volatile String serial;
+        @Nullable
+        public volatile String title;
+
+        public FileRecord(String documentId, String displayName, long size, long lastModified, String format) {
+            this.documentId = documentId;
+            this.displayName = displayName;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.format = format;
+        }
+
+        public boolean isUnchanged(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified && lastModified > 0;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject obj = new JSONObject();
+            obj.put("id", documentId);
+            obj.put("n", displayName);
+            obj.put("s", size);
+            obj.put("m", lastModified);
+            obj.put("f", format);
+            if (!TextUtils.isEmpty(serial)) obj.put("serial", serial);
+            if (!TextUtils.isEmpty(title)) obj.put("title", title);
+            return obj;
+        }
+
+        @Nullable
+        static FileRecord fromJson(@Nullable JSONObject obj) {
+            if (obj == null) {
+                return null;
+            }
+            String id = obj.optString("id", null);
+            if (TextUtils.isEmpty(id)) {
+                return null;
+            }
+            FileRecord record = new FileRecord(id, obj.optString("n", id), obj.optLong("s", -1L),
+                    obj.optLong("m", 0L), obj.optString("f", ""));
+            record.serial = obj.optString("serial", null);
+            record.title = obj.optString("title", null);
+            return record;
+        }
+    }
+
+    public static final class DirRecord {
+        public final String documentId;
+        public final long lastModified;
+        public final List<String> childDirs = new ArrayList<>();
+        public final List<FileRecord> files = new ArrayList<>();
+
+        public DirRecord(String documentId, long lastModified) {
+            this.documentId = documentId;
+            this.lastModified = lastModified;
+        }
+
+        public boolean isUnchanged(long lastModified) {
+            return this.lastModified == lastModified && lastModified > 0;
+        }
+
+        @Nullable
+        public FileRecord findFile(String documentId) {
+            for (FileRecord file : files) {
+                if (file.documentId.equals(documentId)) {
+                    return file;
+                }
+            }
+            return null;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject obj = new JSONObject();
+            obj.put("m", lastModified);
+            if (!childDirs.isEmpty()) {
+                obj.put("d", new JSONArray(childDirs));
+            }
+            JSONArray arr = new JSONArray();
+            for (FileRecord file : files) {
+                arr.put(file.toJson());
+            }
+            obj.put("f", arr);
+            return obj;
+        }
+
+        static DirRecord fromJson(String documentId, JSONObject obj) {
+            DirRecord dir = new DirRecord(documentId, obj.optLong("m", 0L));
+            JSONArray dirs = obj.optJSONArray("d");
+            if (dirs != null) {
+                for (int i = 0; i < dirs.length(); i++) {
+                    String child = dirs.optString(i, null);
+                    if (!TextUtils.isEmpty(child)) dir.childDirs.add(child);
+                }
+            }
+            JSONArray files = obj.optJSONArray("f");
+            if (files != null) {
+                for (int i = 0; i < files.length(); i++) {
+                    FileRecord file = FileRecord.fromJson(files.optJSONObject(i));
+                    if (file != null) dir.files.add(file);
+                }
+            }
+            return dir;
+        }
+    }
+
+    /**
+     * Snapshot of one tree URI. A rescan builds a fresh instance and publishes it with
+     * {@link #putRoot}; only the resolved serial/title of a file record changes afterwards.
+     */
+    public static final class RootIndex {
+        @Nullable
+        public final String rootDocumentId;
+        private final Map<String, DirRecord> dirs;
+
+        public RootIndex(@Nullable String rootDocumentId) {
+            this.rootDocumentId = rootDocumentId;
+            this.dirs = Collections.synchronizedMap(new HashMap<>());
+        }
+
+        @Nullable
+        public DirRecord getDir(String documentId) {
+            return dirs.get(documentId);
+        }
+
+        public void putDir(DirRecord dir) {
+            if (dir != null) {
+                dirs.put(dir.documentId, dir);
+            }
+        }
+
+        public boolean isEmpty() {
+            return dirs.isEmpty();
+        }
+
+        /** Files in walk order (parents before children), skipping directories no longer reachable. */
+        public List<FileRecord> allFiles() {
+            List<FileRecord> out = new ArrayList<>();
+            if (rootDocumentId == null) {
+                return out;
+            }
+            collect(rootDocumentId, out, 0);
+            return out;
+        }
+
+        private void collect(String documentId, List<FileRecord> out, int depth) {
+            DirRecord dir = dirs.get(documentId);
+            if (dir == null || depth > 16) {
+                return;
+            }
+            out.addAll(dir.files);
+            for (String child : dir.childDirs) {
+                collect(child, out, depth + 1);
+            }
+        }
+
+        @Nullable
+        public FileRecord findFile(String documentId) {
+            synchronized (dirs) {
+                for (DirRecord dir : dirs.values()) {
+                    FileRecord file = dir.findFile(documentId);
+                    if (file != null) {
+                        return file;
+                    }
+                }
+            }
+            return null;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject obj = new JSONObject();
+            if (rootDocumentId != null) obj.put("root", rootDocumentId);
+            JSONObject dirsObj = new JSONObject();
+            synchronized (dirs) {
+                for (Map.Entry<String, DirRecord> entry : dirs.entrySet()) {
+                    dirsObj.put(entry.getKey(), entry.getValue().toJson());
+                }
+            }
+            obj.put("dirs", dirsObj);
+            return obj;
+        }
+
+        static RootIndex fromJson(JSONObject obj) {
+            RootIndex root = new RootIndex(obj.optString("root", null));
+            JSONObject dirsObj = obj.optJSONObject("dirs");
+            if (dirsObj != null) {
+                Iterator<String> keys = dirsObj.keys();
+                while (keys.hasNext()) {
+                    String id = keys.next();
+                    JSONObject dirObj = dirsObj.optJSONObject(id);
+                    if (dirObj != null) {
+                        root.putDir(DirRecord.fromJson(id, dirObj));
+                    }
+                }
+            }
+            return root;
+        }
+    }
+
+    @Nullable
+    public static RootIndex getRoot(Context context, String treeUri) {
+        if (TextUtils.isEmpty(treeUri)) {
+            return null;
+        }
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            return sRoots.get(treeUri);
+        }
+    }
+
+    public static void putRoot(Context context, String treeUri, RootIndex root) {
+        if (TextUtils.isEmpty(treeUri) || root == null) {
+            return;
+        }
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            sRoots.put(treeUri, root);
+            sDirty = true;
+        }
+    }
+
+    /** Records a serial/title resolved after the scan (e.g. from the Redump database). */
+    public static void updateResolved(Context context, String treeUri, String documentId,
+                                      @Nullable String serial, @Nullable String title) {
+        if (TextUtils.isEmpty(documentId)) {
+            return;
+        }
+        RootIndex root = getRoot(context, treeUri);
+        if (root == null) {
+            return;
+        }
+        FileRecord file = root.findFile(documentId);
+        if (file == null) {
+            return;
+        }
+        if (!TextUtils.isEmpty(serial)) file.serial = serial;
+        if (!TextUtils.isEmpty(title)) file.title = title;
+        synchronized (LOCK) {
+            sDirty = true;
+        }
+    }
+
+    public static void save(Context context) {
+        synchronized (LOCK) {
+            if (sRoots == null || !sDirty) {
+                return;
+            }
+            try {
+                JSONObject rootsObj = new JSONObject();
+                for (Map.Entry<String, RootIndex> entry : sRoots.entrySet()) {
+                    rootsObj.put(entry.getKey(), entry.getValue().toJson());
+                }
+                JSONObject root = new JSONObject();
+                root.put(KEY_VERSION, CURRENT_VERSION);
+                root.put(KEY_ROOTS, rootsObj);
+                writeAtomically(getIndexFile(context), root.toString().getBytes(StandardCharsets.UTF_8));
+                sDirty = false;
+            } catch (JSONException | IOException e) {
+                try { DebugLog.e(TAG, "Failed to save library index: " + e.getMessage()); } catch (Throwable ignored) {}
+            }
+        }
+    }
+
+    private static void ensureLoaded(Context context) {
+        if (sRoots != null) {
+            return;
+        }
+        sRoots = new HashMap<>();
+        File file = getIndexFile(context);
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            byte[] buffer = readAllBytes(in, file.length());
+            if (buffer.length == 0) {
+                return;
+            }
+            JSONObject root = new JSONObject(new String(buffer, StandardCharsets.UTF_8));
+            if (root.optInt(KEY_VERSION, 0) != CURRENT_VERSION) {
+                return;
+            }
+            JSONObject rootsObj = root.optJSONObject(KEY_ROOTS);
+            if (rootsObj == null) {
+                return;
+            }
+            Iterator<String> keys = rootsObj.keys();
+            while (keys.hasNext()) {
+                String treeUri = keys.next();
+                JSONObject obj = rootsObj.optJSONObject(treeUri);
+                if (obj != null) {
+                    sRoots.put(treeUri, RootIndex.fromJson(obj));
+                }
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable library index: " + e.getMessage()); } catch (Throwable ignored) {}
+            sRoots.clear();
+        }
+    }
+
+    /**
+     * Replaces {@code file} with {@code data} through a temp file and a rename. The temp file is
+     * synced to storage before the rename, so a crash or power loss leaves either the old or the new
+     * content rather than a renamed but still empty file.
+     */
+    static void writeAtomically(File file, byte[] data) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp, false)) {
+            out.write(data);
+            out.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("rename failed for " + file);
+        }
+    }
+
+    private static File getIndexFile(Context context) {
+        File base = DataDirectoryManager.getDataRoot(context != null ? context : NativeApp.getContext());
+        return new File(base, FILE_NAME);
+    }
+
+    private static byte[] readAllBytes(BufferedInputStream in, long expected) throws IOException {
+        java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream((int) Math.max(8192, Math.min(expected, 64L << 20)));
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bos.write(buffer, 0, read);
+        }
+        return bos.toByteArray();
+    }
+}
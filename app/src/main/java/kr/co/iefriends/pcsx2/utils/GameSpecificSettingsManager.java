@@ -5,67 +5,183 @@ import android.text.TextUtils;
 
 import androidx.annotation.Nullable;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import kr.co.iefriends.pcsx2.NativeApp;
 
+/**
+ * Per-game overrides of native settings, stored in IGS.json. Any {@link NativeSettings.Key} can be
+ * overridden; the ones in {@link #SCHEMA} get named fields. The file is parsed once into an in-memory index
+ * that readers use without locking; every change publishes a new copy of the index. Changes are
+ * written back in the background, coalesced over a short delay, as compact JSON through a temp file
+ * and a rename, so a crash mid-write leaves the previous file intact.
+ */
 public final class GameSpecificSettingsManager {
     private static final String FILE_NAME = "IGS.json";
     private static final String KEY_VERSION = "version";
     private static final String KEY_GAMES = "games";
     private static final int CURRENT_VERSION = 1;
+    private static final String TAG = "GameSettings";
+    private static final long SAVE_DELAY_MS = 1000L;
     private static final Object LOCK = new Object();
 
+    /** Current index; replaced, never modified, once published. */
+    private static volatile Map<String, GameSettings> sGames = null;
+    /** File {@link #sGames} was loaded from; a data root change means a different file. */
+    private static File sLoadedFrom = null;
+    private static boolean sSaveScheduled = false;
+    private static final ScheduledExecutorService sSaver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GameSettingsSave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private GameSpecificSettingsManager() {
     }
 
+    /** A native setting that can be overridden per game, and the field it is stored under. */
+    public static final class Field {
+        public final String jsonName;
+        public final NativeSettings.Key key;
+
+        Field(String jsonName, NativeSettings.Key key) {
+            this.jsonName = jsonName;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Overrides the per-game dialog offers, with their IGS.json field names. Any other native key can
+     * be overridden too; those are stored in a generic list.
+     */
+    public static final List<Field> SCHEMA = Collections.unmodifiableList(Arrays.asList(
+            new Field("enableCheats", NativeSettings.ENABLE_CHEATS),
+            new Field("widescreen", NativeSettings.WIDESCREEN_PATCHES),
+            new Field("noInterlacing", NativeSettings.NO_INTERLACING_PATCHES),
+            new Field("loadTextures", NativeSettings.LOAD_TEXTURE_REPLACEMENTS),
+            new Field("asyncTextures", NativeSettings.LOAD_TEXTURE_REPLACEMENTS_ASYNC),
+            new Field("precacheTextures", NativeSettings.PRECACHE_TEXTURE_REPLACEMENTS),
+            new Field("showFps", NativeSettings.OSD_SHOW_FPS),
+            new Field("renderer", NativeSettings.RENDERER),
+            new Field("aspectRatio", NativeSettings.ASPECT_RATIO),
+            new Field("upscaleMultiplier", NativeSettings.UPSCALE_MULTIPLIER),
+            new Field("cpuCoreType", NativeSettings.CPU_CORE_TYPE),
+            new Field("eeCycleRate", NativeSettings.EE_CYCLE_RATE),
+            new Field("eeCycleSkip", NativeSettings.EE_CYCLE_SKIP),
+            new Field("hwDownloadMode", NativeSettings.HW_DOWNLOAD_MODE),
+            new Field("mipmap", NativeSettings.HW_MIPMAP),
+            new Field("texturePreloading", NativeSettings.TEXTURE_PRELOADING)));
+    private static final String KEY_NATIVE = "native";
+
+    /** Native setting values to use for one game, formatted as native expects them. */
     public static final class GameSettings {
+        private final LinkedHashMap<NativeSettings.Key, String> overrides = new LinkedHashMap<>();
+
         @Nullable
-        public Boolean enableCheats;
-        @Nullable
-        public Boolean widescreen;
-        @Nullable
-        public Boolean noInterlacing;
-        @Nullable
-        public Boolean loadTextures;
-        @Nullable
-        public Boolean asyncTextures;
-        @Nullable
-        public Boolean precacheTextures;
-        @Nullable
-        public Boolean showFps;
+        public String get(NativeSettings.Key key) {
+            return overrides.get(key);
+        }
+
         @Nullable
-        public Integer renderer;
+        public Boolean getBool(NativeSettings.Key key) {
+            String value = overrides.get(key);
+            return value != null ? ("1".equals(value) || "true".equalsIgnoreCase(value)) : null;
+        }
+
         @Nullable
-        public String aspectRatio;
+        public Integer getInt(NativeSettings.Key key) {
+            String value = overrides.get(key);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /** Sets an override; null or empty removes it. */
+        public void put(NativeSettings.Key key, @Nullable String value) {
+            if (value == null || value.isEmpty()) {
+                overrides.remove(key);
+            } else {
+                overrides.put(key, value);
+            }
+        }
+
+        public void putBool(NativeSettings.Key key, boolean value) {
+            put(key, value ? "true" : "false");
+        }
+
+        public void putInt(NativeSettings.Key key, int value) {
+            put(key, Integer.toString(value));
+        }
+
+        /** Every override, in insertion order. */
+        public Map<NativeSettings.Key, String> overrides() {
+            return Collections.unmodifiableMap(overrides);
+        }
+
+        GameSettings copy() {
+            GameSettings copy = new GameSettings();
+            copy.overrides.putAll(overrides);
+            return copy;
+        }
 
         public boolean hasOverrides() {
-            return enableCheats != null || widescreen != null || noInterlacing != null
-                    || loadTextures != null || asyncTextures != null || precacheTextures != null
-                    || showFps != null || renderer != null || !TextUtils.isEmpty(aspectRatio);
+            return !overrides.isEmpty();
         }
 
         JSONObject toJson() throws JSONException {
             JSONObject obj = new JSONObject();
-            if (enableCheats != null) obj.put("enableCheats", enableCheats);
-            if (widescreen != null) obj.put("widescreen", widescreen);
-            if (noInterlacing != null) obj.put("noInterlacing", noInterlacing);
-            if (loadTextures != null) obj.put("loadTextures", loadTextures);
-            if (asyncTextures != null) obj.put("asyncTextures", asyncTextures);
-            if (precacheTextures != null) obj.put("precacheTextures", precacheTextures);
-            if (showFps != null) obj.put("showFps", showFps);
-            if (renderer != null) obj.put("renderer", renderer);
-            if (!TextUtils.isEmpty(aspectRatio)) obj.put("aspectRatio", aspectRatio);
+            JSONArray others = null;
+            for (Map.Entry<NativeSettings.Key, String> e : overrides.entrySet()) {
+                NativeSettings.Key key = e.getKey();
+                Field field = fieldFor(key);
+                if (field == null) {
+                    if (others == null) others = new JSONArray();
+                    others.put(new JSONArray().put(key.section).put(key.name).put(key.type).put(e.getValue()));
+                    continue;
+                }
+                // Typed JSON values keep files written before the schema existed readable both ways
+                String value = e.getValue();
+                switch (key.type) {
+                    case NativeSettings.TYPE_BOOL:
+                        obj.put(field.jsonName, "1".equals(value) || "true".equalsIgnoreCase(value));
+                        break;
+                    case NativeSettings.TYPE_INT:
+                        obj.put(field.jsonName, parseLong(value));
+                        break;
+                    case NativeSettings.TYPE_FLOAT:
+                    case NativeSettings.TYPE_DOUBLE:
+                        obj.put(field.jsonName, parseDouble(value));
+                        break;
+                    default:
+                        obj.put(field.jsonName, value);
+                        break;
+                }
+            }
+            if (others != null) obj.put(KEY_NATIVE, others);
             return obj;
         }
 
@@ -74,15 +190,35 @@ public final class GameSpecificSettingsManager {
                 return null;
             }
             GameSettings settings = new GameSettings();
-            if (obj.has("enableCheats")) settings.enableCheats = obj.optBoolean("enableCheats");
-            if (obj.has("widescreen")) settings.widescreen = obj.optBoolean("widescreen");
-            if (obj.has("noInterlacing")) settings.noInterlacing = obj.optBoolean("noInterlacing");
-            if (obj.has("loadTextures")) settings.loadTextures = obj.optBoolean("loadTextures");
-            if (obj.has("asyncTextures")) settings.asyncTextures = obj.optBoolean("asyncTextures");
-            if (obj.has("precacheTextures")) settings.precacheTextures = obj.optBoolean("precacheTextures");
-            if (obj.has("showFps")) settings.showFps = obj.optBoolean("showFps");
-            if (obj.has("renderer")) settings.renderer = obj.optInt("renderer");
-            if (obj.has("aspectRatio")) settings.aspectRatio = obj.optString("aspectRatio", null);
+            for (Field field : SCHEMA) {
+                if (!obj.has(field.jsonName)) {
+                    continue;
+                }
+                switch (field.key.type) {
+                    case NativeSettings.TYPE_BOOL:
+                        settings.putBool(field.key, obj.optBoolean(field.jsonName));
+                        break;
+                    case NativeSettings.TYPE_INT:
+                        settings.put(field.key, Long.toString(obj.optLong(field.jsonName)));
+                        break;
+                    case NativeSettings.TYPE_FLOAT:
+                    case NativeSettings.TYPE_DOUBLE:
+                        settings.put(field.key, Double.toString(obj.optDouble(field.jsonName, 0)));
+                        break;
+                    default:
+                        settings.put(field.key, obj.optString(field.jsonName, null));
+                        break;
+                }
+            }
+            JSONArray others = obj.optJSONArray(KEY_NATIVE);
+            if (others != null) {
+                for (int i = 0; i < others.length(); i++) {
+                    JSONArray entry = others.optJSONArray(i);
+                    if (entry == null || entry.length() < 4) continue;
+                    settings.put(new NativeSettings.Key(entry.optString(0), entry.optString(1), entry.optString(2)),
+                            entry.optString(3, null));
+                }
+            }
             if (!settings.hasOverrides()) {
                 return null;
             }
@@ -90,19 +226,38 @@ public final class GameSpecificSettingsManager {
         }
     }
 
+    @Nullable
+    private static Field fieldFor(NativeSettings.Key key) {
+        for (Field field : SCHEMA) {
+            if (field.key.equals(key)) return field;
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return (long) parseDouble(value);
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     @Nullable
     public static GameSettings getSettings(Context context, String key) {
         if (context == null || TextUtils.isEmpty(key)) {
             return null;
         }
-        synchronized (LOCK) {
-            JSONObject root = readRoot(context);
-            JSONObject games = root.optJSONObject(KEY_GAMES);
-            if (games == null) {
-                return null;
-            }
-            return GameSettings.fromJson(games.optJSONObject(key));
-        }
+        GameSettings settings = index(context).get(key);
+        // Callers edit what they get back; keep the published index untouched
+        return settings != null ? settings.copy() : null;
     }
 
     public static void saveSettings(Context context, String key, GameSettings settings) {
@@ -114,13 +269,9 @@ public final class GameSpecificSettingsManager {
             return;
         }
         synchronized (LOCK) {
-            JSONObject root = readRoot(context);
-            JSONObject games = ensureGamesObject(root);
-            try {
-                games.put(key, settings.toJson());
-                writeRoot(context, root);
-            } catch (JSONException | IOException ignored) {
-            }
+            Map<String, GameSettings> games = new HashMap<>(index(context));
+            games.put(key, settings.copy());
+            publish(context, games);
         }
     }
 
@@ -129,19 +280,13 @@ public final class GameSpecificSettingsManager {
             return;
         }
         synchronized (LOCK) {
-            JSONObject root = readRoot(context);
-            JSONObject games = root.optJSONObject(KEY_GAMES);
-            if (games == null || !games.has(key)) {
+            Map<String, GameSettings> current = index(context);
+            if (!current.containsKey(key)) {
                 return;
             }
+            Map<String, GameSettings> games = new HashMap<>(current);
             games.remove(key);
-            if (games.length() == 0) {
-                root.remove(KEY_GAMES);
-            }
-            try {
-                writeRoot(context, root);
-            } catch (IOException ignored) {
-            }
+            publish(context, games);
         }
     }
 
@@ -150,94 +295,120 @@ public final class GameSpecificSettingsManager {
             return;
         }
         synchronized (LOCK) {
-            JSONObject root = readRoot(context);
-            JSONObject games = root.optJSONObject(KEY_GAMES);
-            if (games == null || games.length() == 0) {
+            Map<String, GameSettings> current = index(context);
+            if (current.isEmpty()) {
                 return;
             }
-            java.util.HashSet<String> keep = new java.util.HashSet<>();
+            HashSet<String> keep = new HashSet<>();
             for (String key : validKeys) {
                 if (!TextUtils.isEmpty(key)) {
                     keep.add(key);
                 }
             }
-            boolean changed = false;
-            Iterator<String> keys = games.keys();
-            while (keys.hasNext()) {
-                String storedKey = keys.next();
-                if (!keep.contains(storedKey)) {
-                    keys.remove();
-                    changed = true;
-                }
+            Map<String, GameSettings> games = new HashMap<>(current);
+            if (games.keySet().retainAll(keep)) {
+                publish(context, games);
             }
-            if (changed) {
-                try {
-                    writeRoot(context, root);
-                } catch (IOException ignored) {
-                }
+        }
+    }
+
+    /** Writes pending changes now, e.g. before the app goes to the background. */
+    public static void flush(Context context) {
+        synchronized (LOCK) {
+            if (sSaveScheduled) {
+                save(context);
             }
         }
     }
 
-    private static JSONObject readRoot(Context context) {
+    private static Map<String, GameSettings> index(Context context) {
+        Map<String, GameSettings> games = sGames;
         File file = getSettingsFile(context);
-        if (!file.exists() || !file.isFile()) {
-            return createEmptyRoot();
+        if (games != null && file.equals(sLoadedFrom)) {
+            return games;
         }
-        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
-            byte[] buffer = readAllBytes(in);
-            if (buffer.length == 0) {
-                return createEmptyRoot();
-            }
-            JSONObject root = new JSONObject(new String(buffer, StandardCharsets.UTF_8));
-            ensureGamesObject(root);
-            if (!root.has(KEY_VERSION)) {
-                root.put(KEY_VERSION, CURRENT_VERSION);
+        synchronized (LOCK) {
+            if (sGames == null || !file.equals(sLoadedFrom)) {
+                if (sSaveScheduled && sLoadedFrom != null) {
+                    // Pending changes belong to the previous data root
+                    writeIndex(sLoadedFrom, sGames);
+                    sSaveScheduled = false;
+                }
+                sGames = Collections.unmodifiableMap(readIndex(file));
+                sLoadedFrom = file;
             }
-            return root;
-        } catch (Exception ignored) {
-            return createEmptyRoot();
+            return sGames;
         }
     }
 
-    private static void writeRoot(Context context, JSONObject root) throws IOException {
-        if (context == null || root == null) {
+    private static void publish(Context context, Map<String, GameSettings> games) {
+        sGames = Collections.unmodifiableMap(games);
+        if (sSaveScheduled) {
             return;
         }
-        File file = getSettingsFile(context);
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs();
-        }
-        try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file, false))) {
-            root.put(KEY_VERSION, CURRENT_VERSION);
-            out.write(root.toString(2).getBytes(StandardCharsets.UTF_8));
-            out.flush();
-        } catch (JSONException e) {
-            throw new IOException(e);
-        }
+        sSaveScheduled = true;
+        final Context appContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        sSaver.schedule(() -> {
+            synchronized (LOCK) {
+                if (sSaveScheduled) {
+                    save(appContext);
+                }
+            }
+        }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
     }
 
-    private static JSONObject ensureGamesObject(JSONObject root) {
-        JSONObject games = root.optJSONObject(KEY_GAMES);
+    private static void save(Context context) {
+        sSaveScheduled = false;
+        File file = sLoadedFrom != null ? sLoadedFrom : getSettingsFile(context);
+        writeIndex(file, sGames);
+    }
+
+    static void writeIndex(File file, @Nullable Map<String, GameSettings> games) {
         if (games == null) {
-            games = new JSONObject();
-            try {
-                root.put(KEY_GAMES, games);
-            } catch (JSONException ignored) {
+            return;
+        }
+        try {
+            JSONObject gamesObj = new JSONObject();
+            for (Map.Entry<String, GameSettings> e : games.entrySet()) {
+                gamesObj.put(e.getKey(), e.getValue().toJson());
             }
+            JSONObject root = new JSONObject();
+            root.put(KEY_VERSION, CURRENT_VERSION);
+            root.put(KEY_GAMES, gamesObj);
+            GameLibraryIndex.writeAtomically(file, root.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException | IOException e) {
+            try { DebugLog.e(TAG, "Failed to save per-game settings: " + e.getMessage()); } catch (Throwable ignored) {}
         }
-        return games;
     }
 
-    private static JSONObject createEmptyRoot() {
-        JSONObject root = new JSONObject();
-        try {
-            root.put(KEY_VERSION, CURRENT_VERSION);
-            root.put(KEY_GAMES, new JSONObject());
-        } catch (JSONException ignored) {
+    static Map<String, GameSettings> readIndex(File file) {
+        Map<String, GameSettings> games = new HashMap<>();
+        if (!file.exists() || !file.isFile()) {
+            return games;
         }
-        return root;
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            byte[] buffer = readAllBytes(in);
+            if (buffer.length == 0) {
+                return games;
+            }
+            JSONObject root = new JSONObject(new String(buffer, StandardCharsets.UTF_8));
+            JSONObject gamesObj = root.optJSONObject(KEY_GAMES);
+            if (gamesObj == null) {
+                return games;
+            }
+            Iterator<String> keys = gamesObj.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                GameSettings settings = GameSettings.fromJson(gamesObj.optJSONObject(key));
+                if (settings != null) {
+                    games.put(key, settings);
+                }
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable per-game settings: " + e.getMessage()); } catch (Throwable ignored) {}
+            games.clear();
+        }
+        return games;
     }
 
     private static File getSettingsFile(Context context) {
@@ -0,0 +1,214 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MD5 hashing of whole disc images with reads and digest updates overlapped: a reader thread fills
+ * two direct buffers in turn while the calling thread digests the other one. Whole-file jobs are
+ * spread over small per-storage pools so an SD card is never hit by more than one sequential
+ * reader while internal storage can serve two.
+ */
+public final class HashPipeline {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int BUFFER_COUNT = 2;
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(namedThreads("HashRead"));
+    private static final ExecutorService INTERNAL_JOBS = Executors.newFixedThreadPool(2, namedThreads("HashInternal"));
+    private static final ExecutorService REMOVABLE_JOBS = Executors.newFixedThreadPool(1, namedThreads("HashRemovable"));
+    private static final ExecutorService OTHER_JOBS = Executors.newFixedThreadPool(1, namedThreads("HashOther"));
+
+    private HashPipeline() {
+    }
+
+    public interface ProgressListener {
+        void onProgress(long bytesDone, long bytesTotal, double bytesPerSecond);
+    }
+
+    public static final class Result {
+        public final String md5;
+        public final long length;
+        public final long elapsedNanos;
+
+        Result(String md5, long length, long elapsedNanos) {
+            this.md5 = md5;
+            this.length = length;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double megabytesPerSecond() {
+            if (elapsedNanos <= 0) {
+                return 0.0;
+            }
+            return (length / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+
+    /** Runs a whole-file job on the pool matching the storage the document lives on. */
+    public static <T> Future<T> submit(@Nullable Uri document, Callable<T> job) {
+        return poolFor(document).submit(job);
+    }
+
+    /**
+     * Hashes everything readable from {@code channel} and closes it. The stream must be exactly as
+     * long as a seekable channel's size or, for other channels, {@code expectedLength} if that isn't
+     * negative; a shorter or longer stream, or any failure while reading, throws instead of returning
+     * the hash of whatever was read.
+     */
+    public static Result md5(ReadableByteChannel channel, long expectedLength,
+                             @Nullable ProgressListener listener) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            free.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        final long knownLength;
+        try {
+            knownLength = channel instanceof SeekableByteChannel ? ((SeekableByteChannel) channel).size() : expectedLength;
+        } catch (IOException e) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+        AtomicReference<IOException> readError = new AtomicReference<>();
+        final long start = System.nanoTime();
+        Future<?> reader = READERS.submit(() -> {
+            try {
+                while (true) {
+                    ByteBuffer buffer = free.take();
+                    if (buffer == END_OF_STREAM) {
+                        break;
+                    }
+                    buffer.clear();
+                    int r = 0;
+                    while (buffer.hasRemaining() && (r = channel.read(buffer)) >= 0) {
+                        // keep filling until the buffer is full or the stream ends
+                    }
+                    buffer.flip();
+                    if (buffer.hasRemaining()) {
+                        filled.put(buffer);
+                    }
+                    if (r < 0) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                // Providers also fail with runtime exceptions, e.g. SecurityException on a revoked descriptor
+                readError.set(t instanceof IOException ? (IOException) t : new IOException(t));
+            } finally {
+                filled.offer(END_OF_STREAM);
+            }
+        });
+        long total = 0;
+        long lastReport = start;
+        try {
+            while (true) {
+                ByteBuffer buffer = filled.take();
+                if (buffer == END_OF_STREAM) {
+                    break;
+                }
+                total += buffer.remaining();
+                digest.update(buffer);
+                free.put(buffer);
+                if (listener != null) {
+                    long now = System.nanoTime();
+                    if (now - lastReport >= 250_000_000L) {
+                        lastReport = now;
+                        listener.onProgress(total, knownLength, total / ((now - start) / 1_000_000_000.0));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            reader.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("hash interrupted");
+        } finally {
+            free.offer(END_OF_STREAM);
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        IOException error = readError.get();
+        if (error != null) {
+            throw error;
+        }
+        if (knownLength >= 0 && total != knownLength) {
+            throw new IOException("read " + total + " of " + knownLength + " bytes");
+        }
+        long elapsed = System.nanoTime() - start;
+        if (listener != null) {
+            listener.onProgress(total, knownLength, elapsed > 0 ? total / (elapsed / 1_000_000_000.0) : 0.0);
+        }
+        return new Result(toHex(digest.digest()), total, elapsed);
+    }
+
+    private static ExecutorService poolFor(@Nullable Uri document) {
+        if (document == null) {
+            return OTHER_JOBS;
+        }
+        if ("file".equals(document.getScheme())) {
+            return INTERNAL_JOBS;
+        }
+        if (!"com.android.externalstorage.documents".equals(document.getAuthority())) {
+            return OTHER_JOBS;
+        }
+        String docId = null;
+        try {
+            docId = DocumentsContract.getDocumentId(document);
+        } catch (Exception ignored) {
+        }
+        if (!TextUtils.isEmpty(docId) && (docId.startsWith("primary:") || docId.startsWith("home:"))) {
+            return INTERNAL_JOBS;
+        }
+        return REMOVABLE_JOBS;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        final char[] digits = "0123456789abcdef".toCharArray();
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = digits[(bytes[i] >> 4) & 0xF];
+            out[i * 2 + 1] = digits[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
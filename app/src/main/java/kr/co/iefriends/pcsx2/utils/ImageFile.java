@@ -0,0 +1,135 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Read-only random access to a game image, whether it is a local file or a document behind a
+ * provider. Reads are positional {@link FileChannel} reads on the underlying descriptor, so seeking
+ * to a high LBA costs nothing, unlike {@code InputStream.skip()} which many providers implement by
+ * reading and discarding. The sequential {@link SeekableByteChannel} view lets streaming consumers
+ * (hashing, BOOT string scans) share the same handle.
+ */
+public final class ImageFile implements SeekableByteChannel {
+    private final FileChannel channel;
+    private final Closeable owner;
+    @Nullable
+    private final ParcelFileDescriptor descriptor;
+
+    private ImageFile(FileChannel channel, Closeable owner, @Nullable ParcelFileDescriptor descriptor) {
+        this.channel = channel;
+        this.owner = owner;
+        this.descriptor = descriptor;
+    }
+
+    /** Returns null when the provider cannot hand out a file descriptor for {@code uri}. */
+    @Nullable
+    public static ImageFile open(ContentResolver resolver, Uri uri) throws IOException {
+        if ("file".equals(uri.getScheme()) && uri.getPath() != null) {
+            return open(new File(uri.getPath()));
+        }
+        ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "r");
+        if (pfd == null) {
+            return null;
+        }
+        FileInputStream stream = new FileInputStream(pfd.getFileDescriptor());
+        return new ImageFile(stream.getChannel(), stream, pfd);
+    }
+
+    public static ImageFile open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        return new ImageFile(file.getChannel(), file, null);
+    }
+
+    /** Fills as much of {@code dst} as the image allows, starting at {@code position}. */
+    public int read(ByteBuffer dst, long position) throws IOException {
+        int total = 0;
+        while (dst.hasRemaining()) {
+            int r = channel.read(dst, position + total);
+            if (r <= 0) {
+                break;
+            }
+            total += r;
+        }
+        return total;
+    }
+
+    /** Reads up to {@code length} bytes at {@code position}; null if nothing could be read. */
+    @Nullable
+    public byte[] readBytes(long position, int length) throws IOException {
+        if (length <= 0 || position < 0) {
+            return null;
+        }
+        byte[] out = new byte[length];
+        int read = read(ByteBuffer.wrap(out), position);
+        if (read <= 0) {
+            return null;
+        }
+        return read < length ? Arrays.copyOf(out, read) : out;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        return channel.read(dst);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        return channel.position();
+    }
+
+    @Override
+    public ImageFile position(long newPosition) throws IOException {
+        channel.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            try {
+                owner.close();
+            } finally {
+                if (descriptor != null) {
+                    descriptor.close();
+                }
+            }
+        }
+    }
+}
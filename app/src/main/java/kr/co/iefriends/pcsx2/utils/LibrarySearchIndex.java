@@ -0,0 +1,261 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over a snapshot of the game library, built once per library change and queried off
+ * the main thread. Text is folded (diacritics stripped, lower-cased, punctuation to spaces) and
+ * indexed by trigram, so a query only verifies the few documents whose trigrams it shares instead of
+ * scanning every title. Serials also match by prefix with punctuation ignored ("slus203" finds
+ * SLUS-20312). When no document contains every query word, documents sharing most of the query's
+ * trigrams are returned instead, which absorbs small typos.
+ */
+public final class LibrarySearchIndex<T> {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    /** Fraction of the query's trigrams a document needs to be a fuzzy match. */
+    private static final float FUZZY_MIN_SHARED = 0.6f;
+    private static final int FUZZY_MIN_QUERY = 4;
+    private static final int[] NO_DOCS = new int[0];
+
+    public interface Fields<T> {
+        /** Searchable texts of an item (file name, resolved title, ...); nulls are ignored. */
+        String[] texts(T item);
+
+        @Nullable
+        String serial(T item);
+    }
+
+    /** Lets a running query give up once a newer one has been issued. */
+    public interface Cancellation {
+        boolean isCancelled();
+    }
+
+    private final List<T> items;
+    /** Folded searchable text per document, words separated by single spaces and padded with spaces. */
+    private final String[] texts;
+    /** Serial per document with everything but letters and digits removed, lower-case. */
+    private final String[] serials;
+    private final Map<Integer, int[]> postings;
+
+    private LibrarySearchIndex(List<T> items, String[] texts, String[] serials, Map<Integer, int[]> postings) {
+        this.items = items;
+        this.texts = texts;
+        this.serials = serials;
+        this.postings = postings;
+    }
+
+    public static <T> LibrarySearchIndex<T> build(List<T> snapshot, Fields<T> fields) {
+        List<T> items = new ArrayList<>(snapshot);
+        int count = items.size();
+        String[] texts = new String[count];
+        String[] serials = new String[count];
+        Map<Integer, IntList> lists = new HashMap<>();
+        StringBuilder sb = new StringBuilder(128);
+        for (int doc = 0; doc < count; doc++) {
+            T item = items.get(doc);
+            sb.setLength(0);
+            sb.append(' ');
+            for (String text : fields.texts(item)) {
+                if (text != null && !text.isEmpty()) {
+                    sb.append(fold(text)).append(' ');
+                }
+            }
+            String serial = fields.serial(item);
+            String compactSerial = serial != null ? compact(fold(serial)) : "";
+            if (!compactSerial.isEmpty()) {
+                sb.append(fold(serial)).append(' ');
+            }
+            String text = sb.toString();
+            texts[doc] = text;
+            serials[doc] = compactSerial;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                int gram = trigram(text, i);
+                IntList list = lists.get(gram);
+                if (list == null) {
+                    list = new IntList();
+                    lists.put(gram, list);
+                }
+                list.addUnique(doc);
+            }
+        }
+        Map<Integer, int[]> postings = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Integer, IntList> e : lists.entrySet()) {
+            postings.put(e.getKey(), e.getValue().toArray());
+        }
+        return new LibrarySearchIndex<>(items, texts, serials, postings);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns the items matching {@code query} in library order, or fuzzy matches best first when
+     * nothing matches exactly. Returns null if {@code cancel} fired while searching.
+     */
+    @Nullable
+    public List<T> search(String query, Cancellation cancel) {
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return new ArrayList<>(items);
+        }
+        String[] words = folded.split(" ");
+        String compactQuery = compact(folded);
+        List<T> out = new ArrayList<>();
+        // Words of three or more chars narrow the documents to verify; shorter words are only checked
+        int[] candidates = null;
+        for (String word : words) {
+            if (word.length() < 3) {
+                continue;
+            }
+            int[] docs = docsWithAllTrigrams(word);
+            candidates = candidates == null ? docs : intersect(candidates, docs);
+        }
+        if (cancel.isCancelled()) return null;
+        boolean[] matched = new boolean[items.size()];
+        if (candidates != null) {
+            for (int doc : candidates) {
+                if (containsAll(texts[doc], words)) matched[doc] = true;
+            }
+        }
+        if (candidates == null) {
+            // Only short words: nothing to narrow with, verify every document
+            for (int doc = 0; doc < items.size(); doc++) {
+                if ((doc & 1023) == 0 && cancel.isCancelled()) return null;
+                if (!matched[doc] && containsAll(texts[doc], words)) matched[doc] = true;
+            }
+        }
+        if (!compactQuery.isEmpty()) {
+            for (int doc = 0; doc < items.size(); doc++) {
+                if (!matched[doc] && !serials[doc].isEmpty() && serials[doc].startsWith(compactQuery)) matched[doc] = true;
+            }
+        }
+        for (int doc = 0; doc < items.size(); doc++) {
+            if (matched[doc]) out.add(items.get(doc));
+        }
+        if (out.isEmpty() && folded.length() >= FUZZY_MIN_QUERY) {
+            return fuzzy(folded, cancel);
+        }
+        return out;
+    }
+
+    @Nullable
+    private List<T> fuzzy(String folded, Cancellation cancel) {
+        String padded = " " + folded + " ";
+        List<Integer> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            int gram = trigram(padded, i);
+            if (!grams.contains(gram)) grams.add(gram);
+        }
+        if (grams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int[] shared = new int[items.size()];
+        for (int gram : grams) {
+            int[] docs = postings.get(gram);
+            if (docs == null) continue;
+            for (int doc : docs) shared[doc]++;
+        }
+        if (cancel.isCancelled()) return null;
+        int needed = Math.max(2, (int) Math.ceil(grams.size() * FUZZY_MIN_SHARED));
+        List<Integer> hits = new ArrayList<>();
+        for (int doc = 0; doc < shared.length; doc++) {
+            if (shared[doc] >= needed) hits.add(doc);
+        }
+        hits.sort((a, b) -> shared[b] != shared[a] ? Integer.compare(shared[b], shared[a]) : Integer.compare(a, b));
+        List<T> out = new ArrayList<>(hits.size());
+        for (int doc : hits) out.add(items.get(doc));
+        return out;
+    }
+
+    private int[] docsWithAllTrigrams(String word) {
+        int[] result = null;
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            int[] docs = postings.get(trigram(word, i));
+            if (docs == null) return NO_DOCS;
+            result = result == null ? docs : intersect(result, docs);
+            if (result.length == 0) return NO_DOCS;
+        }
+        return result != null ? result : NO_DOCS;
+    }
+
+    private static boolean containsAll(String text, String[] words) {
+        for (String word : words) {
+            if (!word.isEmpty() && !text.contains(word)) return false;
+        }
+        return true;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Packs three chars into an int key; chars past U+03FF are hashed into a separate key range. */
+    private static int trigram(String s, int at) {
+        char a = s.charAt(at), b = s.charAt(at + 1), c = s.charAt(at + 2);
+        if (a > 0x3FF || b > 0x3FF || c > 0x3FF) {
+            return ((a * 31 + b) * 31 + c) & 0x3FFFFFFF | 0x40000000;
+        }
+        return (a << 20) | (b << 10) | c;
+    }
+
+    /** Strips diacritics, lower-cases, and reduces everything but letters and digits to single spaces. */
+    public static String fold(@Nullable String s) {
+        if (s == null || s.isEmpty()) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        String lower = decomposed.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean space = true;
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                sb.append(ch);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    private static String compact(String folded) {
+        return folded.indexOf(' ') < 0 ? folded : folded.replace(" ", "");
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void addUnique(int value) {
+            // Documents are indexed in ascending order, so a repeat can only be the last value
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
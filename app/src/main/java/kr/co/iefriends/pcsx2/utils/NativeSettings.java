@@ -0,0 +1,259 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Typed registry of the native INI settings the app touches, plus batched access to them. A
+ * {@link Key} spells out its section, name and value type once, so call sites don't repeat the
+ * triple. {@link #get(Key...)} reads any number of keys with at most one JNI call (going through
+ * {@link SettingsCache}), and a {@link Transaction} collects writes and commits them in one call
+ * that applies and saves the settings once, instead of once per key.
+ */
+public final class NativeSettings {
+    private static final String TAG = "NativeSettings";
+
+    public static final String TYPE_BOOL = "bool";
+    public static final String TYPE_INT = "int";
+    public static final String TYPE_UINT = "uint";
+    public static final String TYPE_FLOAT = "float";
+    public static final String TYPE_DOUBLE = "double";
+    public static final String TYPE_STRING = "string";
+
+    public static final class Key {
+        public final String section;
+        public final String name;
+        public final String type;
+
+        public Key(String section, String name, String type) {
+            this.section = section;
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return section.equals(other.section) && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return section.hashCode() * 31 + name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return section + "/" + name;
+        }
+    }
+
+    // EmuCore
+    public static final Key ENABLE_CHEATS = new Key("EmuCore", "EnableCheats", TYPE_BOOL);
+    public static final Key WIDESCREEN_PATCHES = new Key("EmuCore", "EnableWideScreenPatches", TYPE_BOOL);
+    public static final Key NO_INTERLACING_PATCHES = new Key("EmuCore", "EnableNoInterlacingPatches", TYPE_BOOL);
+    public static final Key FAST_BOOT = new Key("EmuCore", "EnableFastBoot", TYPE_BOOL);
+    public static final Key CPU_CORE_TYPE = new Key("EmuCore/CPU", "CoreType", TYPE_INT);
+    // EmuCore/Speedhacks
+    public static final Key EE_CYCLE_RATE = new Key("EmuCore/Speedhacks", "EECycleRate", TYPE_INT);
+    public static final Key EE_CYCLE_SKIP = new Key("EmuCore/Speedhacks", "EECycleSkip", TYPE_INT);
+    public static final Key FAST_CDVD = new Key("EmuCore/Speedhacks", "fastCDVD", TYPE_BOOL);
+    public static final Key INTC_STAT = new Key("EmuCore/Speedhacks", "IntcStat", TYPE_BOOL);
+    public static final Key VU1_INSTANT = new Key("EmuCore/Speedhacks", "vu1Instant", TYPE_BOOL);
+    public static final Key VU_FLAG_HACK = new Key("EmuCore/Speedhacks", "vuFlagHack", TYPE_BOOL);
+    public static final Key VU_THREAD = new Key("EmuCore/Speedhacks", "vuThread", TYPE_BOOL);
+    public static final Key WAIT_LOOP = new Key("EmuCore/Speedhacks", "WaitLoop", TYPE_BOOL);
+    // EmuCore/GS
+    public static final Key RENDERER = new Key("EmuCore/GS", "Renderer", TYPE_INT);
+    public static final Key ASPECT_RATIO = new Key("EmuCore/GS", "AspectRatio", TYPE_STRING);
+    public static final Key UPSCALE_MULTIPLIER = new Key("EmuCore/GS", "upscale_multiplier", TYPE_FLOAT);
+    public static final Key ACCURATE_BLENDING = new Key("EmuCore/GS", "accurate_blending_unit", TYPE_INT);
+    public static final Key TEXTURE_PRELOADING = new Key("EmuCore/GS", "texture_preloading", TYPE_INT);
+    public static final Key HW_MIPMAP = new Key("EmuCore/GS", "hw_mipmap", TYPE_BOOL);
+    public static final Key HARDWARE_READBACKS = new Key("EmuCore/GS", "HardwareReadbacks", TYPE_BOOL);
+    public static final Key HW_DOWNLOAD_MODE = new Key("EmuCore/GS", "HWDownloadMode", TYPE_INT);
+    public static final Key LOAD_TEXTURE_REPLACEMENTS = new Key("EmuCore/GS", "LoadTextureReplacements", TYPE_BOOL);
+    public static final Key LOAD_TEXTURE_REPLACEMENTS_ASYNC = new Key("EmuCore/GS", "LoadTextureReplacementsAsync", TYPE_BOOL);
+    public static final Key PRECACHE_TEXTURE_REPLACEMENTS = new Key("EmuCore/GS", "PrecacheTextureReplacements", TYPE_BOOL);
+    public static final Key OSD_SHOW_FPS = new Key("EmuCore/GS", "OsdShowFPS", TYPE_BOOL);
+    public static final Key AUTOFLUSH_SW = new Key("EmuCore/GS", "autoflush_sw", TYPE_BOOL);
+    public static final Key AUTO_FLUSH_LEVEL = new Key("EmuCore/GS", "UserHacks_AutoFlushLevel", TYPE_INT);
+    public static final Key BRIGHTNESS_SCALE = new Key("EmuCore/GS", "BrightnessScale", TYPE_FLOAT);
+    public static final Key CAS_MODE = new Key("EmuCore/GS", "CASMode", TYPE_INT);
+    public static final Key CAS_SHARPNESS = new Key("EmuCore/GS", "CASSharpness", TYPE_INT);
+    public static final Key DEINTERLACE_MODE = new Key("EmuCore/GS", "deinterlace_mode", TYPE_INT);
+    public static final Key DITHERING = new Key("EmuCore/GS", "dithering_ps2", TYPE_INT);
+    public static final Key FRAMERATE_NTSC = new Key("EmuCore/GS", "FramerateNTSC", TYPE_FLOAT);
+    public static final Key FXAA = new Key("EmuCore/GS", "fxaa", TYPE_BOOL);
+    public static final Key INTEGER_SCALING = new Key("EmuCore/GS", "IntegerScaling", TYPE_BOOL);
+    public static final Key LINEAR_PRESENT_MODE = new Key("EmuCore/GS", "linear_present_mode", TYPE_INT);
+    public static final Key MAX_ANISOTROPY = new Key("EmuCore/GS", "MaxAnisotropy", TYPE_INT);
+    public static final Key OSD_PERFORMANCE_POS = new Key("EmuCore/GS", "OsdPerformancePos", TYPE_INT);
+    public static final Key OSD_SCALE = new Key("EmuCore/GS", "OsdScale", TYPE_INT);
+    public static final Key OSD_SHOW_CPU = new Key("EmuCore/GS", "OsdShowCPU", TYPE_BOOL);
+    public static final Key OSD_SHOW_FRAME_TIMES = new Key("EmuCore/GS", "OsdShowFrameTimes", TYPE_BOOL);
+    public static final Key OSD_SHOW_GPU = new Key("EmuCore/GS", "OsdShowGPU", TYPE_BOOL);
+    public static final Key OSD_SHOW_GS_STATS = new Key("EmuCore/GS", "OsdShowGSStats", TYPE_BOOL);
+    public static final Key OSD_SHOW_HARDWARE_INFO = new Key("EmuCore/GS", "OsdShowHardwareInfo", TYPE_BOOL);
+    public static final Key OSD_SHOW_INDICATORS = new Key("EmuCore/GS", "OsdShowIndicators", TYPE_BOOL);
+    public static final Key OSD_SHOW_INPUTS = new Key("EmuCore/GS", "OsdShowInputs", TYPE_BOOL);
+    public static final Key OSD_SHOW_INPUT_REC = new Key("EmuCore/GS", "OsdShowInputRec", TYPE_BOOL);
+    public static final Key OSD_SHOW_RESOLUTION = new Key("EmuCore/GS", "OsdShowResolution", TYPE_BOOL);
+    public static final Key OSD_SHOW_SETTINGS = new Key("EmuCore/GS", "OsdShowSettings", TYPE_BOOL);
+    public static final Key OSD_SHOW_SPEED = new Key("EmuCore/GS", "OsdShowSpeed", TYPE_BOOL);
+    public static final Key OSD_SHOW_VERSION = new Key("EmuCore/GS", "OsdShowVersion", TYPE_BOOL);
+    public static final Key OSD_SHOW_VIDEO_CAPTURE = new Key("EmuCore/GS", "OsdShowVideoCapture", TYPE_BOOL);
+    public static final Key OSD_SHOW_VPS = new Key("EmuCore/GS", "OsdShowVPS", TYPE_BOOL);
+    public static final Key PCRTC_ANTIBLUR = new Key("EmuCore/GS", "pcrtc_antiblur", TYPE_BOOL);
+    public static final Key PCRTC_OFFSETS = new Key("EmuCore/GS", "pcrtc_offsets", TYPE_BOOL);
+    public static final Key PCRTC_OVERSCAN = new Key("EmuCore/GS", "pcrtc_overscan", TYPE_BOOL);
+    public static final Key SKIP_DUPLICATE_FRAMES = new Key("EmuCore/GS", "SkipDuplicateFrames", TYPE_BOOL);
+    public static final Key TEXTURE_FILTER = new Key("EmuCore/GS", "filter", TYPE_INT);
+    public static final Key TRILINEAR_FILTER = new Key("EmuCore/GS", "TriFilter", TYPE_INT);
+    public static final Key VSYNC_ENABLE = new Key("EmuCore/GS", "VsyncEnable", TYPE_BOOL);
+    // Other sections
+    public static final Key BIOS = new Key("Filenames", "BIOS", TYPE_STRING);
+    public static final Key RECORD_ANDROID_LOG = new Key("Logging", "RecordAndroidLog", TYPE_BOOL);
+    public static final Key PAD1_VIBRATION = new Key("Pad1", "Vibration", TYPE_BOOL);
+    public static final Key ETH_API = new Key("DEV9/Eth", "EthApi", TYPE_STRING);
+    public static final Key ETH_DEVICE = new Key("DEV9/Eth", "EthDevice", TYPE_STRING);
+    public static final Key ETH_ENABLE = new Key("DEV9/Eth", "EthEnable", TYPE_BOOL);
+    public static final Key HDD_ENABLE = new Key("DEV9/Hdd", "HddEnable", TYPE_BOOL);
+    public static final Key HDD_FILE = new Key("DEV9/Hdd", "HddFile", TYPE_STRING);
+    public static final Key NOMINAL_SCALAR = new Key("Framerate", "NominalScalar", TYPE_FLOAT);
+    public static final Key SDL_CONTROLLER_DEADZONE = new Key("InputSources/SDL", "ControllerDeadzone", TYPE_FLOAT);
+    public static final Key SDL_CONTROLLER_SENSITIVITY = new Key("InputSources/SDL", "ControllerSensitivity", TYPE_FLOAT);
+    public static final Key MEMCARD_SLOT1_ENABLE = new Key("MemoryCards", "Slot1_Enable", TYPE_BOOL);
+    public static final Key MEMCARD_SLOT1_FILENAME = new Key("MemoryCards", "Slot1_Filename", TYPE_STRING);
+    public static final Key FULLSCREEN_UI = new Key("UI", "EnableFullscreenUI", TYPE_BOOL);
+
+    private NativeSettings() {
+    }
+
+    /**
+     * Current values of {@code keys}, parallel to it. Keys not yet in {@link SettingsCache} are read
+     * from native in one call. Null if the native library is unavailable or the read failed.
+     */
+    @Nullable
+    public static String[] get(Key... keys) {
+        SettingsCache.preload(keys);
+        String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = SettingsCache.get(keys[i]);
+            if (values[i] == null) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    @Nullable
+    static String[] readNow(Key[] keys) {
+        if (keys.length == 0) {
+            return new String[0];
+        }
+        if (NativeApp.hasNoNativeBinary) {
+            return null;
+        }
+        String[] sections = new String[keys.length];
+        String[] names = new String[keys.length];
+        String[] types = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sections[i] = keys[i].section;
+            names[i] = keys[i].name;
+            types[i] = keys[i].type;
+        }
+        try {
+            String[] values = NativeApp.getSettings(sections, names, types);
+            return values != null && values.length == keys.length ? values : null;
+        } catch (Throwable t) {
+            try { DebugLog.w(TAG, "Batched settings read failed: " + t.getMessage()); } catch (Throwable ignored) {}
+            return null;
+        }
+    }
+
+    static boolean writeNow(Key[] keys, String[] values) {
+        if (keys.length == 0) {
+            return true;
+        }
+        if (NativeApp.hasNoNativeBinary) {
+            return false;
+        }
+        String[] sections = new String[keys.length];
+        String[] names = new String[keys.length];
+        String[] types = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sections[i] = keys[i].section;
+            names[i] = keys[i].name;
+            types[i] = keys[i].type;
+        }
+        try {
+            NativeApp.setSettings(sections, names, types, values);
+            return true;
+        } catch (Throwable t) {
+            try { DebugLog.w(TAG, "Batched settings write failed: " + t.getMessage()); } catch (Throwable ignored) {}
+            return false;
+        }
+    }
+
+    public static Transaction beginTransaction() {
+        return new Transaction();
+    }
+
+    /** Writes collected with the put methods, sent to native in one call by {@link #commit()}. */
+    public static final class Transaction {
+        private final List<Key> keys = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+
+        private Transaction() {
+        }
+
+        /** Stores {@code value} as already formatted for the key's type; a null value is skipped. */
+        public Transaction put(Key key, @Nullable String value) {
+            if (value == null) {
+                return this;
+            }
+            int existing = keys.indexOf(key);
+            if (existing >= 0) {
+                values.set(existing, value);
+            } else {
+                keys.add(key);
+                values.add(value);
+            }
+            return this;
+        }
+
+        public Transaction putBool(Key key, boolean value) {
+            return put(key, value ? "true" : "false");
+        }
+
+        public Transaction putInt(Key key, int value) {
+            return put(key, Integer.toString(value));
+        }
+
+        public Transaction putFloat(Key key, float value) {
+            return put(key, Float.toString(value));
+        }
+
+        public boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        /**
+         * Applies every collected write with a single settings apply and INI save, after any writes
+         * {@link SettingsCache} still has queued, and updates the cache.
+         */
+        public boolean commit() {
+            if (keys.isEmpty()) {
+                return true;
+            }
+            return SettingsCache.commit(keys.toArray(new Key[0]), values.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import kr.co.iefriends.pcsx2.NativeApp;
+
+/**
+ * Remembers the MD5 of every disc image hashed for a Redump lookup, keyed by document URI and
+ * validated against the file's size and last-modified time, so an image is hashed at most once.
+ */
+public final class RedumpHashCache {
+    private static final String FILE_NAME = "armsx2_redump_hashes.json";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_FILES = "files";
+    private static final int CURRENT_VERSION = 1;
+    private static final String TAG = "RedumpHashCache";
+    private static final Object LOCK = new Object();
+
+    private static Map<String, Entry> sEntries = null;
+
+    private RedumpHashCache() {
+    }
+
+    public static final class Entry {
+        public final long size;
+        public final long lastModified;
+        public final String md5;
+        /** Number of bytes hashed; differs from {@link #size} for compressed images. */
+        public final long hashedSize;
+        @Nullable
+        public final String serial;
+        @Nullable
+        public final String name;
+
+        public Entry(long size, long lastModified, String md5, long hashedSize,
+                     @Nullable String serial, @Nullable String name) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.md5 = md5;
+            this.hashedSize = hashedSize;
+            this.serial = serial;
+            this.name = name;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject obj = new JSONObject();
+            obj.put("s", size);
+            obj.put("m", lastModified);
+            obj.put("md5", md5);
+            obj.put("h", hashedSize);
+            if (!TextUtils.isEmpty(serial)) obj.put("serial", serial);
+            if (!TextUtils.isEmpty(name)) obj.put("name", name);
+            return obj;
+        }
+
+        @Nullable
+        static Entry fromJson(@Nullable JSONObject obj) {
+            if (obj == null) {
+                return null;
+            }
+            String md5 = obj.optString("md5", null);
+            if (TextUtils.isEmpty(md5)) {
+                return null;
+            }
+            return new Entry(obj.optLong("s", -1L), obj.optLong("m", 0L), md5, obj.optLong("h", -1L),
+                    obj.optString("serial", null), obj.optString("name", null));
+        }
+    }
+
+    /** Returns the cached hash if the file still has the recorded size and last-modified time. */
+    @Nullable
+    public static Entry get(Context context, String uri, long size, long lastModified) {
+        if (TextUtils.isEmpty(uri) || size < 0 || lastModified <= 0) {
+            return null;
+        }
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            Entry entry = sEntries.get(uri);
+            if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    public static void put(Context context, String uri, Entry entry) {
+        if (TextUtils.isEmpty(uri) || entry == null || entry.size < 0 || entry.lastModified <= 0) {
+            return;
+        }
+        synchronized (LOCK) {
+            ensureLoaded(context);
+            sEntries.put(uri, entry);
+            save(context);
+        }
+    }
+
+    private static void save(Context context) {
+        try {
+            JSONObject files = new JSONObject();
+            for (Map.Entry<String, Entry> e : sEntries.entrySet()) {
+                files.put(e.getKey(), e.getValue().toJson());
+            }
+            JSONObject root = new JSONObject();
+            root.put(KEY_VERSION, CURRENT_VERSION);
+            root.put(KEY_FILES, files);
+            GameLibraryIndex.writeAtomically(getCacheFile(context), root.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException | IOException e) {
+            try { DebugLog.e(TAG, "Failed to save hash cache: " + e.getMessage()); } catch (Throwable ignored) {}
+        }
+    }
+
+    private static void ensureLoaded(Context context) {
+        if (sEntries != null) {
+            return;
+        }
+        sEntries = new HashMap<>();
+        File file = getCacheFile(context);
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            JSONObject root = new JSONObject(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+            if (root.optInt(KEY_VERSION, 0) != CURRENT_VERSION) {
+                return;
+            }
+            JSONObject files = root.optJSONObject(KEY_FILES);
+            if (files == null) {
+                return;
+            }
+            Iterator<String> keys = files.keys();
+            while (keys.hasNext()) {
+                String uri = keys.next();
+                Entry entry = Entry.fromJson(files.optJSONObject(uri));
+                if (entry != null) {
+                    sEntries.put(uri, entry);
+                }
+            }
+        } catch (Exception e) {
+            try { DebugLog.w(TAG, "Discarding unreadable hash cache: " + e.getMessage()); } catch (Throwable ignored) {}
+            sEntries.clear();
+        }
+    }
+
+    private static File getCacheFile(Context context) {
+        File base = DataDirectoryManager.getDataRoot(context != null ? context : NativeApp.getContext());
+        return new File(base, FILE_NAME);
+    }
+}
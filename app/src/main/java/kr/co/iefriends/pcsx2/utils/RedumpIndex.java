@@ -0,0 +1,340 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped binary form of {@code RedumpDatabase.yaml}. The YAML stays the source of truth; the
+ * first lookup after it changes converts it once into a table of fixed-size records sorted by
+ * (md5, size) followed by a string pool, and every later lookup is a binary search over the mapped
+ * file with no parsing and next to no heap.
+ *
+ * <pre>
+ * header : magic "RDB1", format version, source fingerprint (long), record count, pool offset
+ * record : md5 (16 bytes), size (long), serial offset (int), name offset (int)  -- 32 bytes
+ * pool   : (unsigned short length, UTF-8 bytes)*
+ * </pre>
+ */
+public final class RedumpIndex {
+    private static final String TAG = "RedumpIndex";
+    private static final String SOURCE_NAME = "RedumpDatabase.yaml";
+    private static final String ASSET_PATH = "resources/" + SOURCE_NAME;
+    private static final String INDEX_NAME = "redump.bin";
+    private static final int MAGIC = 0x31424452; // "RDB1" little-endian
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 32;
+    private static final Object LOCK = new Object();
+
+    private static RedumpIndex sInstance = null;
+    private static boolean sUnavailable = false;
+
+    private final ByteBuffer table;
+    private final int count;
+    private final int poolOffset;
+
+    public static final class Match {
+        public final String serial;
+        public final String name;
+
+        Match(String serial, String name) {
+            this.serial = serial;
+            this.name = name;
+        }
+    }
+
+    private RedumpIndex(ByteBuffer table, int count, int poolOffset) {
+        this.table = table;
+        this.count = count;
+        this.poolOffset = poolOffset;
+    }
+
+    /** Returns the mapped index, building it from the YAML first if it is missing or stale. */
+    @Nullable
+    public static RedumpIndex get(Context context) {
+        synchronized (LOCK) {
+            if (sInstance != null || sUnavailable) {
+                return sInstance;
+            }
+            long fingerprint = sourceFingerprint(context);
+            File indexFile = new File(DataDirectoryManager.getDataRoot(context), INDEX_NAME);
+            RedumpIndex index = map(indexFile, fingerprint);
+            if (index == null) {
+                try {
+                    long start = System.nanoTime();
+                    build(context, indexFile, fingerprint);
+                    index = map(indexFile, fingerprint);
+                    try { DebugLog.i(TAG, "Rebuilt Redump index in " + ((System.nanoTime() - start) / 1_000_000L) + " ms"); } catch (Throwable ignored) {}
+                } catch (IOException e) {
+                    try { DebugLog.e(TAG, "Failed to build Redump index: " + e.getMessage()); } catch (Throwable ignored) {}
+                }
+            }
+            if (index == null) {
+                sUnavailable = true;
+            } else {
+                try { DebugLog.i(TAG, "Mapped Redump index: " + index.count + " hashes"); } catch (Throwable ignored) {}
+            }
+            sInstance = index;
+            return index;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Looks up a dump by its MD5 (32 hex chars, any case) and byte size. */
+    @Nullable
+    public Match find(@Nullable String md5Hex, long size) {
+        byte[] md5 = parseMd5(md5Hex);
+        if (md5 == null) {
+            return null;
+        }
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareRecord(HEADER_SIZE + mid * RECORD_SIZE, md5, size);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                int base = HEADER_SIZE + mid * RECORD_SIZE;
+                return new Match(readString(table.getInt(base + 24)), readString(table.getInt(base + 28)));
+            }
+        }
+        return null;
+    }
+
+    private int compareRecord(int base, byte[] md5, long size) {
+        for (int i = 0; i < 16; i++) {
+            int c = (table.get(base + i) & 0xFF) - (md5[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Long.compare(table.getLong(base + 16), size);
+    }
+
+    private String readString(int offset) {
+        int at = poolOffset + offset;
+        int length = table.getShort(at) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = table.get(at + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private static RedumpIndex map(File file, long fingerprint) {
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getLong(8) != fingerprint) {
+                return null;
+            }
+            int count = buffer.getInt(16);
+            int poolOffset = buffer.getInt(20);
+            if (count < 0 || poolOffset < HEADER_SIZE + (long) count * RECORD_SIZE || poolOffset > buffer.capacity()) {
+                return null;
+            }
+            return new RedumpIndex(buffer, count, poolOffset);
+        } catch (IOException e) {
+            try { DebugLog.w(TAG, "Discarding unreadable Redump index: " + e.getMessage()); } catch (Throwable ignored) {}
+            return null;
+        }
+    }
+
+    /**
+     * Identifies the YAML the index was built from: the external override's size and timestamp, or
+     * the APK install time when the bundled asset is used.
+     */
+    private static long sourceFingerprint(Context context) {
+        File external = externalSource(context);
+        if (external.isFile()) {
+            return external.length() * 31L + external.lastModified();
+        }
+        try {
+            return -context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (Exception ignored) {
+            return 0L;
+        }
+    }
+
+    private static File externalSource(Context context) {
+        return new File(new File(DataDirectoryManager.getDataRoot(context), "resources"), SOURCE_NAME);
+    }
+
+    private static final class Row {
+        final byte[] md5;
+        final long size;
+        final int serial;
+        final int name;
+
+        Row(byte[] md5, long size, int serial, int name) {
+            this.md5 = md5;
+            this.size = size;
+            this.serial = serial;
+            this.name = name;
+        }
+    }
+
+    private static final class Pool {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * 1024);
+        final Map<String, Integer> offsets = new HashMap<>();
+
+        int intern(String value) {
+            Integer existing = offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(utf8.length, 0xFFFF);
+            int offset = bytes.size();
+            bytes.write(length & 0xFF);
+            bytes.write((length >> 8) & 0xFF);
+            bytes.write(utf8, 0, length);
+            offsets.put(value, offset);
+            return offset;
+        }
+    }
+
+    private static void build(Context context, File indexFile, long fingerprint) throws IOException {
+        List<Row> rows = new ArrayList<>(16384);
+        Pool pool = new Pool();
+        try (InputStream in = openSource(context);
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String[]> pendingHashes = new ArrayList<>(); // each [md5,size]
+            String curSerial = null;
+            String curName = null;
+            String pendingMd5 = null;
+            String line;
+            while ((line = br.readLine()) != null) {
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#")) continue;
+                if (t.startsWith("- hashes:")) {
+                    addRows(rows, pool, pendingHashes, curSerial, curName);
+                    pendingHashes.clear();
+                    curSerial = null;
+                    curName = null;
+                    pendingMd5 = null;
+                    continue;
+                }
+                if (t.startsWith("- md5:") || t.startsWith("md5:")) {
+                    pendingMd5 = valueOf(t);
+                    continue;
+                }
+                if (t.startsWith("size:")) {
+                    String pendingSize = valueOf(t);
+                    if (pendingMd5 != null && pendingSize != null) {
+                        pendingHashes.add(new String[]{pendingMd5, pendingSize});
+                        pendingMd5 = null;
+                    }
+                    continue;
+                }
+                if (t.startsWith("serial:")) {
+                    curSerial = valueOf(t);
+                    continue;
+                }
+                if (t.startsWith("name:")) {
+                    curName = valueOf(t);
+                }
+            }
+            addRows(rows, pool, pendingHashes, curSerial, curName);
+        }
+        Collections.sort(rows, (a, b) -> {
+            for (int i = 0; i < 16; i++) {
+                int c = (a.md5[i] & 0xFF) - (b.md5[i] & 0xFF);
+                if (c != 0) return c;
+            }
+            return Long.compare(a.size, b.size);
+        });
+
+        int poolOffset = HEADER_SIZE + rows.size() * RECORD_SIZE;
+        ByteBuffer out = ByteBuffer.allocate(poolOffset + pool.bytes.size()).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(fingerprint).putInt(rows.size()).putInt(poolOffset);
+        for (Row row : rows) {
+            out.put(row.md5).putLong(row.size).putInt(row.serial).putInt(row.name);
+        }
+        out.put(pool.bytes.toByteArray());
+        GameLibraryIndex.writeAtomically(indexFile, out.array());
+    }
+
+    private static void addRows(List<Row> rows, Pool pool, List<String[]> hashes,
+                                @Nullable String serial, @Nullable String name) {
+        if (TextUtils.isEmpty(serial) || hashes.isEmpty()) {
+            return;
+        }
+        int serialOffset = pool.intern(serial);
+        int nameOffset = pool.intern(name != null ? name : serial);
+        for (String[] hash : hashes) {
+            byte[] md5 = parseMd5(hash[0]);
+            if (md5 == null) continue;
+            try {
+                rows.add(new Row(md5, Long.parseLong(hash[1]), serialOffset, nameOffset));
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    private static InputStream openSource(Context context) throws IOException {
+        File external = externalSource(context);
+        if (external.isFile()) {
+            return new FileInputStream(external);
+        }
+        return context.getAssets().open(ASSET_PATH);
+    }
+
+    @Nullable
+    private static String valueOf(String line) {
+        int idx = line.indexOf(':');
+        return idx >= 0 ? line.substring(idx + 1).trim() : null;
+    }
+
+    @Nullable
+    private static byte[] parseMd5(@Nullable String hex) {
+        if (hex == null) {
+            return null;
+        }
+        String s = hex.trim();
+        if (s.length() != 32) {
+            return null;
+        }
+        byte[] out = new byte[16];
+        for (int i = 0; i < 16; i++) {
+            int hi = Character.digit(s.charAt(i * 2), 16);
+            int lo = Character.digit(s.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+}
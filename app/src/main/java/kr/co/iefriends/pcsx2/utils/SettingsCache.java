@@ -0,0 +1,330 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of native settings. A value is fetched from native the first time it is asked
+ * for and served from memory afterwards, so building the settings screen or opening the drawer does
+ * not cross JNI per widget. Writes update the cache immediately and reach native in coalesced
+ * batches shortly after; {@link #flush()} forces them out, e.g. before the VM boots. Listeners
+ * registered per key are told about every change, including values written by a
+ * {@link NativeSettings.Transaction}, on the main thread unless another dispatcher is set with
+ * {@link #setDispatcher}.
+ *
+ * <p>Native code can also change settings on its own (the in-game menu, a data root reload), so
+ * callers drop the cache with {@link #invalidate()} at those points.
+ */
+public final class SettingsCache {
+    private static final String TAG = "SettingsCache";
+    private static final long FLUSH_DELAY_MS = 150L;
+
+    /** Where values are read from and written to; native unless replaced with {@link #setBackend}. */
+    public interface Backend {
+        /** Values parallel to {@code keys}, or null if they could not be read. */
+        @Nullable
+        String[] read(NativeSettings.Key[] keys);
+
+        boolean write(NativeSettings.Key[] keys, String[] values);
+    }
+
+    public interface Listener {
+        void onSettingChanged(NativeSettings.Key key, String value);
+    }
+
+    private static final Backend NATIVE_BACKEND = new Backend() {
+        @Nullable
+        @Override
+        public String[] read(NativeSettings.Key[] keys) {
+            return NativeSettings.readNow(keys);
+        }
+
+        @Override
+        public boolean write(NativeSettings.Key[] keys, String[] values) {
+            return NativeSettings.writeNow(keys, values);
+        }
+    };
+
+    private static final Object LOCK = new Object();
+    /** Held while writing to the backend, so batches reach native in the order they were made. */
+    private static final Object WRITE_LOCK = new Object();
+    private static final Map<NativeSettings.Key, String> sValues = new HashMap<>();
+    private static final LinkedHashMap<NativeSettings.Key, String> sPending = new LinkedHashMap<>();
+    private static final Map<NativeSettings.Key, List<Listener>> sListeners = new HashMap<>();
+    private static Backend sBackend = NATIVE_BACKEND;
+    @Nullable
+    private static ScheduledFuture<?> sFlush = null;
+    private static final ScheduledExecutorService sWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SettingsWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    @Nullable
+    private static Handler sMainHandler = null;
+    @Nullable
+    private static Executor sDispatcher = null;
+
+    private SettingsCache() {
+    }
+
+    /** Replaces the native backend, e.g. with an in-memory one; the cache is cleared. */
+    public static void setBackend(@Nullable Backend backend) {
+        synchronized (WRITE_LOCK) {
+            synchronized (LOCK) {
+                sBackend = backend != null ? backend : NATIVE_BACKEND;
+                sValues.clear();
+                sPending.clear();
+                if (sFlush != null) {
+                    sFlush.cancel(false);
+                    sFlush = null;
+                }
+            }
+        }
+    }
+
+    /** Runs listener callbacks on {@code dispatcher} instead of the main thread; null restores the default. */
+    public static void setDispatcher(@Nullable Executor dispatcher) {
+        synchronized (LOCK) {
+            sDispatcher = dispatcher;
+        }
+    }
+
+    /** Loads every key in {@code keys} that isn't cached yet, in one backend read. */
+    public static void preload(NativeSettings.Key... keys) {
+        List<NativeSettings.Key> missing = new ArrayList<>();
+        Backend backend;
+        synchronized (LOCK) {
+            for (NativeSettings.Key key : keys) {
+                if (!sValues.containsKey(key) && !missing.contains(key)) missing.add(key);
+            }
+            backend = sBackend;
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        NativeSettings.Key[] toRead = missing.toArray(new NativeSettings.Key[0]);
+        String[] values = backend.read(toRead);
+        if (values == null || values.length != toRead.length) {
+            return;
+        }
+        synchronized (LOCK) {
+            for (int i = 0; i < toRead.length; i++) {
+                // A write that raced the read wins
+                if (values[i] != null && !sValues.containsKey(toRead[i])) {
+                    sValues.put(toRead[i], values[i]);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    public static String get(NativeSettings.Key key) {
+        synchronized (LOCK) {
+            String value = sValues.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        preload(key);
+        synchronized (LOCK) {
+            return sValues.get(key);
+        }
+    }
+
+    public static boolean getBool(NativeSettings.Key key, boolean defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return "1".equals(value) || "true".equalsIgnoreCase(value);
+    }
+
+    public static int getInt(NativeSettings.Key key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static float getFloat(NativeSettings.Key key, float defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /** Updates the cached value and queues it for native; listeners hear about it right away. */
+    public static void set(NativeSettings.Key key, @Nullable String value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (LOCK) {
+            if (value.equals(sValues.get(key)) && !sPending.containsKey(key)) {
+                return;
+            }
+            sValues.put(key, value);
+            sPending.remove(key);
+            sPending.put(key, value);
+            if (sFlush == null) {
+                sFlush = sWriter.schedule(SettingsCache::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        notifyChanged(key, value);
+    }
+
+    public static void setBool(NativeSettings.Key key, boolean value) {
+        set(key, value ? "true" : "false");
+    }
+
+    public static void setInt(NativeSettings.Key key, int value) {
+        set(key, Integer.toString(value));
+    }
+
+    public static void setFloat(NativeSettings.Key key, float value) {
+        set(key, Float.toString(value));
+    }
+
+    /**
+     * Records a value native already holds, e.g. after a dedicated setter such as
+     * {@code NativeApp.setEnableCheats}. Nothing is written back; a queued write for the key is dropped.
+     */
+    public static void noteNativeValue(NativeSettings.Key key, String value) {
+        synchronized (LOCK) {
+            sPending.remove(key);
+            if (value.equals(sValues.put(key, value))) {
+                return;
+            }
+        }
+        notifyChanged(key, value);
+    }
+
+    /** Writes every queued value to native now, in one batch. */
+    public static void flush() {
+        synchronized (WRITE_LOCK) {
+            flushLocked();
+        }
+    }
+
+    /**
+     * Writes {@code keys} synchronously, after anything already queued, and records the values.
+     * Used by {@link NativeSettings.Transaction#commit()}.
+     */
+    static boolean commit(NativeSettings.Key[] keys, String[] values) {
+        boolean written;
+        synchronized (WRITE_LOCK) {
+            flushLocked();
+            Backend backend;
+            synchronized (LOCK) {
+                backend = sBackend;
+            }
+            written = backend.write(keys, values);
+        }
+        if (written) {
+            for (int i = 0; i < keys.length; i++) {
+                noteNativeValue(keys[i], values[i]);
+            }
+        }
+        return written;
+    }
+
+    private static void flushLocked() {
+        NativeSettings.Key[] keys;
+        String[] values;
+        Backend backend;
+        synchronized (LOCK) {
+            sFlush = null;
+            if (sPending.isEmpty()) {
+                return;
+            }
+            keys = sPending.keySet().toArray(new NativeSettings.Key[0]);
+            values = sPending.values().toArray(new String[0]);
+            sPending.clear();
+            backend = sBackend;
+        }
+        if (!backend.write(keys, values)) {
+            try { DebugLog.w(TAG, "Dropped " + keys.length + " setting write(s); native unavailable"); } catch (Throwable ignored) {}
+        }
+    }
+
+    /** Forgets cached values so the next reads go to native; queued writes are kept. */
+    public static void invalidate() {
+        synchronized (LOCK) {
+            sValues.keySet().retainAll(sPending.keySet());
+        }
+    }
+
+    public static void addListener(NativeSettings.Key key, Listener listener) {
+        synchronized (LOCK) {
+            List<Listener> list = sListeners.get(key);
+            if (list == null) {
+                list = new CopyOnWriteArrayList<>();
+                sListeners.put(key, list);
+            }
+            if (!list.contains(listener)) list.add(listener);
+        }
+    }
+
+    public static void removeListener(NativeSettings.Key key, Listener listener) {
+        synchronized (LOCK) {
+            List<Listener> list = sListeners.get(key);
+            if (list != null) {
+                list.remove(listener);
+                if (list.isEmpty()) sListeners.remove(key);
+            }
+        }
+    }
+
+    private static void notifyChanged(NativeSettings.Key key, String value) {
+        final List<Listener> list;
+        final Executor dispatcher;
+        synchronized (LOCK) {
+            list = sListeners.get(key);
+            dispatcher = sDispatcher;
+        }
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        Runnable dispatch = () -> {
+            for (Listener listener : list) {
+                try { listener.onSettingChanged(key, value); } catch (Throwable ignored) {}
+            }
+        };
+        if (dispatcher != null) {
+            dispatcher.execute(dispatch);
+            return;
+        }
+        Looper main = Looper.getMainLooper();
+        if (main == null || Looper.myLooper() == main) {
+            dispatch.run();
+            return;
+        }
+        synchronized (LOCK) {
+            if (sMainHandler == null) sMainHandler = new Handler(main);
+        }
+        sMainHandler.post(dispatch);
+    }
+}
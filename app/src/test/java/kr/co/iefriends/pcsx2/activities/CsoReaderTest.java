@@ -0,0 +1,215 @@
+package kr.co.iefriends.pcsx2.activities;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+import kr.co.iefriends.pcsx2.utils.ImageFile;
+
+public class CsoReaderTest {
+    private static final int BLOCK = 2048;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Mixed content: incompressible noise, runs of one byte and repeated text, so blocks compress differently. */
+    private static byte[] content(int length, long seed) {
+        byte[] data = new byte[length];
+        Random random = new Random(seed);
+        byte[] text = "BOOT2 = cdrom0:\\SLUS_123.45;1\r\n".getBytes(StandardCharsets.US_ASCII);
+        int at = 0;
+        while (at < length) {
+            int run = Math.min(length - at, 100 + random.nextInt(3000));
+            switch (random.nextInt(3)) {
+                case 0:
+                    for (int i = 0; i < run; i++) data[at + i] = (byte) random.nextInt();
+                    break;
+                case 1:
+                    Arrays.fill(data, at, at + run, (byte) random.nextInt());
+                    break;
+                default:
+                    for (int i = 0; i < run; i++) data[at + i] = text[i % text.length];
+                    break;
+            }
+            at += run;
+        }
+        return data;
+    }
+
+    private MainActivity.CsoUtils.CsoReader open(byte[] container) throws IOException {
+        File file = DiscImages.write(folder.getRoot(), "image", container);
+        MainActivity.CsoUtils.CsoReader reader = MainActivity.CsoUtils.CsoReader.open(ImageFile.open(file));
+        assertNotNull(reader);
+        return reader;
+    }
+
+    private static byte[] readAll(MainActivity.CsoUtils.CsoReader reader) throws IOException {
+        byte[] out = reader.readRange(0, (int) reader.getUncompressedSize());
+        assertNotNull(out);
+        return out;
+    }
+
+    private static byte[] lz4Decode(byte[] block, int length) {
+        byte[] out = new byte[length];
+        assertEquals(length, MainActivity.CsoUtils.Lz4.decompress(block, block.length, out, length));
+        return out;
+    }
+
+    @Test
+    public void lz4DecodesHandWrittenBlocks() {
+        // "abc" then a match of 9 at offset 3, overlapping its own output
+        assertArrayEquals("abcabcabcabc".getBytes(StandardCharsets.US_ASCII),
+                lz4Decode(new byte[]{0x35, 'a', 'b', 'c', 3, 0}, 12));
+        // One literal repeated by an offset-1 match
+        assertArrayEquals("aaaaaaaa".getBytes(StandardCharsets.US_ASCII),
+                lz4Decode(new byte[]{0x13, 'a', 1, 0}, 8));
+        // 20 literals need an extra length byte; a final sequence is literals only
+        byte[] literals = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        block.write(0xF0);
+        block.write(literals.length - 15);
+        block.write(literals, 0, literals.length);
+        assertArrayEquals(literals, lz4Decode(block.toByteArray(), literals.length));
+        // Match length 4 + 15 + 10 via an extra length byte
+        byte[] longMatch = new byte[30];
+        Arrays.fill(longMatch, (byte) 'z');
+        assertArrayEquals(longMatch, lz4Decode(new byte[]{0x1F, 'z', 1, 0, 10}, 30));
+    }
+
+    @Test
+    public void lz4RejectsMalformedBlocks() {
+        byte[] out = new byte[16];
+        // Offset 0, and an offset reaching before the start of the output
+        assertEquals(-1, MainActivity.CsoUtils.Lz4.decompress(new byte[]{0x10, 'a', 0, 0}, 4, out, 16));
+        assertEquals(-1, MainActivity.CsoUtils.Lz4.decompress(new byte[]{0x10, 'a', 2, 0}, 4, out, 16));
+        // Literal run longer than the block
+        assertEquals(-1, MainActivity.CsoUtils.Lz4.decompress(new byte[]{0x50, 'a', 'b'}, 3, out, 16));
+    }
+
+    @Test
+    public void lz4RoundTripsEncodedBlocks() {
+        for (long seed = 0; seed < 20; seed++) {
+            byte[] data = content(BLOCK * 4, seed);
+            byte[] packed = DiscImages.lz4(data, 0, data.length);
+            assertArrayEquals(data, lz4Decode(packed, data.length));
+        }
+    }
+
+    @Test
+    public void csoRoundTrips() throws IOException {
+        byte[] data = content(BLOCK * 37, 1);
+        try (MainActivity.CsoUtils.CsoReader reader = open(DiscImages.cso(data, BLOCK))) {
+            assertEquals(data.length, reader.getUncompressedSize());
+            assertArrayEquals(data, readAll(reader));
+        }
+    }
+
+    @Test
+    public void zsoRoundTrips() throws IOException {
+        byte[] data = content(BLOCK * 37, 2);
+        try (MainActivity.CsoUtils.CsoReader reader = open(DiscImages.zso(data, BLOCK))) {
+            assertArrayEquals(data, readAll(reader));
+        }
+    }
+
+    @Test
+    public void uncompressedBlocksAreCopied() throws IOException {
+        byte[] data = content(BLOCK * 12, 3);
+        HashSet<Integer> plain = new HashSet<>(Arrays.asList(0, 5, 11));
+        for (boolean lz4 : new boolean[]{false, true}) {
+            try (MainActivity.CsoUtils.CsoReader reader = open(DiscImages.compressed(data, BLOCK, lz4, plain))) {
+                assertArrayEquals(data, readAll(reader));
+            }
+        }
+    }
+
+    @Test
+    public void shortLastBlock() throws IOException {
+        byte[] data = content(BLOCK * 9 + 777, 4);
+        for (boolean lz4 : new boolean[]{false, true}) {
+            for (boolean plainLast : new boolean[]{false, true}) {
+                byte[] container = DiscImages.compressed(data, BLOCK, lz4,
+                        plainLast ? Collections.singleton(9) : Collections.emptySet());
+                try (MainActivity.CsoUtils.CsoReader reader = open(container)) {
+                    assertArrayEquals(data, readAll(reader));
+                    byte[] tail = reader.readRange(BLOCK * 9L + 700, 1000);
+                    assertArrayEquals(Arrays.copyOfRange(data, BLOCK * 9 + 700, data.length), tail);
+                    assertNull(reader.readRange(data.length, 10));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shortInflatedBlockIsZeroFilledInRecycledCacheArrays() throws IOException {
+        byte[] data = content(BLOCK * 20, 5);
+        // Block 15 inflates to only its first half
+        byte[] half = DiscImages.deflate(data, BLOCK * 15, BLOCK / 2);
+        byte[] container = DiscImages.compressed(data, BLOCK, false, Collections.emptySet(),
+                Collections.singletonMap(15, half));
+        try (MainActivity.CsoUtils.CsoReader reader = open(container)) {
+            // Fill and cycle the block cache first, so block 15 lands in an array that held another block
+            for (int b = 0; b < 15; b++) {
+                assertArrayEquals(Arrays.copyOfRange(data, b * BLOCK, (b + 1) * BLOCK), reader.readRange((long) b * BLOCK, BLOCK));
+            }
+            byte[] block = reader.readRange(15L * BLOCK, BLOCK);
+            assertArrayEquals(Arrays.copyOfRange(data, 15 * BLOCK, 15 * BLOCK + BLOCK / 2), Arrays.copyOf(block, BLOCK / 2));
+            assertArrayEquals(new byte[BLOCK / 2], Arrays.copyOfRange(block, BLOCK / 2, BLOCK));
+            // Neighbours are unaffected
+            assertArrayEquals(Arrays.copyOfRange(data, 16 * BLOCK, 17 * BLOCK), reader.readRange(16L * BLOCK, BLOCK));
+        }
+    }
+
+    @Test
+    public void channelReadsSpanBlockBoundaries() throws IOException {
+        byte[] data = content(BLOCK * 30 + 123, 6);
+        for (boolean lz4 : new boolean[]{false, true}) {
+            byte[] container = DiscImages.compressed(data, BLOCK, lz4, Collections.singleton(7));
+            try (MainActivity.CsoUtils.CsoChannel channel = new MainActivity.CsoUtils.CsoChannel(open(container))) {
+                assertEquals(data.length, channel.size());
+                Random random = new Random(7);
+                for (int i = 0; i < 200; i++) {
+                    int position = random.nextInt(data.length);
+                    int length = 1 + random.nextInt(5 * BLOCK);
+                    ByteBuffer dst = ByteBuffer.allocate(length);
+                    int read = channel.position(position).read(dst);
+                    int expected = Math.min(length, data.length - position);
+                    assertEquals(expected, read);
+                    assertEquals(position + expected, channel.position());
+                    assertArrayEquals(Arrays.copyOfRange(data, position, position + expected), Arrays.copyOf(dst.array(), read));
+                }
+                channel.position(data.length);
+                assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+            }
+        }
+    }
+
+    @Test
+    public void channelStreamsTheWholeImage() throws IOException {
+        byte[] data = content(BLOCK * 50 + 9, 8);
+        try (InputStream in = Channels.newInputStream(new MainActivity.CsoUtils.CsoChannel(open(DiscImages.zso(data, BLOCK))))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[3000];
+            int r;
+            while ((r = in.read(buffer)) != -1) out.write(buffer, 0, r);
+            assertArrayEquals(data, out.toByteArray());
+        }
+    }
+}
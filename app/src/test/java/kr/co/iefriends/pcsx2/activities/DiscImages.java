@@ -0,0 +1,208 @@
+package kr.co.iefriends.pcsx2.activities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/** Tiny synthetic disc images in the formats the serial resolver reads. */
+final class DiscImages {
+    static final int SECTOR = 2048;
+    static final int RAW_SECTOR = 2352;
+    static final String SYSTEM_CNF = "BOOT2 = cdrom0:\\SLUS_123.45;1\r\nVER = 1.00\r\nVMODE = NTSC\r\n";
+    static final String SERIAL = "SLUS-12345";
+
+    private static final int PVD_LBA = 16;
+    private static final int ROOT_LBA = 20;
+    private static final int CNF_LBA = 21;
+
+    private DiscImages() {
+    }
+
+    /**
+     * A cooked ISO9660 image of {@code sectors} 2048-byte sectors: a primary volume descriptor, a root
+     * directory holding only SYSTEM.CNF, and {@code systemCnf} as its contents.
+     */
+    static byte[] iso(String systemCnf, int sectors) {
+        byte[] image = new byte[Math.max(sectors, CNF_LBA + 1) * SECTOR];
+        ByteBuffer pvd = ByteBuffer.wrap(image, PVD_LBA * SECTOR, SECTOR).slice().order(ByteOrder.LITTLE_ENDIAN);
+        pvd.put(0, (byte) 1);
+        pvd.position(1);
+        pvd.put("CD001".getBytes(StandardCharsets.US_ASCII));
+        pvd.put(6, (byte) 1);
+        directoryRecord(pvd, 156, ROOT_LBA, SECTOR, new byte[]{0}, true);
+
+        byte[] cnf = systemCnf.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer root = ByteBuffer.wrap(image, ROOT_LBA * SECTOR, SECTOR).slice().order(ByteOrder.LITTLE_ENDIAN);
+        int at = directoryRecord(root, 0, ROOT_LBA, SECTOR, new byte[]{0}, true);
+        at = directoryRecord(root, at, ROOT_LBA, SECTOR, new byte[]{1}, true);
+        directoryRecord(root, at, CNF_LBA, cnf.length, "SYSTEM.CNF;1".getBytes(StandardCharsets.US_ASCII), false);
+        System.arraycopy(cnf, 0, image, CNF_LBA * SECTOR, cnf.length);
+        return image;
+    }
+
+    private static int directoryRecord(ByteBuffer dir, int at, int lba, int size, byte[] name, boolean directory) {
+        int length = 33 + name.length + ((name.length & 1) == 0 ? 1 : 0);
+        dir.put(at, (byte) length);
+        dir.putInt(at + 2, lba);
+        dir.putInt(at + 10, size);
+        dir.put(at + 25, (byte) (directory ? 2 : 0));
+        dir.put(at + 32, (byte) name.length);
+        for (int i = 0; i < name.length; i++) dir.put(at + 33 + i, name[i]);
+        return at + length;
+    }
+
+    /** Wraps a cooked image into raw 2352-byte sectors: Mode 1 (data at 16) or Mode 2 form 1 (data at 24). */
+    static byte[] rawBin(byte[] cooked, int mode) {
+        int sectors = cooked.length / SECTOR;
+        int dataOffset = mode == 1 ? 16 : 24;
+        byte[] raw = new byte[sectors * RAW_SECTOR];
+        for (int i = 0; i < sectors; i++) {
+            int base = i * RAW_SECTOR;
+            Arrays.fill(raw, base + 1, base + 11, (byte) 0xFF);
+            int lba = i + 150;
+            raw[base + 12] = bcd(lba / 75 / 60);
+            raw[base + 13] = bcd(lba / 75 % 60);
+            raw[base + 14] = bcd(lba % 75);
+            raw[base + 15] = (byte) mode;
+            System.arraycopy(cooked, i * SECTOR, raw, base + dataOffset, SECTOR);
+            // EDC/ECC are left zero; nothing here checks them
+        }
+        return raw;
+    }
+
+    private static byte bcd(int value) {
+        return (byte) (((value / 10) << 4) | (value % 10));
+    }
+
+    static byte[] cso(byte[] data, int blockSize) throws IOException {
+        return compressed(data, blockSize, false, Collections.emptySet());
+    }
+
+    static byte[] zso(byte[] data, int blockSize) throws IOException {
+        return compressed(data, blockSize, true, Collections.emptySet());
+    }
+
+    /**
+     * A CSO (raw deflate) or ZSO (LZ4) container of {@code data}. Blocks in {@code plainBlocks}, and
+     * blocks that don't shrink, are stored as-is with the top index bit set.
+     */
+    static byte[] compressed(byte[] data, int blockSize, boolean lz4, Set<Integer> plainBlocks) throws IOException {
+        return compressed(data, blockSize, lz4, plainBlocks, Collections.emptyMap());
+    }
+
+    /** As above, with the stored bytes of the blocks in {@code storedBlocks} replaced, e.g. by truncated streams. */
+    static byte[] compressed(byte[] data, int blockSize, boolean lz4, Set<Integer> plainBlocks,
+                             Map<Integer, byte[]> storedBlocks) throws IOException {
+        int blocks = (data.length + blockSize - 1) / blockSize;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int headerSize = 0x18 + (blocks + 1) * 4;
+        int[] index = new int[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            int from = b * blockSize;
+            int length = Math.min(blockSize, data.length - from);
+            byte[] packed = storedBlocks.get(b);
+            boolean plain = false;
+            if (packed == null) {
+                packed = lz4 ? lz4(data, from, length) : deflate(data, from, length);
+                plain = plainBlocks.contains(b) || packed.length >= length;
+            }
+            index[b] = (headerSize + body.size()) | (plain ? 0x80000000 : 0);
+            body.write(plain ? Arrays.copyOfRange(data, from, from + length) : packed);
+        }
+        index[blocks] = headerSize + body.size();
+        ByteBuffer out = ByteBuffer.allocate(headerSize + body.size()).order(ByteOrder.LITTLE_ENDIAN);
+        out.put((lz4 ? "ZISO" : "CISO").getBytes(StandardCharsets.US_ASCII));
+        out.putInt(0x18);
+        out.putLong(data.length);
+        out.putInt(blockSize);
+        out.put((byte) 1);
+        out.put((byte) 0); // no index alignment
+        out.put((byte) 0);
+        out.put((byte) 0);
+        for (int entry : index) out.putInt(entry);
+        out.put(body.toByteArray());
+        return out.array();
+    }
+
+    static byte[] deflate(byte[] data, int from, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setInput(data, from, length);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /** Greedy LZ4 block encoder following the format's end-of-block rules. */
+    static byte[] lz4(byte[] src, int from, int length) {
+        final int end = from + length;
+        final int matchLimit = end - 12;
+        final int lastLiterals = end - 5;
+        int[] table = new int[1 << 12];
+        Arrays.fill(table, -1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int anchor = from;
+        int i = from;
+        while (i < matchLimit) {
+            int sequence = readInt(src, i);
+            int h = (sequence * -1640531535) >>> 20;
+            int ref = table[h];
+            table[h] = i;
+            if (ref < 0 || i - ref > 0xFFFF || readInt(src, ref) != sequence) {
+                i++;
+                continue;
+            }
+            int match = 4;
+            while (i + match < lastLiterals && src[ref + match] == src[i + match]) match++;
+            writeSequence(out, src, anchor, i - anchor, i - ref, match);
+            i += match;
+            anchor = i;
+        }
+        writeSequence(out, src, anchor, end - anchor, 0, 0);
+        return out.toByteArray();
+    }
+
+    private static void writeSequence(ByteArrayOutputStream out, byte[] src, int literalsFrom, int literals, int offset, int match) {
+        int matchCode = match > 0 ? match - 4 : 0;
+        out.write((Math.min(literals, 15) << 4) | Math.min(matchCode, 15));
+        if (literals >= 15) writeLength(out, literals - 15);
+        out.write(src, literalsFrom, literals);
+        if (match == 0) {
+            return;
+        }
+        out.write(offset & 0xFF);
+        out.write(offset >>> 8);
+        if (matchCode >= 15) writeLength(out, matchCode - 15);
+    }
+
+    private static void writeLength(ByteArrayOutputStream out, int remaining) {
+        while (remaining >= 255) {
+            out.write(255);
+            remaining -= 255;
+        }
+        out.write(remaining);
+    }
+
+    private static int readInt(byte[] a, int i) {
+        return (a[i] & 0xFF) | ((a[i + 1] & 0xFF) << 8) | ((a[i + 2] & 0xFF) << 16) | ((a[i + 3] & 0xFF) << 24);
+    }
+
+    static File write(File dir, String name, byte[] data) throws IOException {
+        File file = new File(dir, name);
+        Files.write(file.toPath(), data);
+        return file;
+    }
+}
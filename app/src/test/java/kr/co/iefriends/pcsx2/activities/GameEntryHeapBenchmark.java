@@ -0,0 +1,89 @@
+package kr.co.iefriends.pcsx2.activities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import kr.co.iefriends.pcsx2.utils.GameLibraryIndex;
+
+/**
+ * Retained heap of a 10,000-entry library, measured as used-heap deltas: the library index records
+ * (kept for the whole session), the entries built from them (which share the records' strings), and
+ * the document Uri strings the lazy per-entry key holds once an entry has been bound or prefetched.
+ */
+public class GameEntryHeapBenchmark {
+    private static final int ENTRIES = 10_000;
+    private static final String TREE = "content://com.android.externalstorage.documents/tree/primary%3AGames%2FPS2";
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Several collections, keeping the lowest reading, so garbage from earlier work doesn't count
+        for (int i = 0; i < 6; i++) {
+            System.gc();
+            Thread.sleep(30);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static String displayName(int i) {
+        return String.format(Locale.US, "Game Title Number %05d (USA) (En,Fr,De).iso", i);
+    }
+
+    private static String documentId(int i) {
+        return "primary:Games/PS2/" + displayName(i);
+    }
+
+    @Test
+    public void retainedHeapOf10000Entries() throws InterruptedException {
+        long before = usedHeap();
+        List<GameLibraryIndex.FileRecord> records = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            GameLibraryIndex.FileRecord record = new GameLibraryIndex.FileRecord(documentId(i), displayName(i),
+                    4_700_000_000L, 1_700_000_000_000L + i, "iso");
+            record.serial = String.format(Locale.US, "SLUS-%05d", 20000 + i);
+            record.title = String.format(Locale.US, "Game Title Number %05d", i);
+            records.add(record);
+        }
+        long withRecords = usedHeap();
+
+        // As GameScanner.entryFromRecord builds them
+        List<MainActivity.GameEntry> entries = new ArrayList<>(ENTRIES);
+        for (GameLibraryIndex.FileRecord record : records) {
+            MainActivity.GameEntry e = new MainActivity.GameEntry(record.displayName, null, record.documentId);
+            e.size = record.size;
+            e.lastModified = record.lastModified;
+            e.serial = record.serial;
+            e.gameTitle = record.title;
+            entries.add(e);
+        }
+        long withEntries = usedHeap();
+
+        // What each entry kept before the key became lazy: its full document Uri string
+        List<String> uriStrings = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            uriStrings.add(TREE + "/document/" + documentId(i).replace(":", "%3A").replace("/", "%2F").replace(" ", "%20"));
+        }
+        long withUris = usedHeap();
+
+        double perRecord = (withRecords - before) / (double) ENTRIES;
+        double perEntry = (withEntries - withRecords) / (double) ENTRIES;
+        double perUri = (withUris - withEntries) / (double) ENTRIES;
+        System.out.printf(Locale.US, "%d games: index records %.0f KB (%.0f B each), entries on top %.0f KB (%.0f B each), "
+                        + "document keys once built %.0f KB (%.0f B each)%n",
+                ENTRIES, (withRecords - before) / 1024.0, perRecord, (withEntries - withRecords) / 1024.0, perEntry,
+                (withUris - withEntries) / 1024.0, perUri);
+        assertEquals(ENTRIES, records.size());
+        assertEquals(ENTRIES, entries.size());
+        assertEquals(ENTRIES, uriStrings.size());
+        // Entries share their strings with the records, so they cost little more than their own object
+        assertTrue("entries copy record data: " + perEntry + " B each", perEntry < 128);
+        assertTrue("records measured smaller than their strings: " + perRecord + " B each", perRecord > 200);
+    }
+}
@@ -0,0 +1,173 @@
+package kr.co.iefriends.pcsx2.activities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+import android.provider.DocumentsContract;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kr.co.iefriends.pcsx2.utils.GameLibraryIndex;
+
+/**
+ * Walks a fake documents provider that sleeps on every directory listing, like a binder round trip,
+ * once on a single thread (the old recursive descent) and once on the scanner's pool.
+ */
+public class GameScannerBenchmark {
+    private static final long LISTING_LATENCY_MS = 8;
+    private static final int TOP_DIRS = 8;
+    private static final int SUB_DIRS = 4;
+    private static final int FILES_PER_DIR = 5;
+
+    /** Directory tree of child rows: document id, display name, MIME type, size, last modified. */
+    private static final class FakeProvider implements MainActivity.GameScanner.ChildLister {
+        final Map<String, List<Object[]>> children = new HashMap<>();
+        final AtomicInteger listings = new AtomicInteger();
+        int files;
+
+        FakeProvider() {
+            for (int d = 0; d < TOP_DIRS; d++) {
+                String dir = "root/" + d;
+                addDir("root", dir);
+                for (int s = 0; s < SUB_DIRS; s++) {
+                    String sub = dir + "/" + s;
+                    addDir(dir, sub);
+                    for (int f = 0; f < FILES_PER_DIR; f++) {
+                        int n = files++;
+                        add(sub, new Object[]{sub + "/" + f, String.format(Locale.US, "Game %d (SLUS-%05d).iso", n, 20000 + n),
+                                "application/octet-stream", 1L << 30, 1000L + n});
+                    }
+                    add(sub, new Object[]{sub + "/readme", "readme.txt", "text/plain", 10L, 1L});
+                }
+            }
+        }
+
+        private void addDir(String parent, String dir) {
+            add(parent, new Object[]{dir, dir.substring(dir.lastIndexOf('/') + 1), DocumentsContract.Document.MIME_TYPE_DIR, null, 1L});
+            children.put(dir, new ArrayList<>());
+        }
+
+        private void add(String parent, Object[] row) {
+            children.computeIfAbsent(parent, k -> new ArrayList<>()).add(row);
+        }
+
+        int directories() {
+            return children.size();
+        }
+
+        @Override
+        public Cursor listChildren(String parentDocId) {
+            listings.incrementAndGet();
+            try {
+                Thread.sleep(LISTING_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Object[]> rows = children.get(parentDocId);
+            return rows != null ? cursor(rows) : null;
+        }
+    }
+
+    /** The few Cursor methods the scanner uses, over a list of rows. */
+    private static Cursor cursor(List<Object[]> rows) {
+        int[] position = {-1};
+        return (Cursor) Proxy.newProxyInstance(Cursor.class.getClassLoader(), new Class<?>[]{Cursor.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "moveToNext":
+                    return ++position[0] < rows.size();
+                case "moveToFirst":
+                    position[0] = 0;
+                    return !rows.isEmpty();
+                case "isNull":
+                    return rows.get(position[0])[(Integer) args[0]] == null;
+                case "getString":
+                    return (String) rows.get(position[0])[(Integer) args[0]];
+                case "getLong":
+                    return (Long) rows.get(position[0])[(Integer) args[0]];
+                case "getCount":
+                    return rows.size();
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static MainActivity.GameScanner.ScanState state(FakeProvider provider, List<MainActivity.GameEntry> out,
+                                                              MainActivity.GameScanner.ScanSession session,
+                                                              MainActivity.GameScanner.ScanListener listener) {
+        return new MainActivity.GameScanner.ScanState(null, provider, null, null,
+                new GameLibraryIndex.RootIndex("root"), out, session, listener, 3);
+    }
+
+    private static long walk(ForkJoinPool pool, FakeProvider provider, List<MainActivity.GameEntry> out) {
+        long start = System.nanoTime();
+        MainActivity.GameScanner.walk(pool, state(provider, out, null, null), "root", 1L);
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    @Test
+    public void parallelWalkHidesListingLatency() {
+        FakeProvider provider = new FakeProvider();
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(MainActivity.GameScanner.SCAN_PARALLELISM);
+        try {
+            // Warm up class loading and the pools
+            walk(sequential, provider, Collections.synchronizedList(new ArrayList<>()));
+            walk(parallel, provider, Collections.synchronizedList(new ArrayList<>()));
+
+            List<MainActivity.GameEntry> one = Collections.synchronizedList(new ArrayList<>());
+            List<MainActivity.GameEntry> many = Collections.synchronizedList(new ArrayList<>());
+            long sequentialMs = walk(sequential, provider, one);
+            long parallelMs = walk(parallel, provider, many);
+            System.out.printf(Locale.US, "Scan of %d directories, %d games, %d ms per listing: sequential %d ms, %d threads %d ms (%.1fx)%n",
+                    provider.directories(), provider.files, LISTING_LATENCY_MS, sequentialMs,
+                    MainActivity.GameScanner.SCAN_PARALLELISM, parallelMs, sequentialMs / (double) Math.max(1, parallelMs));
+
+            assertEquals(provider.files, one.size());
+            assertEquals(provider.files, many.size());
+            Set<String> serials = new HashSet<>();
+            for (MainActivity.GameEntry e : many) serials.add(e.serial);
+            assertEquals(provider.files, serials.size());
+            assertTrue("parallel walk took " + parallelMs + " ms against " + sequentialMs + " ms",
+                    parallelMs * 2 <= sequentialMs);
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelledWalkStopsListing() {
+        FakeProvider provider = new FakeProvider();
+        MainActivity.GameScanner.ScanSession session = new MainActivity.GameScanner.ScanSession();
+        List<MainActivity.GameEntry> out = Collections.synchronizedList(new ArrayList<>());
+        List<MainActivity.GameEntry> streamed = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(MainActivity.GameScanner.SCAN_PARALLELISM);
+        try {
+            MainActivity.GameScanner.walk(pool, state(provider, out, session, batch -> {
+                streamed.addAll(batch);
+                session.cancel();
+            }), "root", 1L);
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(provider.listings.get() < provider.directories());
+        assertTrue(out.size() < provider.files);
+        assertEquals(out.size(), streamed.size());
+    }
+}
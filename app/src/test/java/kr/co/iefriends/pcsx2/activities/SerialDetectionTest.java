@@ -0,0 +1,147 @@
+package kr.co.iefriends.pcsx2.activities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import kr.co.iefriends.pcsx2.utils.ImageFile;
+
+/** Serial resolution through the ISO9660 tiers and the raw BIN scan, on synthetic images of each supported layout. */
+public class SerialDetectionTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String resolve(String name, byte[] image) throws IOException {
+        File file = DiscImages.write(folder.getRoot(), name, image);
+        try (MainActivity.GameScanner.SectorSource source =
+                     MainActivity.GameScanner.openImageSectorSource(() -> ImageFile.open(file), name)) {
+            assertNotNull("no sector source for " + name, source);
+            return MainActivity.GameScanner.tryExtractIsoSerial(source);
+        }
+    }
+
+    private static byte[] iso() {
+        return DiscImages.iso(DiscImages.SYSTEM_CNF, 32);
+    }
+
+    @Test
+    public void cookedIso() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.iso", iso()));
+    }
+
+    @Test
+    public void rawMode1Bin() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.bin", DiscImages.rawBin(iso(), 1)));
+    }
+
+    @Test
+    public void rawMode2Bin() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.bin", DiscImages.rawBin(iso(), 2)));
+    }
+
+    @Test
+    public void cso() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.cso", DiscImages.cso(iso(), DiscImages.SECTOR)));
+    }
+
+    @Test
+    public void zso() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.zso", DiscImages.zso(iso(), DiscImages.SECTOR)));
+    }
+
+    @Test
+    public void csoWithLargerBlocks() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.cso", DiscImages.cso(iso(), 16 * 1024)));
+    }
+
+    @Test
+    public void csoExtensionOnPlainIsoFallsBackToFlatSectors() throws IOException {
+        assertEquals(DiscImages.SERIAL, resolve("game.cso", iso()));
+    }
+
+    @Test
+    public void bootLineCaseAndPathVariants() throws IOException {
+        byte[] image = DiscImages.iso("boot2=cdrom0:\\SCES_501.23;1\nVER = 1.00\n", 32);
+        assertEquals("SCES-50123", resolve("game.iso", image));
+    }
+
+    @Test
+    public void imageWithoutVolumeDescriptorHasNoSource() throws IOException {
+        File file = DiscImages.write(folder.getRoot(), "junk.iso", new byte[64 * 1024]);
+        assertNull(MainActivity.GameScanner.openImageSectorSource(() -> ImageFile.open(file), "junk.iso"));
+    }
+
+    @Test
+    public void systemCnfWithoutBootLineHasNoSerial() throws IOException {
+        assertNull(resolve("game.iso", DiscImages.iso("VER = 1.00\r\n", 32)));
+    }
+
+    // Bytes read per chunk by the raw BIN scan
+    private static final int BIN_CHUNK = 32 * 2352;
+
+    private String quick(byte[] image) throws IOException {
+        File file = DiscImages.write(folder.getRoot(), "quick.bin", image);
+        return MainActivity.GameScanner.tryExtractBinSerialQuick(ImageFile.open(file));
+    }
+
+    private static byte[] filler(int length, int textAt, String text) {
+        byte[] image = new byte[length];
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, image, textAt, bytes.length);
+        return image;
+    }
+
+    @Test
+    public void quickScanFindsBootLineWithoutVolumeDescriptor() throws IOException {
+        assertEquals(DiscImages.SERIAL, quick(filler(BIN_CHUNK * 3, BIN_CHUNK + 500, DiscImages.SYSTEM_CNF)));
+    }
+
+    @Test
+    public void quickScanFindsBootLineAcrossChunkBoundary() throws IOException {
+        for (int back = 1; back < 40; back += 3) {
+            assertEquals(DiscImages.SERIAL, quick(filler(BIN_CHUNK * 3, 2 * BIN_CHUNK - back, DiscImages.SYSTEM_CNF)));
+        }
+    }
+
+    @Test
+    public void quickScanPrefersBootLineOverEarlierSerialText() throws IOException {
+        byte[] image = filler(BIN_CHUNK * 2, 100, "SCES_500.01");
+        byte[] cnf = DiscImages.SYSTEM_CNF.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(cnf, 0, image, BIN_CHUNK + 7, cnf.length);
+        assertEquals(DiscImages.SERIAL, quick(image));
+    }
+
+    @Test
+    public void quickScanFallsBackToSerialTextAcrossChunkBoundary() throws IOException {
+        for (int back = 1; back <= 14; back++) {
+            assertEquals("back " + back, "SLPS-65432", quick(filler(BIN_CHUNK * 3, BIN_CHUNK - back, "xSLPS_654.32;1")));
+        }
+    }
+
+    @Test
+    public void quickScanMatchesTheSerialRegex() throws IOException {
+        String[] pieces = {"S", "s", "C", "L", "l", "E", "U", "P", "S", "-", "_", ".", "1", "2", "3", "9", "0", "x", " "};
+        Random random = new Random(9);
+        for (int n = 0; n < 400; n++) {
+            StringBuilder sb = new StringBuilder("S");
+            int length = 3 + random.nextInt(12);
+            for (int k = 0; k < length; k++) sb.append(pieces[random.nextInt(pieces.length)]);
+            String text = sb.toString();
+            assertEquals(text, MainActivity.GameScanner.parseSerialFromString(text), quick(filler(4096, 1000, text)));
+        }
+    }
+
+    @Test
+    public void quickScanWithoutSerialText() throws IOException {
+        assertNull(quick(filler(BIN_CHUNK + 10, 50, "BOOT2 = cdrom0:\\NOTHING;1 SC-12")));
+    }
+}
@@ -0,0 +1,211 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class AutoTunerTest {
+    private static final NativeSettings.Key PRELOAD = NativeSettings.TEXTURE_PRELOADING;
+    private static final NativeSettings.Key UPSCALE = NativeSettings.UPSCALE_MULTIPLIER;
+    private static final NativeSettings.Key SKIP = NativeSettings.EE_CYCLE_SKIP;
+
+    private static Map<NativeSettings.Key, String> config(String preload, String upscale, String skip) {
+        Map<NativeSettings.Key, String> values = new HashMap<>();
+        values.put(PRELOAD, preload);
+        values.put(UPSCALE, upscale);
+        values.put(SKIP, skip);
+        return values;
+    }
+
+    private static AutoTuner startAtDefaults() {
+        return AutoTuner.start(AutoTuner.DEFAULT_DIMENSIONS, config("0", "1", "0"), AutoTuner.DEFAULT_MAX_TRIALS);
+    }
+
+    /** Full speed up to 3x; 4x costs more than a frame. */
+    private static SimulatedDevice fastDevice() {
+        return new SimulatedDevice(6, 0.03)
+                .cost(UPSCALE, "2", 3)
+                .cost(UPSCALE, "3", 6)
+                .cost(UPSCALE, "4", 12);
+    }
+
+    /** Well short of full speed until texture preloading and EE cycle skipping help out. */
+    private static SimulatedDevice slowDevice() {
+        return new SimulatedDevice(20, 0.03)
+                .cost(PRELOAD, "0", 4)
+                .cost(PRELOAD, "1", 1)
+                .cost(UPSCALE, "2", 5)
+                .cost(SKIP, "3", -8)
+                .cost(SKIP, "2", -6)
+                .cost(SKIP, "1", -4);
+    }
+
+    private static AutoTuner.Result fullSpeed() {
+        return new AutoTuner.Result(1.0, 60, true);
+    }
+
+    @Test
+    public void raisesQualityWhileTheGameHoldsFullSpeed() {
+        AutoTuner tuner = startAtDefaults();
+        Map<NativeSettings.Key, String> best = fastDevice().tune(tuner, 1, null);
+        assertEquals(config("0", "3", "0"), best);
+        assertTrue(tuner.isFinished());
+        assertTrue(tuner.trialsRun() <= AutoTuner.DEFAULT_MAX_TRIALS);
+    }
+
+    @Test
+    public void tradesForSpeedWhenTheGameCantKeepUp() {
+        AutoTuner tuner = startAtDefaults();
+        Map<NativeSettings.Key, String> best = slowDevice().tune(tuner, 1, null);
+        assertEquals(config("2", "1", "1"), best);
+    }
+
+    @Test
+    public void convergesTheSameWayRegardlessOfJitter() {
+        for (long seed = 0; seed < 20; seed++) {
+            assertEquals(config("0", "3", "0"), fastDevice().tune(startAtDefaults(), seed, null));
+            assertEquals(config("2", "1", "1"), slowDevice().tune(startAtDefaults(), seed, null));
+        }
+    }
+
+    @Test
+    public void crashingTrialsAreNeverPickedOrRetried() {
+        SimulatedDevice device = fastDevice()
+                .crashesWith(PRELOAD, "1")
+                .crashesWith(UPSCALE, "3");
+        AutoTuner tuner = startAtDefaults();
+        List<Map<NativeSettings.Key, String>> trials = new ArrayList<>();
+        Map<NativeSettings.Key, String> best = device.tune(tuner, 1, trials);
+
+        assertFalse(device.crashes(best));
+        assertEquals(config("0", "2", "0"), best);
+        assertEquals(1, Collections.frequency(trials, config("1", "1", "0")));
+        assertEquals(1, Collections.frequency(trials, config("0", "3", "0")));
+        assertEquals(new HashSet<>(Arrays.asList("[1, 0, 3]", "[0, 2, 3]")), tuner.state().unstable);
+    }
+
+    @Test
+    public void restoredSearchSkipsKnownUnstableTrials() {
+        AutoTuner.State state = new AutoTuner.State();
+        state.best = new int[]{0, 0, 3};
+        state.bestScore = 1.03;
+        state.bestSpeed = 1.0;
+        state.trials = 1;
+        state.unstable.add("[1, 0, 3]");
+        AutoTuner tuner = AutoTuner.restore(AutoTuner.DEFAULT_DIMENSIONS, state);
+        assertNotNull(tuner);
+        assertEquals(config("2", "1", "0"), tuner.begin());
+    }
+
+    @Test
+    public void crashingBaselineEndsTheSearch() {
+        AutoTuner tuner = startAtDefaults();
+        assertNotNull(tuner.begin());
+        // The app died with the baseline running
+        assertNull(tuner.begin());
+        assertTrue(tuner.isFinished());
+        assertEquals(config("0", "1", "0"), tuner.best());
+    }
+
+    @Test
+    public void trialIsGivenUpAfterTooManyShortSessions() {
+        AutoTuner tuner = startAtDefaults();
+        tuner.begin();
+        tuner.report(fullSpeed());
+        Map<NativeSettings.Key, String> first = tuner.begin();
+
+        for (int i = 1; i < AutoTuner.MAX_INCOMPLETE; i++) {
+            tuner.abandon();
+            assertEquals(1, tuner.trialsRun());
+            assertEquals(first, tuner.begin());
+        }
+        tuner.abandon();
+        assertEquals(2, tuner.trialsRun());
+        assertNull(tuner.state().pending);
+        assertTrue(tuner.state().unstable.isEmpty());
+        assertEquals(config("0", "1", "0"), tuner.best());
+        assertNotEquals(first, tuner.begin());
+    }
+
+    @Test
+    public void suspendedTrialCountsAsShortNotAsCrash() {
+        AutoTuner tuner = startAtDefaults();
+        tuner.begin();
+        tuner.report(fullSpeed());
+        Map<NativeSettings.Key, String> first = tuner.begin();
+        tuner.suspend();
+        // The process died in the background; the trial is handed out again
+        assertEquals(first, tuner.begin());
+        assertEquals(1, tuner.state().incomplete);
+        assertTrue(tuner.state().unstable.isEmpty());
+    }
+
+    @Test
+    public void baselineThatNeverRunsLongEnoughEndsTheSearch() {
+        AutoTuner tuner = startAtDefaults();
+        for (int i = 0; i < AutoTuner.MAX_INCOMPLETE; i++) {
+            assertNotNull(tuner.begin());
+            tuner.abandon();
+        }
+        assertTrue(tuner.isFinished());
+        assertNull(tuner.begin());
+        assertEquals(0, tuner.trialsRun());
+    }
+
+    @Test
+    public void stateRoundTripsThroughJson() throws Exception {
+        AutoTuner tuner = startAtDefaults();
+        tuner.begin();
+        tuner.report(new AutoTuner.Result(0.8, 48, true));
+        tuner.begin();
+        tuner.report(AutoTuner.Result.UNSTABLE);
+        tuner.begin();
+        AutoTuner.State state = tuner.state();
+
+        String json = AutoTuneManager.toJson(state).toString();
+        AutoTuner.State copy = AutoTuneManager.fromJson(new JSONObject(json));
+
+        assertArrayEquals(state.best, copy.best);
+        assertEquals(state.bestScore, copy.bestScore, 0);
+        assertEquals(state.bestSpeed, copy.bestSpeed, 0);
+        assertEquals(state.dim, copy.dim);
+        assertEquals(state.direction, copy.direction);
+        assertEquals(state.scan, copy.scan);
+        assertEquals(state.trials, copy.trials);
+        assertEquals(state.maxTrials, copy.maxTrials);
+        assertEquals(state.incomplete, copy.incomplete);
+        assertEquals(state.finished, copy.finished);
+        assertArrayEquals(state.pending, copy.pending);
+        assertEquals(state.running, copy.running);
+        assertEquals(state.unstable, copy.unstable);
+
+        // The restored search carries on exactly like the original
+        AutoTuner restored = AutoTuner.restore(AutoTuner.DEFAULT_DIMENSIONS, copy);
+        assertNotNull(restored);
+        assertEquals(tuner.begin(), restored.begin());
+        assertEquals(tuner.state().unstable, restored.state().unstable);
+    }
+
+    @Test
+    public void unsetScoreSurvivesJson() throws Exception {
+        AutoTuner.State state = startAtDefaults().state();
+        AutoTuner.State copy = AutoTuneManager.fromJson(new JSONObject(AutoTuneManager.toJson(state).toString()));
+        assertTrue(Double.isNaN(copy.bestScore));
+        assertNull(copy.pending);
+    }
+}
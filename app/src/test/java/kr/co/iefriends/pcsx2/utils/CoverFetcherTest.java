@@ -0,0 +1,231 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the fetcher's queue against a local HTTP server that counts requests per path. Only
+ * {@code /covers/} paths exist; {@code /missing/} paths answer 404, like the first candidates of a
+ * template usually do.
+ */
+public class CoverFetcherTest {
+    private static final int THREADS = 4;
+    private static final long SERVE_DELAY_MS = 30;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String base;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    // Paths in the order the fetch threads started them
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(SERVE_DELAY_MS);
+            } catch (InterruptedException ignored) {
+            }
+            byte[] body = path.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(path.startsWith("/covers/") ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    /** Stand-in for the real download: first candidate answering 200, skipped when already cached. */
+    private final CoverFetcher.Transfer http = (context, dir, baseName, urls) -> {
+        File target = new File(dir, baseName + ".jpg");
+        if (target.isFile()) {
+            return target;
+        }
+        for (String url : urls) {
+            started.add(new URL(url).getPath());
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            int code = connection.getResponseCode();
+            try (InputStream in = code == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (code != 200) {
+                    continue;
+                }
+                try (OutputStream out = new FileOutputStream(target)) {
+                    byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+                }
+                return target;
+            }
+        }
+        return null;
+    };
+
+    private List<String> candidates(String name) {
+        return Arrays.asList(base + "/missing/" + name + ".png", base + "/covers/" + name + ".jpg");
+    }
+
+    @Test
+    public void concurrentRequestsFetchEachUrlOnce() throws Exception {
+        File dir = folder.newFolder("covers");
+        final int names = 40;
+        final int cellsPerName = 3;
+        final int total = names * (cellsPerName + 1);
+        CountDownLatch done = new CountDownLatch(total);
+        Map<String, List<File>> results = new ConcurrentHashMap<>();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round <= cellsPerName; round++) {
+                final int priority = round == 0 ? CoverFetcher.PRIORITY_PREFETCH : CoverFetcher.PRIORITY_VISIBLE;
+                for (int n = 0; n < names; n++) {
+                    final String name = "SLUS-" + (20000 + n);
+                    callers.execute(() -> CoverFetcher.request(null, dir, name, candidates(name), priority, file -> {
+                        results.computeIfAbsent(name, k -> Collections.synchronizedList(new ArrayList<>())).add(file);
+                        done.countDown();
+                    }, http));
+                }
+            }
+            assertTrue("listeners not called", done.await(30, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+        for (int n = 0; n < names; n++) {
+            String name = "SLUS-" + (20000 + n);
+            assertEquals(1, hits.get("/missing/" + name + ".png").get());
+            assertEquals(1, hits.get("/covers/" + name + ".jpg").get());
+            List<File> files = results.get(name);
+            assertEquals(cellsPerName + 1, files.size());
+            for (File file : files) {
+                assertNotNull(file);
+                assertEquals(new File(dir, name + ".jpg"), file);
+            }
+        }
+        for (Map.Entry<String, AtomicInteger> e : hits.entrySet()) {
+            assertEquals(e.getKey(), 1, e.getValue().get());
+        }
+    }
+
+    /** Occupies every fetch thread until the returned latches are released. */
+    private List<CountDownLatch> blockFetchThreads(File dir) throws InterruptedException {
+        List<CountDownLatch> gates = new ArrayList<>();
+        CountDownLatch running = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            final CountDownLatch gate = new CountDownLatch(1);
+            gates.add(gate);
+            CoverFetcher.request(null, dir, "blocker" + i, Collections.emptyList(), CoverFetcher.PRIORITY_VISIBLE, file -> { },
+                    (context, d, baseName, urls) -> {
+                        running.countDown();
+                        try {
+                            gate.await();
+                        } catch (InterruptedException ignored) {
+                        }
+                        return null;
+                    });
+        }
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        return gates;
+    }
+
+    @Test
+    public void recycledCellDropsItsQueuedDownload() throws Exception {
+        File dir = folder.newFolder("covers");
+        List<CountDownLatch> gates = blockFetchThreads(dir);
+        AtomicInteger recycledCalls = new AtomicInteger();
+        CountDownLatch keptDone = new CountDownLatch(1);
+        File[] kept = new File[1];
+        try {
+            CoverFetcher.Request recycled = CoverFetcher.request(null, dir, "SCES-50001", candidates("SCES-50001"),
+                    CoverFetcher.PRIORITY_VISIBLE, file -> recycledCalls.incrementAndGet(), http);
+            CoverFetcher.request(null, dir, "SCES-50002", candidates("SCES-50002"),
+                    CoverFetcher.PRIORITY_VISIBLE, file -> {
+                        kept[0] = file;
+                        keptDone.countDown();
+                    }, http);
+            recycled.cancel();
+            // Cancelling twice is harmless
+            recycled.cancel();
+        } finally {
+            for (CountDownLatch gate : gates) gate.countDown();
+        }
+        assertTrue(keptDone.await(10, TimeUnit.SECONDS));
+        assertEquals(new File(dir, "SCES-50002.jpg"), kept[0]);
+        Thread.sleep(200);
+        assertEquals(0, recycledCalls.get());
+        assertNull(hits.get("/covers/SCES-50001.jpg"));
+        assertFalse(new File(dir, "SCES-50001.jpg").exists());
+    }
+
+    @Test
+    public void recycledCellLetsPrefetchOfTheSameCoverWaitItsTurn() throws Exception {
+        File dir = folder.newFolder("covers");
+        List<CountDownLatch> gates = blockFetchThreads(dir);
+        CountDownLatch done = new CountDownLatch(2);
+        File[] prefetched = new File[1];
+        try {
+            CoverFetcher.request(null, dir, "SLES-00001", candidates("SLES-00001"),
+                    CoverFetcher.PRIORITY_PREFETCH, file -> done.countDown(), http);
+            CoverFetcher.Request cell = CoverFetcher.request(null, dir, "SLES-00002", candidates("SLES-00002"),
+                    CoverFetcher.PRIORITY_VISIBLE, file -> { }, http);
+            CoverFetcher.request(null, dir, "SLES-00002", candidates("SLES-00002"),
+                    CoverFetcher.PRIORITY_PREFETCH, file -> {
+                        prefetched[0] = file;
+                        done.countDown();
+                    }, http);
+            cell.cancel();
+            // One thread left: queued jobs now run strictly in queue order
+            gates.get(0).countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            for (CountDownLatch gate : gates) gate.countDown();
+        }
+        // Without the cell, SLES-00002 is plain prefetch work again and keeps its place behind SLES-00001
+        assertEquals(Arrays.asList("/missing/SLES-00001.png", "/covers/SLES-00001.jpg",
+                "/missing/SLES-00002.png", "/covers/SLES-00002.jpg"), new ArrayList<>(started));
+        assertEquals(new File(dir, "SLES-00002.jpg"), prefetched[0]);
+    }
+}
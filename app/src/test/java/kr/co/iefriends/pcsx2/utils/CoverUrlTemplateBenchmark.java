@@ -0,0 +1,160 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Candidate URL generation for a 1,000-entry library: the per-call String.replace and regex code the
+ * compiled template replaced, the compiled template with an empty memo, and the memoized lookups a
+ * rebind or a repeated prefetch pass hits.
+ */
+public class CoverUrlTemplateBenchmark {
+    private static final int ENTRIES = 1000;
+    private static final int ROUNDS = 15;
+    private static final String TEMPLATE =
+            "https://covers.example.org/${serial}.jpg?title=${title}&file=${filetitle}";
+
+    private static final String[] TITLES = {
+            "Gran Turismo 4", "Shadow of the Colossus", "Final Fantasy X-2", "Ratchet & Clank: Up Your Arsenal",
+            "Metal Gear Solid 3 - Snake Eater", "Ōkami", "Kingdom Hearts II", "Jak_and_Daxter",
+    };
+
+    private static final class Entry {
+        final String fileBase;
+        final String serial;
+        final String gameTitle;
+
+        Entry(String fileBase, String serial, String gameTitle) {
+            this.fileBase = fileBase;
+            this.serial = serial;
+            this.gameTitle = gameTitle;
+        }
+    }
+
+    private static List<Entry> library() {
+        List<Entry> entries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            String title = TITLES[i % TITLES.length] + (i >= TITLES.length ? " " + i : "");
+            switch (i % 4) {
+                case 0: entries.add(new Entry(String.format(Locale.US, "slus_%05d", 20000 + i), null, null)); break;
+                case 1: entries.add(new Entry(title, String.format(Locale.US, "SLES-%05d", 50000 + i), title)); break;
+                case 2: entries.add(new Entry(title.replace(' ', '_'), null, title)); break;
+                default: entries.add(new Entry(title + " (USA)", String.format(Locale.US, "SCUS-%05d", 97000 + i), null)); break;
+            }
+        }
+        return entries;
+    }
+
+    // The implementation before CoverUrlTemplate, kept as the baseline and as the reference output
+
+    private static List<String> legacyCandidates(Entry entry, String template) {
+        String fileBase = entry.fileBase;
+        String hyphenized = legacyHyphenize(fileBase);
+        List<String> variants = legacyTitleVariants(fileBase);
+        LinkedHashSet<String> urls = new LinkedHashSet<>();
+        if (template.contains("${filetitle}")) {
+            for (String v : variants) {
+                urls.add(template.replace("${filetitle}", legacyUrlPart(v)).replace("${serial}", "").replace("${title}", ""));
+            }
+        }
+        if (template.contains("${serial}")) {
+            if (entry.serial != null && !entry.serial.isEmpty()) {
+                urls.add(template.replace("${serial}", legacyUrlPart(entry.serial)).replace("${filetitle}", "").replace("${title}", ""));
+            }
+            if (!hyphenized.isEmpty() && !hyphenized.equals(fileBase)) {
+                urls.add(template.replace("${serial}", legacyUrlPart(hyphenized)).replace("${filetitle}", "").replace("${title}", ""));
+            }
+            for (String v : variants) {
+                urls.add(template.replace("${serial}", legacyUrlPart(v)).replace("${filetitle}", "").replace("${title}", ""));
+            }
+        }
+        if (template.contains("${title}")) {
+            boolean hasGameTitle = entry.gameTitle != null && !entry.gameTitle.isEmpty();
+            String resolvedTitle = hasGameTitle ? entry.gameTitle : fileBase;
+            LinkedHashSet<String> titleVariants = new LinkedHashSet<>(legacyTitleVariants(resolvedTitle));
+            if (hasGameTitle && fileBase != null && !fileBase.isEmpty() && !entry.gameTitle.equals(fileBase)) {
+                titleVariants.addAll(legacyTitleVariants(fileBase));
+            }
+            for (String v : titleVariants) {
+                urls.add(template.replace("${title}", legacyUrlPart(v)).replace("${serial}", "").replace("${filetitle}", ""));
+            }
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private static String legacyUrlPart(String s) {
+        try {
+            return URLEncoder.encode(s, "UTF-8");
+        } catch (Exception e) {
+            return s;
+        }
+    }
+
+    private static String legacyHyphenize(String s) {
+        java.util.regex.Matcher m = java.util.regex.Pattern.compile("^([A-Za-z]+)[-_]?([0-9]{3,})$").matcher(s);
+        return m.find() ? m.group(1).toUpperCase(Locale.US) + "-" + m.group(2) : s;
+    }
+
+    private static List<String> legacyTitleVariants(String base) {
+        LinkedHashSet<String> set = new LinkedHashSet<>();
+        if (base == null) base = "";
+        String b0 = base.trim();
+        if (!b0.isEmpty()) set.add(b0);
+        String b1 = b0.replace('_', ' ').trim();
+        if (!b1.isEmpty()) set.add(b1);
+        String b2 = b1.replace(":", " - ").replaceAll("\\s+", " ").trim();
+        if (!b2.isEmpty()) set.add(b2);
+        String b3 = b1.replaceAll("(?i)(?<=\\w) \\–|\\u2014| - (?=\\w)", ": ");
+        b3 = b3.replace(" - ", ": ").replaceAll("\\s+", " ").trim();
+        if (!b3.isEmpty()) set.add(b3);
+        return new ArrayList<>(set);
+    }
+
+    @Test
+    public void candidatesMatchTheReferenceImplementation() {
+        String[] templates = {TEMPLATE, "https://x.example/${serial}.png", "https://x.example/${title}/${filetitle}", "https://x.example/static.png"};
+        for (String template : templates) {
+            CoverUrlTemplate compiled = CoverUrlTemplate.get(template);
+            for (Entry entry : library()) {
+                assertEquals(legacyCandidates(entry, template), compiled.candidates(entry.fileBase, entry.serial, entry.gameTitle));
+            }
+        }
+    }
+
+    @Test
+    public void candidateGenerationFor1000Entries() {
+        List<Entry> entries = library();
+        long sink = 0;
+        long bestLegacy = Long.MAX_VALUE;
+        long bestCold = Long.MAX_VALUE;
+        long bestMemoized = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Entry entry : entries) sink += legacyCandidates(entry, TEMPLATE).size();
+            bestLegacy = Math.min(bestLegacy, System.nanoTime() - start);
+
+            // A template not seen before, so nothing is memoized yet
+            CoverUrlTemplate compiled = CoverUrlTemplate.get(TEMPLATE + "&r=" + round);
+            start = System.nanoTime();
+            for (Entry entry : entries) sink += compiled.candidates(entry.fileBase, entry.serial, entry.gameTitle).size();
+            bestCold = Math.min(bestCold, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (Entry entry : entries) sink += compiled.candidates(entry.fileBase, entry.serial, entry.gameTitle).size();
+            bestMemoized = Math.min(bestMemoized, System.nanoTime() - start);
+        }
+        System.out.printf(Locale.US, "Cover candidates for %d entries: replace/regex %.2f ms, compiled %.2f ms (%.1fx), memoized %.3f ms (%.0fx) [%d urls]%n",
+                ENTRIES, bestLegacy / 1e6, bestCold / 1e6, (double) bestLegacy / bestCold,
+                bestMemoized / 1e6, (double) bestLegacy / bestMemoized, sink / (3L * ROUNDS));
+        assertTrue("compiled template slower than replace/regex", bestCold < bestLegacy);
+        assertTrue("memoized lookups not at least 5x faster", bestMemoized * 5 < bestLegacy);
+    }
+}
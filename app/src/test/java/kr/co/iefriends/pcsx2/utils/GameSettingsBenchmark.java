@@ -0,0 +1,123 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * IGS.json with 5,000 game profiles: a lookup that re-reads and re-parses the file (as getSettings
+ * did) against one served from the in-memory index, and a pretty-printed in-place rewrite per save
+ * against the compact, synced, atomic write that now runs once per debounce window.
+ */
+public class GameSettingsBenchmark {
+    private static final int PROFILES = 5000;
+    private static final NativeSettings.Key UNLISTED = new NativeSettings.Key("EmuCore/GS", "TriFilter", NativeSettings.TYPE_INT);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String gameKey(int i) {
+        return String.format(Locale.US, "content://com.android.externalstorage.documents/tree/primary%%3AGames/document/primary%%3AGames%%2FGame%%20%05d.iso", i);
+    }
+
+    private static Map<String, GameSpecificSettingsManager.GameSettings> profiles() {
+        Map<String, GameSpecificSettingsManager.GameSettings> games = new HashMap<>();
+        for (int i = 0; i < PROFILES; i++) {
+            GameSpecificSettingsManager.GameSettings settings = new GameSpecificSettingsManager.GameSettings();
+            settings.putBool(NativeSettings.WIDESCREEN_PATCHES, i % 2 == 0);
+            settings.putInt(NativeSettings.RENDERER, i % 4);
+            settings.put(NativeSettings.UPSCALE_MULTIPLIER, Float.toString(1 + i % 3));
+            settings.putInt(NativeSettings.EE_CYCLE_RATE, i % 3 - 1);
+            if (i % 5 == 0) settings.putInt(UNLISTED, 1);
+            games.put(gameKey(i), settings);
+        }
+        return games;
+    }
+
+    /** The save getSettings' predecessor did on every change: the whole file, pretty-printed, in place. */
+    private static void legacyWrite(File file, Map<String, GameSpecificSettingsManager.GameSettings> games) throws Exception {
+        JSONObject gamesObj = new JSONObject();
+        for (Map.Entry<String, GameSpecificSettingsManager.GameSettings> e : games.entrySet()) {
+            gamesObj.put(e.getKey(), e.getValue().toJson());
+        }
+        JSONObject root = new JSONObject();
+        root.put("version", 1);
+        root.put("games", gamesObj);
+        try (OutputStream out = new FileOutputStream(file, false)) {
+            out.write(root.toString(2).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void roundTripsEveryProfile() throws IOException {
+        File file = new File(folder.getRoot(), "IGS.json");
+        Map<String, GameSpecificSettingsManager.GameSettings> games = profiles();
+        GameSpecificSettingsManager.writeIndex(file, games);
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        Map<String, GameSpecificSettingsManager.GameSettings> read = GameSpecificSettingsManager.readIndex(file);
+        assertEquals(PROFILES, read.size());
+        for (Map.Entry<String, GameSpecificSettingsManager.GameSettings> e : games.entrySet()) {
+            assertEquals(e.getKey(), e.getValue().overrides(), read.get(e.getKey()).overrides());
+        }
+    }
+
+    @Test
+    public void lookupsAndSavesWith5000Profiles() throws Exception {
+        File compact = new File(folder.getRoot(), "IGS.json");
+        File pretty = new File(folder.getRoot(), "IGS-pretty.json");
+        Map<String, GameSpecificSettingsManager.GameSettings> games = profiles();
+        GameSpecificSettingsManager.writeIndex(compact, games);
+        legacyWrite(pretty, games);
+
+        final int fileLookups = 20;
+        final int saves = 20;
+        long bestParse = Long.MAX_VALUE;
+        long bestIndexed = Long.MAX_VALUE;
+        long bestLegacySave = Long.MAX_VALUE;
+        long bestAtomicSave = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < fileLookups; i++) {
+                assertNotNull(GameSpecificSettingsManager.readIndex(pretty).get(gameKey(i * 97)));
+            }
+            bestParse = Math.min(bestParse, (System.nanoTime() - start) / fileLookups);
+
+            Map<String, GameSpecificSettingsManager.GameSettings> index = GameSpecificSettingsManager.readIndex(compact);
+            start = System.nanoTime();
+            for (int i = 0; i < PROFILES; i++) {
+                // getSettings hands out a copy of the indexed profile
+                assertNotNull(index.get(gameKey(i)).copy());
+            }
+            bestIndexed = Math.min(bestIndexed, (System.nanoTime() - start) / PROFILES);
+
+            start = System.nanoTime();
+            for (int i = 0; i < saves; i++) legacyWrite(pretty, games);
+            bestLegacySave = Math.min(bestLegacySave, (System.nanoTime() - start) / saves);
+
+            start = System.nanoTime();
+            for (int i = 0; i < saves; i++) GameSpecificSettingsManager.writeIndex(compact, games);
+            bestAtomicSave = Math.min(bestAtomicSave, (System.nanoTime() - start) / saves);
+        }
+        System.out.printf(Locale.US, "%d profiles: lookup by re-parsing %.1f ms, from the index %.2f us (%.0fx); "
+                        + "file %d KB pretty vs %d KB compact; save %.1f ms in place vs %.1f ms atomic+fsync, once per debounce window%n",
+                PROFILES, bestParse / 1e6, bestIndexed / 1e3, (double) bestParse / bestIndexed,
+                pretty.length() / 1024, compact.length() / 1024, bestLegacySave / 1e6, bestAtomicSave / 1e6);
+        assertTrue("index lookups not at least 100x faster than re-parsing", bestIndexed * 100 < bestParse);
+        assertTrue("compact file not smaller than pretty-printed", compact.length() < pretty.length());
+    }
+}
@@ -0,0 +1,112 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MB/s of {@link HashPipeline#md5} against the loop it replaced (one thread reading a 1 MiB heap
+ * buffer and digesting it in turn), over storage that takes a fixed time per MiB like a real disk.
+ */
+public class HashPipelineBenchmark {
+    private static final int MIB = 1024 * 1024;
+    private static final int SIZE = 64 * MIB;
+    private static final long READ_NANOS_PER_MIB = TimeUnit.MICROSECONDS.toNanos(2000); // ~500 MB/s
+    private static final int ROUNDS = 3;
+
+    /** Serves {@code data}, sleeping as long as a device reading at the simulated speed would. */
+    private static final class ThrottledChannel implements ReadableByteChannel {
+        private final byte[] data;
+        private int position;
+        private long owedNanos;
+        private boolean open = true;
+
+        ThrottledChannel(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (position >= data.length) {
+                return -1;
+            }
+            int n = Math.min(dst.remaining(), data.length - position);
+            dst.put(data, position, n);
+            position += n;
+            owedNanos += READ_NANOS_PER_MIB * n / MIB;
+            if (owedNanos >= 1_000_000L) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(owedNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                owedNanos = 0;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /** The loop RedumpDB.lookupByFile used before the pipeline. */
+    private static String sequentialMd5(ReadableByteChannel channel) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        ByteBuffer buffer = ByteBuffer.allocate(MIB);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        channel.close();
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    private static double megabytesPerSecond(long nanos) {
+        return (SIZE / (double) MIB) / (nanos / 1e9);
+    }
+
+    @Test
+    public void pipelineOverlapsReadsWithHashing() throws Exception {
+        byte[] data = HashPipelineTest.randomBytes(SIZE, 7);
+        String expected = HashPipelineTest.md5Of(data);
+        // Warm-up, so neither side pays for JIT compilation in the measured rounds
+        sequentialMd5(new ThrottledChannel(data));
+        HashPipeline.md5(new ThrottledChannel(data), SIZE, null);
+
+        long bestSequential = Long.MAX_VALUE;
+        long bestPipelined = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            assertEquals(expected, sequentialMd5(new ThrottledChannel(data)));
+            bestSequential = Math.min(bestSequential, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            assertEquals(expected, HashPipeline.md5(new ThrottledChannel(data), SIZE, null).md5);
+            bestPipelined = Math.min(bestPipelined, System.nanoTime() - start);
+        }
+        double sequential = megabytesPerSecond(bestSequential);
+        double pipelined = megabytesPerSecond(bestPipelined);
+        System.out.printf(Locale.US, "MD5 of %d MiB from ~%d MB/s storage: sequential loop %.0f MB/s, pipeline %.0f MB/s (%.2fx)%n",
+                SIZE / MIB, Math.round(1e9 / READ_NANOS_PER_MIB), sequential, pipelined, pipelined / sequential);
+        assertTrue("pipeline " + pipelined + " MB/s, sequential " + sequential + " MB/s", pipelined >= sequential * 1.2);
+    }
+}
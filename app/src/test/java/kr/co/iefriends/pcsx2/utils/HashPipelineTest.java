@@ -0,0 +1,101 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Random;
+
+public class HashPipelineTest {
+    static byte[] randomBytes(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    static String md5Of(byte[] data) throws Exception {
+        return String.format("%032x", new BigInteger(1, MessageDigest.getInstance("MD5").digest(data)));
+    }
+
+    /** Serves {@code data}, then throws {@code failure} once {@code failAt} bytes have been read. */
+    private static ReadableByteChannel failingChannel(byte[] data, int failAt, RuntimeException failure) {
+        return new ReadableByteChannel() {
+            private int position;
+            private boolean open = true;
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (position >= failAt) {
+                    throw failure;
+                }
+                int n = Math.min(dst.remaining(), Math.min(failAt, data.length) - position);
+                dst.put(data, position, n);
+                position += n;
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+            }
+        };
+    }
+
+    @Test
+    public void hashesWholeStreamsAcrossBuffers() throws Exception {
+        // Not a multiple of the 1 MiB buffers, so the last one is partial
+        byte[] data = randomBytes(3 * 1024 * 1024 + 12345, 1);
+        HashPipeline.Result result = HashPipeline.md5(Channels.newChannel(new ByteArrayInputStream(data)), data.length, null);
+        assertEquals(md5Of(data), result.md5);
+        assertEquals(data.length, result.length);
+    }
+
+    @Test
+    public void hashesEmptyStreams() throws Exception {
+        HashPipeline.Result result = HashPipeline.md5(Channels.newChannel(new ByteArrayInputStream(new byte[0])), 0, null);
+        assertEquals(md5Of(new byte[0]), result.md5);
+    }
+
+    @Test
+    public void unknownLengthIsNotChecked() throws Exception {
+        byte[] data = randomBytes(4096, 2);
+        assertEquals(md5Of(data), HashPipeline.md5(Channels.newChannel(new ByteArrayInputStream(data)), -1, null).md5);
+    }
+
+    @Test
+    public void runtimeFailureWhileReadingIsAnError() {
+        byte[] data = randomBytes(3 * 1024 * 1024, 3);
+        SecurityException revoked = new SecurityException("descriptor revoked");
+        try {
+            HashPipeline.md5(failingChannel(data, 1024 * 1024 + 7, revoked), -1, null);
+            fail("hash of a truncated stream returned");
+        } catch (IOException e) {
+            assertEquals(revoked, e.getCause());
+        }
+    }
+
+    @Test
+    public void shortStreamIsAnError() {
+        byte[] data = randomBytes(2 * 1024 * 1024, 4);
+        try {
+            HashPipeline.md5(Channels.newChannel(new ByteArrayInputStream(data, 0, data.length - 1)), data.length, null);
+            fail("hash of a truncated stream returned");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(Integer.toString(data.length - 1)));
+        }
+    }
+}
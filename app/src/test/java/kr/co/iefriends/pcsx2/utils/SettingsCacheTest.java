@@ -0,0 +1,193 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SettingsCacheTest {
+    private static final NativeSettings.Key A = new NativeSettings.Key("Test", "A", NativeSettings.TYPE_INT);
+    private static final NativeSettings.Key B = new NativeSettings.Key("Test", "B", NativeSettings.TYPE_INT);
+
+    /** Backend kept in memory that records every call made to it. */
+    private static final class MemoryBackend implements SettingsCache.Backend {
+        final Map<NativeSettings.Key, String> values = new HashMap<>();
+        final List<NativeSettings.Key> reads = new ArrayList<>();
+        final List<NativeSettings.Key[]> writtenKeys = new ArrayList<>();
+        final List<String[]> writtenValues = new ArrayList<>();
+        volatile CountDownLatch written = new CountDownLatch(1);
+
+        @Override
+        public synchronized String[] read(NativeSettings.Key[] keys) {
+            String[] out = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                reads.add(keys[i]);
+                out[i] = values.get(keys[i]);
+            }
+            return out;
+        }
+
+        @Override
+        public synchronized boolean write(NativeSettings.Key[] keys, String[] values) {
+            writtenKeys.add(keys.clone());
+            writtenValues.add(values.clone());
+            for (int i = 0; i < keys.length; i++) {
+                this.values.put(keys[i], values[i]);
+            }
+            written.countDown();
+            return true;
+        }
+    }
+
+    private static final class Change {
+        final NativeSettings.Key key;
+        final String value;
+
+        Change(NativeSettings.Key key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private MemoryBackend backend;
+    private final Queue<Runnable> dispatched = new ArrayDeque<>();
+
+    @Before
+    public void setUp() {
+        backend = new MemoryBackend();
+        SettingsCache.setBackend(backend);
+        SettingsCache.setDispatcher(dispatched::add);
+    }
+
+    @After
+    public void tearDown() {
+        SettingsCache.setDispatcher(null);
+        SettingsCache.setBackend(null);
+    }
+
+    private void runDispatched() {
+        Runnable r;
+        while ((r = dispatched.poll()) != null) r.run();
+    }
+
+    @Test
+    public void readsGoToTheBackendOnce() {
+        backend.values.put(A, "7");
+        assertEquals(7, SettingsCache.getInt(A, -1));
+        assertEquals("7", SettingsCache.get(A));
+        assertEquals(Arrays.asList(A), backend.reads);
+    }
+
+    @Test
+    public void preloadReadsOnlyMissingKeysInOneBatch() {
+        backend.values.put(A, "1");
+        backend.values.put(B, "2");
+        SettingsCache.get(A);
+        backend.reads.clear();
+        SettingsCache.preload(A, B, B);
+        assertEquals(Arrays.asList(B), backend.reads);
+        assertEquals("2", SettingsCache.get(B));
+    }
+
+    @Test
+    public void queuedWritesAreCoalescedInLastWriteOrder() throws InterruptedException {
+        SettingsCache.setInt(A, 1);
+        SettingsCache.setInt(B, 2);
+        SettingsCache.setInt(A, 3);
+        assertEquals("3", SettingsCache.get(A));
+        assertTrue(backend.reads.isEmpty());
+
+        assertTrue(backend.written.await(5, TimeUnit.SECONDS));
+        synchronized (backend) {
+            assertEquals(1, backend.writtenKeys.size());
+            assertArrayEquals(new NativeSettings.Key[]{B, A}, backend.writtenKeys.get(0));
+            assertArrayEquals(new String[]{"2", "3"}, backend.writtenValues.get(0));
+        }
+    }
+
+    @Test
+    public void flushWritesNothingWhenNothingIsQueued() {
+        SettingsCache.flush();
+        assertTrue(backend.writtenKeys.isEmpty());
+    }
+
+    @Test
+    public void commitRunsAfterQueuedWrites() {
+        SettingsCache.setInt(A, 1);
+        assertTrue(SettingsCache.commit(new NativeSettings.Key[]{A, B}, new String[]{"5", "6"}));
+
+        assertEquals(2, backend.writtenKeys.size());
+        assertArrayEquals(new NativeSettings.Key[]{A}, backend.writtenKeys.get(0));
+        assertArrayEquals(new String[]{"1"}, backend.writtenValues.get(0));
+        assertArrayEquals(new NativeSettings.Key[]{A, B}, backend.writtenKeys.get(1));
+        assertEquals("5", SettingsCache.get(A));
+        assertEquals("6", SettingsCache.get(B));
+        assertTrue(backend.reads.isEmpty());
+
+        // The queue was drained by the commit
+        SettingsCache.flush();
+        assertEquals(2, backend.writtenKeys.size());
+    }
+
+    @Test
+    public void invalidateKeepsPendingWrites() {
+        backend.values.put(A, "1");
+        backend.values.put(B, "2");
+        SettingsCache.preload(A, B);
+        SettingsCache.setInt(A, 10);
+        backend.values.put(B, "20");
+        backend.reads.clear();
+
+        SettingsCache.invalidate();
+        assertEquals("10", SettingsCache.get(A));
+        assertEquals("20", SettingsCache.get(B));
+        assertEquals(Arrays.asList(B), backend.reads);
+
+        SettingsCache.flush();
+        assertEquals("10", backend.values.get(A));
+    }
+
+    @Test
+    public void listenersHearChangesThroughTheDispatcher() {
+        List<Change> changes = new ArrayList<>();
+        SettingsCache.Listener listener = (key, value) -> changes.add(new Change(key, value));
+        SettingsCache.addListener(A, listener);
+        try {
+            SettingsCache.setInt(A, 1);
+            SettingsCache.setInt(B, 2);
+            assertTrue(changes.isEmpty());
+            runDispatched();
+            assertEquals(1, changes.size());
+            assertEquals(A, changes.get(0).key);
+            assertEquals("1", changes.get(0).value);
+
+            // Unchanged values aren't reported; values native already holds are
+            SettingsCache.flush();
+            SettingsCache.setInt(A, 1);
+            SettingsCache.noteNativeValue(A, "4");
+            SettingsCache.commit(new NativeSettings.Key[]{A}, new String[]{"5"});
+            runDispatched();
+            assertEquals(3, changes.size());
+            assertEquals("4", changes.get(1).value);
+            assertEquals("5", changes.get(2).value);
+        } finally {
+            SettingsCache.removeListener(A, listener);
+        }
+        SettingsCache.setInt(A, 9);
+        runDispatched();
+        assertEquals(3, changes.size());
+    }
+}
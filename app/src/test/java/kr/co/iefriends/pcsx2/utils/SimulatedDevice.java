@@ -0,0 +1,97 @@
+package kr.co.iefriends.pcsx2.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Stand-in for a device: frame time is a base cost plus a cost per setting value, speed is what
+ * that frame time allows (capped at full speed by the frame limiter) with some jitter, and
+ * chosen values can be made to crash.
+ */
+final class SimulatedDevice {
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60.0;
+
+    private final double baseFrameMs;
+    private final double jitter;
+    private final Map<NativeSettings.Key, Map<String, Double>> costs = new HashMap<>();
+    private final Map<NativeSettings.Key, Set<String>> crashes = new HashMap<>();
+
+    /** {@code jitter} is the relative spread of each frame time sample, e.g. 0.03. */
+    SimulatedDevice(double baseFrameMs, double jitter) {
+        this.baseFrameMs = baseFrameMs;
+        this.jitter = jitter;
+    }
+
+    /** Running with {@code key} at {@code value} adds {@code frameMs} to every frame. */
+    SimulatedDevice cost(NativeSettings.Key key, String value, double frameMs) {
+        Map<String, Double> byValue = costs.get(key);
+        if (byValue == null) {
+            byValue = new HashMap<>();
+            costs.put(key, byValue);
+        }
+        byValue.put(value, frameMs);
+        return this;
+    }
+
+    SimulatedDevice crashesWith(NativeSettings.Key key, String value) {
+        Set<String> values = crashes.get(key);
+        if (values == null) {
+            values = new HashSet<>();
+            crashes.put(key, values);
+        }
+        values.add(value);
+        return this;
+    }
+
+    boolean crashes(Map<NativeSettings.Key, String> config) {
+        for (Map.Entry<NativeSettings.Key, String> e : config.entrySet()) {
+            Set<String> values = crashes.get(e.getKey());
+            if (values != null && values.contains(e.getValue())) return true;
+        }
+        return false;
+    }
+
+    double frameMs(Map<NativeSettings.Key, String> config) {
+        double ms = baseFrameMs;
+        for (Map.Entry<NativeSettings.Key, String> e : config.entrySet()) {
+            Map<String, Double> byValue = costs.get(e.getKey());
+            Double cost = byValue != null ? byValue.get(e.getValue()) : null;
+            if (cost != null) ms += cost;
+        }
+        return ms;
+    }
+
+    /** One sampled session of {@link AutoTuner.Session#MAX_SAMPLES} samples past the warm-up. */
+    AutoTuner.Session play(Map<NativeSettings.Key, String> config, Random random) {
+        AutoTuner.Session session = new AutoTuner.Session();
+        double frameMs = frameMs(config);
+        for (int i = 0; i < AutoTuner.Session.WARMUP_SAMPLES + AutoTuner.Session.MAX_SAMPLES; i++) {
+            double sample = frameMs * (1.0 + jitter * random.nextGaussian());
+            double speed = Math.min(1.0, FRAME_BUDGET_MS / Math.max(0.1, sample));
+            session.add((float) (speed * 100.0), (float) (speed * 60.0));
+        }
+        return session;
+    }
+
+    /**
+     * Runs {@code tuner} to the end on this device, one simulated boot per trial; crashing trials
+     * are left unreported, as when the app dies. Every trial handed out is added to {@code trials}
+     * if it isn't null. Returns the configuration the search settles on.
+     */
+    Map<NativeSettings.Key, String> tune(AutoTuner tuner, long seed, List<Map<NativeSettings.Key, String>> trials) {
+        Random random = new Random(seed);
+        Map<NativeSettings.Key, String> trial;
+        while ((trial = tuner.begin()) != null) {
+            if (trials != null) trials.add(trial);
+            if (crashes(trial)) {
+                continue;
+            }
+            tuner.report(play(trial, random).result());
+        }
+        return tuner.best();
+    }
+}